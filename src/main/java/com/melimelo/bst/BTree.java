@@ -0,0 +1,490 @@
+package com.melimelo.bst;
+
+import java.util.Arrays;
+
+/**
+ * B-tree: an ordered collection with the same operations as
+ * {@link BinarySearchTree}, where every node holds up to 2t - 1 sorted values
+ * in an array and up to 2t children, t being the minimum degree. Every node
+ * but the root holds at least t - 1 values, and all the leaves are at the
+ * same depth, so the height is about log(n)/log(t).
+ *
+ * A lookup reads a few contiguous arrays, one per level, and binary searches
+ * each of them, instead of following one pointer per value compared in a
+ * binary tree. With the default degree a tree of a million values is four
+ * levels deep where a balanced binary tree is about twenty.
+ *
+ * Insertions split the full nodes and deletions refill the nodes with t - 1
+ * values on the way down, so both are done in a single pass from the root.
+ * Does not allow duplicate nor null values.
+ */
+public final class BTree<T extends Comparable<T>> {
+
+    public static final int DEFAULT_MIN_DEGREE = 16;
+
+    /**
+     * A node of the tree.
+     */
+    private static final class Node<T> {
+        private final Object[] m_values;
+        // null for a leaf, a node never changes from leaf to internal node.
+        private final Node<T>[] m_children;
+        private int m_count;
+
+        @SuppressWarnings("unchecked")
+        Node(final int maxValues, final boolean leaf) {
+            m_values = new Object[maxValues];
+            m_children = leaf ? null : (Node<T>[]) new Node[maxValues + 1];
+        }
+
+        @SuppressWarnings("unchecked")
+        T value(final int index) {
+            return (T) m_values[index];
+        }
+
+        boolean isLeaf() {
+            return m_children == null;
+        }
+
+        /**
+         * @param value the value to search.
+         * @return the index of the value if found, -(insertion point) - 1
+         *         otherwise, see {@link Arrays#binarySearch(Object[], Object)}.
+         */
+        int indexOf(final T value) {
+            return Arrays.binarySearch(m_values, 0, m_count, value);
+        }
+    }
+
+    private final int m_minDegree;
+    private final int m_maxValues;
+    private Node<T> m_root;
+    private int m_size;
+
+    /**
+     * Create a new tree with the default minimum degree.
+     */
+    public BTree() {
+        this(DEFAULT_MIN_DEGREE);
+    }
+
+    /**
+     * Create a new tree.
+     *
+     * @param minDegree the minimum degree t of the tree, at least 2: the nodes
+     *            hold up to 2t - 1 values and 2t children.
+     */
+    public BTree(final int minDegree) {
+        if (minDegree < 2) {
+            throw new IllegalArgumentException("The minimum degree must be at least 2!");
+        }
+        m_minDegree = minDegree;
+        m_maxValues = 2 * minDegree - 1;
+        m_root = new Node<T>(m_maxValues, true);
+    }
+
+    /**
+     * Insert a new value in the tree. If the value already exists in the tree
+     * then no value will be added.
+     *
+     * @param value the value to insert. Can't be null.
+     * @return true if the value was inserted, false if it was already there.
+     */
+    public boolean insert(final T value) {
+        verifyValue(value);
+        if (m_root.m_count == m_maxValues) {
+            Node<T> root = new Node<T>(m_maxValues, false);
+            root.m_children[0] = m_root;
+            splitChild(root, 0);
+            m_root = root;
+        }
+        Node<T> node = m_root;
+        while (true) {
+            int index = node.indexOf(value);
+            if (index >= 0) {
+                return false;
+            }
+            int position = -index - 1;
+            if (node.isLeaf()) {
+                System.arraycopy(node.m_values, position, node.m_values, position + 1,
+                        node.m_count - position);
+                node.m_values[position] = value;
+                node.m_count++;
+                m_size++;
+                return true;
+            }
+            // split a full child before going down, so that it can take the
+            // median value of its own child.
+            if (node.m_children[position].m_count == m_maxValues) {
+                splitChild(node, position);
+                int comparisonResult = value.compareTo(node.value(position));
+                if (comparisonResult == 0) {
+                    return false;
+                }
+                if (comparisonResult > 0) {
+                    position++;
+                }
+            }
+            node = node.m_children[position];
+        }
+    }
+
+    /**
+     * Search a value in the tree.
+     *
+     * @param value the value to search. Can't be null.
+     * @return the value of the tree equal to the value searched, null if the
+     *         value is not present in the tree.
+     */
+    public T search(final T value) {
+        verifyValue(value);
+        Node<T> node = m_root;
+        while (true) {
+            int index = node.indexOf(value);
+            if (index >= 0) {
+                return node.value(index);
+            }
+            if (node.isLeaf()) {
+                return null;
+            }
+            node = node.m_children[-index - 1];
+        }
+    }
+
+    /**
+     * Verify if the tree contains a value.
+     *
+     * @param value the value to check.
+     * @return true if the value is not null and is contained in the tree, false
+     *         otherwise.
+     */
+    public boolean contains(final T value) {
+        return value != null && search(value) != null;
+    }
+
+    /**
+     * Delete a value from the tree.
+     *
+     * @param value the value to delete. Can't be null.
+     * @return the value deleted, null if the value is not present in the tree.
+     */
+    public T delete(final T value) {
+        verifyValue(value);
+        T deleted = null;
+        // the value to delete from the subtree, it becomes the predecessor or
+        // the successor when they replace the value in an internal node.
+        T target = value;
+        Node<T> node = m_root;
+        while (node != null) {
+            int index = node.indexOf(target);
+            if (index < 0) {
+                node = node.isLeaf() ? null : refillChild(node, -index - 1);
+                continue;
+            }
+            if (deleted == null) {
+                deleted = node.value(index);
+            }
+            if (node.isLeaf()) {
+                removeValue(node, index);
+                break;
+            }
+            Node<T> left = node.m_children[index];
+            Node<T> right = node.m_children[index + 1];
+            if (left.m_count >= m_minDegree) {
+                target = max(left);
+                node.m_values[index] = target;
+                node = left;
+            } else if (right.m_count >= m_minDegree) {
+                target = min(right);
+                node.m_values[index] = target;
+                node = right;
+            } else {
+                merge(node, index);
+                node = left;
+            }
+        }
+        if (m_root.m_count == 0 && !m_root.isLeaf()) {
+            m_root = m_root.m_children[0];
+        }
+        if (deleted != null) {
+            m_size--;
+        }
+        return deleted;
+    }
+
+    /**
+     * @return The minimum value in the tree, null if the tree is empty.
+     */
+    public T min() {
+        return isEmpty() ? null : min(m_root);
+    }
+
+    /**
+     * @return The maximum value in the tree, null if the tree is empty.
+     */
+    public T max() {
+        return isEmpty() ? null : max(m_root);
+    }
+
+    /**
+     * Get the successor of a value, i.e the value that comes right after it in
+     * increasing order.
+     *
+     * @param value the value for which to get the successor. Can't be null.
+     * @return the successor value, null if the value is not in the tree or is
+     *         the maximum.
+     */
+    public T successor(final T value) {
+        verifyValue(value);
+        // the smallest bigger value seen on the way down.
+        T successor = null;
+        Node<T> node = m_root;
+        while (true) {
+            int index = node.indexOf(value);
+            if (index >= 0) {
+                if (!node.isLeaf()) {
+                    return min(node.m_children[index + 1]);
+                }
+                return index + 1 < node.m_count ? node.value(index + 1) : successor;
+            }
+            if (node.isLeaf()) {
+                return null;
+            }
+            int position = -index - 1;
+            if (position < node.m_count) {
+                successor = node.value(position);
+            }
+            node = node.m_children[position];
+        }
+    }
+
+    /**
+     * Get the predecessor of a value, i.e the value that comes right before it
+     * in increasing order.
+     *
+     * @param value the value for which to get the predecessor. Can't be null.
+     * @return the predecessor value, null if the value is not in the tree or
+     *         is the minimum.
+     */
+    public T predecessor(final T value) {
+        verifyValue(value);
+        // the biggest lower value seen on the way down.
+        T predecessor = null;
+        Node<T> node = m_root;
+        while (true) {
+            int index = node.indexOf(value);
+            if (index >= 0) {
+                if (!node.isLeaf()) {
+                    return max(node.m_children[index]);
+                }
+                return index > 0 ? node.value(index - 1) : predecessor;
+            }
+            if (node.isLeaf()) {
+                return null;
+            }
+            int position = -index - 1;
+            if (position > 0) {
+                predecessor = node.value(position - 1);
+            }
+            node = node.m_children[position];
+        }
+    }
+
+    /**
+     * @return true it the tree is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return m_size == 0;
+    }
+
+    /**
+     * @return the number elements in the tree.
+     */
+    public int size() {
+        return m_size;
+    }
+
+    /**
+     * @return the number of levels of the tree, 0 if the tree is empty.
+     */
+    public int height() {
+        if (isEmpty()) {
+            return 0;
+        }
+        int height = 1;
+        for (Node<T> node = m_root; !node.isLeaf(); node = node.m_children[0]) {
+            height++;
+        }
+        return height;
+    }
+
+    /**
+     * @return the minimum degree of the tree.
+     */
+    public int minDegree() {
+        return m_minDegree;
+    }
+
+    /**
+     * Remove all elements from the tree.
+     */
+    public void clear() {
+        m_root = new Node<T>(m_maxValues, true);
+        m_size = 0;
+    }
+
+    /**
+     * Split a full child in two nodes of t - 1 values, its median value moving
+     * up to the parent.
+     *
+     * @param parent a node which is not full.
+     * @param position the position of the full child.
+     */
+    private void splitChild(final Node<T> parent, final int position) {
+        Node<T> child = parent.m_children[position];
+        Node<T> sibling = new Node<T>(m_maxValues, child.isLeaf());
+        int moved = m_minDegree - 1;
+        System.arraycopy(child.m_values, m_minDegree, sibling.m_values, 0, moved);
+        if (!child.isLeaf()) {
+            System.arraycopy(child.m_children, m_minDegree, sibling.m_children, 0, moved + 1);
+            Arrays.fill(child.m_children, m_minDegree, m_maxValues + 1, null);
+        }
+        sibling.m_count = moved;
+
+        System.arraycopy(parent.m_values, position, parent.m_values, position + 1,
+                parent.m_count - position);
+        System.arraycopy(parent.m_children, position + 1, parent.m_children, position + 2,
+                parent.m_count - position);
+        parent.m_values[position] = child.m_values[moved];
+        parent.m_children[position + 1] = sibling;
+        parent.m_count++;
+
+        Arrays.fill(child.m_values, moved, m_maxValues, null);
+        child.m_count = moved;
+    }
+
+    /**
+     * Make sure a child has at least t values before going down into it, by
+     * taking a value from a sibling through the parent, or by merging it with
+     * a sibling.
+     *
+     * @param parent the parent, with at least t values unless it is the root.
+     * @param position the position of the child.
+     * @return the node to go down into, which holds the values of the child.
+     */
+    private Node<T> refillChild(final Node<T> parent, final int position) {
+        Node<T> child = parent.m_children[position];
+        if (child.m_count >= m_minDegree) {
+            return child;
+        }
+        Node<T> left = position > 0 ? parent.m_children[position - 1] : null;
+        Node<T> right = position < parent.m_count ? parent.m_children[position + 1] : null;
+        if (left != null && left.m_count >= m_minDegree) {
+            // the last value of the left sibling goes up, the parent value
+            // goes down in front of the child.
+            System.arraycopy(child.m_values, 0, child.m_values, 1, child.m_count);
+            child.m_values[0] = parent.m_values[position - 1];
+            if (!child.isLeaf()) {
+                System.arraycopy(child.m_children, 0, child.m_children, 1, child.m_count + 1);
+                child.m_children[0] = left.m_children[left.m_count];
+                left.m_children[left.m_count] = null;
+            }
+            child.m_count++;
+            parent.m_values[position - 1] = left.m_values[left.m_count - 1];
+            left.m_values[--left.m_count] = null;
+        } else if (right != null && right.m_count >= m_minDegree) {
+            // the first value of the right sibling goes up, the parent value
+            // goes down at the end of the child.
+            child.m_values[child.m_count] = parent.m_values[position];
+            if (!child.isLeaf()) {
+                child.m_children[child.m_count + 1] = right.m_children[0];
+                System.arraycopy(right.m_children, 1, right.m_children, 0, right.m_count);
+                right.m_children[right.m_count] = null;
+            }
+            child.m_count++;
+            parent.m_values[position] = right.m_values[0];
+            removeValue(right, 0);
+        } else if (right != null) {
+            merge(parent, position);
+        } else {
+            merge(parent, position - 1);
+            return left;
+        }
+        return child;
+    }
+
+    /**
+     * Merge two children of t - 1 values and the parent value between them
+     * into the left child.
+     *
+     * @param parent the parent of the children.
+     * @param position the position of the parent value between the children.
+     */
+    private void merge(final Node<T> parent, final int position) {
+        Node<T> left = parent.m_children[position];
+        Node<T> right = parent.m_children[position + 1];
+        left.m_values[left.m_count] = parent.m_values[position];
+        System.arraycopy(right.m_values, 0, left.m_values, left.m_count + 1, right.m_count);
+        if (!left.isLeaf()) {
+            System.arraycopy(right.m_children, 0, left.m_children, left.m_count + 1,
+                    right.m_count + 1);
+        }
+        left.m_count += right.m_count + 1;
+
+        System.arraycopy(parent.m_children, position + 2, parent.m_children, position + 1,
+                parent.m_count - position - 1);
+        parent.m_children[parent.m_count] = null;
+        removeValue(parent, position);
+    }
+
+    /**
+     * Remove a value from a node, without changing its children.
+     *
+     * @param node the node.
+     * @param index the index of the value to remove.
+     */
+    private void removeValue(final Node<T> node, final int index) {
+        System.arraycopy(node.m_values, index + 1, node.m_values, index,
+                node.m_count - index - 1);
+        node.m_values[--node.m_count] = null;
+    }
+
+    /**
+     * Search the minimum value in a subtree.
+     *
+     * @param root the subtree root node.
+     * @return the minimum value in the subtree.
+     */
+    private T min(final Node<T> root) {
+        Node<T> node = root;
+        while (!node.isLeaf()) {
+            node = node.m_children[0];
+        }
+        return node.value(0);
+    }
+
+    /**
+     * Search the maximum value in a subtree.
+     *
+     * @param root the subtree root node.
+     * @return the maximum value in the subtree.
+     */
+    private T max(final Node<T> root) {
+        Node<T> node = root;
+        while (!node.isLeaf()) {
+            node = node.m_children[node.m_count];
+        }
+        return node.value(node.m_count - 1);
+    }
+
+    /**
+     * Verify that a value is not null.
+     *
+     * @param value the value to check.
+     */
+    private void verifyValue(final T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("The value can't be null !");
+        }
+    }
+}
@@ -1,19 +1,47 @@
 package com.melimelo.bst;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
 /**
  * Binary search tree. Does not allow duplicate values.
+ * 
+ * By default the tree is not balanced, and inserting sorted values makes it
+ * degenerate into a list where insert, search and delete are O(n). A balanced
+ * tree is an AVL tree: after each insertion or deletion, the heights of the
+ * subtrees of every node on the path to the root are kept within one of each
+ * other by rotations, so the height of the tree stays below 1.44 log2(n) and
+ * all operations are O(log(n)) in the worst case.
+ * 
+ * Every node knows the size of its subtree, so the rank of a value and the
+ * value of a given rank are found along a single path from the root.
  */
 public class BinarySearchTree<T extends Comparable<T>> {
 
     public static int RECURSIVE_STRATEGY = 1;
     public static int ITERATIVE_STRATEGY = 2;
+    public static int SINGLE_PASS_STRATEGY = 3;
     private Node<T> m_root;
     private int m_size;
+    private final boolean m_balanced;
 
     /**
      * Create a new instance.
      */
     public BinarySearchTree() {
+        this(false);
+    }
+
+    /**
+     * Create a new instance.
+     * 
+     * @param balanced true to create a self-balancing tree, false otherwise.
+     */
+    public BinarySearchTree(final boolean balanced) {
+        m_balanced = balanced;
     }
 
     /**
@@ -22,10 +50,114 @@ public class BinarySearchTree<T extends Comparable<T>> {
      * @param rootValue the value of the root to set.
      */
     public BinarySearchTree(final T rootValue) {
+        this(false);
         m_root = new Node<T>(rootValue);
         m_size = 1;
     }
 
+    /**
+     * Build a perfectly balanced tree from sorted values in O(n), instead of
+     * O(n log(n)) or O(n^2) with repeated insertions.
+     * 
+     * @param values the values in increasing order. Duplicate values are
+     *            inserted once.
+     * @return A new tree, which doesn't balance itself, with the values.
+     */
+    public static <T extends Comparable<T>> BinarySearchTree<T> fromSorted(final T[] values) {
+        return fromSorted(values, false);
+    }
+
+    /**
+     * Build a perfectly balanced tree from sorted values in O(n).
+     * 
+     * @param values the values in increasing order. Duplicate values are
+     *            inserted once.
+     * @param balanced true to create a self-balancing tree, false otherwise.
+     * @return A new tree with the values.
+     */
+    public static <T extends Comparable<T>> BinarySearchTree<T> fromSorted(final T[] values,
+            final boolean balanced) {
+        if (values == null) {
+            throw new IllegalArgumentException("The values can't be null !");
+        }
+        return fromSorted(Arrays.asList(values).iterator(), balanced);
+    }
+
+    /**
+     * Build a perfectly balanced tree from sorted values in O(n).
+     * 
+     * @param values an iterator over the values in increasing order. Duplicate
+     *            values are inserted once.
+     * @return A new tree, which doesn't balance itself, with the values.
+     */
+    public static <T extends Comparable<T>> BinarySearchTree<T> fromSorted(
+            final Iterator<? extends T> values) {
+        return fromSorted(values, false);
+    }
+
+    /**
+     * Build a perfectly balanced tree from sorted values in O(n).
+     * 
+     * @param values an iterator over the values in increasing order. Duplicate
+     *            values are inserted once.
+     * @param balanced true to create a self-balancing tree, false otherwise.
+     * @return A new tree with the values.
+     */
+    public static <T extends Comparable<T>> BinarySearchTree<T> fromSorted(
+            final Iterator<? extends T> values, final boolean balanced) {
+        if (values == null) {
+            throw new IllegalArgumentException("The values can't be null !");
+        }
+        List<T> distinctValues = new ArrayList<T>();
+        while (values.hasNext()) {
+            T value = values.next();
+            if (value == null) {
+                throw new IllegalArgumentException("The values can't contain null !");
+            }
+            if (!distinctValues.isEmpty()) {
+                int comparisonResult = distinctValues.get(distinctValues.size() - 1).compareTo(value);
+                if (comparisonResult > 0) {
+                    throw new IllegalArgumentException("The values are not sorted !");
+                }
+                if (comparisonResult == 0) {
+                    continue;
+                }
+            }
+            distinctValues.add(value);
+        }
+        BinarySearchTree<T> tree = new BinarySearchTree<T>(balanced);
+        tree.m_root = tree.build(distinctValues, 0, distinctValues.size() - 1);
+        tree.m_size = distinctValues.size();
+        return tree;
+    }
+
+    /**
+     * Build a perfectly balanced subtree, the middle value being the root.
+     * 
+     * @param values the sorted values.
+     * @param first the index of the first value of the subtree.
+     * @param last the index of the last value of the subtree, included.
+     * @return the root of the subtree, null if there are no values.
+     */
+    private Node<T> build(final List<T> values, final int first, final int last) {
+        if (first > last) {
+            return null;
+        }
+        int middle = (first + last) >>> 1;
+        Node<T> node = new Node<T>(values.get(middle));
+        node.setLeft(build(values, first, middle - 1));
+        node.setRight(build(values, middle + 1, last));
+        update(node);
+        return node;
+    }
+
+    /**
+     * @return true if the tree balances itself, false otherwise.
+     */
+    public boolean isBalanced() {
+        return m_balanced;
+    }
+
     /**
      * @return the tree's root.
      */
@@ -41,7 +173,7 @@ public class BinarySearchTree<T extends Comparable<T>> {
      * @return A reference to the node with the value inserted.
      */
     public Node<T> insert(final T value) {
-        return insert(value, ITERATIVE_STRATEGY);
+        return insert(value, SINGLE_PASS_STRATEGY);
     }
 
     /**
@@ -52,15 +184,75 @@ public class BinarySearchTree<T extends Comparable<T>> {
      * @return A reference to the node with the value inserted.
      */
     public Node<T> insert(final T value, final int strategy) {
+        int size = m_size;
+        Node<T> node;
         if (strategy == RECURSIVE_STRATEGY) {
-            return recursiveInsert(m_root, value);
+            node = recursiveInsert(m_root, value);
+        } else if (strategy == ITERATIVE_STRATEGY) {
+            node = iterativeInsert(value);
+        } else if (strategy == SINGLE_PASS_STRATEGY) {
+            node = singlePassInsert(value);
+        } else {
+            throw new IllegalArgumentException("Unknown strategy specified !");
         }
 
-        if (strategy == ITERATIVE_STRATEGY) {
-            return iterativeInsert(value);
+        // a new leaf was added.
+        if (m_size != size) {
+            updatePath(node.parent());
         }
+        return node;
+    }
 
-        throw new IllegalArgumentException("Unknown strategy specified !");
+    /**
+     * Insert a new node with a single descent from the root, allocating the
+     * node only once the value is known to be missing.
+     * 
+     * @param value the value to insert.
+     * @return A reference to the node with the value inserted.
+     */
+    private Node<T> singlePassInsert(final T value) {
+        Node<T> parent = null;
+        Node<T> node = m_root;
+        // the last comparison gives the side of the parent where the new
+        // leaf goes, without comparing again.
+        int comparison = 0;
+        while (node != null) {
+            comparison = value.compareTo(node.value());
+            if (comparison == 0) {
+                return node;
+            }
+            parent = node;
+            node = comparison < 0 ? node.left() : node.right();
+        }
+        Node<T> nodeToInsert = new Node<T>(value);
+        if (parent == null) {
+            m_root = nodeToInsert;
+        } else if (comparison < 0) {
+            parent.setLeft(nodeToInsert);
+        } else {
+            parent.setRight(nodeToInsert);
+        }
+        m_size++;
+        return nodeToInsert;
+    }
+
+    /**
+     * Search a value with a single descent from the root, comparing the value
+     * once per node. Doesn't modify the tree, so concurrent searches are safe.
+     * 
+     * @param value the value to search.
+     * @return A node with the value to search, null if not found.
+     */
+    private Node<T> singlePassSearch(final T value) {
+        Node<T> node = m_root;
+        while (node != null) {
+            int comparison = value.compareTo(node.value());
+            if (comparison == 0) {
+                return node;
+            }
+            node = comparison < 0 ? node.left() : node.right();
+        }
+        return null;
     }
 
     /**
@@ -171,7 +363,7 @@ public class BinarySearchTree<T extends Comparable<T>> {
      *         in the tree.
      */
     public Node<T> search(final T value) {
-        return search(value, ITERATIVE_STRATEGY);
+        return search(value, SINGLE_PASS_STRATEGY);
     }
 
     /**
@@ -179,7 +371,8 @@ public class BinarySearchTree<T extends Comparable<T>> {
      * 
      * @param value the value to search.
      * @param strategy the strategy to use for searching. The strategy allowed
-     *            are RECURSIVE_STRATEGY or ITERATIVE_STRATEGY.
+     *            are RECURSIVE_STRATEGY, ITERATIVE_STRATEGY or
+     *            SINGLE_PASS_STRATEGY.
      * @return A node with the value specified, null if the value is not present
      *         in the tree.
      */
@@ -192,6 +385,10 @@ public class BinarySearchTree<T extends Comparable<T>> {
             return iterativeSearch(value);
         }
 
+        if (strategy == SINGLE_PASS_STRATEGY) {
+            return singlePassSearch(value);
+        }
+
         throw new IllegalArgumentException("Unknown strategy specified !");
     }
 
@@ -250,13 +447,11 @@ public class BinarySearchTree<T extends Comparable<T>> {
             return false;
         }
 
-        Node<T> node = search(value);
-        return node != null && value.compareTo(node.value()) == 0;
+        return search(value) != null;
     }
 
     /**
-     * Delete a value from the tree. 
-     * #TODO : split the function in smaller functions.
+     * Delete a value from the tree.
      * 
      * @param value the value to delete
      * @return A node with the value deleted. Null if there's no node with the
@@ -269,106 +464,152 @@ public class BinarySearchTree<T extends Comparable<T>> {
             return null;
         }
 
-        Node<T> parent = nodeToDelete.parent();
-
-        // Delete internal or leaf node
-        if (parent != null) {
-
-            // Delete leaf node
-            if (nodeToDelete.isLeaf()) {
-                if (nodeToDelete.isRightChild()) {
-                    parent.setRight(null);
-                } else if (nodeToDelete.isLeftChild()) {
-                    parent.setLeft(null);
-                }
-
-                // The node to delete has only the left child
-            } else if (nodeToDelete.right() == null) {
-
-                // replace
-                if (nodeToDelete.isRightChild()) {
-                    parent.setRight(nodeToDelete.left());
-                } else if (nodeToDelete.isLeftChild()) {
-                    parent.setLeft(nodeToDelete.left());
-                }
-
-                // The node to delete has only the right child
-            } else if (nodeToDelete.left() == null) {
-                if (nodeToDelete.isRightChild()) {
-                    parent.setRight(nodeToDelete.right());
-                } else if (nodeToDelete.isLeftChild()) {
-                    parent.setLeft(nodeToDelete.right());
-                }
-
-                // The node to delete has two children
+        // the deepest node whose subtree changed.
+        Node<T> changed;
+        if (nodeToDelete.left() == null) {
+            // a leaf or a node with only a right child, the child replaces it.
+            changed = nodeToDelete.parent();
+            replace(nodeToDelete, nodeToDelete.right());
+        } else if (nodeToDelete.right() == null) {
+            // a node with only a left child, the child replaces it.
+            changed = nodeToDelete.parent();
+            replace(nodeToDelete, nodeToDelete.left());
+        } else {
+            // The successor (i.e the min the right child) will replace him
+            Node<T> successor = min(nodeToDelete.right());
+            if (successor.parent() != nodeToDelete) {
+                // the successor is a left child without left child, its right
+                // child takes its place.
+                changed = successor.parent();
+                replace(successor, successor.right());
+                successor.setRight(nodeToDelete.right());
             } else {
+                changed = successor;
+            }
+            replace(nodeToDelete, successor);
+            successor.setLeft(nodeToDelete.left());
+        }
+        nodeToDelete.setParent(null);
+        m_size--;
 
-                // The successor (i.e the min the right child) will replace him
-                Node<T> successor = min(nodeToDelete.right());
-
-                // if the succesor is not a direct child of the node to delete
-                if (successor.parent() != nodeToDelete) {
-
-                    // then the right child will replace him.
-                    Node<T> successorParent = successor.parent();
-
-                    // when the successor is not a direct child of the node
-                    // to delete then it must be a left child.
-                    // Hence we set the left child here.
-                    successorParent.setLeft(successor.right());
-
-                    //
-                    successor.setRight(nodeToDelete.right());
-                }
-
-                parent.setRight(successor);
-                successor.setLeft(nodeToDelete.left());
+        updatePath(changed);
+        return nodeToDelete;
+    }
 
+    /**
+     * Replace a node by another one in the children of its parent, or as the
+     * root if the node has no parent.
+     * 
+     * @param node the node to replace.
+     * @param replacement the node replacing it, can be null.
+     */
+    private void replace(final Node<T> node, final Node<T> replacement) {
+        Node<T> parent = node.parent();
+        if (parent == null) {
+            m_root = replacement;
+            if (replacement != null) {
+                replacement.setParent(null);
             }
-            nodeToDelete.setParent(null);
+        } else if (node == parent.left()) {
+            parent.setLeft(replacement);
         } else {
-            // delete the root
-
-            // the root has no child then we have nothing to do
-            if (nodeToDelete.isLeaf()) {
-
-                m_root = null;
-
-                // the root has only one left child. He will take his place
-            } else if (nodeToDelete.right() == null) {
-                m_root = nodeToDelete.left();
-                m_root.setParent(null);
-
-                // the root has only one right child
-            } else if (nodeToDelete.left() == null) {
-                m_root = nodeToDelete.right();
-                m_root.setParent(null);
+            parent.setRight(replacement);
+        }
+    }
 
-                // the root has two children. the successor will replace him.
-            } else {
-                Node<T> successor = min(nodeToDelete.right());
+    /**
+     * Update the heights and sizes of the nodes from a node up to the root.
+     * In a balanced tree, the subtrees whose heights differ by more than one
+     * are rotated to restore the balance.
+     * 
+     * @param start the deepest node whose subtree changed, can be null.
+     */
+    private void updatePath(final Node<T> start) {
+        Node<T> node = start;
+        while (node != null) {
+            update(node);
+            if (!m_balanced) {
+                node = node.parent();
+                continue;
+            }
+            int balance = height(node.left()) - height(node.right());
+            if (balance > 1) {
+                // the left subtree is too high, a left-right case needs a
+                // first rotation of the left child.
+                if (height(node.left().left()) < height(node.left().right())) {
+                    rotateLeft(node.left());
+                }
+                node = rotateRight(node);
+            } else if (balance < -1) {
+                if (height(node.right().right()) < height(node.right().left())) {
+                    rotateRight(node.right());
+                }
+                node = rotateLeft(node);
+            }
+            node = node.parent();
+        }
+    }
 
-                // if the successor is not a direct child of the node to delete
-                if (successor.parent() != nodeToDelete) {
+    /**
+     * Rotate a subtree to the left: the right child of its root becomes the
+     * new root.
+     * 
+     * @param node the root of the subtree, with a right child.
+     * @return the new root of the subtree.
+     */
+    private Node<T> rotateLeft(final Node<T> node) {
+        Node<T> pivot = node.right();
+        replace(node, pivot);
+        node.setRight(pivot.left());
+        pivot.setLeft(node);
+        update(node);
+        update(pivot);
+        return pivot;
+    }
 
-                    // then the right child will replace him.
-                    Node<T> successorParent = successor.parent();
+    /**
+     * Rotate a subtree to the right: the left child of its root becomes the
+     * new root.
+     * 
+     * @param node the root of the subtree, with a left child.
+     * @return the new root of the subtree.
+     */
+    private Node<T> rotateRight(final Node<T> node) {
+        Node<T> pivot = node.left();
+        replace(node, pivot);
+        node.setLeft(pivot.right());
+        pivot.setRight(node);
+        update(node);
+        update(pivot);
+        return pivot;
+    }
 
-                    // when the successor is not a direct child of the node
-                    // to delete then it must be a left child.
-                    // Hence we set is as a left child here.
-                    successorParent.setLeft(successor.right());
-                    successor.setRight(nodeToDelete.right());
-                }
+    /**
+     * Compute the height and the size of a node from its children.
+     * 
+     * @param node the node to update.
+     */
+    private void update(final Node<T> node) {
+        node.setHeight(1 + Math.max(height(node.left()), height(node.right())));
+        node.setSize(1 + size(node.left()) + size(node.right()));
+    }
 
-                successor.setLeft(nodeToDelete.left());
-                m_root = successor;
-                m_root.setParent(null);
-            }
+    /**
+     * @param node a node, can be null.
+     * @return the number of nodes in the subtree with the node as root, 0 for
+     *         an empty subtree.
+     */
+    private int size(final Node<T> node) {
+        return node == null ? 0 : node.size();
+    }
 
-        }
-        m_size--;
-        return nodeToDelete;
+    /**
+     * @param node a node, can be null.
+     * @return the height of the subtree with the node as root, 0 for an empty
+     *         subtree.
+     */
+    private int height(final Node<T> node) {
+        return node == null ? 0 : node.height();
     }
 
     /**
@@ -433,14 +674,24 @@ public class BinarySearchTree<T extends Comparable<T>> {
         if (node == null) {
             return null;
         }
+        return successor(node);
+    }
 
+    /**
+     * Get the node that comes right after a node in an in-order traversal.
+     * 
+     * @param node the node for which to get the successor.
+     * @return the successor node, null if the node has the maximum value.
+     */
+    private Node<T> successor(final Node<T> node) {
         if (node.right() != null) {
             return min(node.right());
         }
 
+        Node<T> child = node;
         Node<T> successor = node.parent();
-        while (successor != null && node == successor.right()) {
-            node = successor;
+        while (successor != null && child == successor.right()) {
+            child = successor;
             successor = successor.parent();
         }
         return successor;
@@ -473,6 +724,200 @@ public class BinarySearchTree<T extends Comparable<T>> {
         return predecessor;
     }
 
+    /**
+     * Get the node with the greatest value lower than or equal to a value.
+     * 
+     * @param value the value to compare with. Can't be null.
+     * @return the node with the floor value, null if all the values are
+     *         bigger.
+     */
+    public Node<T> floor(final T value) {
+        verifyValue(value);
+        Node<T> floor = null;
+        Node<T> node = m_root;
+        while (node != null) {
+            int comparisonResult = node.value().compareTo(value);
+            if (comparisonResult == 0) {
+                return node;
+            }
+            if (comparisonResult < 0) {
+                floor = node;
+                node = node.right();
+            } else {
+                node = node.left();
+            }
+        }
+        return floor;
+    }
+
+    /**
+     * Get the node with the smallest value bigger than or equal to a value.
+     * 
+     * @param value the value to compare with. Can't be null.
+     * @return the node with the ceiling value, null if all the values are
+     *         lower.
+     */
+    public Node<T> ceiling(final T value) {
+        verifyValue(value);
+        Node<T> ceiling = null;
+        Node<T> node = m_root;
+        while (node != null) {
+            int comparisonResult = node.value().compareTo(value);
+            if (comparisonResult == 0) {
+                return node;
+            }
+            if (comparisonResult > 0) {
+                ceiling = node;
+                node = node.left();
+            } else {
+                node = node.right();
+            }
+        }
+        return ceiling;
+    }
+
+    /**
+     * Iterate over the values within a range, in increasing order. The values
+     * are read lazily: the first value is found in O(log(n)) and each next
+     * value is reached through the parent pointers, so reading k values costs
+     * O(log(n) + k) and only the nodes in the range are visited. The tree
+     * must not be modified during the iteration.
+     * 
+     * @param low the lowest value of the range, included. Can't be null.
+     * @param high the highest value of the range, included. Can't be null.
+     * @return an iterator over the values between low and high.
+     */
+    public Iterator<T> rangeIterator(final T low, final T high) {
+        verifyValue(high);
+        return new RangeIterator(ceiling(low), high, true);
+    }
+
+    /**
+     * Get a view of the values lower than a value, see
+     * {@link #rangeIterator(Comparable, Comparable)}.
+     * 
+     * @param high the highest value of the view, excluded. Can't be null.
+     * @return the values lower than high, in increasing order.
+     */
+    public Iterable<T> headSet(final T high) {
+        verifyValue(high);
+        return new Iterable<T>() {
+            @Override
+            public Iterator<T> iterator() {
+                return new RangeIterator(min(), high, false);
+            }
+        };
+    }
+
+    /**
+     * Get a view of the values bigger than or equal to a value, see
+     * {@link #rangeIterator(Comparable, Comparable)}.
+     * 
+     * @param low the lowest value of the view, included. Can't be null.
+     * @return the values bigger than or equal to low, in increasing order.
+     */
+    public Iterable<T> tailSet(final T low) {
+        verifyValue(low);
+        return new Iterable<T>() {
+            @Override
+            public Iterator<T> iterator() {
+                return new RangeIterator(ceiling(low), null, true);
+            }
+        };
+    }
+
+    /**
+     * Get the rank of a value, i.e the number of values of the tree smaller
+     * than it. The value doesn't have to be in the tree.
+     * 
+     * @param value the value for which to get the rank. Can't be null.
+     * @return the number of values strictly smaller than the value.
+     */
+    public int rank(final T value) {
+        verifyValue(value);
+        return countLower(value, false);
+    }
+
+    /**
+     * Get the node with the value of a specific rank, i.e the k-th smallest
+     * value starting from 0.
+     * 
+     * @param rank the rank of the value, from 0 to the size of the tree
+     *            excluded.
+     * @return the node with the value of the rank.
+     */
+    public Node<T> select(final int rank) {
+        if (rank < 0 || rank >= m_size) {
+            throw new IllegalArgumentException("The rank " + rank
+                    + " must be between 0 and " + m_size + " excluded !");
+        }
+        Node<T> node = m_root;
+        int remaining = rank;
+        while (true) {
+            int leftSize = size(node.left());
+            if (remaining < leftSize) {
+                node = node.left();
+            } else if (remaining == leftSize) {
+                return node;
+            } else {
+                remaining -= leftSize + 1;
+                node = node.right();
+            }
+        }
+    }
+
+    /**
+     * Count the values within a range.
+     * 
+     * @param low the lowest value of the range, included. Can't be null.
+     * @param high the highest value of the range, included. Can't be null.
+     * @return the number of values of the tree between low and high, 0 if
+     *         low is bigger than high.
+     */
+    public int countInRange(final T low, final T high) {
+        verifyValue(low);
+        verifyValue(high);
+        if (low.compareTo(high) > 0) {
+            return 0;
+        }
+        return countLower(high, true) - countLower(low, false);
+    }
+
+    /**
+     * Count the values smaller than a value, walking from the root to a leaf.
+     * 
+     * @param value the value to compare with.
+     * @param inclusive true to count the value itself if it is in the tree.
+     * @return the number of values smaller than the value, or equal to it if
+     *         inclusive.
+     */
+    private int countLower(final T value, final boolean inclusive) {
+        int count = 0;
+        Node<T> node = m_root;
+        while (node != null) {
+            int comparisonResult = node.value().compareTo(value);
+            if (comparisonResult < 0 || (comparisonResult == 0 && inclusive)) {
+                // the node and its left subtree are lower.
+                count += 1 + size(node.left());
+                node = node.right();
+            } else {
+                node = node.left();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Verify that a value is not null.
+     * 
+     * @param value the value to check.
+     */
+    private void verifyValue(final T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("The value can't be null !");
+        }
+    }
+
     /**
      * @return true it the tree is empty, false otherwise.
      */
@@ -487,6 +932,81 @@ public class BinarySearchTree<T extends Comparable<T>> {
         return m_size;
     }
 
+    /**
+     * Rebalance the tree in place in O(n) with the Day-Stout-Warren algorithm:
+     * the tree is first turned into a vine, a list linked through the right
+     * children, by rotations to the right, then the vine is compressed into a
+     * perfectly balanced tree by rotations to the left. The nodes are reused
+     * and no other memory is needed.
+     */
+    public void rebalance() {
+        if (isEmpty()) {
+            return;
+        }
+        Node<T> pseudoRoot = new Node<T>(null);
+        pseudoRoot.setRight(m_root);
+
+        // turn the tree into a vine.
+        Node<T> tail = pseudoRoot;
+        Node<T> rest = m_root;
+        while (rest != null) {
+            if (rest.left() == null) {
+                tail = rest;
+                rest = rest.right();
+            } else {
+                Node<T> left = rest.left();
+                rest.setLeft(left.right());
+                left.setRight(rest);
+                tail.setRight(left);
+                rest = left;
+            }
+        }
+
+        // the nodes of the deepest level, which is not full, are compressed
+        // first, then every compression halves the vine.
+        int fullLevelsSize = Integer.highestOneBit(m_size + 1) - 1;
+        compress(pseudoRoot, m_size - fullLevelsSize);
+        for (int size = fullLevelsSize; size > 1; size /= 2) {
+            compress(pseudoRoot, size / 2);
+        }
+
+        m_root = pseudoRoot.right();
+        m_root.setParent(null);
+        updateSubtree(m_root);
+    }
+
+    /**
+     * Rotate to the left every other node of the vine hanging on the right of
+     * a node.
+     * 
+     * @param root the node with the vine as right child.
+     * @param count the number of rotations.
+     */
+    private void compress(final Node<T> root, final int count) {
+        Node<T> scanner = root;
+        for (int i = 0; i < count; i++) {
+            Node<T> child = scanner.right();
+            scanner.setRight(child.right());
+            scanner = scanner.right();
+            child.setRight(scanner.left());
+            scanner.setLeft(child);
+        }
+    }
+
+    /**
+     * Compute the heights and sizes of all the nodes of a subtree, children
+     * first.
+     * 
+     * @param node the root of the subtree, can be null.
+     */
+    private void updateSubtree(final Node<T> node) {
+        if (node != null) {
+            updateSubtree(node.left());
+            updateSubtree(node.right());
+            update(node);
+        }
+    }
+
     /**
      * Remove all elements from the tree.
      * #TODO : find if there's an efficient way to do this (post order + deleting leaf nodes ?);
@@ -496,4 +1016,62 @@ public class BinarySearchTree<T extends Comparable<T>> {
             delete(min().value());
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Iterator over the values from a node up to a bound, moving from a node
+     * to its successor.
+     */
+    private final class RangeIterator implements Iterator<T> {
+        private final T m_high;
+        private final boolean m_highInclusive;
+        private Node<T> m_next;
+
+        /**
+         * @param first the node with the first value, can be null.
+         * @param high the highest value, null if there is no upper bound.
+         * @param highInclusive true if the highest value is included.
+         */
+        RangeIterator(final Node<T> first, final T high, final boolean highInclusive) {
+            m_high = high;
+            m_highInclusive = highInclusive;
+            m_next = inRange(first) ? first : null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return m_next != null;
+        }
+
+        @Override
+        public T next() {
+            if (m_next == null) {
+                throw new NoSuchElementException();
+            }
+            T value = m_next.value();
+            Node<T> successor = successor(m_next);
+            m_next = inRange(successor) ? successor : null;
+            return value;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("The tree can't be modified while iterating!");
+        }
+
+        /**
+         * @param node a node, can be null.
+         * @return true if the node is not null and its value below the upper
+         *         bound.
+         */
+        private boolean inRange(final Node<T> node) {
+            if (node == null) {
+                return false;
+            }
+            if (m_high == null) {
+                return true;
+            }
+            int comparisonResult = node.value().compareTo(m_high);
+            return comparisonResult < 0 || (comparisonResult == 0 && m_highInclusive);
+        }
+    }
+}
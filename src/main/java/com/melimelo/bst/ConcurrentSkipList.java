@@ -0,0 +1,416 @@
+package com.melimelo.bst;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread-safe ordered set implemented as a lazy skip list: every value is in
+ * a sorted linked list, and in the lists of a random number of upper levels
+ * which are used as express lanes, so searches are O(log(n)) on average.
+ *
+ * Searches don't take any lock. Insertions and deletions search the
+ * predecessors of the value on each level without locking, then lock only
+ * these predecessors and check that they are still linked to the same nodes
+ * before changing them, and search again otherwise. A node is first marked
+ * as deleted then unlinked, and is only visible once linked on all its
+ * levels, so insert, delete and contains are linearizable and threads
+ * working on different parts of the set don't contend.
+ *
+ * The iterators are weakly consistent: they never fail, and return the values
+ * present when the iteration started and not deleted since, and may or may
+ * not return the values inserted since. Does not allow duplicate nor null
+ * values.
+ */
+public final class ConcurrentSkipList<T extends Comparable<T>> implements Iterable<T> {
+
+    private static final int MAX_LEVEL = 32;
+
+    /**
+     * A node of the skip list, linked on the levels from 0 to its top level.
+     */
+    private static final class Node<T> {
+        private final T m_value;
+        private final int m_topLevel;
+        private final AtomicReferenceArray<Node<T>> m_next;
+        private final ReentrantLock m_lock = new ReentrantLock();
+        private volatile boolean m_marked;
+        private volatile boolean m_fullyLinked;
+
+        Node(final T value, final int topLevel) {
+            m_value = value;
+            m_topLevel = topLevel;
+            m_next = new AtomicReferenceArray<Node<T>>(topLevel + 1);
+        }
+
+        Node<T> next(final int level) {
+            return m_next.get(level);
+        }
+
+        void setNext(final int level, final Node<T> node) {
+            m_next.set(level, node);
+        }
+
+        /**
+         * @return true if the node is in the set, i.e linked on all its
+         *         levels and not deleted.
+         */
+        boolean isPresent() {
+            return m_fullyLinked && !m_marked;
+        }
+    }
+
+    private final Node<T> m_head = new Node<T>(null, MAX_LEVEL - 1);
+    private final Node<T> m_tail = new Node<T>(null, MAX_LEVEL - 1);
+    private final LongAdder m_size = new LongAdder();
+
+    /**
+     * Create a new empty set.
+     */
+    public ConcurrentSkipList() {
+        for (int level = 0; level < MAX_LEVEL; level++) {
+            m_head.setNext(level, m_tail);
+        }
+        m_head.m_fullyLinked = true;
+        m_tail.m_fullyLinked = true;
+    }
+
+    /**
+     * Insert a value in the set.
+     *
+     * @param value the value to insert. Can't be null.
+     * @return true if the value was inserted, false if it was already there.
+     */
+    @SuppressWarnings("unchecked")
+    public boolean insert(final T value) {
+        verifyValue(value);
+        int topLevel = randomLevel();
+        Node<T>[] predecessors = new Node[MAX_LEVEL];
+        Node<T>[] successors = new Node[MAX_LEVEL];
+        while (true) {
+            int levelFound = find(value, predecessors, successors);
+            if (levelFound != -1) {
+                Node<T> found = successors[levelFound];
+                if (!found.m_marked) {
+                    // wait for a concurrent insertion of the value to finish,
+                    // so that the value is present when false is returned.
+                    while (!found.m_fullyLinked) {
+                        Thread.yield();
+                    }
+                    return false;
+                }
+                // the value is being deleted, try again once it is unlinked.
+                continue;
+            }
+            int highestLocked = -1;
+            try {
+                boolean valid = true;
+                for (int level = 0; valid && level <= topLevel; level++) {
+                    Node<T> predecessor = predecessors[level];
+                    Node<T> successor = successors[level];
+                    predecessor.m_lock.lock();
+                    highestLocked = level;
+                    valid = !predecessor.m_marked && !successor.m_marked
+                            && predecessor.next(level) == successor;
+                }
+                if (!valid) {
+                    continue;
+                }
+                Node<T> node = new Node<T>(value, topLevel);
+                for (int level = 0; level <= topLevel; level++) {
+                    node.setNext(level, successors[level]);
+                }
+                for (int level = 0; level <= topLevel; level++) {
+                    predecessors[level].setNext(level, node);
+                }
+                node.m_fullyLinked = true;
+                m_size.increment();
+                return true;
+            } finally {
+                unlock(predecessors, highestLocked);
+            }
+        }
+    }
+
+    /**
+     * Delete a value from the set.
+     *
+     * @param value the value to delete. Can't be null.
+     * @return true if the value was deleted, false if it was not in the set.
+     */
+    @SuppressWarnings("unchecked")
+    public boolean delete(final T value) {
+        verifyValue(value);
+        Node<T>[] predecessors = new Node[MAX_LEVEL];
+        Node<T>[] successors = new Node[MAX_LEVEL];
+        Node<T> victim = null;
+        boolean marked = false;
+        while (true) {
+            int levelFound = find(value, predecessors, successors);
+            if (!marked) {
+                if (levelFound == -1) {
+                    return false;
+                }
+                victim = successors[levelFound];
+                // a node found below its top level is being inserted or
+                // deleted.
+                if (!victim.m_fullyLinked || victim.m_topLevel != levelFound || victim.m_marked) {
+                    return false;
+                }
+                victim.m_lock.lock();
+                if (victim.m_marked) {
+                    victim.m_lock.unlock();
+                    return false;
+                }
+                // the deletion takes effect here, the node is unlinked below.
+                victim.m_marked = true;
+                marked = true;
+            }
+            int highestLocked = -1;
+            try {
+                boolean valid = true;
+                for (int level = 0; valid && level <= victim.m_topLevel; level++) {
+                    Node<T> predecessor = predecessors[level];
+                    predecessor.m_lock.lock();
+                    highestLocked = level;
+                    valid = !predecessor.m_marked && predecessor.next(level) == victim;
+                }
+                if (!valid) {
+                    continue;
+                }
+                for (int level = victim.m_topLevel; level >= 0; level--) {
+                    predecessors[level].setNext(level, victim.next(level));
+                }
+                victim.m_lock.unlock();
+                m_size.decrement();
+                return true;
+            } finally {
+                unlock(predecessors, highestLocked);
+            }
+        }
+    }
+
+    /**
+     * Verify if the set contains a value, without locking.
+     *
+     * @param value the value to check.
+     * @return true if the value is not null and is contained in the set, false
+     *         otherwise.
+     */
+    public boolean contains(final T value) {
+        if (value == null) {
+            return false;
+        }
+        Node<T> node = ceilingNode(value);
+        return node != m_tail && node.m_value.compareTo(value) == 0 && node.isPresent();
+    }
+
+    /**
+     * Get the smallest value bigger than or equal to a value.
+     *
+     * @param value the value to compare with. Can't be null.
+     * @return the ceiling value, null if all the values are lower.
+     */
+    public T ceiling(final T value) {
+        verifyValue(value);
+        Node<T> node = firstPresent(ceilingNode(value));
+        return node == m_tail ? null : node.m_value;
+    }
+
+    /**
+     * @return The minimum value in the set, null if the set is empty.
+     */
+    public T min() {
+        Node<T> node = firstPresent(m_head.next(0));
+        return node == m_tail ? null : node.m_value;
+    }
+
+    /**
+     * Iterate over the values within a range, in increasing order. The first
+     * value is found in O(log(n)) and the next values are read lazily from the
+     * bottom list. The iterator is weakly consistent, see
+     * {@link ConcurrentSkipList}.
+     *
+     * @param low the lowest value of the range, included. Can't be null.
+     * @param high the highest value of the range, included. Can't be null.
+     * @return an iterator over the values between low and high.
+     */
+    public Iterator<T> rangeIterator(final T low, final T high) {
+        verifyValue(low);
+        verifyValue(high);
+        return new RangeIterator(ceilingNode(low), high);
+    }
+
+    /**
+     * @return a weakly consistent iterator over all the values, in increasing
+     *         order.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new RangeIterator(m_head.next(0), null);
+    }
+
+    /**
+     * @return true it the set is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return firstPresent(m_head.next(0)) == m_tail;
+    }
+
+    /**
+     * @return the number of values in the set. The count is exact when no
+     *         insertion or deletion is in progress, and approximate
+     *         otherwise.
+     */
+    public int size() {
+        return (int) Math.min(m_size.sum(), Integer.MAX_VALUE);
+    }
+
+    /**
+     * Search the predecessors and successors of a value on every level.
+     *
+     * @param value the value to search.
+     * @param predecessors filled with the last node lower than the value on
+     *            every level.
+     * @param successors filled with the first node bigger than or equal to
+     *            the value on every level.
+     * @return the highest level where a node with the value was found, -1 if
+     *         it was not found.
+     */
+    private int find(final T value, final Node<T>[] predecessors, final Node<T>[] successors) {
+        int levelFound = -1;
+        Node<T> predecessor = m_head;
+        for (int level = MAX_LEVEL - 1; level >= 0; level--) {
+            Node<T> current = predecessor.next(level);
+            while (current != m_tail && current.m_value.compareTo(value) < 0) {
+                predecessor = current;
+                current = predecessor.next(level);
+            }
+            if (levelFound == -1 && current != m_tail && current.m_value.compareTo(value) == 0) {
+                levelFound = level;
+            }
+            predecessors[level] = predecessor;
+            successors[level] = current;
+        }
+        return levelFound;
+    }
+
+    /**
+     * Search the first node bigger than or equal to a value on the bottom
+     * level, present or not.
+     *
+     * @param value the value to search.
+     * @return the node, the tail if all the values are lower.
+     */
+    private Node<T> ceilingNode(final T value) {
+        Node<T> predecessor = m_head;
+        Node<T> current = m_tail;
+        for (int level = MAX_LEVEL - 1; level >= 0; level--) {
+            current = predecessor.next(level);
+            while (current != m_tail && current.m_value.compareTo(value) < 0) {
+                predecessor = current;
+                current = predecessor.next(level);
+            }
+        }
+        return current;
+    }
+
+    /**
+     * @param start a node of the bottom level.
+     * @return the first node present from the start node, the tail if there
+     *         is none.
+     */
+    private Node<T> firstPresent(final Node<T> start) {
+        Node<T> node = start;
+        while (node != m_tail && !node.isPresent()) {
+            node = node.next(0);
+        }
+        return node;
+    }
+
+    /**
+     * Unlock the predecessors locked by an insertion or a deletion.
+     *
+     * @param predecessors the predecessors.
+     * @param highestLocked the highest level locked, -1 if none.
+     */
+    private void unlock(final Node<T>[] predecessors, final int highestLocked) {
+        for (int level = 0; level <= highestLocked; level++) {
+            predecessors[level].m_lock.unlock();
+        }
+    }
+
+    /**
+     * @return a random top level for a new node, level k being reached with a
+     *         probability of 1 / 2^k.
+     */
+    private int randomLevel() {
+        return Integer.numberOfTrailingZeros(
+                ThreadLocalRandom.current().nextInt() | (1 << (MAX_LEVEL - 1)));
+    }
+
+    /**
+     * Verify that a value is not null.
+     *
+     * @param value the value to check.
+     */
+    private void verifyValue(final T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("The value can't be null !");
+        }
+    }
+
+    /**
+     * Weakly consistent iterator over the bottom level, up to a bound.
+     */
+    private final class RangeIterator implements Iterator<T> {
+        private final T m_high;
+        private Node<T> m_next;
+
+        /**
+         * @param first the first node to consider, present or not.
+         * @param high the highest value, included, null if there is no upper
+         *            bound.
+         */
+        RangeIterator(final Node<T> first, final T high) {
+            m_high = high;
+            m_next = advance(first);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return m_next != null;
+        }
+
+        @Override
+        public T next() {
+            if (m_next == null) {
+                throw new NoSuchElementException();
+            }
+            T value = m_next.m_value;
+            m_next = advance(m_next.next(0));
+            return value;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("Use delete to remove values!");
+        }
+
+        /**
+         * @param node a node of the bottom level.
+         * @return the first node present from the node, null if there is none
+         *         or if its value is above the bound.
+         */
+        private Node<T> advance(final Node<T> node) {
+            Node<T> present = firstPresent(node);
+            if (present == m_tail || (m_high != null && present.m_value.compareTo(m_high) > 0)) {
+                return null;
+            }
+            return present;
+        }
+    }
+}
@@ -9,6 +9,10 @@ public class Node<T extends Comparable<T>>{
     private Node<T> m_left;
     private Node<T> m_right;
     private Node<T> m_parent;
+    // the height of the subtree, a leaf has a height of one.
+    private int m_height = 1;
+    // the number of nodes in the subtree, including this node.
+    private int m_size = 1;
 
     /**
      * Create a new node with a specific value.
@@ -69,6 +73,15 @@ public class Node<T extends Comparable<T>>{
         assignParent(node);
     }
     
+    /**
+     * Set the right child node without changing its parent, used by the
+     * traversals which temporarily thread the tree.
+     * @param node The node to set as the right child.
+     */
+    void linkRight(final Node<T> node) {
+        m_right = node;
+    }
+    
     /**
      * @return the node's parent.
      */
@@ -84,6 +97,38 @@ public class Node<T extends Comparable<T>>{
         m_parent = node;
     }
 
+    /**
+     * @return the height of the subtree with the node as root, one for a
+     *         leaf.
+     */
+    public int height() {
+        return m_height;
+    }
+
+    /**
+     * Set the height of the subtree with the node as root.
+     * @param height the height to set.
+     */
+    public void setHeight(final int height) {
+        m_height = height;
+    }
+
+    /**
+     * @return the number of nodes in the subtree with the node as root,
+     *         including the node.
+     */
+    public int size() {
+        return m_size;
+    }
+
+    /**
+     * Set the number of nodes in the subtree with the node as root.
+     * @param size the size to set.
+     */
+    public void setSize(final int size) {
+        m_size = size;
+    }
+
     /**
      * @return true if the node has no children, false otherwise.
      */
@@ -0,0 +1,461 @@
+package com.melimelo.bst;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Persistent binary search tree: the tree is immutable, and inserting or
+ * deleting a value returns a new version of the tree while the previous
+ * versions stay unchanged. Only the nodes on the path from the root to the
+ * value are copied, O(log(n)) of them, the other subtrees are shared between
+ * the versions. Any version can be read at any time, from any thread, so a
+ * version is a consistent snapshot of the values which doesn't need to be
+ * copied, whatever is done on the following versions.
+ *
+ * The tree is an AVL tree: the copied nodes are rebalanced on the way back
+ * to the root, so all operations are O(log(n)) in the worst case. Every node
+ * knows the size of its subtree so that ranks are found along a single path.
+ * Does not allow duplicate nor null values.
+ */
+public final class PersistentBinarySearchTree<T extends Comparable<T>> implements Iterable<T> {
+
+    /**
+     * Immutable node of the tree, which can be shared by several versions.
+     */
+    private static final class ImmutableNode<T> {
+        private final T m_value;
+        private final ImmutableNode<T> m_left;
+        private final ImmutableNode<T> m_right;
+        private final int m_height;
+        private final int m_size;
+
+        ImmutableNode(final T value, final ImmutableNode<T> left, final ImmutableNode<T> right) {
+            m_value = value;
+            m_left = left;
+            m_right = right;
+            m_height = Math.max(height(left), height(right)) + 1;
+            m_size = size(left) + size(right) + 1;
+        }
+    }
+
+    private final ImmutableNode<T> m_root;
+    private final long m_version;
+
+    /**
+     * Create a new empty tree, at version 0.
+     */
+    public PersistentBinarySearchTree() {
+        this(null, 0);
+    }
+
+    /**
+     * Create a version of the tree.
+     *
+     * @param root the root of the version.
+     * @param version the number of the version.
+     */
+    private PersistentBinarySearchTree(final ImmutableNode<T> root, final long version) {
+        m_root = root;
+        m_version = version;
+    }
+
+    /**
+     * Insert a value, copying the path to it.
+     *
+     * @param value the value to insert. Can't be null.
+     * @return the new version of the tree with the value, this version if the
+     *         value was already there.
+     */
+    public PersistentBinarySearchTree<T> insert(final T value) {
+        verifyValue(value);
+        ImmutableNode<T> root = insert(m_root, value);
+        return root == m_root ? this : new PersistentBinarySearchTree<T>(root, m_version + 1);
+    }
+
+    /**
+     * Delete a value, copying the path to it.
+     *
+     * @param value the value to delete. Can't be null.
+     * @return the new version of the tree without the value, this version if
+     *         the value was not there.
+     */
+    public PersistentBinarySearchTree<T> delete(final T value) {
+        verifyValue(value);
+        ImmutableNode<T> root = delete(m_root, value);
+        return root == m_root ? this : new PersistentBinarySearchTree<T>(root, m_version + 1);
+    }
+
+    /**
+     * Search a value.
+     *
+     * @param value the value to search.
+     * @return the value of the tree equal to the value, null if there's none.
+     */
+    public T search(final T value) {
+        if (value == null) {
+            return null;
+        }
+        ImmutableNode<T> node = m_root;
+        while (node != null) {
+            int comparison = value.compareTo(node.m_value);
+            if (comparison == 0) {
+                return node.m_value;
+            }
+            node = comparison < 0 ? node.m_left : node.m_right;
+        }
+        return null;
+    }
+
+    /**
+     * Verify if the tree contains a value.
+     *
+     * @param value the value to check.
+     * @return true if the value is not null and is contained in the tree,
+     *         false otherwise.
+     */
+    public boolean contains(final T value) {
+        return search(value) != null;
+    }
+
+    /**
+     * @return The minimum value of the tree, null if the tree is empty.
+     */
+    public T min() {
+        return m_root == null ? null : min(m_root).m_value;
+    }
+
+    /**
+     * @return The maximum value of the tree, null if the tree is empty.
+     */
+    public T max() {
+        ImmutableNode<T> node = m_root;
+        if (node == null) {
+            return null;
+        }
+        while (node.m_right != null) {
+            node = node.m_right;
+        }
+        return node.m_value;
+    }
+
+    /**
+     * Get the biggest value lower than or equal to a value.
+     *
+     * @param value the value to compare with. Can't be null.
+     * @return the floor value, null if all the values are bigger.
+     */
+    public T floor(final T value) {
+        verifyValue(value);
+        T floor = null;
+        ImmutableNode<T> node = m_root;
+        while (node != null) {
+            int comparison = value.compareTo(node.m_value);
+            if (comparison == 0) {
+                return node.m_value;
+            }
+            if (comparison < 0) {
+                node = node.m_left;
+            } else {
+                floor = node.m_value;
+                node = node.m_right;
+            }
+        }
+        return floor;
+    }
+
+    /**
+     * Get the smallest value bigger than or equal to a value.
+     *
+     * @param value the value to compare with. Can't be null.
+     * @return the ceiling value, null if all the values are lower.
+     */
+    public T ceiling(final T value) {
+        verifyValue(value);
+        T ceiling = null;
+        ImmutableNode<T> node = m_root;
+        while (node != null) {
+            int comparison = value.compareTo(node.m_value);
+            if (comparison == 0) {
+                return node.m_value;
+            }
+            if (comparison > 0) {
+                node = node.m_right;
+            } else {
+                ceiling = node.m_value;
+                node = node.m_left;
+            }
+        }
+        return ceiling;
+    }
+
+    /**
+     * Get the rank of a value, i.e the number of values of the tree smaller
+     * than it. The value doesn't have to be in the tree.
+     *
+     * @param value the value for which to get the rank. Can't be null.
+     * @return the number of values strictly smaller than the value.
+     */
+    public int rank(final T value) {
+        verifyValue(value);
+        int rank = 0;
+        ImmutableNode<T> node = m_root;
+        while (node != null) {
+            int comparison = value.compareTo(node.m_value);
+            if (comparison <= 0) {
+                if (comparison == 0) {
+                    return rank + size(node.m_left);
+                }
+                node = node.m_left;
+            } else {
+                rank += size(node.m_left) + 1;
+                node = node.m_right;
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Get the value of a specific rank, i.e the k-th smallest value starting
+     * from 0.
+     *
+     * @param rank the rank of the value, from 0 to the size of the tree
+     *            excluded.
+     * @return the value of the rank.
+     */
+    public T select(final int rank) {
+        if (rank < 0 || rank >= size()) {
+            throw new IllegalArgumentException("The rank " + rank
+                    + " must be between 0 and " + size() + " excluded !");
+        }
+        ImmutableNode<T> node = m_root;
+        int remaining = rank;
+        while (true) {
+            int leftSize = size(node.m_left);
+            if (remaining < leftSize) {
+                node = node.m_left;
+            } else if (remaining == leftSize) {
+                return node.m_value;
+            } else {
+                remaining -= leftSize + 1;
+                node = node.m_right;
+            }
+        }
+    }
+
+    /**
+     * @return an iterator over the values of this version in increasing
+     *         order, unaffected by the following versions.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        final Deque<ImmutableNode<T>> stack = new ArrayDeque<ImmutableNode<T>>();
+        pushLeftPath(stack, m_root);
+        return new Iterator<T>() {
+            @Override
+            public boolean hasNext() {
+                return !stack.isEmpty();
+            }
+
+            @Override
+            public T next() {
+                if (stack.isEmpty()) {
+                    throw new NoSuchElementException();
+                }
+                ImmutableNode<T> node = stack.pop();
+                pushLeftPath(stack, node.m_right);
+                return node.m_value;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException("The tree is immutable!");
+            }
+        };
+    }
+
+    /**
+     * @return the number of the version, i.e the number of insertions and
+     *         deletions which changed the tree since the empty tree.
+     */
+    public long version() {
+        return m_version;
+    }
+
+    /**
+     * @return true if the tree is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return m_root == null;
+    }
+
+    /**
+     * @return the number of values in the tree.
+     */
+    public int size() {
+        return size(m_root);
+    }
+
+    /**
+     * @return the height of the tree, 0 if the tree is empty.
+     */
+    public int height() {
+        return height(m_root);
+    }
+
+    /**
+     * Insert a value in a subtree.
+     *
+     * @param node the root of the subtree.
+     * @param value the value to insert.
+     * @return the root of the new subtree, the same root if the value was
+     *         already there.
+     */
+    private ImmutableNode<T> insert(final ImmutableNode<T> node, final T value) {
+        if (node == null) {
+            return new ImmutableNode<T>(value, null, null);
+        }
+        int comparison = value.compareTo(node.m_value);
+        if (comparison < 0) {
+            ImmutableNode<T> left = insert(node.m_left, value);
+            return left == node.m_left ? node : balance(node.m_value, left, node.m_right);
+        }
+        if (comparison > 0) {
+            ImmutableNode<T> right = insert(node.m_right, value);
+            return right == node.m_right ? node : balance(node.m_value, node.m_left, right);
+        }
+        return node;
+    }
+
+    /**
+     * Delete a value from a subtree.
+     *
+     * @param node the root of the subtree.
+     * @param value the value to delete.
+     * @return the root of the new subtree, the same root if the value was not
+     *         there.
+     */
+    private ImmutableNode<T> delete(final ImmutableNode<T> node, final T value) {
+        if (node == null) {
+            return null;
+        }
+        int comparison = value.compareTo(node.m_value);
+        if (comparison < 0) {
+            ImmutableNode<T> left = delete(node.m_left, value);
+            return left == node.m_left ? node : balance(node.m_value, left, node.m_right);
+        }
+        if (comparison > 0) {
+            ImmutableNode<T> right = delete(node.m_right, value);
+            return right == node.m_right ? node : balance(node.m_value, node.m_left, right);
+        }
+        if (node.m_left == null) {
+            return node.m_right;
+        }
+        if (node.m_right == null) {
+            return node.m_left;
+        }
+        // the successor (i.e the min of the right subtree) replaces the node.
+        return balance(min(node.m_right).m_value, node.m_left, deleteMin(node.m_right));
+    }
+
+    /**
+     * @param node the root of a subtree, not null.
+     * @return the root of the new subtree without its minimum.
+     */
+    private ImmutableNode<T> deleteMin(final ImmutableNode<T> node) {
+        if (node.m_left == null) {
+            return node.m_right;
+        }
+        return balance(node.m_value, deleteMin(node.m_left), node.m_right);
+    }
+
+    /**
+     * Create a node from subtrees whose heights differ by two at most,
+     * rotating if they differ by two.
+     *
+     * @param value the value of the node.
+     * @param left the left subtree.
+     * @param right the right subtree.
+     * @return the root of the balanced subtree.
+     */
+    private ImmutableNode<T> balance(final T value, final ImmutableNode<T> left,
+            final ImmutableNode<T> right) {
+        int balance = height(left) - height(right);
+        if (balance > 1) {
+            if (height(left.m_left) < height(left.m_right)) {
+                // left-right case, the middle subtree goes up.
+                ImmutableNode<T> middle = left.m_right;
+                return new ImmutableNode<T>(middle.m_value,
+                        new ImmutableNode<T>(left.m_value, left.m_left, middle.m_left),
+                        new ImmutableNode<T>(value, middle.m_right, right));
+            }
+            return new ImmutableNode<T>(left.m_value, left.m_left,
+                    new ImmutableNode<T>(value, left.m_right, right));
+        }
+        if (balance < -1) {
+            if (height(right.m_right) < height(right.m_left)) {
+                // right-left case, the middle subtree goes up.
+                ImmutableNode<T> middle = right.m_left;
+                return new ImmutableNode<T>(middle.m_value,
+                        new ImmutableNode<T>(value, left, middle.m_left),
+                        new ImmutableNode<T>(right.m_value, middle.m_right, right.m_right));
+            }
+            return new ImmutableNode<T>(right.m_value,
+                    new ImmutableNode<T>(value, left, right.m_left), right.m_right);
+        }
+        return new ImmutableNode<T>(value, left, right);
+    }
+
+    /**
+     * @param node the root of a subtree, not null.
+     * @return the node with the minimum value of the subtree.
+     */
+    private ImmutableNode<T> min(final ImmutableNode<T> node) {
+        ImmutableNode<T> min = node;
+        while (min.m_left != null) {
+            min = min.m_left;
+        }
+        return min;
+    }
+
+    /**
+     * Push the path from a node to the minimum of its subtree.
+     *
+     * @param stack the stack on which to push the nodes.
+     * @param node the node from which to push the path.
+     */
+    private static <T> void pushLeftPath(final Deque<ImmutableNode<T>> stack,
+            final ImmutableNode<T> node) {
+        for (ImmutableNode<T> current = node; current != null; current = current.m_left) {
+            stack.push(current);
+        }
+    }
+
+    /**
+     * @param node a node, or null.
+     * @return the height of the subtree of the node, 0 for null.
+     */
+    private static int height(final ImmutableNode<?> node) {
+        return node == null ? 0 : node.m_height;
+    }
+
+    /**
+     * @param node a node, or null.
+     * @return the size of the subtree of the node, 0 for null.
+     */
+    private static int size(final ImmutableNode<?> node) {
+        return node == null ? 0 : node.m_size;
+    }
+
+    /**
+     * Verify that a value is not null.
+     *
+     * @param value the value to check.
+     */
+    private void verifyValue(final T value) {
+        if (value == null) {
+            throw new IllegalArgumentException("The value can't be null !");
+        }
+    }
+}
@@ -1,7 +1,19 @@
 package com.melimelo.bst;
 
-import java.util.Queue;
-import java.util.LinkedList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * Provide method for tree traversals.
@@ -48,7 +60,8 @@ public final class Traversals {
     }
 
     /**
-     * Perform an in-order traversal.
+     * Perform an in-order traversal, iteratively so that deep trees can't
+     * overflow the call stack.
      * 
      * @param node the node to from which to start the traversal.
      * @param action the action to apply on each node.
@@ -56,15 +69,12 @@ public final class Traversals {
     public static <T extends Comparable<T>> void inOrderTraversal(
             final Node<T> node, final ITraversalAction<T> action) {
         validateTraversalAction(action);
-        if (node != null) {
-            inOrderTraversal(node.left(), action);
-            action.apply(node);
-            inOrderTraversal(node.right(), action);
-        }
+        apply(inOrderIterator(node), action);
     }
 
     /**
-     * Perform a post-order traversal.
+     * Perform a post-order traversal, iteratively so that deep trees can't
+     * overflow the call stack.
      * 
      * @param node the node to from which to start the traversal.
      * @param action the action to apply on each node.
@@ -72,15 +82,12 @@ public final class Traversals {
     public static <T extends Comparable<T>> void postOrderTraversal(
             final Node<T> node, final ITraversalAction<T> action) {
         validateTraversalAction(action);
-        if (node != null) {
-            postOrderTraversal(node.left(), action);
-            postOrderTraversal(node.right(), action);
-            action.apply(node);
-        }
+        apply(postOrderIterator(node), action);
     }
 
     /**
-     * Perform a pre-order traversal.
+     * Perform a pre-order traversal, iteratively so that deep trees can't
+     * overflow the call stack.
      * 
      * @param node the node to from which to start the traversal.
      * @param action the action to apply on each node.
@@ -88,11 +95,7 @@ public final class Traversals {
     public static <T extends Comparable<T>> void preOrderTraversal(
             final Node<T> node, final ITraversalAction<T> action) {
         validateTraversalAction(action);
-        if (node != null) {
-            action.apply(node);
-            preOrderTraversal(node.left(), action);
-            preOrderTraversal(node.right(), action);
-        }
+        apply(preOrderIterator(node), action);
     }
 
     /**
@@ -103,25 +106,258 @@ public final class Traversals {
      */
     public static <T extends Comparable<T>> void levelTraversal(
             final Node<T> node, final ITraversalAction<T> action) {
+        validateTraversalAction(action);
+        apply(levelIterator(node), action);
+    }
 
-        if(node != null) {
-
-            validateTraversalAction(action);
+    /**
+     * Perform an in-order traversal with O(1) extra space (Morris traversal):
+     * before going down the left subtree of a node, the right link of its
+     * predecessor is pointed to it to find the way back, and is reset when
+     * going back. The tree is restored once the traversal is done, but the
+     * action must not modify the tree nor rely on the right links of the
+     * nodes, nor can the tree be read concurrently during the traversal.
+     * 
+     * @param node the node to from which to start the traversal.
+     * @param action the action to apply on each node.
+     */
+    public static <T extends Comparable<T>> void morrisInOrderTraversal(
+            final Node<T> node, final ITraversalAction<T> action) {
+        validateTraversalAction(action);
+        Node<T> current = node;
+        while (current != null) {
+            if (current.left() == null) {
+                action.apply(current);
+                current = current.right();
+            } else {
+                Node<T> predecessor = threadPredecessor(current);
+                if (predecessor.right() == null) {
+                    predecessor.linkRight(current);
+                    current = current.left();
+                } else {
+                    // back from the left subtree.
+                    predecessor.linkRight(null);
+                    action.apply(current);
+                    current = current.right();
+                }
+            }
+        }
+    }
 
-            Queue<Node<T>> nodesQueue = new LinkedList<Node<T>>();
-            nodesQueue.add(node);
-            while (!nodesQueue.isEmpty()) {
-                Node<T> nodeToVisit = nodesQueue.poll();
-                action.apply(nodeToVisit);
-                if (nodeToVisit.left() != null) {
-                    nodesQueue.add(nodeToVisit.left());
+    /**
+     * Perform a pre-order traversal with O(1) extra space, threading the tree
+     * like {@link #morrisInOrderTraversal(Node, ITraversalAction)}.
+     * 
+     * @param node the node to from which to start the traversal.
+     * @param action the action to apply on each node.
+     */
+    public static <T extends Comparable<T>> void morrisPreOrderTraversal(
+            final Node<T> node, final ITraversalAction<T> action) {
+        validateTraversalAction(action);
+        Node<T> current = node;
+        while (current != null) {
+            if (current.left() == null) {
+                action.apply(current);
+                current = current.right();
+            } else {
+                Node<T> predecessor = threadPredecessor(current);
+                if (predecessor.right() == null) {
+                    action.apply(current);
+                    predecessor.linkRight(current);
+                    current = current.left();
+                } else {
+                    predecessor.linkRight(null);
+                    current = current.right();
                 }
-                
-                if (nodeToVisit.right() != null) {
-                    nodesQueue.add(nodeToVisit.right());
+            }
+        }
+    }
+
+    /**
+     * Perform a post-order traversal with O(1) extra space, threading the
+     * tree like {@link #morrisInOrderTraversal(Node, ITraversalAction)}. When
+     * back from the left subtree of a node, the right path from its left
+     * child down to its predecessor is visited bottom-up by reversing its
+     * right links, then reversing them back.
+     * 
+     * @param node the node to from which to start the traversal.
+     * @param action the action to apply on each node.
+     */
+    public static <T extends Comparable<T>> void morrisPostOrderTraversal(
+            final Node<T> node, final ITraversalAction<T> action) {
+        validateTraversalAction(action);
+        Node<T> current = node;
+        while (current != null) {
+            if (current.left() == null) {
+                current = current.right();
+            } else {
+                Node<T> predecessor = threadPredecessor(current);
+                if (predecessor.right() == null) {
+                    predecessor.linkRight(current);
+                    current = current.left();
+                } else {
+                    predecessor.linkRight(null);
+                    applyBottomUp(current.left(), predecessor, action);
+                    current = current.right();
                 }
             }
         }
+        // the right path from the root is left.
+        if (node != null) {
+            Node<T> last = node;
+            while (last.right() != null) {
+                last = last.right();
+            }
+            applyBottomUp(node, last, action);
+        }
+    }
+
+    /**
+     * @param node the node from which to start the traversal.
+     * @return an iterator over the nodes in in-order, keeping the path to the
+     *         next node in an explicit stack.
+     */
+    public static <T extends Comparable<T>> Iterator<Node<T>> inOrderIterator(final Node<T> node) {
+        return new InOrderIterator<T>(node);
+    }
+
+    /**
+     * @param node the node from which to start the traversal.
+     * @return an iterator over the nodes in pre-order, keeping the right
+     *         children to visit in an explicit stack.
+     */
+    public static <T extends Comparable<T>> Iterator<Node<T>> preOrderIterator(final Node<T> node) {
+        return new PreOrderIterator<T>(node);
+    }
+
+    /**
+     * @param node the node from which to start the traversal.
+     * @return an iterator over the nodes in post-order, keeping the path to
+     *         the next node in an explicit stack.
+     */
+    public static <T extends Comparable<T>> Iterator<Node<T>> postOrderIterator(final Node<T> node) {
+        return new PostOrderIterator<T>(node);
+    }
+
+    /**
+     * @param node the node from which to start the traversal.
+     * @return an iterator over the nodes level by level, keeping the nodes to
+     *         visit in an array deque.
+     */
+    public static <T extends Comparable<T>> Iterator<Node<T>> levelIterator(final Node<T> node) {
+        return new LevelIterator<T>(node);
+    }
+
+    /**
+     * Map the values of a tree and combine them in in-order, in parallel: the
+     * left subtree of a node is reduced in a fork/join task while the right
+     * subtree is reduced by the current task, down to the subtrees with less
+     * nodes than a threshold, which are reduced sequentially. The subtrees
+     * sizes are the ones maintained by {@link BinarySearchTree}.
+     * 
+     * @param root the root node of the tree.
+     * @param mapper the function mapping a value to a result. Must be
+     *            thread-safe.
+     * @param combiner the associative function combining the result of the
+     *            values before and after. Must be thread-safe.
+     * @param threshold the size under which a subtree is reduced sequentially,
+     *            at least 1.
+     * @return the combination of the results of all the values, null if the
+     *         tree is empty.
+     */
+    public static <T extends Comparable<T>, R> R parallelReduce(final Node<T> root,
+            final Function<? super T, ? extends R> mapper, final BinaryOperator<R> combiner,
+            final int threshold) {
+        if (mapper == null || combiner == null) {
+            throw new IllegalArgumentException("The mapper and the combiner can't be null!");
+        }
+        if (threshold < 1) {
+            throw new IllegalArgumentException("The threshold must be at least 1!");
+        }
+        if (root == null) {
+            return null;
+        }
+        return ForkJoinPool.commonPool().invoke(
+                new ReduceTask<T, R>(root, mapper, combiner, threshold));
+    }
+
+    /**
+     * @param root the root node of the tree.
+     * @return a spliterator over the values of the tree in in-order, which
+     *         splits at subtree boundaries so that parallel streams over the
+     *         tree work on separate subtrees.
+     */
+    public static <T extends Comparable<T>> Spliterator<T> spliterator(final Node<T> root) {
+        return new TreeSpliterator<T>(root);
+    }
+
+    /**
+     * Apply an action on all the nodes of an iterator.
+     * 
+     * @param nodes the nodes.
+     * @param action the action to apply.
+     */
+    private static <T extends Comparable<T>> void apply(final Iterator<Node<T>> nodes,
+            final ITraversalAction<T> action) {
+        while (nodes.hasNext()) {
+            action.apply(nodes.next());
+        }
+    }
+
+    /**
+     * @param node a node with a left child.
+     * @return the in-order predecessor of the node, or the node whose right
+     *         link was threaded to the node.
+     */
+    private static <T extends Comparable<T>> Node<T> threadPredecessor(final Node<T> node) {
+        Node<T> predecessor = node.left();
+        while (predecessor.right() != null && predecessor.right() != node) {
+            predecessor = predecessor.right();
+        }
+        return predecessor;
+    }
+
+    /**
+     * Apply an action on the nodes of a right path, from the bottom to the
+     * top, without extra space.
+     * 
+     * @param top the first node of the path.
+     * @param bottom the last node of the path.
+     * @param action the action to apply.
+     */
+    private static <T extends Comparable<T>> void applyBottomUp(final Node<T> top,
+            final Node<T> bottom, final ITraversalAction<T> action) {
+        Node<T> bottomRight = bottom.right();
+        reverse(top, bottom);
+        Node<T> node = bottom;
+        while (true) {
+            action.apply(node);
+            if (node == top) {
+                break;
+            }
+            node = node.right();
+        }
+        reverse(bottom, top);
+        bottom.linkRight(bottomRight);
+    }
+
+    /**
+     * Reverse the right links of a right path, so that each node of the path
+     * points to the previous one. The right link of the first node is left
+     * unchanged.
+     * 
+     * @param from the first node of the path.
+     * @param to the last node of the path.
+     */
+    private static <T extends Comparable<T>> void reverse(final Node<T> from, final Node<T> to) {
+        Node<T> previous = from;
+        Node<T> node = from.right();
+        while (previous != to) {
+            Node<T> next = node.right();
+            node.linkRight(previous);
+            previous = node;
+            node = next;
+        }
     }
 
     /**
@@ -135,6 +371,379 @@ public final class Traversals {
         }
     }
 
+    /**
+     * Base class of the iterators over the nodes of a tree.
+     */
+    private abstract static class NodeIterator<T extends Comparable<T>>
+            implements Iterator<Node<T>> {
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException("Can't remove nodes during a traversal!");
+        }
+
+        /**
+         * @param nodes the nodes left to visit.
+         * @throws NoSuchElementException if there are no nodes left.
+         */
+        protected void verifyHasNext(final Deque<Node<T>> nodes) {
+            if (nodes.isEmpty()) {
+                throw new NoSuchElementException();
+            }
+        }
+    }
+
+    /**
+     * In-order iterator, the stack holds the nodes whose left subtree is
+     * being visited.
+     */
+    private static final class InOrderIterator<T extends Comparable<T>> extends NodeIterator<T> {
+        private final Deque<Node<T>> m_stack = new ArrayDeque<Node<T>>();
+
+        InOrderIterator(final Node<T> root) {
+            pushLeftPath(root);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !m_stack.isEmpty();
+        }
+
+        @Override
+        public Node<T> next() {
+            verifyHasNext(m_stack);
+            Node<T> node = m_stack.pop();
+            pushLeftPath(node.right());
+            return node;
+        }
+
+        /**
+         * @param node the node from which to push the left path.
+         */
+        private void pushLeftPath(final Node<T> node) {
+            for (Node<T> current = node; current != null; current = current.left()) {
+                m_stack.push(current);
+            }
+        }
+    }
+
+    /**
+     * Pre-order iterator, the stack holds the roots of the subtrees left to
+     * visit.
+     */
+    private static final class PreOrderIterator<T extends Comparable<T>> extends NodeIterator<T> {
+        private final Deque<Node<T>> m_stack = new ArrayDeque<Node<T>>();
+
+        PreOrderIterator(final Node<T> root) {
+            if (root != null) {
+                m_stack.push(root);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !m_stack.isEmpty();
+        }
+
+        @Override
+        public Node<T> next() {
+            verifyHasNext(m_stack);
+            Node<T> node = m_stack.pop();
+            if (node.right() != null) {
+                m_stack.push(node.right());
+            }
+            if (node.left() != null) {
+                m_stack.push(node.left());
+            }
+            return node;
+        }
+    }
+
+    /**
+     * Post-order iterator, the stack holds the path to the next node, whose
+     * subtrees have been visited.
+     */
+    private static final class PostOrderIterator<T extends Comparable<T>> extends NodeIterator<T> {
+        private final Deque<Node<T>> m_stack = new ArrayDeque<Node<T>>();
+
+        PostOrderIterator(final Node<T> root) {
+            pushFirstLeafPath(root);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !m_stack.isEmpty();
+        }
+
+        @Override
+        public Node<T> next() {
+            verifyHasNext(m_stack);
+            Node<T> node = m_stack.pop();
+            // back from a left subtree, the right subtree comes next.
+            Node<T> parent = m_stack.peek();
+            if (parent != null && parent.left() == node) {
+                pushFirstLeafPath(parent.right());
+            }
+            return node;
+        }
+
+        /**
+         * Push the path from a node to the first leaf of its subtree in
+         * post-order, going left whenever possible.
+         * 
+         * @param node the node from which to push the path.
+         */
+        private void pushFirstLeafPath(final Node<T> node) {
+            Node<T> current = node;
+            while (current != null) {
+                m_stack.push(current);
+                current = current.left() != null ? current.left() : current.right();
+            }
+        }
+    }
+
+    /**
+     * Level iterator, the queue holds the nodes of the current level left to
+     * visit followed by the children of the nodes visited.
+     */
+    private static final class LevelIterator<T extends Comparable<T>> extends NodeIterator<T> {
+        private final Deque<Node<T>> m_queue = new ArrayDeque<Node<T>>();
+
+        LevelIterator(final Node<T> root) {
+            if (root != null) {
+                m_queue.add(root);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !m_queue.isEmpty();
+        }
+
+        @Override
+        public Node<T> next() {
+            verifyHasNext(m_queue);
+            Node<T> node = m_queue.poll();
+            if (node.left() != null) {
+                m_queue.add(node.left());
+            }
+            if (node.right() != null) {
+                m_queue.add(node.right());
+            }
+            return node;
+        }
+    }
+
+    /**
+     * Fork/join task reducing a subtree, or mapping a single node. The task
+     * goes down the biggest child of each node while the subtree is above the
+     * threshold, forking a task for the other child, so that the forked
+     * subtrees are at most half the size and deep trees can't overflow the
+     * call stack.
+     */
+    private static final class ReduceTask<T extends Comparable<T>, R> extends RecursiveTask<R> {
+        private static final long serialVersionUID = 1L;
+
+        private final Node<T> m_node;
+        private final boolean m_single;
+        private final Function<? super T, ? extends R> m_mapper;
+        private final BinaryOperator<R> m_combiner;
+        private final int m_threshold;
+
+        ReduceTask(final Node<T> node, final boolean single,
+                final Function<? super T, ? extends R> mapper, final BinaryOperator<R> combiner,
+                final int threshold) {
+            m_node = node;
+            m_single = single;
+            m_mapper = mapper;
+            m_combiner = combiner;
+            m_threshold = threshold;
+        }
+
+        ReduceTask(final Node<T> node, final Function<? super T, ? extends R> mapper,
+                final BinaryOperator<R> combiner, final int threshold) {
+            this(node, false, mapper, combiner, threshold);
+        }
+
+        @Override
+        protected R compute() {
+            if (m_single) {
+                return m_mapper.apply(m_node.value());
+            }
+            // the parts before and after the subtree left, in order.
+            List<ReduceTask<T, R>> before = new ArrayList<ReduceTask<T, R>>();
+            Deque<ReduceTask<T, R>> after = new ArrayDeque<ReduceTask<T, R>>();
+            Node<T> node = m_node;
+            while (node.size() > m_threshold) {
+                if (size(node.left()) >= size(node.right())) {
+                    if (node.right() != null) {
+                        after.addFirst(fork(node.right()));
+                    }
+                    after.addFirst(single(node));
+                    node = node.left();
+                } else {
+                    if (node.left() != null) {
+                        before.add(fork(node.left()));
+                    }
+                    before.add(single(node));
+                    node = node.right();
+                }
+            }
+            R result = sequentialReduce(node);
+            for (int i = before.size() - 1; i >= 0; i--) {
+                result = m_combiner.apply(before.get(i).result(), result);
+            }
+            for (ReduceTask<T, R> task : after) {
+                result = m_combiner.apply(result, task.result());
+            }
+            return result;
+        }
+
+        /**
+         * @param node the root of a subtree.
+         * @return the task reducing the subtree, forked.
+         */
+        private ReduceTask<T, R> fork(final Node<T> node) {
+            ReduceTask<T, R> task = new ReduceTask<T, R>(node, m_mapper, m_combiner, m_threshold);
+            task.fork();
+            return task;
+        }
+
+        /**
+         * @param node a node.
+         * @return the task mapping the node, not forked.
+         */
+        private ReduceTask<T, R> single(final Node<T> node) {
+            return new ReduceTask<T, R>(node, true, m_mapper, m_combiner, m_threshold);
+        }
+
+        /**
+         * @return the result of the task, mapping the node on the current
+         *         thread for a single node task and waiting for the forked
+         *         task otherwise.
+         */
+        private R result() {
+            return m_single ? compute() : join();
+        }
+
+        /**
+         * @param node the root of a subtree.
+         * @return the reduction of the subtree on the current thread.
+         */
+        private R sequentialReduce(final Node<T> node) {
+            Iterator<Node<T>> nodes = inOrderIterator(node);
+            R result = m_mapper.apply(nodes.next().value());
+            while (nodes.hasNext()) {
+                result = m_combiner.apply(result, m_mapper.apply(nodes.next().value()));
+            }
+            return result;
+        }
+
+        /**
+         * @param node a node, or null.
+         * @return the size of the subtree of the node, 0 for null.
+         */
+        private static int size(final Node<?> node) {
+            return node == null ? 0 : node.size();
+        }
+    }
+
+    /**
+     * Spliterator over the values of a tree in in-order. The values left are
+     * kept as a sequence of whole subtrees and single nodes, which is split
+     * in two halves, the single subtree of the sequence being first split
+     * into its left subtree, its root and its right subtree. Once the values
+     * start being consumed, the spliterator can't be split anymore.
+     */
+    private static final class TreeSpliterator<T extends Comparable<T>> implements Spliterator<T> {
+        // the roots of the whole subtrees and the single nodes left, in order.
+        private final Deque<Node<T>> m_nodes = new ArrayDeque<Node<T>>();
+        // the single nodes, which are visited without their subtrees.
+        private final Deque<Boolean> m_singles = new ArrayDeque<Boolean>();
+        private Iterator<Node<T>> m_current;
+
+        TreeSpliterator(final Node<T> root) {
+            add(root, false);
+        }
+
+        private TreeSpliterator() {
+        }
+
+        @Override
+        public boolean tryAdvance(final Consumer<? super T> action) {
+            if (action == null) {
+                throw new NullPointerException();
+            }
+            while (m_current == null || !m_current.hasNext()) {
+                if (m_nodes.isEmpty()) {
+                    return false;
+                }
+                Node<T> node = m_nodes.poll();
+                m_current = m_singles.poll()
+                        ? Collections.singletonList(node).iterator()
+                        : inOrderIterator(node);
+            }
+            action.accept(m_current.next().value());
+            return true;
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            if (m_current != null) {
+                return null;
+            }
+            if (m_nodes.size() == 1 && !m_singles.peek()) {
+                Node<T> root = m_nodes.poll();
+                m_singles.poll();
+                add(root.left(), false);
+                add(root, true);
+                add(root.right(), false);
+            }
+            if (m_nodes.size() < 2) {
+                return null;
+            }
+            TreeSpliterator<T> prefix = new TreeSpliterator<T>();
+            for (int count = m_nodes.size() / 2; count > 0; count--) {
+                prefix.add(m_nodes.poll(), m_singles.poll());
+            }
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            long size = 0;
+            Iterator<Boolean> singles = m_singles.iterator();
+            for (Node<T> node : m_nodes) {
+                size += singles.next() ? 1 : node.size();
+            }
+            return size;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SORTED;
+        }
+
+        @Override
+        public Comparator<? super T> getComparator() {
+            // the values are sorted according to their natural order.
+            return null;
+        }
+
+        /**
+         * Add a subtree or a single node at the end of the sequence.
+         * 
+         * @param node the node to add, ignored if null.
+         * @param single true to add the node without its subtrees.
+         */
+        private void add(final Node<T> node, final boolean single) {
+            if (node != null) {
+                m_nodes.add(node);
+                m_singles.add(single);
+            }
+        }
+    }
+
     /**
      * Helper class that print a node value.
      */
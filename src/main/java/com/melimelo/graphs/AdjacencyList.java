@@ -1,5 +1,6 @@
 package com.melimelo.graphs;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -34,6 +35,30 @@ public final class AdjacencyList {
         initializeAdjacencyMap(edges);
     }
 
+    /**
+     * Create a new instance backed by a prebuilt adjacency map, which is used
+     * as is. Used by {@link GraphSnapshot}, whose map is never modified.
+     *
+     * @param adjacencyMap  the adjacent vertices of every vertex.
+     * @param directedEdges A flag indicating whether edges are directed or
+     *                      not.
+     */
+    AdjacencyList(final Map<Vertex, SortedSet<Vertex>> adjacencyMap,
+            final boolean directedEdges) {
+        m_directedEdges = directedEdges;
+        m_adjacencyMap = adjacencyMap;
+    }
+
+    /**
+     * Add an edge to the adjacency list. Used by {@link Graph} to keep its
+     * adjacency list up to date.
+     * 
+     * @param edge the edge to add.
+     */
+    void addEdge(final Edge edge) {
+        addEdgeVertices(edge);
+    }
+
     /**
      * @return true if the adjacencyList was create from a directed graph, 
      *         false otherwise.
@@ -84,21 +109,20 @@ public final class AdjacencyList {
      * @return the adjacencylist's vertices.
      */
     public Set<Vertex> getVertices() {
-        return m_adjacencyMap.keySet();
+        return Collections.unmodifiableSet(m_adjacencyMap.keySet());
     }
 
     /**
      * Get the vertices adjacent to a vertex.
      * 
      * @param vertex the vertex for which to get the adjacent vertices.
-     * @return A set of vertices adjacent to the vertex provided. If the vertex
-     *         has no adjacent vertices an immutable empty set will be returned.
+     * @return An unmodifiable set of vertices adjacent to the vertex provided.
      */
     public Set<Vertex> getAdjacentVertices(Vertex vertex) {
         if (!containsVertex(vertex)) {
             throw new IllegalArgumentException("Vertex " + vertex + " not found !");
         }
-        return m_adjacencyMap.get(vertex);
+        return Collections.unmodifiableSet(m_adjacencyMap.get(vertex));
     }
 
     /**
@@ -7,17 +7,29 @@ import java.util.Map;
 import java.util.Set;
 
 /**
- * Adjacency matrix representation of a graph.
+ * Adjacency matrix representation of a graph. Each row of the matrix is a
+ * bitset stored in an array of longs: the bit j of the row i is set when there
+ * is an edge from the vertex with index i to the vertex with index j. Rows can
+ * be combined a word (64 vertices) at a time, which is what dense graph
+ * algorithms like triangle counting and transitive closure rely on.
  */
 public final class AdjacencyMatrix {
 
     private boolean m_directedEdges;
-    private int[][] m_matrix;
+    private long[][] m_matrix;
+    private Vertex[] m_vertices;
     private Map<Vertex, Integer> m_verticesIndexes;
     public static final int UNDEFINED_INDEX = -1;
     public static final int EDGE_PRESENT = 1;
     public static final int EGDE_MISSING = 0;
 
+    /**
+     * Number of bits in a word of a row, and the shift used to get the word
+     * holding the bit of a column.
+     */
+    private static final int WORD_SIZE = Long.SIZE;
+    private static final int WORD_SHIFT = 6;
+
     /**
      * Create a new instance with the edges and vertices provided.
      * 
@@ -32,6 +44,22 @@ public final class AdjacencyMatrix {
         initializeAdjacencyMatrix(edges);
     }
 
+    /**
+     * Create a new instance sharing the vertices of another matrix but with
+     * different rows.
+     * 
+     * @param matrix the matrix with the vertices to share.
+     * @param rows the rows of the new matrix.
+     * @param directed a flag indicating whether or not the graph is directed.
+     */
+    private AdjacencyMatrix(final AdjacencyMatrix matrix, final long[][] rows,
+            final boolean directed) {
+        m_directedEdges = directed;
+        m_vertices = matrix.m_vertices;
+        m_verticesIndexes = matrix.m_verticesIndexes;
+        m_matrix = rows;
+    }
+
     /**
      * Check if there is no edge in a set of edges. Used to verify edges
      * provided at creation.
@@ -68,18 +96,9 @@ public final class AdjacencyMatrix {
      * @return true if the adjacency matrix contains the edge, false otherwise.
      */
     public boolean containsEdge(final Edge edge) {
-        return edge != null && 
-               containsVertex(edge.getStartVertex()) && 
-               containsVertex(edge.getEndVertex()) &&
-               m_matrix[getVertexIndex(edge.getStartVertex())]
-                       [getVertexIndex(edge.getEndVertex())] == EDGE_PRESENT;
+        return edge != null && containsEdge(edge.getStartVertex(), edge.getEndVertex());
     }
 
-    /**
-     * 
-     * @param
-     * @return
-     */
     /**
      * Check if an adjacency matrix contains an edge.
      * 
@@ -88,7 +107,158 @@ public final class AdjacencyMatrix {
      * @return true if the adjacency matrix contains the edge, false otherwise.
      */
     public boolean containsEdge(final Vertex start, final Vertex end) {
-        return containsEdge(new Edge(start, end));
+        return containsEdge(getIndex(start), getIndex(end));
+    }
+
+    /**
+     * Check if an adjacency matrix contains an edge.
+     * 
+     * @param start the index of the start vertex of the edge to check.
+     * @param end the index of the end vertex of the edge to check.
+     * @return true if the adjacency matrix contains the edge, false otherwise.
+     */
+    public boolean containsEdge(final int start, final int end) {
+        return validIndex(start) && validIndex(end) && 
+               (m_matrix[start][end >>> WORD_SHIFT] & (1L << end)) != 0;
+    }
+
+    /**
+     * Get the index of a vertex. The index is the row and column of the vertex
+     * in the matrix.
+     * 
+     * @param vertex the vertex for which to get the index.
+     * @return the vertex index, -1 if the vertex is null or not in the matrix.
+     */
+    public int getIndex(final Vertex vertex) {
+        Integer index = vertex == null ? null : m_verticesIndexes.get(vertex);
+        return index == null ? UNDEFINED_INDEX : index.intValue();
+    }
+
+    /**
+     * Get the vertex with a specific index.
+     * 
+     * @param index the index of the vertex to get.
+     * @return the vertex with the provided index.
+     * @throws VertexNotFoundException if the index is out of range.
+     */
+    public Vertex getVertex(final int index) throws VertexNotFoundException {
+        if (!validIndex(index)) {
+            throw new VertexNotFoundException("No vertex found for index " + index);
+        }
+        return m_vertices[index];
+    }
+
+    /**
+     * @return the number of longs used to store a row.
+     */
+    public int rowWords() {
+        return wordsCount(m_vertices.length);
+    }
+
+    /**
+     * Get a row of the matrix as a bitset. The bit j of the returned row
+     * (bit j % 64 of the word j / 64) is set if there is an edge from the
+     * vertex with the provided index to the vertex with index j.
+     * 
+     * @param index the index of the vertex.
+     * @return a copy of the row.
+     */
+    public long[] getRow(final int index) {
+        validateIndex(index);
+        return m_matrix[index].clone();
+    }
+
+    /**
+     * Compute the out degree of a vertex by counting the bits of its row.
+     * 
+     * @param index the index of the vertex.
+     * @return the number of edges starting at the vertex.
+     */
+    public int degree(final int index) {
+        validateIndex(index);
+        int degree = 0;
+        for (long word : m_matrix[index]) {
+            degree += Long.bitCount(word);
+        }
+        return degree;
+    }
+
+    /**
+     * Count the vertices adjacent to two vertices, by intersecting their rows
+     * a word at a time.
+     * 
+     * @param first the index of the first vertex.
+     * @param second the index of the second vertex.
+     * @return the number of vertices adjacent to both vertices.
+     */
+    public int commonAdjacentsCount(final int first, final int second) {
+        validateIndex(first);
+        validateIndex(second);
+        long[] firstRow = m_matrix[first];
+        long[] secondRow = m_matrix[second];
+        int count = 0;
+        for (int word = 0; word < firstRow.length; word++) {
+            count += Long.bitCount(firstRow[word] & secondRow[word]);
+        }
+        return count;
+    }
+
+    /**
+     * Count the triangles of an undirected graph. For each edge (i, j) with
+     * i &lt; j, the common adjacents of i and j close a triangle, so each
+     * triangle is counted three times.
+     * 
+     * @return the number of triangles.
+     */
+    public long countTriangles() {
+        if (m_directedEdges) {
+            throw new IllegalStateException("The graph must be undirected !");
+        }
+        long count = 0;
+        for (int row = 0; row < m_matrix.length; row++) {
+            long[] words = m_matrix[row];
+            for (int word = (row + 1) >>> WORD_SHIFT; word < words.length; word++) {
+                long bits = words[word];
+                if (word == (row + 1) >>> WORD_SHIFT) {
+                    bits &= -1L << (row + 1);
+                }
+                while (bits != 0) {
+                    int column = (word << WORD_SHIFT) + Long.numberOfTrailingZeros(bits);
+                    count += commonAdjacentsCount(row, column);
+                    bits &= bits - 1;
+                }
+            }
+        }
+        return count / 3;
+    }
+
+    /**
+     * Compute the transitive closure of the graph using Warshall algorithm.
+     * Whenever i reaches k, the row of k is or-ed into the row of i a word at
+     * a time, so the closure takes O(V^3 / 64) operations.
+     * 
+     * @return a new matrix with an edge from i to j whenever there is a path
+     *         from i to j in the graph.
+     */
+    public AdjacencyMatrix transitiveClosure() {
+        long[][] rows = new long[m_matrix.length][];
+        for (int row = 0; row < rows.length; row++) {
+            rows[row] = m_matrix[row].clone();
+        }
+        for (int intermediate = 0; intermediate < rows.length; intermediate++) {
+            long[] intermediateRow = rows[intermediate];
+            int word = intermediate >>> WORD_SHIFT;
+            long bit = 1L << intermediate;
+            for (int row = 0; row < rows.length; row++) {
+                if ((rows[row][word] & bit) != 0) {
+                    long[] words = rows[row];
+                    for (int i = 0; i < words.length; i++) {
+                        words[i] |= intermediateRow[i];
+                    }
+                }
+            }
+        }
+        return new AdjacencyMatrix(this, rows, true);
     }
 
     /**
@@ -110,11 +280,7 @@ public final class AdjacencyMatrix {
      *         adjacency matrix.
      */
     private Vertex[] verticesOrderedByIndexes() {
-        Vertex[] vertices = new Vertex[m_verticesIndexes.size()];
-        for (Map.Entry<Vertex, Integer> vertexEntry : m_verticesIndexes.entrySet()) {
-            vertices[vertexEntry.getValue().intValue()] = vertexEntry.getKey();
-        }
-        return vertices;
+        return m_vertices.clone();
     }
 
     @Override
@@ -124,13 +290,13 @@ public final class AdjacencyMatrix {
         builder.append(Arrays.toString(vertices));
         builder.append("\n");
         for (int row = 0; row < m_matrix.length; row++) {
-            for (int col = 0; col < m_matrix[row].length; col++) {
+            for (int col = 0; col < m_matrix.length; col++) {
                 builder.append("[");
                 builder.append(vertices[row].label());
                 builder.append(",");
                 builder.append(vertices[col].label());
                 builder.append("]=");
-                builder.append(m_matrix[row][col]);
+                builder.append(containsEdge(row, col) ? EDGE_PRESENT : EGDE_MISSING);
                 builder.append("\n");
             }
         }
@@ -142,8 +308,12 @@ public final class AdjacencyMatrix {
         builder.append("vertices order ");
         builder.append(Arrays.toString(verticesOrderedByIndexes()));
         builder.append("\n");
-        for (int[] row : m_matrix) {
-            builder.append(Arrays.toString(row));
+        for (int row = 0; row < m_matrix.length; row++) {
+            int[] values = new int[m_matrix.length];
+            for (int col = 0; col < values.length; col++) {
+                values[col] = containsEdge(row, col) ? EDGE_PRESENT : EGDE_MISSING;
+            }
+            builder.append(Arrays.toString(values));
             builder.append("\n");
         }
         builder.append("\n");
@@ -171,6 +341,10 @@ public final class AdjacencyMatrix {
                 m_verticesIndexes.put(edge.getEndVertex(), index++);
             }
         }
+        m_vertices = new Vertex[index];
+        for (Map.Entry<Vertex, Integer> vertexEntry : m_verticesIndexes.entrySet()) {
+            m_vertices[vertexEntry.getValue().intValue()] = vertexEntry.getKey();
+        }
     }
 
     /**
@@ -181,7 +355,8 @@ public final class AdjacencyMatrix {
      * @param verticesCount the number of vertices.
      */
     private void initializeAdjacencyMatrix(final Set<Edge> edges) {
-        m_matrix = new int[m_verticesIndexes.size()][m_verticesIndexes.size()];
+        int verticesCount = m_vertices.length;
+        m_matrix = new long[verticesCount][wordsCount(verticesCount)];
         for (Edge edge : edges) {
             if (containsVertex(edge.getStartVertex()) && 
                 containsVertex(edge.getEndVertex())) {
@@ -189,9 +364,9 @@ public final class AdjacencyMatrix {
                 int indexStartVertex = getVertexIndex(edge.getStartVertex());
                 int indexEndVertex = getVertexIndex(edge.getEndVertex());
 
-                m_matrix[indexStartVertex][indexEndVertex] = EDGE_PRESENT;
+                setEdge(indexStartVertex, indexEndVertex);
                 if (!m_directedEdges) {
-                    m_matrix[indexEndVertex][indexStartVertex] = EDGE_PRESENT;
+                    setEdge(indexEndVertex, indexStartVertex);
                 }
             }
         }
@@ -209,4 +384,47 @@ public final class AdjacencyMatrix {
         }
         return m_verticesIndexes.get(vertex);
     }
-}
\ No newline at end of file
+
+    /**
+     * Set the bit of an edge.
+     * 
+     * @param start the index of the start vertex.
+     * @param end the index of the end vertex.
+     */
+    private void setEdge(final int start, final int end) {
+        m_matrix[start][end >>> WORD_SHIFT] |= 1L << end;
+    }
+
+    /**
+     * Check if an index is the index of a vertex of the matrix.
+     * 
+     * @param index the index to check.
+     * @return true if the index is within the range of indexes, false
+     *         otherwise.
+     */
+    private boolean validIndex(final int index) {
+        return index >= 0 && index < m_vertices.length;
+    }
+
+    /**
+     * Verify that an index is the index of a vertex of the matrix. If not,
+     * then throws an {@link IllegalArgumentException}.
+     * 
+     * @param index the index to verify.
+     */
+    private void validateIndex(final int index) {
+        if (!validIndex(index)) {
+            throw new IllegalArgumentException("Vertex index " + index + " doesn't exists!");
+        }
+    }
+
+    /**
+     * Compute the number of longs needed to hold a bit per vertex.
+     * 
+     * @param verticesCount the number of vertices.
+     * @return the number of longs in a row.
+     */
+    private static int wordsCount(final int verticesCount) {
+        return (verticesCount + WORD_SIZE - 1) >>> WORD_SHIFT;
+    }
+}
@@ -4,6 +4,7 @@ import static com.melimelo.utils.BigDecimalUtils.INFINITY;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -17,6 +18,8 @@ import java.util.Queue;
 import java.util.Set;
 import java.util.Stack;
 
+import com.melimelo.heap.HeapUnderflowException;
+import com.melimelo.heap.RadixHeap;
 import com.melimelo.queues.LinkedListQueue;
 import com.melimelo.unionfind.listbased.UnionFind;
 import com.melimelo.utils.BigDecimalUtils;
@@ -275,6 +278,68 @@ public final class Algorithms {
         return mst;
     }
 
+    /**
+     * Build a graph minimum spanning tree using the O(V^2) variant of Prim
+     * algorithm, which scans the rows of a {@link WeightedAdjacencyMatrix}
+     * instead of using a priority queue. Preferred over
+     * {@link #primMST(Graph, Vertex)} for dense graphs.
+     * 
+     * @param graph the graph from which to build the minimum spanning tree.
+     *            Must be connected.
+     * @param start the vertex from which to start building the spanning tree.
+     * @return the minimum spanning tree built.
+     */
+    public static MinimumSpaningTree densePrimMST(final Graph graph, final Vertex start) {
+        validateArgs(graph, start);
+        if (graph.isDirected()) {
+            throw new IllegalArgumentException("The graph must be undirected !");
+        }
+        WeightedAdjacencyMatrix matrix = graph.asWeightedAdjacencyMatrix();
+        final int verticesCount = matrix.size();
+        double[] weights = matrix.toArray();
+        double[] distances = new double[verticesCount];
+        int[] parents = new int[verticesCount];
+        boolean[] inTree = new boolean[verticesCount];
+        Arrays.fill(distances, WeightedAdjacencyMatrix.NO_EDGE);
+        Arrays.fill(parents, UNDEFINED_INDEX);
+        distances[matrix.getIndex(start)] = 0;
+
+        for (int i = 0; i < verticesCount; i++) {
+            int closest = UNDEFINED_INDEX;
+            for (int vertex = 0; vertex < verticesCount; vertex++) {
+                if (!inTree[vertex] && 
+                    (closest == UNDEFINED_INDEX || distances[vertex] < distances[closest])) {
+                    closest = vertex;
+                }
+            }
+            if (distances[closest] == WeightedAdjacencyMatrix.NO_EDGE) {
+                throw new IllegalArgumentException("The graph must be connected !");
+            }
+            inTree[closest] = true;
+            int row = closest * verticesCount;
+            for (int adjacent = 0; adjacent < verticesCount; adjacent++) {
+                if (!inTree[adjacent] && weights[row + adjacent] < distances[adjacent]) {
+                    distances[adjacent] = weights[row + adjacent];
+                    parents[adjacent] = closest;
+                }
+            }
+        }
+
+        // one pass on the edges to add the graph's own edges to the tree.
+        MinimumSpaningTree mst = new MinimumSpaningTree(graph.isWeighted());
+        mst.addVertex(start);
+        boolean[] added = new boolean[verticesCount];
+        for (Edge edge : graph.getEdges()) {
+            int child = matrix.getIndex(edge.getEndVertex());
+            if (!added[child] && parents[child] == matrix.getIndex(edge.getStartVertex())
+                    && edge.getWeight().doubleValue() == distances[child]) {
+                added[child] = true;
+                mst.addEdge(edge);
+            }
+        }
+        return mst;
+    }
+
     /**
      * Build a graph minimum spanning tree using Kruskal algorithm.
      * 
@@ -459,6 +524,12 @@ public final class Algorithms {
         if (!graph.hasEdges()) {
             return NO_PATH;
         }
+        if (graph.hasIntegerWeights()) {
+            List<Path> paths = integerDjkistra(graph, source);
+            if (paths != null) {
+                return paths;
+            }
+        }
         Map<Vertex, BigDecimal> verticesDistances = MapUtils.createMap(graph.getVertices(), INFINITY);
         Map<Vertex, Vertex> parentVertices = new HashMap<Vertex, Vertex>();
         verticesDistances.put(source, Edge.ZERO_WEIGHT);
@@ -483,6 +554,112 @@ public final class Algorithms {
         return buildPaths(graph, source, verticesDistances, parentVertices);
     }
 
+    /**
+     * Perform djkistra algorithm on a graph with integer weights. The
+     * distances are longs and the vertices are settled with a
+     * {@link RadixHeap}. The key of a vertex packs its distance and its index
+     * so that the vertices at the same distance are settled in their natural
+     * order, which gives the same paths as the search on {@link BigDecimal}
+     * distances, except for the vertices reached through zero weight edges,
+     * whose key can't go below the last key polled.
+     *
+     * @param graph the graph with the vertices for which to find path. Can't
+     *            have negative edges.
+     * @param source the vertex from which all the paths start.
+     * @return A list of {@link Path} from the start to each other vertex of the
+     *         graph, null if the distances could overflow a long.
+     * @throws GraphOperationException if an error occurs while finding the
+     *             paths.
+     */
+    private static List<Path> integerDjkistra(final Graph graph, final Vertex source)
+            throws GraphOperationException {
+        Set<Edge> edges = graph.getEdges();
+        VerticesIndexes indexes = new VerticesIndexes(graph.getVertices());
+        int verticesCount = graph.getVertices().size();
+
+        // the edges leaving the vertex i are stored from offsets[i] to
+        // offsets[i + 1] excluded.
+        int[] offsets = new int[verticesCount + 1];
+        for (Edge edge : edges) {
+            offsets[indexes.getIndex(edge.getStartVertex()) + 1]++;
+        }
+        for (int i = 0; i < verticesCount; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        int[] positions = Arrays.copyOf(offsets, verticesCount);
+        int[] targets = new int[edges.size()];
+        long[] weights = new long[edges.size()];
+        // the sum of all the weights bounds the distances.
+        long maxDistance = 0;
+        for (Edge edge : edges) {
+            BigDecimal weight = adjustWeight(edge).getWeight();
+            if (BigDecimalUtils.isNegative(weight)) {
+                throw new IllegalArgumentException("Edge weight can't be negative !");
+            }
+            if (weight.compareTo(BigDecimal.valueOf(Long.MAX_VALUE - maxDistance)) > 0) {
+                return null;
+            }
+            int position = positions[indexes.getIndex(edge.getStartVertex())]++;
+            targets[position] = indexes.getIndex(edge.getEndVertex());
+            weights[position] = weight.longValue();
+            maxDistance += weights[position];
+        }
+        if (maxDistance > (Long.MAX_VALUE - verticesCount) / verticesCount) {
+            return null;
+        }
+
+        long[] distances = new long[verticesCount];
+        int[] parents = new int[verticesCount];
+        boolean[] settled = new boolean[verticesCount];
+        Arrays.fill(distances, Long.MAX_VALUE);
+        Arrays.fill(parents, UNDEFINED_INDEX);
+        int start = indexes.getIndex(source);
+        distances[start] = 0;
+        RadixHeap heap = new RadixHeap();
+        heap.insert(start, start);
+        while (!heap.isEmpty()) {
+            int vertex;
+            try {
+                vertex = heap.pollPayload();
+            } catch (HeapUnderflowException exception) {
+                // can't happen, the heap is not empty.
+                throw new IllegalStateException(exception);
+            }
+            // a vertex is inserted again each time its distance decreases,
+            // only its first poll counts.
+            if (settled[vertex]) {
+                continue;
+            }
+            settled[vertex] = true;
+            for (int i = offsets[vertex]; i < offsets[vertex + 1]; i++) {
+                int adjacent = targets[i];
+                long distance = distances[vertex] + weights[i];
+                if (distance < distances[adjacent]) {
+                    distances[adjacent] = distance;
+                    parents[adjacent] = vertex;
+                    // a zero weight edge to a vertex with a lower index
+                    // would give a key below the key of the vertex polled,
+                    // which is at the same distance, so it's settled next.
+                    heap.insert(Math.max(distance * verticesCount + adjacent, heap.lastKey()),
+                            adjacent);
+                }
+            }
+        }
+
+        Map<Vertex, BigDecimal> verticesDistances = MapUtils.createMap(graph.getVertices(), INFINITY);
+        Map<Vertex, Vertex> parentVertices = new HashMap<Vertex, Vertex>();
+        for (int i = 0; i < verticesCount; i++) {
+            if (settled[i]) {
+                Vertex vertex = indexes.getVertex(i);
+                verticesDistances.put(vertex, BigDecimal.valueOf(distances[i]));
+                if (parents[i] != UNDEFINED_INDEX) {
+                    parentVertices.put(vertex, indexes.getVertex(parents[i]));
+                }
+            }
+        }
+        return buildPaths(graph, source, verticesDistances, parentVertices);
+    }
+
     /**
      * Build paths starting from a specific vertex to all other vertices of a
      * graph
@@ -517,7 +694,10 @@ public final class Algorithms {
 
     /**
      * Find all shortest paths from each vertex of the graph to all the other
-     * vertices.
+     * vertices. The distances are exact: when all the weights are integers
+     * small enough for every distance to be exactly represented by a double,
+     * the distances are computed on the {@link WeightedAdjacencyMatrix}
+     * doubles, otherwise with {@link BigDecimal}, which is much slower.
      * 
      * @param graph the graph with the vertices for which to find shortest
      *            paths.
@@ -535,6 +715,128 @@ public final class Algorithms {
             return Collections.<Vertex, List<Path>> emptyMap();
         }
 
+        if (hasExactDoubleDistances(graph)) {
+            return doubleAllPairsShortestPaths(graph);
+        }
+        return exactAllPairsShortestPaths(graph);
+    }
+
+    /**
+     * Check if the distances between the vertices of a graph can be computed
+     * exactly with doubles: the weights must be integers without fractional
+     * digits, so that the distances are the same big decimal numbers as with
+     * {@link BigDecimal} sums, and the sum of their absolute values, which
+     * bounds every sum made by Floyd-Warshall algorithm, must be below 2^52.
+     * 
+     * @param graph the graph to check.
+     * @return true if doubles give exact distances, false otherwise.
+     */
+    private static boolean hasExactDoubleDistances(final Graph graph) {
+        if (!graph.hasIntegerWeights()) {
+            return false;
+        }
+        BigDecimal bound = BigDecimal.valueOf(1L << 52);
+        BigDecimal sum = BigDecimal.ZERO;
+        for (Edge edge : graph.getEdges()) {
+            BigDecimal weight = adjustWeight(edge).getWeight();
+            if (weight.scale() != 0) {
+                return false;
+            }
+            sum = sum.add(weight.abs());
+            if (sum.compareTo(bound) >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Floyd-Warshall algorithm on the doubles of the weighted adjacency
+     * matrix of a graph, whose distances must be exact, see
+     * {@link #hasExactDoubleDistances(Graph)}.
+     * 
+     * @param graph the graph, not empty.
+     * @return the shortest paths by start vertex.
+     * @throws GraphOperationException if an error occurs while searching the
+     *             paths.
+     */
+    private static Map<Vertex, List<Path>> doubleAllPairsShortestPaths(
+            final Graph graph) throws GraphOperationException {
+        // distances and predecessors are stored row after row, the cell of the
+        // path from start to end is at start * verticesCount + end.
+        WeightedAdjacencyMatrix matrix = graph.asWeightedAdjacencyMatrix();
+        final int verticesCount = matrix.size();
+        double[] distances = matrix.toArray();
+        int[] predecessors = new int[verticesCount * verticesCount];
+
+        for (int start = 0; start < verticesCount; start++) {
+            int row = start * verticesCount;
+            for (int end = 0; end < verticesCount; end++) {
+                predecessors[row + end] = UNDEFINED_INDEX;
+                if (distances[row + end] != WeightedAdjacencyMatrix.NO_EDGE) {
+                    distances[row + end] = adjustWeight(distances[row + end]);
+                    predecessors[row + end] = start;
+                }
+            }
+            distances[row + start] = 0;
+        }
+
+        for (int intermediate = 0; intermediate < verticesCount; intermediate++) {
+            int intermediateRow = intermediate * verticesCount;
+            for (int start = 0; start < verticesCount; start++) {
+                int row = start * verticesCount;
+                double toIntermediate = distances[row + intermediate];
+                if (toIntermediate == WeightedAdjacencyMatrix.NO_EDGE) {
+                    continue;
+                }
+                for (int end = 0; end < verticesCount; end++) {
+                    double newDistance = toIntermediate + distances[intermediateRow + end];
+                    if (newDistance < distances[row + end]) {
+                        distances[row + end] = newDistance;
+                        predecessors[row + end] = predecessors[intermediateRow + end];
+                    }
+                }
+            }
+        }
+
+        Map<Vertex, List<Path>> paths = new HashMap<Vertex, List<Path>>();
+        for (int startVertex = 0; startVertex < verticesCount; startVertex++) {
+            Vertex from = matrix.getVertex(startVertex);
+            int row = startVertex * verticesCount;
+            paths.put(from, new ArrayList<Path>());
+            for (int endVertex = 0; endVertex < verticesCount; endVertex++) {
+                if (startVertex != endVertex && 
+                    predecessors[row + endVertex] != UNDEFINED_INDEX) {
+
+                    Vertex to = matrix.getVertex(endVertex);
+                    Path path = new Path(from, to,
+                            BigDecimalUtils.valueOf(distances[row + endVertex]));
+                    LinkedList<Vertex> intermediates = new LinkedList<Vertex>();
+                    int predecessor = predecessors[row + endVertex];
+                    while (predecessor != startVertex) {
+                        Vertex intermediate = matrix.getVertex(predecessor);
+                        intermediates.addFirst(intermediate);
+                        predecessor = predecessors[row + predecessor];
+                    }
+                    path.addIntermediateVertices(intermediates);
+                    paths.get(from).add(path);
+                }
+            }
+        }
+        return paths;
+    }
+
+    /**
+     * Floyd-Warshall algorithm with {@link BigDecimal} distances, for the
+     * graphs whose distances can't be computed exactly with doubles.
+     * 
+     * @param graph the graph, not empty.
+     * @return the shortest paths by start vertex.
+     * @throws GraphOperationException if an error occurs while searching the
+     *             paths.
+     */
+    private static Map<Vertex, List<Path>> exactAllPairsShortestPaths(
+            final Graph graph) throws GraphOperationException {
         VerticesIndexes verticesIndexes = new VerticesIndexes(
                 graph.getVertices());
         final int verticesCount = graph.verticesCount();
@@ -641,6 +943,18 @@ public final class Algorithms {
                edge : new Edge(edge.getStartVertex(), edge.getEndVertex(),BigDecimal.ONE);
     }
 
+    /**
+     * Adjust the weight of an edge read from a {@link WeightedAdjacencyMatrix}.
+     * Same as {@link #adjustWeight(Edge)}, edges without weight are assigned a
+     * weight of one.
+     * 
+     * @param weight the weight to adjust.
+     * @return one if the weight is zero, the weight otherwise.
+     */
+    private static double adjustWeight(final double weight) {
+        return weight == 0 ? 1 : weight;
+    }
+
     /**
      * Comparator for edges. Compare edges by weights.
      */
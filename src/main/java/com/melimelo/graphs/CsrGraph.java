@@ -0,0 +1,209 @@
+package com.melimelo.graphs;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable graph stored in compressed sparse row (CSR) format. Vertices are
+ * identified by dense indexes from 0 to {@link #verticesCount()} - 1, the
+ * adjacents of the vertex i are stored in the targets array between the
+ * offsets i and i + 1, sorted by index. For undirected graphs each edge is
+ * stored in both directions. Instances are created by {@link GraphBuilder}.
+ */
+public final class CsrGraph {
+    public static final int UNDEFINED_INDEX = -1;
+
+    private final boolean m_directed;
+    private final boolean m_weighted;
+    private final Vertex[] m_vertices;
+    private final Map<Vertex, Integer> m_verticesIndexes;
+    private final int[] m_offsets;
+    private final int[] m_targets;
+    private final double[] m_weights;
+
+    /**
+     * Create a new instance. The arrays provided are not copied, the caller
+     * must not modify them afterwards.
+     *
+     * @param directed a flag indicating whether or not the graph is directed.
+     * @param weighted a flag indicating whether or not the graph is weighted.
+     * @param vertices the vertices ordered by their indexes.
+     * @param verticesIndexes the index of each vertex.
+     * @param offsets the start of each vertex row in the targets array, with
+     *            one extra entry for the end of the last row.
+     * @param targets the indexes of the adjacent vertices, row by row.
+     * @param weights the weight of each entry of the targets array.
+     */
+    CsrGraph(final boolean directed, final boolean weighted,
+            final Vertex[] vertices, final Map<Vertex, Integer> verticesIndexes,
+            final int[] offsets, final int[] targets, final double[] weights) {
+        m_directed = directed;
+        m_weighted = weighted;
+        m_vertices = vertices;
+        m_verticesIndexes = verticesIndexes;
+        m_offsets = offsets;
+        m_targets = targets;
+        m_weights = weights;
+    }
+
+    /**
+     * @return true if the graph's edges have direction, false otherwise.
+     */
+    public boolean isDirected() {
+        return m_directed;
+    }
+
+    /**
+     * @return true if the graph is weighted, false otherwise.
+     */
+    public boolean isWeighted() {
+        return m_weighted;
+    }
+
+    /**
+     * @return the number of vertices in the graph.
+     */
+    public int verticesCount() {
+        return m_vertices.length;
+    }
+
+    /**
+     * @return the number of edges in the graph. For undirected graphs each
+     *         edge is counted in both directions, like {@link Graph}.
+     */
+    public int edgesCount() {
+        return m_targets.length;
+    }
+
+    /**
+     * @return the graph's vertices.
+     */
+    public Set<Vertex> getVertices() {
+        return Collections.unmodifiableSet(m_verticesIndexes.keySet());
+    }
+
+    /**
+     * Get the index of a vertex.
+     *
+     * @param vertex the vertex for which to get the index.
+     * @return the index of the vertex, -1 if the vertex is not part of the
+     *         graph.
+     */
+    public int getIndex(final Vertex vertex) {
+        Integer index = vertex == null ? null : m_verticesIndexes.get(vertex);
+        return index == null ? UNDEFINED_INDEX : index.intValue();
+    }
+
+    /**
+     * Get the vertex with a specific index.
+     *
+     * @param index the index of the vertex to get.
+     * @return the vertex with the provided index.
+     * @throws VertexNotFoundException if the index is out of range.
+     */
+    public Vertex getVertex(final int index) throws VertexNotFoundException {
+        if (index < 0 || index >= m_vertices.length) {
+            throw new VertexNotFoundException("No vertex found for index " + index);
+        }
+        return m_vertices[index];
+    }
+
+    /**
+     * Get the number of edges leaving a vertex.
+     *
+     * @param vertex the index of the vertex.
+     * @return the vertex out degree.
+     */
+    public int degree(final int vertex) {
+        validateIndex(vertex);
+        return m_offsets[vertex + 1] - m_offsets[vertex];
+    }
+
+    /**
+     * Get an adjacent of a vertex.
+     *
+     * @param vertex the index of the vertex.
+     * @param position the position of the adjacent, between 0 and the vertex
+     *            degree - 1. Adjacents are sorted by index.
+     * @return the index of the adjacent vertex.
+     */
+    public int adjacent(final int vertex, final int position) {
+        return m_targets[entryIndex(vertex, position)];
+    }
+
+    /**
+     * Get the weight of the edge going from a vertex to one of its adjacents.
+     *
+     * @param vertex the index of the vertex.
+     * @param position the position of the adjacent, between 0 and the vertex
+     *            degree - 1.
+     * @return the weight of the edge.
+     */
+    public double weight(final int vertex, final int position) {
+        return m_weights[entryIndex(vertex, position)];
+    }
+
+    /**
+     * @param vertex the index of the vertex.
+     * @return a copy of the indexes of the vertex adjacents, sorted.
+     */
+    public int[] getAdjacents(final int vertex) {
+        validateIndex(vertex);
+        return Arrays.copyOfRange(m_targets, m_offsets[vertex], m_offsets[vertex + 1]);
+    }
+
+    /**
+     * Check if the graph has an edge between two vertices. The lookup is a
+     * binary search in the start vertex row.
+     *
+     * @param start the index of the start vertex.
+     * @param end the index of the end vertex.
+     * @return true if the graph contains the edge, false otherwise.
+     */
+    public boolean containsEdge(final int start, final int end) {
+        if (start < 0 || start >= m_vertices.length || end < 0 || end >= m_vertices.length) {
+            return false;
+        }
+        return Arrays.binarySearch(m_targets, m_offsets[start], m_offsets[start + 1], end) >= 0;
+    }
+
+    /**
+     * Check if the graph has an edge between two vertices.
+     *
+     * @param start the start vertex of the edge to check.
+     * @param end the end vertex of edge to check.
+     * @return true if the graph contains the edge, false otherwise.
+     */
+    public boolean containsEdge(final Vertex start, final Vertex end) {
+        return containsEdge(getIndex(start), getIndex(end));
+    }
+
+    /**
+     * Compute the position in the targets array of an adjacent of a vertex.
+     *
+     * @param vertex the index of the vertex.
+     * @param position the position of the adjacent in the vertex row.
+     * @return the index in the targets array.
+     */
+    private int entryIndex(final int vertex, final int position) {
+        validateIndex(vertex);
+        if (position < 0 || position >= m_offsets[vertex + 1] - m_offsets[vertex]) {
+            throw new IndexOutOfBoundsException("No adjacent at position " + position
+                    + " for vertex " + m_vertices[vertex]);
+        }
+        return m_offsets[vertex] + position;
+    }
+
+    /**
+     * Check that a vertex index is within the range of indexes.
+     *
+     * @param vertex the index to check.
+     */
+    private void validateIndex(final int vertex) {
+        if (vertex < 0 || vertex >= m_vertices.length) {
+            throw new IllegalArgumentException("Vertex index " + vertex + " doesn't exists!");
+        }
+    }
+}
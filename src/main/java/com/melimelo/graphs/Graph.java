@@ -1,13 +1,21 @@
 package com.melimelo.graphs;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
 
 import com.melimelo.validation.ValidationUtils;
 
 /**
  * Define a simple graph (no self loops or multi-edges)
+ *
+ * Changes to the graph are made under a lock, and {@link #snapshot()} gives
+ * readers an immutable {@link GraphSnapshot} of the graph which can be read
+ * from any thread without locking.
  */
 public class Graph {
     private final String NULL_VERTEX_MESSAGE = "The vertex can't be null!";
@@ -24,6 +32,29 @@ public class Graph {
     // a cost of duplicate information stored.
     private Set<Vertex> m_vertices;
 
+    // The adjacency list is updated along with the edges, so that algorithms
+    // can get it without building it. The matrices are built on demand and
+    // kept until the graph changes, which is tracked by the version.
+    private AdjacencyList m_adjacencyList;
+    private volatile AdjacencyMatrix m_adjacencyMatrix;
+    private volatile WeightedAdjacencyMatrix m_weightedAdjacencyMatrix;
+    private volatile long m_version;
+    private long m_adjacencyMatrixVersion;
+    private long m_weightedAdjacencyMatrixVersion;
+    // whether the weights are integers is also kept until the graph changes:
+    // the version times two, plus one if the weights are integers, in a
+    // single field so that it is read atomically. -1 until it is computed.
+    private volatile long m_integerWeights = -1;
+
+    // Writers hold the lock while changing the graph or publishing a
+    // snapshot. A first snapshot is published at construction so that readers
+    // never have to wait. The edges added afterwards are kept so that the next
+    // snapshot only copies the rows that changed, until they outnumber half
+    // of the edges, in which case the next snapshot is rebuilt from scratch.
+    private final ReentrantLock m_lock = new ReentrantLock();
+    private volatile GraphSnapshot m_snapshot;
+    private List<Edge> m_pendingEdges;
+
     /**
      * Create an empty graph.
      * 
@@ -60,6 +91,59 @@ public class Graph {
         m_weighted = weighted;
         initializeEdges(edges);
         initializeVertices(edges, vertices);
+        m_adjacencyList = new AdjacencyList(m_edges, m_directed);
+        initializeSnapshot();
+    }
+
+    /**
+     * Create an empty graph with sets sized for the expected number of
+     * vertices and edges. Used by {@link GraphBuilder}.
+     *
+     * @param directed a flag indicating or not whether the graph is directed.
+     * @param weighted a flag indicating or not whether the graph is weighted.
+     * @param expectedVertices the expected number of vertices.
+     * @param expectedEdges the expected number of edges, both directions
+     *            included for undirected graphs.
+     */
+    Graph(final boolean directed, final boolean weighted,
+            final int expectedVertices, final int expectedEdges) {
+        m_directed = directed;
+        m_weighted = weighted;
+        m_edges = new HashSet<Edge>(GraphBuilder.hashCapacity(expectedEdges));
+        m_vertices = new HashSet<Vertex>(GraphBuilder.hashCapacity(expectedVertices));
+        m_adjacencyList = new AdjacencyList(m_edges, m_directed);
+        initializeSnapshot();
+    }
+
+    /**
+     * Create a graph adopting already built and immutable collections. Used
+     * by {@link GraphSnapshot}.
+     *
+     * @param directed a flag indicating or not whether the graph is directed.
+     * @param weighted a flag indicating or not whether the graph is weighted.
+     * @param edges the graph edges, both directions included for undirected
+     *            graphs.
+     * @param vertices the graph vertices.
+     * @param adjacencyList the adjacency list of the edges.
+     * @param version the version of the graph.
+     */
+    Graph(final boolean directed, final boolean weighted, final Set<Edge> edges,
+            final Set<Vertex> vertices, final AdjacencyList adjacencyList,
+            final long version) {
+        m_directed = directed;
+        m_weighted = weighted;
+        m_edges = edges;
+        m_vertices = vertices;
+        m_adjacencyList = adjacencyList;
+        m_version = version;
+    }
+
+    /**
+     * Publish the first snapshot of the graph.
+     */
+    private void initializeSnapshot() {
+        m_snapshot = GraphSnapshot.create(null, this, m_vertices, m_edges);
+        m_pendingEdges = new ArrayList<Edge>();
     }
 
     /**
@@ -110,6 +194,40 @@ public class Graph {
         return m_weighted;
     }
 
+    /**
+     * Check if the weights of all the edges are integers. The edges without
+     * weight count as integer weights, so an unweighted graph always has
+     * integer weights. Algorithms can use it to work on long distances
+     * instead of {@link BigDecimal}. The edges are checked on the first call
+     * and the result is returned as is until the graph changes.
+     *
+     * @return true if the weight of every edge is an integer, false
+     *         otherwise.
+     */
+    public boolean hasIntegerWeights() {
+        long version = m_version;
+        long integerWeights = m_integerWeights;
+        if (integerWeights < 0 || integerWeights >> 1 != version) {
+            integerWeights = version << 1 | (checkIntegerWeights() ? 1 : 0);
+            m_integerWeights = integerWeights;
+        }
+        return (integerWeights & 1) == 1;
+    }
+
+    /**
+     * @return true if the weight of every edge is an integer, false
+     *         otherwise.
+     */
+    private boolean checkIntegerWeights() {
+        for (Edge edge : getEdges()) {
+            BigDecimal weight = edge.getWeight();
+            if (weight.signum() != 0 && weight.stripTrailingZeros().scale() > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Add an edge to the graph.
      * 
@@ -117,12 +235,42 @@ public class Graph {
      */
     public void addEdge(final Edge edge) {
         ValidationUtils.validateNotNull(edge, NULL_EDGE_MESSAGE);
-        m_edges.add(edge);
-        if (!m_directed) {
-            m_edges.add(edge.reversed());
+        m_lock.lock();
+        try {
+            boolean changed = addPendingEdge(edge);
+            if (!m_directed) {
+                changed |= addPendingEdge(edge.reversed());
+            }
+            changed |= m_vertices.add(edge.getStartVertex());
+            changed |= m_vertices.add(edge.getEndVertex());
+            if (changed) {
+                m_adjacencyList.addEdge(edge);
+                m_version++;
+            }
+        } finally {
+            m_lock.unlock();
+        }
+    }
+
+    /**
+     * Add an edge to the set of edges and keep it for the next snapshot,
+     * unless too many edges were added since the last one.
+     *
+     * @param edge the edge to add.
+     * @return true if the edge was added, false if it was already there.
+     */
+    private boolean addPendingEdge(final Edge edge) {
+        if (!m_edges.add(edge)) {
+            return false;
+        }
+        if (m_pendingEdges != null) {
+            m_pendingEdges.add(edge);
+            if (m_pendingEdges.size() > m_edges.size() / 2) {
+                // rebuilding the next snapshot costs less than keeping them.
+                m_pendingEdges = null;
+            }
         }
-        m_vertices.add(edge.getStartVertex());
-        m_vertices.add(edge.getEndVertex());
+        return true;
     }
 
     /**
@@ -239,7 +387,14 @@ public class Graph {
      */
     public void addVertex(final Vertex vertex) {
         ValidationUtils.validateNotNull(vertex, NULL_VERTEX_MESSAGE);
-        m_vertices.add(vertex);
+        m_lock.lock();
+        try {
+            if (m_vertices.add(vertex)) {
+                m_version++;
+            }
+        } finally {
+            m_lock.unlock();
+        }
     }
 
     /**
@@ -304,16 +459,100 @@ public class Graph {
     }
 
     /**
-     * @return the graph as an adjacency matrix.
+     * @return the version of the graph. The version changes every time an edge
+     *         or a vertex is added, and only then.
+     */
+    public long version() {
+        return m_version;
+    }
+
+    /**
+     * Get an immutable snapshot of the graph. The last published snapshot is
+     * returned when it is up to date, or when a writer is changing the graph
+     * so that readers never wait for writers, in which case the snapshot
+     * may not include the latest changes. Otherwise a new snapshot is
+     * published, sharing the unchanged parts of the previous one.
+     *
+     * @return a snapshot of the graph.
+     */
+    public GraphSnapshot snapshot() {
+        GraphSnapshot snapshot = m_snapshot;
+        if (snapshot.version() == m_version || !m_lock.tryLock()) {
+            return snapshot;
+        }
+        try {
+            return publishSnapshot();
+        } finally {
+            m_lock.unlock();
+        }
+    }
+
+    /**
+     * Publish a snapshot with all the changes made so far. Meant to be called
+     * by writers once they are done with a batch of changes, so that
+     * {@link #snapshot()} doesn't have to build it.
+     *
+     * @return a snapshot of the graph, including all the changes made before
+     *         the call.
+     */
+    public GraphSnapshot publish() {
+        m_lock.lock();
+        try {
+            return publishSnapshot();
+        } finally {
+            m_lock.unlock();
+        }
+    }
+
+    /**
+     * Build and publish a new snapshot if the graph changed since the last
+     * one. Must be called with the lock held.
+     *
+     * @return the published snapshot.
+     */
+    private GraphSnapshot publishSnapshot() {
+        GraphSnapshot snapshot = m_snapshot;
+        if (snapshot.version() == m_version) {
+            return snapshot;
+        }
+        snapshot = m_pendingEdges == null
+                ? GraphSnapshot.create(null, this, m_vertices, m_edges)
+                : GraphSnapshot.create(snapshot, this, m_vertices, m_pendingEdges);
+        m_pendingEdges = new ArrayList<Edge>();
+        m_snapshot = snapshot;
+        return snapshot;
+    }
+
+    /**
+     * @return the graph as an adjacency matrix. The matrix is built on the
+     *         first call and returned as is until the graph changes.
      */
     public AdjacencyMatrix asAdjacencyMatrix() {
-        return new AdjacencyMatrix(m_edges, m_directed);
+        if (m_adjacencyMatrix == null || m_adjacencyMatrixVersion != m_version) {
+            m_adjacencyMatrix = new AdjacencyMatrix(m_edges, m_directed);
+            m_adjacencyMatrixVersion = m_version;
+        }
+        return m_adjacencyMatrix;
+    }
+
+    /**
+     * @return the graph as a weighted adjacency matrix. The matrix is built on
+     *         the first call and returned as is until the graph changes.
+     */
+    public WeightedAdjacencyMatrix asWeightedAdjacencyMatrix() {
+        if (m_weightedAdjacencyMatrix == null || 
+            m_weightedAdjacencyMatrixVersion != m_version) {
+            m_weightedAdjacencyMatrix = new WeightedAdjacencyMatrix(this);
+            m_weightedAdjacencyMatrixVersion = m_version;
+        }
+        return m_weightedAdjacencyMatrix;
     }
 
     /**
-     * @return the graph as an adjacency list.
+     * @return the graph as an adjacency list. The adjacency list is maintained
+     *         by the graph and reflects the edges added after this call.
      */
     public AdjacencyList asAdjacencyList() {
-        return new AdjacencyList(m_edges, m_directed);
+        return m_adjacencyList;
     }
 }
\ No newline at end of file
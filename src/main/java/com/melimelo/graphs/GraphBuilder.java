@@ -0,0 +1,385 @@
+package com.melimelo.graphs;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import com.melimelo.validation.ValidationUtils;
+
+/**
+ * Build a {@link Graph} or a {@link CsrGraph} from a large number of edges.
+ * Edges are appended into pre-sized buffers of vertex indexes and only
+ * validated at build time: a counting sort by start vertex followed by a sort
+ * of each row puts duplicate edges next to each other, so validation and
+ * deduplication are done in a single pass. The builder can be reused, adding
+ * more edges after a build and building again.
+ */
+public final class GraphBuilder {
+
+    /**
+     * Number of edges from which the rows are sorted in parallel.
+     */
+    public static final int PARALLEL_SORT_THRESHOLD = 1 << 16;
+
+    private static final int DEFAULT_EXPECTED_COUNT = 16;
+    private static final long INDEX_MASK = 0xFFFFFFFFL;
+    private static final int INDEX_BITS = 32;
+
+    private final boolean m_directed;
+    private final boolean m_weighted;
+    private final Map<Vertex, Integer> m_verticesIndexes;
+    private Vertex[] m_vertices;
+    private int m_verticesCount;
+    private int[] m_starts;
+    private int[] m_ends;
+    private BigDecimal[] m_weights;
+    private int m_edgesCount;
+
+    /**
+     * Create a new builder.
+     *
+     * @param directed a flag indicating or not whether the graph is directed.
+     * @param weighted a flag indicating or not whether the graph is weighted.
+     */
+    public GraphBuilder(final boolean directed, final boolean weighted) {
+        this(directed, weighted, DEFAULT_EXPECTED_COUNT, DEFAULT_EXPECTED_COUNT);
+    }
+
+    /**
+     * Create a new builder with buffers sized for the expected number of
+     * vertices and edges. The buffers still grow if more are added.
+     *
+     * @param directed a flag indicating or not whether the graph is directed.
+     * @param weighted a flag indicating or not whether the graph is weighted.
+     * @param expectedVertices the expected number of vertices.
+     * @param expectedEdges the expected number of edges. For undirected
+     *            graphs each edge is counted once.
+     */
+    public GraphBuilder(final boolean directed, final boolean weighted,
+            final int expectedVertices, final int expectedEdges) {
+        if (expectedVertices < 0 || expectedEdges < 0) {
+            throw new IllegalArgumentException("The expected counts can't be negative!");
+        }
+        m_directed = directed;
+        m_weighted = weighted;
+        m_verticesIndexes = new HashMap<Vertex, Integer>(hashCapacity(expectedVertices));
+        m_vertices = new Vertex[expectedVertices];
+        m_starts = new int[expectedEdges];
+        m_ends = new int[expectedEdges];
+        m_weights = new BigDecimal[expectedEdges];
+    }
+
+    /**
+     * Add a vertex. Adding a vertex already added has no effect.
+     *
+     * @param vertex the vertex to add. Can't be null.
+     * @return the builder.
+     */
+    public GraphBuilder addVertex(final Vertex vertex) {
+        ValidationUtils.validateNotNull(vertex, "The vertex can't be null!");
+        indexOf(vertex);
+        return this;
+    }
+
+    /**
+     * Add an edge.
+     *
+     * @param edge the edge to add. Can't be null.
+     * @return the builder.
+     */
+    public GraphBuilder addEdge(final Edge edge) {
+        ValidationUtils.validateNotNull(edge, "The edge can't be null!");
+        return addEdge(edge.getStartVertex(), edge.getEndVertex(), edge.getWeight());
+    }
+
+    /**
+     * Add an edge without weight.
+     *
+     * @param start the label of the start vertex.
+     * @param end the label of the end vertex.
+     * @return the builder.
+     */
+    public GraphBuilder addEdge(final String start, final String end) {
+        return addEdge(new Vertex(start), new Vertex(end), Edge.ZERO_WEIGHT);
+    }
+
+    /**
+     * Add a weighted edge.
+     *
+     * @param start the label of the start vertex.
+     * @param end the label of the end vertex.
+     * @param weight the edge weight.
+     * @return the builder.
+     */
+    public GraphBuilder addEdge(final String start, final String end,
+            final BigDecimal weight) {
+        return addEdge(new Vertex(start), new Vertex(end), weight);
+    }
+
+    /**
+     * Add a weighted edge. Only null checks are done here, self loops and
+     * multi-edges are detected at build time.
+     *
+     * @param start the start vertex. Can't be null.
+     * @param end the end vertex. Can't be null.
+     * @param weight the edge weight. Can't be null.
+     * @return the builder.
+     */
+    public GraphBuilder addEdge(final Vertex start, final Vertex end,
+            final BigDecimal weight) {
+        ValidationUtils.validateNoNeNull("the start and end vertex can't be null", start, end);
+        ValidationUtils.validateNotNull(weight, "the weight can't be null !");
+        if (m_edgesCount == m_starts.length) {
+            int capacity = grow(m_edgesCount);
+            m_starts = Arrays.copyOf(m_starts, capacity);
+            m_ends = Arrays.copyOf(m_ends, capacity);
+            m_weights = Arrays.copyOf(m_weights, capacity);
+        }
+        m_starts[m_edgesCount] = indexOf(start);
+        m_ends[m_edgesCount] = indexOf(end);
+        m_weights[m_edgesCount] = weight;
+        m_edgesCount++;
+        return this;
+    }
+
+    /**
+     * @return the number of vertices added so far.
+     */
+    public int verticesCount() {
+        return m_verticesCount;
+    }
+
+    /**
+     * @return the number of edges added so far, duplicates included.
+     */
+    public int edgesCount() {
+        return m_edgesCount;
+    }
+
+    /**
+     * Build a graph with the vertices and edges added.
+     *
+     * @return a new graph.
+     * @throws IllegalArgumentException if an edge is a self loop or if two
+     *             edges have the same endpoints but different weights.
+     */
+    public Graph build() {
+        SortedEdges sorted = sortEdges();
+        Graph graph = new Graph(m_directed, m_weighted, m_verticesCount,
+                m_directed ? sorted.edgesCount() : 2 * sorted.edgesCount());
+        for (int vertex = 0; vertex < m_verticesCount; vertex++) {
+            graph.addVertex(m_vertices[vertex]);
+        }
+        for (int start = 0; start < m_verticesCount; start++) {
+            for (int entry = sorted.m_offsets[start]; entry < sorted.m_offsets[start + 1]; entry++) {
+                graph.addEdge(new Edge(m_vertices[start],
+                        m_vertices[sorted.m_targets[entry]],
+                        m_weights[sorted.m_edges[entry]]));
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * Build an immutable compressed sparse row graph with the vertices and
+     * edges added. Vertex indexes follow the order in which the vertices were
+     * first added.
+     *
+     * @return a new CSR graph.
+     * @throws IllegalArgumentException if an edge is a self loop or if two
+     *             edges have the same endpoints but different weights.
+     */
+    public CsrGraph buildCsr() {
+        SortedEdges sorted = sortEdges();
+        Vertex[] vertices = Arrays.copyOf(m_vertices, m_verticesCount);
+        Map<Vertex, Integer> indexes = new HashMap<Vertex, Integer>(m_verticesIndexes);
+        if (m_directed) {
+            double[] weights = new double[sorted.edgesCount()];
+            for (int entry = 0; entry < weights.length; entry++) {
+                weights[entry] = m_weights[sorted.m_edges[entry]].doubleValue();
+            }
+            return new CsrGraph(m_directed, m_weighted, vertices, indexes,
+                    sorted.m_offsets, sorted.m_targets, weights);
+        }
+
+        // Stable counting sort of both directions of each edge. Row x first
+        // receives the edges (u, x) with u < x while scanning the rows of u,
+        // then its own edges (x, v) with v > x, so each row stays sorted.
+        int[] offsets = new int[m_verticesCount + 1];
+        for (int start = 0; start < m_verticesCount; start++) {
+            for (int entry = sorted.m_offsets[start]; entry < sorted.m_offsets[start + 1]; entry++) {
+                offsets[start + 1]++;
+                offsets[sorted.m_targets[entry] + 1]++;
+            }
+        }
+        for (int vertex = 0; vertex < m_verticesCount; vertex++) {
+            offsets[vertex + 1] += offsets[vertex];
+        }
+        int[] positions = Arrays.copyOf(offsets, m_verticesCount);
+        int[] targets = new int[2 * sorted.edgesCount()];
+        double[] weights = new double[targets.length];
+        for (int start = 0; start < m_verticesCount; start++) {
+            for (int entry = sorted.m_offsets[start]; entry < sorted.m_offsets[start + 1]; entry++) {
+                int end = sorted.m_targets[entry];
+                double weight = m_weights[sorted.m_edges[entry]].doubleValue();
+                targets[positions[start]] = end;
+                weights[positions[start]++] = weight;
+                targets[positions[end]] = start;
+                weights[positions[end]++] = weight;
+            }
+        }
+        return new CsrGraph(m_directed, m_weighted, vertices, indexes, offsets, targets, weights);
+    }
+
+    /**
+     * Sort the edges added by start vertex then by end vertex, validate them
+     * and drop duplicates. For undirected graphs, the edges are first turned
+     * so that the start vertex has the lowest index and only one direction is
+     * kept.
+     *
+     * @return the sorted and deduplicated edges, grouped in rows by start
+     *         vertex.
+     */
+    private SortedEdges sortEdges() {
+        // counting sort by start vertex, the end vertex and the edge index are
+        // packed in a single long so that the rows can be sorted as primitives.
+        int[] offsets = new int[m_verticesCount + 1];
+        for (int edge = 0; edge < m_edgesCount; edge++) {
+            int start = m_starts[edge];
+            int end = m_ends[edge];
+            if (start == end) {
+                throw new IllegalArgumentException("Self loops are not allowed: "
+                        + new Edge(m_vertices[start], m_vertices[end], m_weights[edge]));
+            }
+            offsets[(m_directed ? start : Math.min(start, end)) + 1]++;
+        }
+        for (int vertex = 0; vertex < m_verticesCount; vertex++) {
+            offsets[vertex + 1] += offsets[vertex];
+        }
+        int[] positions = Arrays.copyOf(offsets, m_verticesCount);
+        final long[] entries = new long[m_edgesCount];
+        for (int edge = 0; edge < m_edgesCount; edge++) {
+            int start = m_starts[edge];
+            int end = m_ends[edge];
+            if (!m_directed && start > end) {
+                int tmp = start;
+                start = end;
+                end = tmp;
+            }
+            entries[positions[start]++] = ((long) end << INDEX_BITS) | edge;
+        }
+        sortRows(entries, offsets);
+
+        // single pass over the sorted rows, duplicates are adjacent.
+        int[] uniqueOffsets = new int[m_verticesCount + 1];
+        int[] targets = new int[m_edgesCount];
+        int[] edges = new int[m_edgesCount];
+        int count = 0;
+        for (int start = 0; start < m_verticesCount; start++) {
+            int rowStart = count;
+            for (int entry = offsets[start]; entry < offsets[start + 1]; entry++) {
+                int end = (int) (entries[entry] >>> INDEX_BITS);
+                int edge = (int) (entries[entry] & INDEX_MASK);
+                if (count > rowStart && targets[count - 1] == end) {
+                    if (!m_weights[edges[count - 1]].equals(m_weights[edge])) {
+                        throw new IllegalArgumentException("Multi-edges are not allowed: "
+                                + new Edge(m_vertices[start], m_vertices[end], m_weights[edge]));
+                    }
+                    continue;
+                }
+                targets[count] = end;
+                edges[count++] = edge;
+            }
+            uniqueOffsets[start + 1] = count;
+        }
+        return new SortedEdges(uniqueOffsets, Arrays.copyOf(targets, count),
+                Arrays.copyOf(edges, count));
+    }
+
+    /**
+     * Sort each row of packed entries. The rows are independent so they are
+     * sorted in parallel when there are enough edges.
+     *
+     * @param entries the packed entries to sort.
+     * @param offsets the start of each row, with one extra entry for the end
+     *            of the last row.
+     */
+    private void sortRows(final long[] entries, final int[] offsets) {
+        IntConsumer rowSorter = new IntConsumer() {
+            public void accept(final int row) {
+                if (offsets[row + 1] - offsets[row] > 1) {
+                    Arrays.sort(entries, offsets[row], offsets[row + 1]);
+                }
+            }
+        };
+        IntStream rows = IntStream.range(0, m_verticesCount);
+        if (m_edgesCount >= PARALLEL_SORT_THRESHOLD) {
+            rows = rows.parallel();
+        }
+        rows.forEach(rowSorter);
+    }
+
+    /**
+     * Get the index of a vertex, assigning it a new index if it has not been
+     * added yet.
+     *
+     * @param vertex the vertex for which to get the index.
+     * @return the vertex index.
+     */
+    private int indexOf(final Vertex vertex) {
+        Integer index = m_verticesIndexes.get(vertex);
+        if (index != null) {
+            return index.intValue();
+        }
+        if (m_verticesCount == m_vertices.length) {
+            m_vertices = Arrays.copyOf(m_vertices, grow(m_verticesCount));
+        }
+        m_vertices[m_verticesCount] = vertex;
+        m_verticesIndexes.put(vertex, m_verticesCount);
+        return m_verticesCount++;
+    }
+
+    /**
+     * Compute the new capacity of a full buffer.
+     *
+     * @param capacity the current capacity.
+     * @return the new capacity.
+     */
+    private static int grow(final int capacity) {
+        return Math.max(DEFAULT_EXPECTED_COUNT, capacity + (capacity >> 1));
+    }
+
+    /**
+     * Compute the initial capacity of a hash map so that it doesn't need to be
+     * resized before holding the expected number of entries.
+     *
+     * @param expected the expected number of entries.
+     * @return the initial capacity.
+     */
+    static int hashCapacity(final int expected) {
+        return (int) Math.min(Integer.MAX_VALUE, (long) (expected / 0.75f) + 1);
+    }
+
+    /**
+     * Edges sorted by start vertex, then by end vertex. The index of the
+     * original edge is kept to find its weight.
+     */
+    private static final class SortedEdges {
+        private final int[] m_offsets;
+        private final int[] m_targets;
+        private final int[] m_edges;
+
+        SortedEdges(final int[] offsets, final int[] targets, final int[] edges) {
+            m_offsets = offsets;
+            m_targets = targets;
+            m_edges = edges;
+        }
+
+        int edgesCount() {
+            return m_targets.length;
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package com.melimelo.graphs;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import com.melimelo.validation.ValidationUtils;
+
+/**
+ * Immutable view of a {@link Graph} at a given version, returned by
+ * {@link Graph#snapshot()}. A snapshot can be read by any number of threads
+ * without locking while the graph keeps changing, and can be passed to any
+ * of the {@link Algorithms}. Trying to modify it throws an
+ * {@link UnsupportedOperationException}.
+ *
+ * Edges are stored by start vertex. A new snapshot copies the maps holding
+ * the rows but shares with the previous snapshot every row that didn't
+ * change, so publishing a snapshot costs O(V) plus the size of the rows that
+ * changed instead of O(V + E).
+ */
+public final class GraphSnapshot extends Graph {
+
+    private static final String UNSUPPORTED_OPERATION_MESSAGE = "A graph snapshot can't be modified!";
+
+    private final Map<Vertex, Set<Edge>> m_edgesRows;
+    private final Map<Vertex, SortedSet<Vertex>> m_adjacentsRows;
+    // the unmodifiable vertices, shared with the next snapshot when no vertex
+    // was added, rather than the view returned by getVertices.
+    private final Set<Vertex> m_snapshotVertices;
+
+    /**
+     * Create a new snapshot.
+     *
+     * @param directed a flag indicating or not whether the graph is directed.
+     * @param weighted a flag indicating or not whether the graph is weighted.
+     * @param version the version of the graph.
+     * @param vertices the graph vertices.
+     * @param edgesRows the edges of the graph by start vertex.
+     * @param adjacentsRows the adjacent vertices by vertex.
+     * @param edgesCount the number of edges.
+     */
+    private GraphSnapshot(final boolean directed, final boolean weighted,
+            final long version, final Set<Vertex> vertices,
+            final Map<Vertex, Set<Edge>> edgesRows,
+            final Map<Vertex, SortedSet<Vertex>> adjacentsRows, final int edgesCount) {
+        super(directed, weighted, new EdgesView(edgesRows, edgesCount), vertices,
+                new AdjacencyList(adjacentsRows, directed), version);
+        m_edgesRows = edgesRows;
+        m_adjacentsRows = adjacentsRows;
+        m_snapshotVertices = vertices;
+    }
+
+    /**
+     * Create a snapshot of a graph. If a previous snapshot of the same graph
+     * is provided, only the edges added since that snapshot are needed.
+     *
+     * @param previous the previous snapshot of the graph, null if there is
+     *            none.
+     * @param graph the graph to snapshot.
+     * @param vertices the current vertices of the graph.
+     * @param newEdges the edges added to the graph since the previous
+     *            snapshot, or all the edges if there is no previous snapshot.
+     *            For undirected graphs both directions must be provided.
+     * @return a new snapshot.
+     */
+    static GraphSnapshot create(final GraphSnapshot previous, final Graph graph,
+            final Set<Vertex> vertices, final Collection<Edge> newEdges) {
+        Map<Vertex, Set<Edge>> edgesRows;
+        Map<Vertex, SortedSet<Vertex>> adjacentsRows;
+        Set<Vertex> snapshotVertices;
+        int edgesCount;
+        if (previous == null) {
+            edgesRows = new HashMap<Vertex, Set<Edge>>();
+            adjacentsRows = new HashMap<Vertex, SortedSet<Vertex>>();
+            snapshotVertices = null;
+            edgesCount = 0;
+        } else {
+            edgesRows = new HashMap<Vertex, Set<Edge>>(previous.m_edgesRows);
+            adjacentsRows = new HashMap<Vertex, SortedSet<Vertex>>(previous.m_adjacentsRows);
+            snapshotVertices = previous.m_snapshotVertices;
+            edgesCount = previous.edgesCount();
+        }
+
+        // vertices are never removed, the set only changed if its size did.
+        if (snapshotVertices == null || snapshotVertices.size() != vertices.size()) {
+            snapshotVertices = Collections.unmodifiableSet(new HashSet<Vertex>(vertices));
+        }
+
+        // rows shared with the previous snapshot are copied before being
+        // modified, the same row is copied only once.
+        Set<Vertex> copiedRows = new HashSet<Vertex>();
+        for (Edge edge : newEdges) {
+            Vertex start = edge.getStartVertex();
+            Vertex end = edge.getEndVertex();
+            if (copiedRows.add(start)) {
+                Set<Edge> edges = edgesRows.get(start);
+                SortedSet<Vertex> adjacents = adjacentsRows.get(start);
+                edgesRows.put(start, edges == null ?
+                        new HashSet<Edge>() : new HashSet<Edge>(edges));
+                adjacentsRows.put(start, adjacents == null ?
+                        new TreeSet<Vertex>() : new TreeSet<Vertex>(adjacents));
+            }
+            if (edgesRows.get(start).add(edge)) {
+                edgesCount++;
+            }
+            adjacentsRows.get(start).add(end);
+            if (!adjacentsRows.containsKey(end)) {
+                adjacentsRows.put(end, AdjacencyList.EMPTY_VERTICES_SET);
+            }
+        }
+        return new GraphSnapshot(graph.isDirected(), graph.isWeighted(), graph.version(),
+                snapshotVertices, edgesRows, adjacentsRows, edgesCount);
+    }
+
+    /**
+     * Get the edges leaving a vertex. Used to check that unchanged rows are
+     * shared between snapshots.
+     *
+     * @param vertex the start vertex of the edges.
+     * @return the edges starting at the vertex, null if there's none.
+     */
+    Set<Edge> edgesRow(final Vertex vertex) {
+        return m_edgesRows.get(vertex);
+    }
+
+    /**
+     * Get the set of vertices itself. Used to check that it is shared between
+     * snapshots when no vertex was added.
+     *
+     * @return the unmodifiable set of vertices.
+     */
+    Set<Vertex> verticesSet() {
+        return m_snapshotVertices;
+    }
+
+    /**
+     * Not supported, a snapshot can't be modified.
+     *
+     * @param edge the edge to add.
+     */
+    @Override
+    public void addEdge(final Edge edge) {
+        throw new UnsupportedOperationException(UNSUPPORTED_OPERATION_MESSAGE);
+    }
+
+    /**
+     * Not supported, a snapshot can't be modified.
+     *
+     * @param vertex the vertex to add.
+     */
+    @Override
+    public void addVertex(final Vertex vertex) {
+        throw new UnsupportedOperationException(UNSUPPORTED_OPERATION_MESSAGE);
+    }
+
+    /**
+     * @return the snapshot itself, it never changes.
+     */
+    @Override
+    public GraphSnapshot snapshot() {
+        return this;
+    }
+
+    /**
+     * @return the snapshot itself, it never changes.
+     */
+    @Override
+    public GraphSnapshot publish() {
+        return this;
+    }
+
+    /**
+     * Check if the graph has an edge with the vertices provided, regardless of
+     * the weight. Only the edges leaving the start vertex are scanned.
+     *
+     * @param start the start vertex of the edge to check.
+     * @param end the end vertex of edge to check.
+     * @return true if the graph contains and edge with the provided vertices,
+     *         false otherwise.
+     */
+    @Override
+    public boolean containsEdge(final Vertex start, final Vertex end) {
+        if (start == null || end == null) {
+            return false;
+        }
+        return findEdge(start, end) != null;
+    }
+
+    /**
+     * Get the edge with the provided start and end vertices. Only the edges
+     * leaving the start vertex are scanned.
+     *
+     * @param start the start vertex of the edge to get. Can't be null.
+     * @param end the end vertex of the edge to get. Can't be null.
+     * @return the edge with the provided vertices as end points
+     * @throws EdgeNotFoundException if there is no such edge.
+     */
+    @Override
+    public Edge getEdge(final Vertex start, final Vertex end)
+            throws EdgeNotFoundException {
+        ValidationUtils.validateNoNeNull(
+                "the start and end vertex can't be null", start, end);
+        Edge edge = findEdge(start, end);
+        if (edge == null) {
+            throw new EdgeNotFoundException(start, end);
+        }
+        return edge;
+    }
+
+    /**
+     * Search the edge between two vertices in the row of the start vertex.
+     *
+     * @param start the start vertex of the edge.
+     * @param end the end vertex of the edge.
+     * @return the edge found, null if there is none.
+     */
+    private Edge findEdge(final Vertex start, final Vertex end) {
+        Set<Edge> edges = m_edgesRows.get(start);
+        if (edges != null) {
+            for (Edge edge : edges) {
+                if (edge.getEndVertex().equals(end)) {
+                    return edge;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Read-only set of all the edges of a snapshot, backed by the rows of
+     * edges.
+     */
+    private static final class EdgesView extends AbstractSet<Edge> {
+        private final Map<Vertex, Set<Edge>> m_rows;
+        private final int m_size;
+
+        EdgesView(final Map<Vertex, Set<Edge>> rows, final int size) {
+            m_rows = rows;
+            m_size = size;
+        }
+
+        @Override
+        public int size() {
+            return m_size;
+        }
+
+        @Override
+        public boolean contains(final Object object) {
+            if (!(object instanceof Edge)) {
+                return false;
+            }
+            Set<Edge> edges = m_rows.get(((Edge) object).getStartVertex());
+            return edges != null && edges.contains(object);
+        }
+
+        @Override
+        public Iterator<Edge> iterator() {
+            final Iterator<Set<Edge>> rows = m_rows.values().iterator();
+            return new Iterator<Edge>() {
+                private Iterator<Edge> m_row = Collections.<Edge> emptyIterator();
+
+                public boolean hasNext() {
+                    while (!m_row.hasNext() && rows.hasNext()) {
+                        m_row = rows.next().iterator();
+                    }
+                    return m_row.hasNext();
+                }
+
+                public Edge next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return m_row.next();
+                }
+
+                public void remove() {
+                    throw new UnsupportedOperationException(UNSUPPORTED_OPERATION_MESSAGE);
+                }
+            };
+        }
+    }
+}
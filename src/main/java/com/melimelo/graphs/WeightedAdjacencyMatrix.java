@@ -0,0 +1,147 @@
+package com.melimelo.graphs;
+
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Adjacency matrix representation of a weighted graph. The weights are stored
+ * in a single array of doubles, row after row: the weight of the edge going
+ * from the vertex with index i to the vertex with index j is at i * size + j.
+ * Missing edges have the weight {@link #NO_EDGE}, which is positive infinity
+ * so that the matrix can be used as is by shortest paths algorithms. Vertices
+ * are assigned indexes according to their natural ordering, see
+ * {@link VerticesIndexes}.
+ */
+public final class WeightedAdjacencyMatrix {
+
+    /**
+     * The weight of a missing edge.
+     */
+    public static final double NO_EDGE = Double.POSITIVE_INFINITY;
+
+    private final boolean m_directedEdges;
+    private final int m_size;
+    private final double[] m_weights;
+    private final VerticesIndexes m_verticesIndexes;
+
+    /**
+     * Create a new instance with the vertices and edges of a graph. Vertices
+     * without edges are part of the matrix. When there are several edges
+     * between two vertices, the lowest weight is kept.
+     *
+     * @param graph the graph from which to create the matrix, with at most
+     *            46340 vertices.
+     */
+    public WeightedAdjacencyMatrix(final Graph graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("The graph can't be null");
+        }
+        Set<Vertex> vertices = graph.getVertices();
+        m_directedEdges = graph.isDirected();
+        m_verticesIndexes = new VerticesIndexes(vertices);
+        m_size = vertices.size();
+        if ((long) m_size * m_size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The graph has too many vertices (" + m_size
+                    + ") to be stored in an adjacency matrix!");
+        }
+        m_weights = new double[m_size * m_size];
+        Arrays.fill(m_weights, NO_EDGE);
+        for (Edge edge : graph.getEdges()) {
+            int start = m_verticesIndexes.getIndex(edge.getStartVertex());
+            int end = m_verticesIndexes.getIndex(edge.getEndVertex());
+            int cell = start * m_size + end;
+            m_weights[cell] = Math.min(m_weights[cell], edge.getWeight().doubleValue());
+        }
+    }
+
+    /**
+     * @return true if the matrix was created from a directed graph, false
+     *         otherwise.
+     */
+    public boolean hasDirectedEdges() {
+        return m_directedEdges;
+    }
+
+    /**
+     * @return the number of vertices.
+     */
+    public int size() {
+        return m_size;
+    }
+
+    /**
+     * Get the index of a vertex.
+     *
+     * @param vertex the vertex for which to get the index.
+     * @return the index of the vertex, -1 if the vertex is not in the matrix.
+     */
+    public int getIndex(final Vertex vertex) {
+        return m_verticesIndexes.getIndex(vertex);
+    }
+
+    /**
+     * Get the vertex with a specific index.
+     *
+     * @param index the index of the vertex to get.
+     * @return the vertex with the provided index.
+     * @throws VertexNotFoundException if the index is out of range.
+     */
+    public Vertex getVertex(final int index) throws VertexNotFoundException {
+        return m_verticesIndexes.getVertex(index);
+    }
+
+    /**
+     * Get the weight of the edge between two vertices.
+     *
+     * @param start the index of the start vertex.
+     * @param end the index of the end vertex.
+     * @return the weight of the edge, {@link #NO_EDGE} if there is no edge.
+     */
+    public double weight(final int start, final int end) {
+        validateIndex(start);
+        validateIndex(end);
+        return m_weights[start * m_size + end];
+    }
+
+    /**
+     * Check if there is an edge between two vertices.
+     *
+     * @param start the index of the start vertex.
+     * @param end the index of the end vertex.
+     * @return true if there is an edge, false otherwise.
+     */
+    public boolean containsEdge(final int start, final int end) {
+        return start >= 0 && start < m_size && end >= 0 && end < m_size
+                && m_weights[start * m_size + end] != NO_EDGE;
+    }
+
+    /**
+     * Get the weights of the edges leaving a vertex.
+     *
+     * @param index the index of the vertex.
+     * @return a copy of the row of the vertex.
+     */
+    public double[] getRow(final int index) {
+        validateIndex(index);
+        return Arrays.copyOfRange(m_weights, index * m_size, (index + 1) * m_size);
+    }
+
+    /**
+     * @return a copy of all the weights, row after row. The weight of the edge
+     *         from i to j is at i * size + j.
+     */
+    public double[] toArray() {
+        return m_weights.clone();
+    }
+
+    /**
+     * Check that a vertex index is within the range of indexes.
+     *
+     * @param index the index to check.
+     */
+    private void validateIndex(final int index) {
+        if (index < 0 || index >= m_size) {
+            throw new IllegalArgumentException("Vertex index " + index + " doesn't exists!");
+        }
+    }
+}
@@ -0,0 +1,323 @@
+package com.melimelo.heap;
+
+import com.melimelo.heap.Heap.HeapType;
+
+/**
+ * Binomial heap: a list of binomial trees of distinct degrees, sorted by
+ * degree, where every node dominates its children. Two heaps are melded in
+ * O(log(n)) by merging their lists of trees and linking the trees of the same
+ * degree, like adding two binary numbers. Insertion, deletion of the top and
+ * decrease-key are O(log(n)). Null elements are not allowed.
+ */
+public final class BinomialHeap<T extends Comparable<T>>
+        implements IMeldableHeap<T, BinomialHeap<T>> {
+
+    /**
+     * The expected value when testing for dominance between two elements, the
+     * first element dominate the second element.
+     */
+    private static final int ELEMENT_DOMINANCE_VALUE = 1;
+
+    /**
+     * Handle of an element. Elements move between nodes when their key
+     * decreases, so the handle follows the node of its element.
+     */
+    private static final class ElementHandle<T> implements Handle<T> {
+        private T m_element;
+        private Node<T> m_node;
+        private final HeapOwner m_owner;
+
+        ElementHandle(final T element, final HeapOwner owner) {
+            m_element = element;
+            m_owner = owner;
+        }
+
+        @Override
+        public T element() {
+            return m_element;
+        }
+
+        @Override
+        public boolean isValid() {
+            return m_node != null;
+        }
+
+        @Override
+        public String toString() {
+            return String.valueOf(m_element);
+        }
+    }
+
+    /**
+     * A node of a binomial tree.
+     */
+    private static final class Node<T> {
+        private ElementHandle<T> m_handle;
+        private int m_degree;
+        private Node<T> m_parent;
+        private Node<T> m_child;
+        // the next root for a root, the next child for a child.
+        private Node<T> m_sibling;
+
+        Node(final ElementHandle<T> handle) {
+            m_handle = handle;
+            handle.m_node = this;
+        }
+    }
+
+    private final HeapType m_type;
+    private HeapOwner m_owner = new HeapOwner();
+    private Node<T> m_roots;
+    private int m_size;
+
+    /**
+     * Create a new empty heap.
+     *
+     * @param type the type of the heap to create.
+     */
+    public BinomialHeap(final HeapType type) {
+        if (type == null) {
+            throw new IllegalArgumentException("The heap type can't be null!");
+        }
+        m_type = type;
+    }
+
+    @Override
+    public void insert(final T element) {
+        add(element);
+    }
+
+    @Override
+    public Handle<T> add(final T element) {
+        verifyElement(element);
+        ElementHandle<T> handle = new ElementHandle<T>(element, m_owner);
+        m_roots = union(m_roots, new Node<T>(handle));
+        m_size++;
+        return handle;
+    }
+
+    @Override
+    public T get() {
+        Node<T> top = topRoot();
+        return top == null ? null : top.m_handle.m_element;
+    }
+
+    @Override
+    public T delete() throws HeapUnderflowException {
+        Node<T> top = topRoot();
+        if (top == null) {
+            throw new HeapUnderflowException();
+        }
+        // remove the tree of the top from the roots.
+        if (m_roots == top) {
+            m_roots = top.m_sibling;
+        } else {
+            Node<T> previous = m_roots;
+            while (previous.m_sibling != top) {
+                previous = previous.m_sibling;
+            }
+            previous.m_sibling = top.m_sibling;
+        }
+        // the children are sorted by decreasing degree, reverse them to get
+        // a list of roots.
+        Node<T> children = null;
+        Node<T> child = top.m_child;
+        while (child != null) {
+            Node<T> next = child.m_sibling;
+            child.m_parent = null;
+            child.m_sibling = children;
+            children = child;
+            child = next;
+        }
+        m_roots = union(m_roots, children);
+        m_size--;
+        ElementHandle<T> handle = top.m_handle;
+        handle.m_node = null;
+        return handle.m_element;
+    }
+
+    @Override
+    public void meld(final BinomialHeap<T> other) {
+        if (other == null) {
+            throw new IllegalArgumentException("The heap to meld can't be null!");
+        }
+        if (other.m_type != m_type) {
+            throw new IllegalArgumentException("Can't meld heaps of different types!");
+        }
+        if (other == this) {
+            return;
+        }
+        m_roots = union(m_roots, other.m_roots);
+        m_size += other.m_size;
+        other.m_roots = null;
+        other.m_size = 0;
+        other.m_owner.forwardTo(m_owner);
+        other.m_owner = new HeapOwner();
+    }
+
+    @Override
+    public void decreaseKey(final Handle<T> handle, final T element) {
+        verifyElement(element);
+        if (!(handle instanceof ElementHandle) || !handle.isValid()) {
+            throw new IllegalArgumentException("The handle is not valid!");
+        }
+        ElementHandle<T> elementHandle = (ElementHandle<T>) handle;
+        if (elementHandle.m_owner.current() != m_owner) {
+            throw new IllegalArgumentException("The handle belongs to another heap!");
+        }
+        if (dominate(elementHandle.m_element, element)) {
+            throw new IllegalArgumentException("The new element " + element
+                    + " comes after " + elementHandle.m_element + "!");
+        }
+        elementHandle.m_element = element;
+        // move the element up by exchanging the handles of the nodes.
+        Node<T> node = elementHandle.m_node;
+        Node<T> parent = node.m_parent;
+        while (parent != null && dominate(element, parent.m_handle.m_element)) {
+            node.m_handle = parent.m_handle;
+            node.m_handle.m_node = node;
+            node = parent;
+            parent = node.m_parent;
+        }
+        node.m_handle = elementHandle;
+        elementHandle.m_node = node;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return m_roots == null;
+    }
+
+    @Override
+    public int size() {
+        return m_size;
+    }
+
+    @Override
+    public HeapType type() {
+        return m_type;
+    }
+
+    /**
+     * @return the root with the top element, null if the heap is empty.
+     */
+    private Node<T> topRoot() {
+        Node<T> top = m_roots;
+        if (top != null) {
+            for (Node<T> root = top.m_sibling; root != null; root = root.m_sibling) {
+                if (dominate(root.m_handle.m_element, top.m_handle.m_element)) {
+                    top = root;
+                }
+            }
+        }
+        return top;
+    }
+
+    /**
+     * Merge two lists of roots and link the trees with the same degree.
+     *
+     * @param first the first list of roots, sorted by degree.
+     * @param second the second list of roots, sorted by degree.
+     * @return the merged list of roots, with distinct degrees.
+     */
+    private Node<T> union(final Node<T> first, final Node<T> second) {
+        Node<T> roots = mergeByDegree(first, second);
+        if (roots == null) {
+            return null;
+        }
+        Node<T> previous = null;
+        Node<T> current = roots;
+        Node<T> next = current.m_sibling;
+        while (next != null) {
+            // when three trees have the same degree, the first one is kept
+            // and the two others linked.
+            if (current.m_degree != next.m_degree || (next.m_sibling != null
+                    && next.m_sibling.m_degree == current.m_degree)) {
+                previous = current;
+                current = next;
+            } else if (!dominate(next.m_handle.m_element, current.m_handle.m_element)) {
+                current.m_sibling = next.m_sibling;
+                link(next, current);
+            } else {
+                if (previous == null) {
+                    roots = next;
+                } else {
+                    previous.m_sibling = next;
+                }
+                link(current, next);
+                current = next;
+            }
+            next = current.m_sibling;
+        }
+        return roots;
+    }
+
+    /**
+     * Merge two lists of roots sorted by degree.
+     *
+     * @param first the first list of roots.
+     * @param second the second list of roots.
+     * @return a list of roots sorted by degree, where two roots can have the
+     *         same degree.
+     */
+    private Node<T> mergeByDegree(final Node<T> first, final Node<T> second) {
+        Node<T> head = null;
+        Node<T> tail = null;
+        Node<T> left = first;
+        Node<T> right = second;
+        while (left != null || right != null) {
+            Node<T> smallest;
+            if (right == null || (left != null && left.m_degree <= right.m_degree)) {
+                smallest = left;
+                left = left.m_sibling;
+            } else {
+                smallest = right;
+                right = right.m_sibling;
+            }
+            if (tail == null) {
+                head = smallest;
+            } else {
+                tail.m_sibling = smallest;
+            }
+            tail = smallest;
+        }
+        return head;
+    }
+
+    /**
+     * Make a tree the first child of another tree of the same degree.
+     *
+     * @param child the root of the tree to become a child.
+     * @param parent the root of the tree to become the parent.
+     */
+    private void link(final Node<T> child, final Node<T> parent) {
+        child.m_parent = parent;
+        child.m_sibling = parent.m_child;
+        parent.m_child = child;
+        parent.m_degree++;
+    }
+
+    /**
+     * Check if an element dominate another one, see {@link Heap}.
+     *
+     * @param first the first element.
+     * @param second the second element.
+     * @return true if the first element dominate the second one, false
+     *         otherwise.
+     */
+    private boolean dominate(final T first, final T second) {
+        return Integer.signum(first.compareTo(second)) * m_type.sign() == ELEMENT_DOMINANCE_VALUE;
+    }
+
+    /**
+     * verify if an element is not null. If so, then throws an
+     * {@link IllegalArgumentException}
+     *
+     * @param element the element to verify.
+     */
+    private void verifyElement(final T element) {
+        if (element == null) {
+            throw new IllegalArgumentException("Null elements are not allowed !");
+        }
+    }
+}
@@ -0,0 +1,402 @@
+package com.melimelo.heap;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Unbounded concurrent priority queue spreading its elements over several
+ * {@link DaryHeap}, each one guarded by its own lock (MultiQueue). Producers
+ * insert in a random heap which isn't locked. Consumers pick two random heaps
+ * and delete the top of the one with the smallest top, so that threads
+ * rarely wait for each other.
+ *
+ * The ordering is relaxed: an element returned by {@link #poll()} is among
+ * the smallest elements of the queue but not necessarily the smallest one.
+ * An element is never lost, and when a single thread uses the queue the
+ * elements come out in an order close to the comparator's. Elements are
+ * expected to be small when they have a high priority, as with a min heap.
+ *
+ * As required by {@link BlockingQueue}, null elements are rejected with a
+ * {@link NullPointerException}. The iterator is a snapshot of the elements, in
+ * no particular order, which doesn't support removal.
+ */
+public final class ConcurrentPriorityQueue<E> extends AbstractQueue<E>
+        implements BlockingQueue<E> {
+
+    /**
+     * The number of heaps per available processor used by default.
+     */
+    public static final int DEFAULT_HEAPS_PER_PROCESSOR = 2;
+
+    /**
+     * A heap with its lock. The top of the heap is cached so that consumers
+     * can compare the heaps without locking them.
+     */
+    private static final class SubQueue<E> {
+        private final ReentrantLock m_lock = new ReentrantLock();
+        private final DaryHeap<E> m_heap;
+        private volatile E m_top;
+
+        SubQueue(final Comparator<? super E> comparator) {
+            m_heap = new DaryHeap<E>(comparator);
+        }
+    }
+
+    private final Comparator<? super E> m_comparator;
+    private final SubQueue<E>[] m_queues;
+
+    // the number of elements which can be claimed by consumers. Producers
+    // increase it once an element is in a heap and consumers decrease it
+    // before looking for an element, so a consumer which claimed an element
+    // always finds one.
+    private final AtomicInteger m_size = new AtomicInteger();
+
+    // consumers waiting for elements, producers only signal when there's one.
+    private final ReentrantLock m_waitLock = new ReentrantLock();
+    private final Condition m_notEmpty = m_waitLock.newCondition();
+    private final AtomicInteger m_waiters = new AtomicInteger();
+
+    /**
+     * Create a new queue with {@link #DEFAULT_HEAPS_PER_PROCESSOR} heaps per
+     * available processor.
+     *
+     * @param comparator the comparator ordering the elements, the smallest
+     *            elements come out first.
+     */
+    public ConcurrentPriorityQueue(final Comparator<? super E> comparator) {
+        this(comparator, DEFAULT_HEAPS_PER_PROCESSOR
+                * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create a new queue.
+     *
+     * @param comparator the comparator ordering the elements, the smallest
+     *            elements come out first.
+     * @param heaps the number of heaps, at least 1. More heaps means less
+     *            contention but a more relaxed ordering.
+     */
+    @SuppressWarnings("unchecked")
+    public ConcurrentPriorityQueue(final Comparator<? super E> comparator,
+            final int heaps) {
+        if (comparator == null) {
+            throw new IllegalArgumentException("The comparator can't be null!");
+        }
+        if (heaps < 1) {
+            throw new IllegalArgumentException("There must be at least one heap!");
+        }
+        m_comparator = comparator;
+        m_queues = new SubQueue[heaps];
+        for (int i = 0; i < heaps; i++) {
+            m_queues[i] = new SubQueue<E>(comparator);
+        }
+    }
+
+    /**
+     * @return the comparator ordering the elements.
+     */
+    public Comparator<? super E> comparator() {
+        return m_comparator;
+    }
+
+    /**
+     * Insert an element in a random heap which is not locked.
+     *
+     * @param element the element to insert.
+     * @return always true.
+     */
+    @Override
+    public boolean offer(final E element) {
+        if (element == null) {
+            throw new NullPointerException("Null elements are not allowed !");
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (true) {
+            SubQueue<E> queue = m_queues[random.nextInt(m_queues.length)];
+            if (queue.m_lock.tryLock()) {
+                try {
+                    queue.m_heap.insert(element);
+                    queue.m_top = queue.m_heap.peek();
+                } finally {
+                    queue.m_lock.unlock();
+                }
+                break;
+            }
+        }
+        m_size.incrementAndGet();
+        if (m_waiters.get() > 0) {
+            m_waitLock.lock();
+            try {
+                m_notEmpty.signal();
+            } finally {
+                m_waitLock.unlock();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Insert an element, the queue is unbounded so this never blocks.
+     *
+     * @param element the element to insert.
+     */
+    @Override
+    public void put(final E element) {
+        offer(element);
+    }
+
+    /**
+     * Insert an element, the queue is unbounded so this never blocks.
+     *
+     * @param element the element to insert.
+     * @param timeout ignored.
+     * @param unit ignored.
+     * @return always true.
+     */
+    @Override
+    public boolean offer(final E element, final long timeout, final TimeUnit unit) {
+        return offer(element);
+    }
+
+    /**
+     * Delete one of the smallest elements.
+     *
+     * @return the element deleted, null if the queue is empty.
+     */
+    @Override
+    public E poll() {
+        return claim(1) == 0 ? null : pollClaimed();
+    }
+
+    /**
+     * Delete one of the smallest elements, waiting for an element if the
+     * queue is empty.
+     *
+     * @return the element deleted.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    @Override
+    public E take() throws InterruptedException {
+        E element = poll();
+        if (element != null) {
+            return element;
+        }
+        m_waitLock.lockInterruptibly();
+        m_waiters.incrementAndGet();
+        try {
+            while ((element = poll()) == null) {
+                m_notEmpty.await();
+            }
+            return element;
+        } finally {
+            m_waiters.decrementAndGet();
+            m_waitLock.unlock();
+        }
+    }
+
+    /**
+     * Delete one of the smallest elements, waiting up to a timeout for an
+     * element if the queue is empty.
+     *
+     * @param timeout how long to wait.
+     * @param unit the unit of the timeout.
+     * @return the element deleted, null if the timeout elapsed.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    @Override
+    public E poll(final long timeout, final TimeUnit unit) throws InterruptedException {
+        E element = poll();
+        if (element != null) {
+            return element;
+        }
+        long nanos = unit.toNanos(timeout);
+        m_waitLock.lockInterruptibly();
+        m_waiters.incrementAndGet();
+        try {
+            while ((element = poll()) == null && nanos > 0) {
+                nanos = m_notEmpty.awaitNanos(nanos);
+            }
+            return element;
+        } finally {
+            m_waiters.decrementAndGet();
+            m_waitLock.unlock();
+        }
+    }
+
+    /**
+     * @return the smallest of the heap tops, which may be outdated, null if
+     *         the queue is empty.
+     */
+    @Override
+    public E peek() {
+        E best = null;
+        for (SubQueue<E> queue : m_queues) {
+            E top = queue.m_top;
+            if (top != null && (best == null || m_comparator.compare(top, best) < 0)) {
+                best = top;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return the number of elements in the queue.
+     */
+    @Override
+    public int size() {
+        return m_size.get();
+    }
+
+    /**
+     * @return always Integer.MAX_VALUE, the queue is unbounded.
+     */
+    @Override
+    public int remainingCapacity() {
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * Delete all the available elements and add them to a collection.
+     *
+     * @param collection the collection where to add the elements.
+     * @return the number of elements transferred.
+     */
+    @Override
+    public int drainTo(final Collection<? super E> collection) {
+        return drainTo(collection, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Delete up to a number of elements and add them to a collection. The
+     * elements are claimed at once, then taken from the heaps in the same way
+     * as {@link #poll()}.
+     *
+     * @param collection the collection where to add the elements.
+     * @param maxElements the maximum number of elements to transfer.
+     * @return the number of elements transferred.
+     */
+    @Override
+    public int drainTo(final Collection<? super E> collection, final int maxElements) {
+        if (collection == null) {
+            throw new NullPointerException("The collection can't be null !");
+        }
+        if (collection == this) {
+            throw new IllegalArgumentException("Can't drain a queue to itself !");
+        }
+        int claimed = maxElements <= 0 ? 0 : claim(maxElements);
+        for (int i = 0; i < claimed; i++) {
+            collection.add(pollClaimed());
+        }
+        return claimed;
+    }
+
+    /**
+     * @return an iterator over a snapshot of the elements, in no particular
+     *         order. The iterator doesn't support removal.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        List<E> elements = new ArrayList<E>(size());
+        for (SubQueue<E> queue : m_queues) {
+            queue.m_lock.lock();
+            try {
+                queue.m_heap.copyTo(elements);
+            } finally {
+                queue.m_lock.unlock();
+            }
+        }
+        return Collections.unmodifiableList(elements).iterator();
+    }
+
+    /**
+     * Claim up to a number of elements, which the caller must then take from
+     * the heaps.
+     *
+     * @param count the number of elements to claim.
+     * @return the number of elements claimed, 0 if the queue is empty.
+     */
+    private int claim(final int count) {
+        while (true) {
+            int size = m_size.get();
+            if (size == 0) {
+                return 0;
+            }
+            int claimed = Math.min(size, count);
+            if (m_size.compareAndSet(size, size - claimed)) {
+                return claimed;
+            }
+        }
+    }
+
+    /**
+     * Delete an element claimed beforehand. Two random heaps are compared and
+     * the top of the best one is deleted. After as many failed attempts as
+     * there are heaps, the heaps are locked one after the other.
+     *
+     * @return the element deleted.
+     */
+    private E pollClaimed() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int attempt = 0; attempt < m_queues.length; attempt++) {
+            SubQueue<E> first = m_queues[random.nextInt(m_queues.length)];
+            SubQueue<E> second = m_queues[random.nextInt(m_queues.length)];
+            E firstTop = first.m_top;
+            E secondTop = second.m_top;
+            SubQueue<E> best = secondTop != null && (firstTop == null
+                    || m_comparator.compare(secondTop, firstTop) < 0) ? second : first;
+            if (best.m_top != null && best.m_lock.tryLock()) {
+                try {
+                    if (!best.m_heap.isEmpty()) {
+                        return pollLocked(best);
+                    }
+                } finally {
+                    best.m_lock.unlock();
+                }
+            }
+        }
+        // the claimed element may be in a heap which was never picked, or
+        // its producer may not have released the lock yet.
+        while (true) {
+            for (SubQueue<E> queue : m_queues) {
+                if (queue.m_top != null) {
+                    queue.m_lock.lock();
+                    try {
+                        if (!queue.m_heap.isEmpty()) {
+                            return pollLocked(queue);
+                        }
+                    } finally {
+                        queue.m_lock.unlock();
+                    }
+                }
+            }
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Delete the top of a locked heap which isn't empty.
+     *
+     * @param queue the heap.
+     * @return the element deleted.
+     */
+    private E pollLocked(final SubQueue<E> queue) {
+        try {
+            E element = queue.m_heap.poll();
+            queue.m_top = queue.m_heap.peek();
+            return element;
+        } catch (HeapUnderflowException exception) {
+            throw new IllegalStateException(exception);
+        }
+    }
+}
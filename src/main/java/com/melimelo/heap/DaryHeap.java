@@ -0,0 +1,255 @@
+package com.melimelo.heap;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+
+import com.melimelo.heap.Heap.HeapType;
+
+/**
+ * Heap where every node has d children, ordered by a {@link Comparator}: the
+ * top element is the smallest one according to the comparator. A bigger
+ * arity makes the heap shallower, log(n)/log(d) levels instead of log2(n),
+ * which makes insertions cheaper at the price of more comparisons when
+ * deleting.
+ *
+ * The elements are stored in an array with an offset of d - 1 slots, so that
+ * the children of the node at position p, at positions d * p + 1 to
+ * d * p + d, are stored at array indexes d * (p + 1) to d * (p + 1) + d - 1.
+ * The children of a node are always aligned on a multiple of d, and for a
+ * power of two arity they don't straddle more cache lines than needed. The
+ * capacity grows when the heap is full. Null elements are not allowed.
+ */
+public final class DaryHeap<T> {
+
+    public static final int DEFAULT_ARITY = 4;
+    public static final int DEFAULT_CAPACITY = 16;
+
+    private final Comparator<? super T> m_comparator;
+    private final int m_arity;
+    private final int m_offset;
+    private Object[] m_elements;
+    private int m_size;
+
+    /**
+     * Create a new heap with the default arity.
+     *
+     * @param comparator the comparator ordering the elements, the top element
+     *            is the smallest one.
+     */
+    public DaryHeap(final Comparator<? super T> comparator) {
+        this(comparator, DEFAULT_ARITY, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create a new heap.
+     *
+     * @param comparator the comparator ordering the elements, the top element
+     *            is the smallest one.
+     * @param arity the number of children of every node, at least 2.
+     * @param capacity the initial capacity of the heap. The arity plus the
+     *            capacity can't exceed {@link Heap#MAX_CAPACITY}.
+     */
+    public DaryHeap(final Comparator<? super T> comparator, final int arity,
+            final int capacity) {
+        if (comparator == null) {
+            throw new IllegalArgumentException("The comparator can't be null!");
+        }
+        if (arity < 2) {
+            throw new IllegalArgumentException("The arity must be at least 2!");
+        }
+        if (capacity < 0) {
+            throw new IllegalArgumentException("The capacity can't be negative!");
+        }
+        if ((long) arity - 1 + capacity > Heap.MAX_CAPACITY) {
+            throw new IllegalArgumentException("The arity and the capacity can't exceed "
+                    + Heap.MAX_CAPACITY + "!");
+        }
+        m_comparator = comparator;
+        m_arity = arity;
+        m_offset = arity - 1;
+        m_elements = new Object[m_offset + capacity];
+    }
+
+    /**
+     * Create a heap of elements ordered by their natural ordering.
+     *
+     * @param type the type of the heap to create.
+     * @return A new empty heap with the default arity.
+     */
+    public static <T extends Comparable<? super T>> DaryHeap<T> newHeap(
+            final HeapType type) {
+        Comparator<T> comparator = type == HeapType.MIN_HEAP ?
+                Comparator.<T> naturalOrder() : Collections.<T> reverseOrder();
+        return new DaryHeap<T>(comparator);
+    }
+
+    /**
+     * Insert a new element.
+     *
+     * @param element the element to insert. Can't be null.
+     */
+    public void insert(final T element) {
+        if (element == null) {
+            throw new IllegalArgumentException("Null elements are not allowed !");
+        }
+        ensureCapacity();
+        siftUp(m_size++, element);
+    }
+
+    /**
+     * @return The top element i.e the smallest element according to the
+     *         comparator, null if the heap is empty.
+     */
+    @SuppressWarnings("unchecked")
+    public T peek() {
+        return m_size == 0 ? null : (T) m_elements[m_offset];
+    }
+
+    /**
+     * Delete the top element.
+     *
+     * @return the element deleted.
+     * @throws HeapUnderflowException if the heap is empty.
+     */
+    @SuppressWarnings("unchecked")
+    public T poll() throws HeapUnderflowException {
+        if (m_size == 0) {
+            throw new HeapUnderflowException();
+        }
+        T top = (T) m_elements[m_offset];
+        int last = m_offset + --m_size;
+        T element = (T) m_elements[last];
+        m_elements[last] = null;
+        if (m_size > 0) {
+            siftDown(0, element);
+        }
+        return top;
+    }
+
+    /**
+     * Remove all the elements, the capacity is kept.
+     */
+    public void clear() {
+        Arrays.fill(m_elements, m_offset, m_offset + m_size, null);
+        m_size = 0;
+    }
+
+    /**
+     * Add all the elements to a collection, in no particular order.
+     *
+     * @param collection the collection where to add the elements.
+     */
+    @SuppressWarnings("unchecked")
+    void copyTo(final Collection<? super T> collection) {
+        for (int index = m_offset; index < m_offset + m_size; index++) {
+            collection.add((T) m_elements[index]);
+        }
+    }
+
+    /**
+     * @return true if the heap is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return m_size == 0;
+    }
+
+    /**
+     * @return the number of elements in the heap.
+     */
+    public int size() {
+        return m_size;
+    }
+
+    /**
+     * @return the number of children of every node.
+     */
+    public int arity() {
+        return m_arity;
+    }
+
+    /**
+     * @return the comparator ordering the elements.
+     */
+    public Comparator<? super T> comparator() {
+        return m_comparator;
+    }
+
+    /**
+     * Move an element up from a free position until its parent comes first.
+     * Parents are moved down into the free position instead of being
+     * swapped.
+     *
+     * @param position the free position, without the offset.
+     * @param element the element to place.
+     */
+    @SuppressWarnings("unchecked")
+    private void siftUp(final int position, final T element) {
+        int hole = position;
+        while (hole > 0) {
+            int parent = (hole - 1) / m_arity;
+            Object parentElement = m_elements[m_offset + parent];
+            if (m_comparator.compare(element, (T) parentElement) >= 0) {
+                break;
+            }
+            m_elements[m_offset + hole] = parentElement;
+            hole = parent;
+        }
+        m_elements[m_offset + hole] = element;
+    }
+
+    /**
+     * Move an element down from a free position until it comes before all
+     * its children. The smallest child is moved up into the free position
+     * instead of being swapped.
+     *
+     * @param position the free position, without the offset.
+     * @param element the element to place.
+     */
+    @SuppressWarnings("unchecked")
+    private void siftDown(final int position, final T element) {
+        int hole = position;
+        // positions beyond the last element are never read, the children of
+        // a node are within [first, end).
+        int end = m_offset + m_size;
+        while (true) {
+            // in long, a big arity would overflow an int.
+            long firstChild = (long) m_arity * (hole + 1);
+            if (firstChild >= end) {
+                break;
+            }
+            int first = (int) firstChild;
+            int last = (int) Math.min(firstChild + m_arity, end);
+            int smallest = first;
+            T smallestElement = (T) m_elements[first];
+            for (int child = first + 1; child < last; child++) {
+                T childElement = (T) m_elements[child];
+                if (m_comparator.compare(childElement, smallestElement) < 0) {
+                    smallest = child;
+                    smallestElement = childElement;
+                }
+            }
+            if (m_comparator.compare(smallestElement, element) >= 0) {
+                break;
+            }
+            m_elements[m_offset + hole] = smallestElement;
+            hole = smallest - m_offset;
+        }
+        m_elements[m_offset + hole] = element;
+    }
+
+    /**
+     * Double the capacity when the heap is full.
+     */
+    private void ensureCapacity() {
+        int capacity = m_elements.length - m_offset;
+        if (m_size == capacity) {
+            if ((long) m_offset + m_size >= Heap.MAX_CAPACITY) {
+                throw new IllegalStateException("The heap can't grow anymore!");
+            }
+            long length = m_offset + Math.max(2L * capacity, 1L);
+            m_elements = Arrays.copyOf(m_elements, (int) Math.min(length, Heap.MAX_CAPACITY));
+        }
+    }
+}
@@ -1,12 +1,28 @@
 package com.melimelo.heap;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
 /**
- * Heap backed by an array as a backend data structure. The capacity of the heap
- * is fixed i.e once full the capacity doesn't get increase. Duplicate values
+ * Heap backed by an array as a backend data structure. By default the capacity
+ * of the heap is fixed i.e once full the capacity doesn't get increase. A
+ * growable heap doubles its capacity when full and halves it when it is a
+ * quarter full, without going below its initial capacity. Duplicate values
  * are allowed but null values insertion is not allowed. An attempt to insert
  * such value will throw an {@link IllegalArgumentException}
+ * 
+ * The heap can be iterated without being modified, in the order of the
+ * backing array, and its first elements can be read in order with
+ * {@link #sortedView(int)}.
  */
-public class Heap<T extends Comparable<T>> {
+public class Heap<T extends Comparable<T>> implements IHeap<T>, Iterable<T> {
 
     /**
      * Define the heap types.
@@ -47,6 +63,16 @@ public class Heap<T extends Comparable<T>> {
 
     public static final int DEFAULT_CAPACITY = 1024;
 
+    /**
+     * The initial capacity of growable heaps.
+     */
+    public static final int DEFAULT_GROWABLE_CAPACITY = 16;
+
+    /**
+     * The maximum capacity of a heap, some VMs reserve header words in arrays.
+     */
+    public static final int MAX_CAPACITY = Integer.MAX_VALUE - 9;
+
     /**
      * Define the natural logarithm of 2 used for computing the heap height. The
      * heap height is equals to the log in base 2 of the number of element which
@@ -71,10 +97,14 @@ public class Heap<T extends Comparable<T>> {
      * for a max heap). The index start at 1 instead of 0.
      */
     private final int TOP_ELEMENT_INDEX = 1;
-    private final T[] m_elements;
+    private T[] m_elements;
     private final HeapType m_type;
     private int m_lastElementIndex;
     private int m_capacity;
+    private final boolean m_growable;
+    private final int m_initialCapacity;
+    // incremented each time the elements change, so that iterators fail fast.
+    private int m_modCount;
 
     /**
      * Create a new Heap of the specified type.
@@ -91,14 +121,33 @@ public class Heap<T extends Comparable<T>> {
      * @param type the type of the heap to create.
      * @param capacity the capacity of the heap to create.
      */
-    @SuppressWarnings("unchecked")
     public Heap(final HeapType type, final int capacity) {
+        this(type, capacity, false);
+    }
+
+    /**
+     * Create a new heap of a specific type and with a specified capacity,
+     * which may grow and shrink with the number of elements.
+     * 
+     * @param type the type of the heap to create.
+     * @param capacity the initial capacity of the heap to create.
+     * @param growable true if the capacity grows when the heap is full, false
+     *            if the capacity is fixed.
+     */
+    @SuppressWarnings("unchecked")
+    public Heap(final HeapType type, final int capacity, final boolean growable) {
         if (capacity < 0) {
             throw new IllegalArgumentException(
                     "The capacity can't be negative!");
         }
+        if (capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException(
+                    "The capacity can't exceed " + MAX_CAPACITY + "!");
+        }
         m_type = type;
         m_capacity = capacity;
+        m_initialCapacity = capacity;
+        m_growable = growable;
         m_lastElementIndex = 0;
         m_elements = (T[]) new Comparable[capacity + 1];
     }
@@ -123,13 +172,36 @@ public class Heap<T extends Comparable<T>> {
      *         heap and the biggest element for a max heap. If the heap is
      *         empty, the value returned will be null.
      */
-    public T get() throws HeapUnderflowException {
+    @Override
+    public T get() {
         if (isEmpty()) {
             return null;
         }
         return m_elements[TOP_ELEMENT_INDEX];
     }
 
+    /**
+     * Insert a new element, same as {@link #iterativeInsert(Comparable)}.
+     * 
+     * @param element the element to insert.
+     * @throws HeapOverflowException if the Heap is full.
+     */
+    @Override
+    public void insert(final T element) throws HeapOverflowException {
+        iterativeInsert(element);
+    }
+
+    /**
+     * Delete the top element, same as {@link #iterativeDelete()}.
+     * 
+     * @return The value of the element deleted.
+     * @throws HeapUnderflowException if the heap is empty.
+     */
+    @Override
+    public T delete() throws HeapUnderflowException {
+        return iterativeDelete();
+    }
+
     /**
      * Insert a new element and recursively adjust the heap.
      * 
@@ -138,10 +210,8 @@ public class Heap<T extends Comparable<T>> {
      */
     public void recusiveInsert(final T element) throws HeapOverflowException {
         verifyElementToInsert(element);
-        if (isFull()) {
-            throw new HeapOverflowException();
-        }
-
+        ensureCapacity(1);
+        m_modCount++;
         m_elements[++m_lastElementIndex] = element;
         recursiveMoveUp(m_lastElementIndex);
     }
@@ -156,45 +226,218 @@ public class Heap<T extends Comparable<T>> {
         if (isEmpty()) {
             throw new HeapUnderflowException();
         }
+        m_modCount++;
         T topElement = m_elements[TOP_ELEMENT_INDEX];
         m_elements[TOP_ELEMENT_INDEX] = m_elements[m_lastElementIndex];
         m_elements[m_lastElementIndex--] = null;
         recursiveMoveDown(TOP_ELEMENT_INDEX);
+        shrinkIfSparse();
         return topElement;
     }
 
     /**
-     * Insert a new element and recursively adjust the heap.
+     * Insert a new element and iteratively adjust the heap. The element is
+     * moved up through a hole, see {@link #siftUp(int, Comparable)}.
      * 
      * @param element the element to insert.
      * @throws HeapOverflowException if the Heap is full.
      */
     public void iterativeInsert(final T element) throws HeapOverflowException {
         verifyElementToInsert(element);
-        if (isFull()) {
-            throw new HeapOverflowException();
+        ensureCapacity(1);
+        m_modCount++;
+        siftUp(++m_lastElementIndex, element);
+    }
+
+    /**
+     * Delete the top element and iteratively adjust the heap. The last element
+     * is moved down from the top through a hole, see
+     * {@link #siftDown(int, Comparable)}.
+     * 
+     * @return The value of the element deleted.
+     * @throws HeapUnderflowException if the heap is empty.
+     */
+    public T iterativeDelete() throws HeapUnderflowException {
+        if (isEmpty()) {
+            throw new HeapUnderflowException();
         }
+        m_modCount++;
+        T topElement = m_elements[TOP_ELEMENT_INDEX];
+        deleteTop();
+        shrinkIfSparse();
+        return topElement;
+    }
+
+    /**
+     * Insert a new element and iteratively adjust the heap by swapping the
+     * element with its parent at each level. Kept as a baseline for the
+     * hole-based {@link #iterativeInsert(Comparable)}, see HeapBenchmark.
+     * 
+     * @param element the element to insert.
+     * @throws HeapOverflowException if the Heap is full.
+     */
+    void swappingInsert(final T element) throws HeapOverflowException {
+        verifyElementToInsert(element);
+        ensureCapacity(1);
+        m_modCount++;
         m_elements[++m_lastElementIndex] = element;
         iterativeMoveUp(m_lastElementIndex);
     }
 
     /**
-     * Delete the top element and recursively adjust the heap.
+     * Delete the top element and iteratively adjust the heap by swapping the
+     * element with its dominant child at each level. Kept as a baseline for
+     * the hole-based {@link #iterativeDelete()}, see HeapBenchmark.
      * 
      * @return The value of the element deleted.
      * @throws HeapUnderflowException if the heap is empty.
      */
-    public T iterativeDelete() throws HeapUnderflowException {
+    T swappingDelete() throws HeapUnderflowException {
         if (isEmpty()) {
             throw new HeapUnderflowException();
         }
+        m_modCount++;
         T topElement = m_elements[TOP_ELEMENT_INDEX];
         swap(TOP_ELEMENT_INDEX, m_lastElementIndex);
         m_elements[m_lastElementIndex--] = null;
         iterativeMoveDown(TOP_ELEMENT_INDEX);
+        shrinkIfSparse();
         return topElement;
     }
 
+    /**
+     * Replace the elements of the heap and build it by recursively moving
+     * down every parent, as the heap was built before Floyd's hole-based
+     * build. Kept as a baseline for {@link #Heap(HeapType, Comparable[])}, see
+     * HeapBenchmark.
+     * 
+     * @param elements the heap elements.
+     * @throws HeapOverflowException if the heap can't hold all the elements.
+     */
+    void recursiveBuild(final T[] elements) throws HeapOverflowException {
+        load(elements);
+        for (int i = parentIndex(m_lastElementIndex); i >= TOP_ELEMENT_INDEX; i--) {
+            recursiveMoveDown(i);
+        }
+    }
+
+    /**
+     * Replace the elements of the heap and build it by moving down every
+     * parent with swaps. Kept as a baseline for
+     * {@link #Heap(HeapType, Comparable[])}, see HeapBenchmark.
+     * 
+     * @param elements the heap elements.
+     * @throws HeapOverflowException if the heap can't hold all the elements.
+     */
+    void swappingBuild(final T[] elements) throws HeapOverflowException {
+        load(elements);
+        for (int i = parentIndex(m_lastElementIndex); i >= TOP_ELEMENT_INDEX; i--) {
+            iterativeMoveDown(i);
+        }
+    }
+
+    /**
+     * Replace the top element and adjust the heap, which is cheaper than a
+     * delete followed by an insert.
+     * 
+     * @param element the new element.
+     * @return The value of the element replaced.
+     * @throws HeapUnderflowException if the heap is empty.
+     */
+    public T replaceTop(final T element) throws HeapUnderflowException {
+        verifyElementToInsert(element);
+        if (isEmpty()) {
+            throw new HeapUnderflowException();
+        }
+        m_modCount++;
+        T topElement = m_elements[TOP_ELEMENT_INDEX];
+        siftDown(TOP_ELEMENT_INDEX, element);
+        return topElement;
+    }
+
+    /**
+     * Insert several elements. When the number of elements to insert is large
+     * compared to the size of the heap, the elements are appended and the
+     * whole heap is rebuilt in O(n) instead of inserting them one by one in
+     * O(k log(n)). Either all the elements are inserted or none is.
+     * 
+     * @param elements the elements to insert. None of them can be null.
+     * @throws HeapOverflowException if the heap is not growable and doesn't
+     *             have enough room for all the elements.
+     */
+    public void addAll(final Collection<? extends T> elements)
+            throws HeapOverflowException {
+        if (elements == null) {
+            throw new IllegalArgumentException("The elements can't be null !");
+        }
+        for (T element : elements) {
+            verifyElementToInsert(element);
+        }
+        int count = elements.size();
+        ensureCapacity(count);
+        boolean rebuild = rebuildOnInsert(count);
+        m_modCount++;
+        for (T element : elements) {
+            if (rebuild) {
+                m_elements[++m_lastElementIndex] = element;
+            } else {
+                siftUp(++m_lastElementIndex, element);
+            }
+        }
+        if (rebuild) {
+            build();
+        }
+    }
+
+    /**
+     * Insert several elements, see {@link #addAll(Collection)}.
+     * 
+     * @param elements the elements to insert. None of them can be null.
+     * @throws HeapOverflowException if the heap is not growable and doesn't
+     *             have enough room for all the elements.
+     */
+    public void addAll(final T[] elements) throws HeapOverflowException {
+        if (elements == null) {
+            throw new IllegalArgumentException("The elements can't be null !");
+        }
+        addAll(Arrays.asList(elements));
+    }
+
+    /**
+     * Delete up to count top elements. When all the elements are deleted they
+     * are sorted at once rather than deleted one by one.
+     * 
+     * @param count the maximum number of elements to delete.
+     * @return the elements deleted in the heap order, empty if the heap is
+     *         empty.
+     */
+    public List<T> pollN(final int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("The count can't be negative !");
+        }
+        int polled = Math.min(count, m_lastElementIndex);
+        List<T> elements = new ArrayList<T>(polled);
+        m_modCount++;
+        if (polled == m_lastElementIndex) {
+            for (int index = TOP_ELEMENT_INDEX; index <= m_lastElementIndex; index++) {
+                elements.add(m_elements[index]);
+            }
+            Collections.sort(elements);
+            if (m_type == HeapType.MAX_HEAP) {
+                Collections.reverse(elements);
+            }
+            Arrays.fill(m_elements, TOP_ELEMENT_INDEX, m_lastElementIndex + 1, null);
+            m_lastElementIndex = 0;
+        } else {
+            for (int i = 0; i < polled; i++) {
+                elements.add(m_elements[TOP_ELEMENT_INDEX]);
+                deleteTop();
+            }
+        }
+        shrinkIfSparse();
+        return elements;
+    }
+
     /**
      * Check if an element is present in the heap.
      * 
@@ -219,20 +462,38 @@ public class Heap<T extends Comparable<T>> {
     /**
      * @return true if the heap is empty, false otherwise.
      */
+    @Override
     public boolean isEmpty() {
         return m_lastElementIndex == 0;
     }
 
     /**
-     * @return true if the heap is full, false otherwise.
+     * @return true if the heap is full, false otherwise. A growable heap is
+     *         never full.
      */
     public boolean isFull() {
-        return m_lastElementIndex == m_capacity;
+        return !m_growable && m_lastElementIndex == m_capacity;
+    }
+
+    /**
+     * @return true if the capacity of the heap grows and shrinks with the
+     *         number of elements, false if it is fixed.
+     */
+    public boolean isGrowable() {
+        return m_growable;
+    }
+
+    /**
+     * @return the number of elements the heap can hold without growing.
+     */
+    public int capacity() {
+        return m_capacity;
     }
 
     /**
      * @return the number of elements in the heap.
      */
+    @Override
     public int size() {
         return m_lastElementIndex;
     }
@@ -247,6 +508,7 @@ public class Heap<T extends Comparable<T>> {
     /**
      * @return the heap type.
      */
+    @Override
     public HeapType type() {
         return m_type;
     }
@@ -265,6 +527,20 @@ public class Heap<T extends Comparable<T>> {
         return new Heap<T>(HeapType.MIN_HEAP);
     }
 
+    /**
+     * @return A new empty growable max heap
+     */
+    public static <T extends Comparable<T>> Heap<T> newGrowableMaxHeap() {
+        return new Heap<T>(HeapType.MAX_HEAP, DEFAULT_GROWABLE_CAPACITY, true);
+    }
+
+    /**
+     * @return A new empty growable min heap
+     */
+    public static <T extends Comparable<T>> Heap<T> newGrowableMinHeap() {
+        return new Heap<T>(HeapType.MIN_HEAP, DEFAULT_GROWABLE_CAPACITY, true);
+    }
+
     /**
      * Create a new max heap with provided values.
      * 
@@ -287,6 +563,104 @@ public class Heap<T extends Comparable<T>> {
         return new Heap<T>(HeapType.MIN_HEAP, values);
     }
 
+    /**
+     * Add all the elements to a collection, in no particular order.
+     * 
+     * @param collection the collection where to add the elements.
+     */
+    void copyTo(final Collection<? super T> collection) {
+        for (int index = TOP_ELEMENT_INDEX; index <= m_lastElementIndex; index++) {
+            collection.add(m_elements[index]);
+        }
+    }
+
+    /**
+     * @return An iterator over the elements in the order of the backing
+     *         array, which is not sorted. The iterator fails fast with a
+     *         {@link ConcurrentModificationException} if the heap is modified
+     *         once the iteration started, and doesn't support removal.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private int m_index = TOP_ELEMENT_INDEX;
+            private final int m_expectedModCount = m_modCount;
+
+            @Override
+            public boolean hasNext() {
+                verifyNotModified();
+                return m_index <= m_lastElementIndex;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return m_elements[m_index++];
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException("The heap can't be modified while iterating!");
+            }
+
+            private void verifyNotModified() {
+                if (m_modCount != m_expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+            }
+        };
+    }
+
+    /**
+     * Get the first elements in the heap order without modifying the heap: the
+     * smallest elements for a min heap and the biggest for a max heap. The
+     * implicit tree is explored from the top with a small heap of indices:
+     * each time the best index is taken, its two children become candidates,
+     * so the cost is O(k log(k)) whatever the size of the heap.
+     * 
+     * @param count the maximum number of elements to get.
+     * @return the first count elements, or all the elements if there are
+     *         fewer, the top element first.
+     */
+    public List<T> sortedView(final int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("The count can't be negative !");
+        }
+        int size = Math.min(count, m_lastElementIndex);
+        List<T> elements = new ArrayList<T>(size);
+        if (size == 0) {
+            return elements;
+        }
+        DaryHeap<Integer> candidates = new DaryHeap<Integer>(new Comparator<Integer>() {
+            @Override
+            public int compare(final Integer first, final Integer second) {
+                // the dominant element comes first.
+                return -Integer.signum(m_elements[first].compareTo(m_elements[second]))
+                        * m_type.sign();
+            }
+        }, DaryHeap.DEFAULT_ARITY, size + 1);
+        candidates.insert(TOP_ELEMENT_INDEX);
+        try {
+            while (elements.size() < size) {
+                int index = candidates.poll();
+                elements.add(m_elements[index]);
+                if (index <= parentIndex(m_lastElementIndex)) {
+                    int leftChildIndex = leftChildIndex(index);
+                    candidates.insert(leftChildIndex);
+                    if (leftChildIndex < m_lastElementIndex) {
+                        candidates.insert(leftChildIndex + 1);
+                    }
+                }
+            }
+        } catch (HeapUnderflowException exception) {
+            // can't happen, there is a candidate for each element left.
+            throw new IllegalStateException(exception);
+        }
+        return elements;
+    }
+
     /**
      * @return A String representation of the heap elements.
      */
@@ -304,13 +678,102 @@ public class Heap<T extends Comparable<T>> {
     }
 
     /**
-     * Build the the heap. Used when the heap is created from an array of
-     * elements.
+     * Build the the heap in O(n) with Floyd's method: the subtrees are made
+     * heaps from the last parent up to the top, each parent being moved down
+     * through a hole. Used when the heap is created from an array of elements
+     * or when many elements are inserted at once.
      */
     private void build() {
-        for (int i = m_lastElementIndex / 2; i >= TOP_ELEMENT_INDEX; i--) {
-            recursiveMoveDown(i);
+        for (int i = parentIndex(m_lastElementIndex); i >= TOP_ELEMENT_INDEX; i--) {
+            siftDown(i, m_elements[i]);
+        }
+    }
+
+    /**
+     * Replace the elements of the heap, without building it.
+     * 
+     * @param elements the new elements.
+     * @throws HeapOverflowException if the heap can't hold all the elements.
+     */
+    private void load(final T[] elements) throws HeapOverflowException {
+        Arrays.fill(m_elements, TOP_ELEMENT_INDEX, m_lastElementIndex + 1, null);
+        m_lastElementIndex = 0;
+        ensureCapacity(elements.length);
+        m_modCount++;
+        System.arraycopy(elements, 0, m_elements, TOP_ELEMENT_INDEX, elements.length);
+        m_lastElementIndex = elements.length;
+    }
+
+    /**
+     * Delete the top element by moving the last element down from the top.
+     * The heap must not be empty.
+     */
+    private void deleteTop() {
+        T lastElement = m_elements[m_lastElementIndex];
+        m_elements[m_lastElementIndex--] = null;
+        if (!isEmpty()) {
+            siftDown(TOP_ELEMENT_INDEX, lastElement);
+        }
+    }
+
+    /**
+     * Make sure there is room for more elements, growing the heap if it is
+     * growable.
+     * 
+     * @param count the number of elements to make room for.
+     * @throws HeapOverflowException if there is not enough room and the heap
+     *             can't grow.
+     */
+    private void ensureCapacity(final int count) throws HeapOverflowException {
+        long required = (long) m_lastElementIndex + count;
+        if (required <= m_capacity) {
+            return;
+        }
+        if (!m_growable || required > MAX_CAPACITY) {
+            throw new HeapOverflowException();
+        }
+        long newCapacity = Math.max(Math.max(m_capacity * 2L, 1L), required);
+        resize((int) Math.min(newCapacity, MAX_CAPACITY));
+    }
+
+    /**
+     * Halve the capacity of a growable heap while it is a quarter full, so
+     * that a drained heap releases its memory. The capacity doesn't go below
+     * the initial capacity.
+     */
+    private void shrinkIfSparse() {
+        if (!m_growable) {
+            return;
         }
+        int capacity = m_capacity;
+        while (capacity > m_initialCapacity && m_lastElementIndex <= capacity / 4) {
+            capacity = Math.max(capacity / 2, m_initialCapacity);
+        }
+        if (capacity != m_capacity) {
+            resize(capacity);
+        }
+    }
+
+    /**
+     * Change the capacity of the heap.
+     * 
+     * @param capacity the new capacity, bigger than the size of the heap.
+     */
+    private void resize(final int capacity) {
+        m_elements = Arrays.copyOf(m_elements, capacity + 1);
+        m_capacity = capacity;
+    }
+
+    /**
+     * Check if inserting elements one by one is more expensive than appending
+     * them and rebuilding the heap, i.e if k log(n + k) exceeds n + k.
+     * 
+     * @param count the number of elements to insert.
+     * @return true if the heap should be rebuilt.
+     */
+    private boolean rebuildOnInsert(final int count) {
+        long total = (long) m_lastElementIndex + count;
+        return total > 1 && (long) count * log2((int) total) >= total;
     }
 
     /**
@@ -405,6 +868,60 @@ public class Heap<T extends Comparable<T>> {
         }
     }
 
+    /**
+     * Move an element up from a free slot until its parent dominates it. The
+     * parents are moved down into the free slot, the hole, instead of being
+     * swapped with the element, so each level costs one write and the element
+     * is written once at its final position.
+     * 
+     * @param index the index of the free slot.
+     * @param element the element to place.
+     */
+    private void siftUp(final int index, final T element) {
+        int hole = index;
+        while (hole != TOP_ELEMENT_INDEX) {
+            int parentIndex = parentIndex(hole);
+            T parent = m_elements[parentIndex];
+            if (!dominate(element, parent)) {
+                break;
+            }
+            m_elements[hole] = parent;
+            hole = parentIndex;
+        }
+        m_elements[hole] = element;
+    }
+
+    /**
+     * Move an element down from a free slot until it dominates its children.
+     * The dominant child is moved up into the free slot, the hole, instead of
+     * being swapped with the element.
+     * 
+     * @param index the index of the free slot.
+     * @param element the element to place.
+     */
+    private void siftDown(final int index, final T element) {
+        int hole = index;
+        // the elements after the last parent are leaves.
+        int lastParentIndex = parentIndex(m_lastElementIndex);
+        while (hole <= lastParentIndex) {
+            int childIndex = leftChildIndex(hole);
+            T child = m_elements[childIndex];
+            if (childIndex < m_lastElementIndex) {
+                T rightChild = m_elements[childIndex + 1];
+                if (dominate(rightChild, child)) {
+                    childIndex++;
+                    child = rightChild;
+                }
+            }
+            if (!dominate(child, element)) {
+                break;
+            }
+            m_elements[hole] = child;
+            hole = childIndex;
+        }
+        m_elements[hole] = element;
+    }
+
     /**
      * Compute the index of the left child.
      * 
@@ -460,6 +977,19 @@ public class Heap<T extends Comparable<T>> {
                 .compareTo(m_elements[indexSecondElement]) * m_type.sign() == ELEMENT_DOMINANCE_VALUE;
     }
 
+    /**
+     * Check if an element dominate another one, see
+     * {@link #dominate(int, int)}.
+     * 
+     * @param first the first element.
+     * @param second the second element.
+     * @return true if the first element dominate the second one, false
+     *         otherwise.
+     */
+    private boolean dominate(final T first, final T second) {
+        return Integer.signum(first.compareTo(second)) * m_type.sign() == ELEMENT_DOMINANCE_VALUE;
+    }
+
     /**
      * Swap elements at specific position.
      * 
@@ -0,0 +1,43 @@
+package com.melimelo.heap;
+
+/**
+ * Token identifying the heap which owns a handle. Every heap has its own
+ * token, shared by the handles of the elements inserted in it. When a heap is
+ * melded into another one, its token is forwarded to the token of the other
+ * heap in O(1), and it takes a new token, so that the handles of the moved
+ * elements belong to the other heap without being updated one by one.
+ */
+final class HeapOwner {
+    private HeapOwner m_forward;
+
+    /**
+     * Forward this token to the token of another heap.
+     *
+     * @param owner the token of the heap which now owns the handles of this
+     *            token.
+     */
+    void forwardTo(final HeapOwner owner) {
+        m_forward = owner;
+    }
+
+    /**
+     * Follow the forwards to the token of the heap which currently owns the
+     * handles of this token. The tokens on the way are forwarded directly to
+     * it, so that the next lookups are short.
+     *
+     * @return the current token.
+     */
+    HeapOwner current() {
+        HeapOwner current = this;
+        while (current.m_forward != null) {
+            current = current.m_forward;
+        }
+        HeapOwner owner = this;
+        while (owner != current) {
+            HeapOwner next = owner.m_forward;
+            owner.m_forward = current;
+            owner = next;
+        }
+        return current;
+    }
+}
@@ -0,0 +1,47 @@
+package com.melimelo.heap;
+
+import com.melimelo.heap.Heap.HeapType;
+
+/**
+ * Define the operations shared by the heaps ordered according to a
+ * {@link HeapType}.
+ */
+public interface IHeap<T> {
+
+    /**
+     * Insert a new element.
+     *
+     * @param element the element to insert. Can't be null.
+     * @throws HeapOverflowException if the heap is full.
+     */
+    void insert(T element) throws HeapOverflowException;
+
+    /**
+     * @return The top element i.e the smallest element for a min heap and the
+     *         biggest element for a max heap, null if the heap is empty.
+     */
+    T get();
+
+    /**
+     * Delete the top element.
+     *
+     * @return the element deleted.
+     * @throws HeapUnderflowException if the heap is empty.
+     */
+    T delete() throws HeapUnderflowException;
+
+    /**
+     * @return true if the heap is empty, false otherwise.
+     */
+    boolean isEmpty();
+
+    /**
+     * @return the number of elements in the heap.
+     */
+    int size();
+
+    /**
+     * @return the heap type.
+     */
+    HeapType type();
+}
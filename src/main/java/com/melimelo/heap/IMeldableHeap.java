@@ -0,0 +1,58 @@
+package com.melimelo.heap;
+
+/**
+ * Define a heap which can be merged with another heap of the same kind
+ * without reinserting its elements, and whose elements can be moved towards
+ * the top through the handle returned when they were inserted.
+ *
+ * @param <T> the type of the elements.
+ * @param <H> the type of the heaps which can be merged together.
+ */
+public interface IMeldableHeap<T, H extends IMeldableHeap<T, H>> extends IHeap<T> {
+
+    /**
+     * Reference to an element of a meldable heap.
+     */
+    interface Handle<T> {
+
+        /**
+         * @return the element referenced by the handle.
+         */
+        T element();
+
+        /**
+         * @return true if the element is still in a heap, false if it was
+         *         deleted.
+         */
+        boolean isValid();
+    }
+
+    /**
+     * Insert a new element.
+     *
+     * @param element the element to insert. Can't be null.
+     * @return the handle of the element.
+     */
+    Handle<T> add(T element);
+
+    /**
+     * Move all the elements of another heap into this one. The other heap is
+     * empty afterwards, the handles of its elements remain valid and now
+     * refer to elements of this heap.
+     *
+     * @param other the heap to merge. Must have the same type.
+     */
+    void meld(H other);
+
+    /**
+     * Replace an element with one which comes before it according to the heap
+     * type, i.e smaller for a min heap and bigger for a max heap.
+     *
+     * @param handle the handle of an element of this heap.
+     * @param element the new element. Can't be null.
+     * @throws IllegalArgumentException if the handle is not valid, if it
+     *             belongs to another heap or if the new element comes after
+     *             the current one.
+     */
+    void decreaseKey(Handle<T> handle, T element);
+}
@@ -0,0 +1,328 @@
+package com.melimelo.heap;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * D-ary heap ordered by a {@link Comparator} which keeps track of the position
+ * of its elements. Every insertion returns a {@link Handle} that can be used
+ * to check if the element is still in the heap in O(1), and to remove it or
+ * change its value in O(log(n)). The top element is the smallest one
+ * according to the comparator. Null elements are not allowed.
+ */
+public final class IndexedHeap<T> {
+
+    public static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * The position of an element which is not in the heap.
+     */
+    private static final int NO_POSITION = -1;
+
+    /**
+     * Reference to an element of an {@link IndexedHeap}, returned when the
+     * element is inserted.
+     */
+    public static final class Handle<T> {
+        private final IndexedHeap<T> m_heap;
+        private T m_element;
+        private int m_position;
+
+        /**
+         * Create a new handle.
+         *
+         * @param heap the heap of the element.
+         * @param element the element.
+         */
+        private Handle(final IndexedHeap<T> heap, final T element) {
+            m_heap = heap;
+            m_element = element;
+            m_position = NO_POSITION;
+        }
+
+        /**
+         * @return the element referenced by the handle.
+         */
+        public T element() {
+            return m_element;
+        }
+
+        /**
+         * @return true if the element is still in the heap, false if it was
+         *         deleted.
+         */
+        public boolean isValid() {
+            return m_position != NO_POSITION;
+        }
+
+        @Override
+        public String toString() {
+            return String.valueOf(m_element);
+        }
+    }
+
+    private final Comparator<? super T> m_comparator;
+    private final int m_arity;
+    private Handle<T>[] m_handles;
+    private int m_size;
+
+    /**
+     * Create a new heap with the default arity.
+     *
+     * @param comparator the comparator ordering the elements, the top element
+     *            is the smallest one.
+     */
+    public IndexedHeap(final Comparator<? super T> comparator) {
+        this(comparator, DaryHeap.DEFAULT_ARITY, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create a new heap.
+     *
+     * @param comparator the comparator ordering the elements, the top element
+     *            is the smallest one.
+     * @param arity the number of children of every node, at least 2.
+     * @param capacity the initial capacity of the heap.
+     */
+    @SuppressWarnings("unchecked")
+    public IndexedHeap(final Comparator<? super T> comparator, final int arity,
+            final int capacity) {
+        if (comparator == null) {
+            throw new IllegalArgumentException("The comparator can't be null!");
+        }
+        if (arity < 2) {
+            throw new IllegalArgumentException("The arity must be at least 2!");
+        }
+        if (capacity < 0) {
+            throw new IllegalArgumentException("The capacity can't be negative!");
+        }
+        m_comparator = comparator;
+        m_arity = arity;
+        m_handles = new Handle[capacity];
+    }
+
+    /**
+     * Insert a new element.
+     *
+     * @param element the element to insert. Can't be null.
+     * @return the handle of the element.
+     */
+    public Handle<T> insert(final T element) {
+        verifyElement(element);
+        if (m_size == m_handles.length) {
+            if (m_size == Heap.MAX_CAPACITY) {
+                throw new IllegalStateException("The heap can't grow anymore!");
+            }
+            m_handles = Arrays.copyOf(m_handles,
+                    (int) Math.min(Math.max(2L * m_size, 1L), Heap.MAX_CAPACITY));
+        }
+        Handle<T> handle = new Handle<T>(this, element);
+        siftUp(m_size++, handle);
+        return handle;
+    }
+
+    /**
+     * @return The top element, null if the heap is empty.
+     */
+    public T peek() {
+        return m_size == 0 ? null : m_handles[0].m_element;
+    }
+
+    /**
+     * @return The handle of the top element, null if the heap is empty.
+     */
+    public Handle<T> peekHandle() {
+        return m_size == 0 ? null : m_handles[0];
+    }
+
+    /**
+     * Delete the top element.
+     *
+     * @return the element deleted.
+     * @throws HeapUnderflowException if the heap is empty.
+     */
+    public T poll() throws HeapUnderflowException {
+        if (m_size == 0) {
+            throw new HeapUnderflowException();
+        }
+        Handle<T> top = m_handles[0];
+        delete(0);
+        return top.m_element;
+    }
+
+    /**
+     * Check if an element is in the heap.
+     *
+     * @param handle the handle of the element to check.
+     * @return true if the handle belongs to this heap and the element wasn't
+     *         deleted, false otherwise.
+     */
+    public boolean contains(final Handle<T> handle) {
+        return handle != null && handle.m_heap == this
+                && handle.m_position != NO_POSITION;
+    }
+
+    /**
+     * Delete an element.
+     *
+     * @param handle the handle of the element to delete.
+     * @return true if the element was deleted, false if it wasn't in the heap.
+     */
+    public boolean remove(final Handle<T> handle) {
+        if (!contains(handle)) {
+            return false;
+        }
+        delete(handle.m_position);
+        return true;
+    }
+
+    /**
+     * Change the value of an element, moving it up or down depending on how
+     * the new value compares to the old one.
+     *
+     * @param handle the handle of the element to change.
+     * @param element the new value of the element. Can't be null.
+     * @throws IllegalArgumentException if the element isn't in the heap.
+     */
+    public void update(final Handle<T> handle, final T element) {
+        verifyElement(element);
+        if (!contains(handle)) {
+            throw new IllegalArgumentException("The element isn't in the heap!");
+        }
+        T previous = handle.m_element;
+        handle.m_element = element;
+        if (m_comparator.compare(element, previous) < 0) {
+            siftUp(handle.m_position, handle);
+        } else {
+            siftDown(handle.m_position, handle);
+        }
+    }
+
+    /**
+     * Remove all the elements, their handles become invalid.
+     */
+    public void clear() {
+        for (int i = 0; i < m_size; i++) {
+            m_handles[i].m_position = NO_POSITION;
+            m_handles[i] = null;
+        }
+        m_size = 0;
+    }
+
+    /**
+     * @return true if the heap is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return m_size == 0;
+    }
+
+    /**
+     * @return the number of elements in the heap.
+     */
+    public int size() {
+        return m_size;
+    }
+
+    /**
+     * @return the number of children of every node.
+     */
+    public int arity() {
+        return m_arity;
+    }
+
+    /**
+     * Delete the element at a position by moving the last element there.
+     *
+     * @param position the position of the element to delete.
+     */
+    private void delete(final int position) {
+        Handle<T> deleted = m_handles[position];
+        Handle<T> last = m_handles[--m_size];
+        m_handles[m_size] = null;
+        deleted.m_position = NO_POSITION;
+        if (position == m_size) {
+            return;
+        }
+        // the last element may have to go up when it wasn't in the subtree of
+        // the deleted element.
+        if (m_comparator.compare(last.m_element, deleted.m_element) < 0) {
+            siftUp(position, last);
+        } else {
+            siftDown(position, last);
+        }
+    }
+
+    /**
+     * Move a handle up from a position until its parent comes first.
+     *
+     * @param position the free position.
+     * @param handle the handle to place.
+     */
+    private void siftUp(final int position, final Handle<T> handle) {
+        int hole = position;
+        while (hole > 0) {
+            int parent = (hole - 1) / m_arity;
+            Handle<T> parentHandle = m_handles[parent];
+            if (m_comparator.compare(handle.m_element, parentHandle.m_element) >= 0) {
+                break;
+            }
+            place(hole, parentHandle);
+            hole = parent;
+        }
+        place(hole, handle);
+    }
+
+    /**
+     * Move a handle down from a position until it comes before its children.
+     *
+     * @param position the free position.
+     * @param handle the handle to place.
+     */
+    private void siftDown(final int position, final Handle<T> handle) {
+        int hole = position;
+        while (true) {
+            long firstChild = (long) m_arity * hole + 1;
+            if (firstChild >= m_size) {
+                break;
+            }
+            int first = (int) firstChild;
+            int last = (int) Math.min(firstChild + m_arity, m_size);
+            int smallest = first;
+            for (int child = first + 1; child < last; child++) {
+                if (m_comparator.compare(m_handles[child].m_element,
+                        m_handles[smallest].m_element) < 0) {
+                    smallest = child;
+                }
+            }
+            if (m_comparator.compare(m_handles[smallest].m_element, handle.m_element) >= 0) {
+                break;
+            }
+            place(hole, m_handles[smallest]);
+            hole = smallest;
+        }
+        place(hole, handle);
+    }
+
+    /**
+     * Store a handle at a position and record the position in the handle.
+     *
+     * @param position the position of the handle.
+     * @param handle the handle to store.
+     */
+    private void place(final int position, final Handle<T> handle) {
+        m_handles[position] = handle;
+        handle.m_position = position;
+    }
+
+    /**
+     * verify if an element is not null. If so, then throws an
+     * {@link IllegalArgumentException}
+     *
+     * @param element the element to verify.
+     */
+    private void verifyElement(final T element) {
+        if (element == null) {
+            throw new IllegalArgumentException("Null elements are not allowed !");
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.melimelo.heap;
+
+import java.util.Arrays;
+
+import com.melimelo.heap.Heap.HeapType;
+
+/**
+ * Keep the k first int keys of a stream according to a heap type, without
+ * boxing, see {@link TopK}. The keys are kept in an {@link IntHeap} of the
+ * opposite type. Each key can carry an int payload, such as the id of the
+ * element the key belongs to.
+ */
+public final class IntTopK {
+
+    private final HeapType m_type;
+    private final int m_k;
+    private final IntHeap m_heap;
+
+    /**
+     * Create a new selector.
+     *
+     * @param type the heap type defining which keys come first.
+     * @param k the number of keys to keep, at least 1.
+     * @param withPayload true if every key carries a payload, false
+     *            otherwise.
+     */
+    public IntTopK(final HeapType type, final int k, final boolean withPayload) {
+        if (type == null) {
+            throw new IllegalArgumentException("The heap type can't be null!");
+        }
+        if (k < 1) {
+            throw new IllegalArgumentException("k must be at least 1!");
+        }
+        m_type = type;
+        m_k = k;
+        m_heap = new IntHeap(TopK.opposite(type), k, withPayload);
+    }
+
+    /**
+     * Offer a key to a selector without payloads.
+     *
+     * @param key the key to offer.
+     * @return true if the key is kept, false if it doesn't qualify.
+     */
+    public boolean offer(final int key) {
+        try {
+            if (m_heap.size() < m_k) {
+                m_heap.insert(key);
+                return true;
+            }
+            if (!qualifies(key)) {
+                return false;
+            }
+            m_heap.replaceTop(key);
+            return true;
+        } catch (HeapUnderflowException exception) {
+            // can't happen, the heap is full at this point.
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    /**
+     * Offer a key with its payload.
+     *
+     * @param key the key to offer.
+     * @param payload the payload of the key.
+     * @return true if the key is kept, false if it doesn't qualify.
+     */
+    public boolean offer(final int key, final int payload) {
+        try {
+            if (m_heap.size() < m_k) {
+                m_heap.insert(key, payload);
+                return true;
+            }
+            if (!qualifies(key)) {
+                return false;
+            }
+            m_heap.replaceTop(key, payload);
+            return true;
+        } catch (HeapUnderflowException exception) {
+            // can't happen, the heap is full at this point.
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    /**
+     * Offer the keys kept by another selector.
+     *
+     * @param other the selector to merge, with the same type, k and payloads.
+     */
+    public void merge(final IntTopK other) {
+        if (other == null) {
+            throw new IllegalArgumentException("The selector can't be null!");
+        }
+        if (other.m_type != m_type || other.m_k != m_k
+                || other.hasPayload() != hasPayload()) {
+            throw new IllegalArgumentException(
+                    "Can't merge selectors with different types, k or payloads!");
+        }
+        if (other == this) {
+            return;
+        }
+        int[] keys = new int[other.size()];
+        int[] payloads = new int[other.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = other.m_heap.keyAt(i);
+            payloads[i] = hasPayload() ? other.m_heap.payloadAt(i) : 0;
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (hasPayload()) {
+                offer(keys[i], payloads[i]);
+            } else {
+                offer(keys[i]);
+            }
+        }
+    }
+
+    /**
+     * @return the keys kept, the first one according to the type first. The
+     *         selector is not modified.
+     */
+    public int[] keys() {
+        long[] entries = sortedEntries();
+        int[] keys = new int[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            keys[i] = (int) (entries[i] >> Integer.SIZE);
+        }
+        return keys;
+    }
+
+    /**
+     * @return the payloads of the keys kept, in the same order as
+     *         {@link #keys()}.
+     * @throws IllegalStateException if the keys don't have payloads.
+     */
+    public int[] payloads() {
+        if (!hasPayload()) {
+            throw new IllegalStateException("The keys don't have payloads!");
+        }
+        long[] entries = sortedEntries();
+        int[] payloads = new int[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            payloads[i] = (int) entries[i];
+        }
+        return payloads;
+    }
+
+    /**
+     * @return the worst of the keys kept.
+     * @throws HeapUnderflowException if the selector is empty.
+     */
+    public int threshold() throws HeapUnderflowException {
+        return m_heap.peek();
+    }
+
+    /**
+     * @return the number of keys kept, at most k.
+     */
+    public int size() {
+        return m_heap.size();
+    }
+
+    /**
+     * @return the maximum number of keys kept.
+     */
+    public int k() {
+        return m_k;
+    }
+
+    /**
+     * @return the heap type defining which keys come first.
+     */
+    public HeapType type() {
+        return m_type;
+    }
+
+    /**
+     * @return true if every key carries a payload, false otherwise.
+     */
+    public boolean hasPayload() {
+        return m_heap.hasPayload();
+    }
+
+    /**
+     * Check if a key beats the worst key kept.
+     *
+     * @param key the key to check.
+     * @return true if the key comes strictly before the worst key kept.
+     */
+    private boolean qualifies(final int key) throws HeapUnderflowException {
+        int threshold = m_heap.peek();
+        return m_type == HeapType.MAX_HEAP ? key > threshold : key < threshold;
+    }
+
+    /**
+     * @return the keys kept with their payloads, each entry packing the key
+     *         in the high bits and the payload in the low bits, sorted so
+     *         that the first key according to the type comes first.
+     */
+    private long[] sortedEntries() {
+        long[] entries = new long[m_heap.size()];
+        for (int i = 0; i < entries.length; i++) {
+            long payload = hasPayload() ? m_heap.payloadAt(i) & 0xFFFFFFFFL : 0;
+            entries[i] = ((long) m_heap.keyAt(i) << Integer.SIZE) | payload;
+        }
+        Arrays.sort(entries);
+        if (m_type == HeapType.MAX_HEAP) {
+            for (int i = 0, j = entries.length - 1; i < j; i++, j--) {
+                long entry = entries[i];
+                entries[i] = entries[j];
+                entries[j] = entry;
+            }
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,312 @@
+package com.melimelo.heap;
+
+import java.util.Arrays;
+
+import com.melimelo.heap.Heap.HeapType;
+
+/**
+ * Heap of long keys stored in a long array, without boxing. The keys are
+ * compared inline with the same min/max semantics as {@link Heap}. Each key
+ * can carry an int payload, such as the id of the element the key belongs
+ * to, stored in a parallel array which only exists if the heap was created
+ * with payloads. The capacity grows when the heap is full.
+ */
+public final class LongHeap {
+
+    public static final int DEFAULT_CAPACITY = 16;
+
+    private final HeapType m_type;
+    private final boolean m_minHeap;
+    private final boolean m_withPayload;
+    private long[] m_keys;
+    private int[] m_payloads;
+    private int m_size;
+
+    /**
+     * Create a new heap of the specified type, without payloads.
+     *
+     * @param type the type of the heap to create.
+     */
+    public LongHeap(final HeapType type) {
+        this(type, DEFAULT_CAPACITY, false);
+    }
+
+    /**
+     * Create a new heap of a specific type and initial capacity.
+     *
+     * @param type the type of the heap to create.
+     * @param capacity the initial capacity of the heap.
+     * @param withPayload true if every key carries a payload, false
+     *            otherwise.
+     */
+    public LongHeap(final HeapType type, final int capacity, final boolean withPayload) {
+        if (type == null) {
+            throw new IllegalArgumentException("The heap type can't be null!");
+        }
+        if (capacity < 0) {
+            throw new IllegalArgumentException("The capacity can't be negative!");
+        }
+        m_type = type;
+        m_minHeap = type == HeapType.MIN_HEAP;
+        m_withPayload = withPayload;
+        m_keys = new long[capacity];
+        m_payloads = withPayload ? new int[capacity] : null;
+    }
+
+    /**
+     * Insert a key in a heap without payloads.
+     *
+     * @param key the key to insert.
+     * @throws IllegalStateException if the heap has payloads.
+     */
+    public void insert(final long key) {
+        if (m_withPayload) {
+            throw new IllegalStateException("A payload is required!");
+        }
+        ensureCapacity();
+        siftUp(m_size++, key, 0);
+    }
+
+    /**
+     * Insert a key along with its payload.
+     *
+     * @param key the key to insert.
+     * @param payload the payload of the key.
+     * @throws IllegalStateException if the heap has no payloads.
+     */
+    public void insert(final long key, final int payload) {
+        if (!m_withPayload) {
+            throw new IllegalStateException("The heap doesn't have payloads!");
+        }
+        ensureCapacity();
+        siftUp(m_size++, key, payload);
+    }
+
+    /**
+     * @return the top key i.e the smallest key for a min heap and the biggest
+     *         key for a max heap.
+     * @throws HeapUnderflowException if the heap is empty.
+     */
+    public long peek() throws HeapUnderflowException {
+        verifyNotEmpty();
+        return m_keys[0];
+    }
+
+    /**
+     * @return the payload of the top key.
+     * @throws HeapUnderflowException if the heap is empty.
+     */
+    public int peekPayload() throws HeapUnderflowException {
+        verifyPayload();
+        verifyNotEmpty();
+        return m_payloads[0];
+    }
+
+    /**
+     * Delete the top key.
+     *
+     * @return the key deleted.
+     * @throws HeapUnderflowException if the heap is empty.
+     */
+    public long poll() throws HeapUnderflowException {
+        verifyNotEmpty();
+        long top = m_keys[0];
+        deleteTop();
+        return top;
+    }
+
+    /**
+     * Delete the top key and return its payload.
+     *
+     * @return the payload of the key deleted.
+     * @throws HeapUnderflowException if the heap is empty.
+     */
+    public int pollPayload() throws HeapUnderflowException {
+        verifyPayload();
+        verifyNotEmpty();
+        int top = m_payloads[0];
+        deleteTop();
+        return top;
+    }
+
+    /**
+     * Replace the top key, which is cheaper than a poll followed by an
+     * insert.
+     *
+     * @param key the new key.
+     * @return the key replaced.
+     * @throws HeapUnderflowException if the heap is empty.
+     * @throws IllegalStateException if the heap has payloads.
+     */
+    public long replaceTop(final long key) throws HeapUnderflowException {
+        if (m_withPayload) {
+            throw new IllegalStateException("A payload is required!");
+        }
+        verifyNotEmpty();
+        long top = m_keys[0];
+        siftDown(0, key, 0);
+        return top;
+    }
+
+    /**
+     * Replace the top key and its payload.
+     *
+     * @param key the new key.
+     * @param payload the payload of the new key.
+     * @return the key replaced.
+     * @throws HeapUnderflowException if the heap is empty.
+     * @throws IllegalStateException if the heap has no payloads.
+     */
+    public long replaceTop(final long key, final int payload) throws HeapUnderflowException {
+        verifyPayload();
+        verifyNotEmpty();
+        long top = m_keys[0];
+        siftDown(0, key, payload);
+        return top;
+    }
+
+    /**
+     * Remove all the keys, the capacity is kept.
+     */
+    public void clear() {
+        m_size = 0;
+    }
+
+    /**
+     * @return true if the heap is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return m_size == 0;
+    }
+
+    /**
+     * @return the number of keys in the heap.
+     */
+    public int size() {
+        return m_size;
+    }
+
+    /**
+     * @return the heap type.
+     */
+    public HeapType type() {
+        return m_type;
+    }
+
+    /**
+     * @return true if every key carries a payload, false otherwise.
+     */
+    public boolean hasPayload() {
+        return m_withPayload;
+    }
+
+    /**
+     * Delete the top key by moving the last key to the top and sifting it
+     * down.
+     */
+    private void deleteTop() {
+        int last = --m_size;
+        if (last > 0) {
+            siftDown(0, m_keys[last], m_withPayload ? m_payloads[last] : 0);
+        }
+    }
+
+    /**
+     * Move a key up from a free slot until its parent comes first. Parents
+     * are moved down into the free slot instead of being swapped.
+     *
+     * @param index the index of the free slot.
+     * @param key the key to place.
+     * @param payload the payload of the key.
+     */
+    private void siftUp(final int index, final long key, final int payload) {
+        int hole = index;
+        while (hole > 0) {
+            int parent = (hole - 1) >>> 1;
+            long parentKey = m_keys[parent];
+            if (!(m_minHeap ? key < parentKey : key > parentKey)) {
+                break;
+            }
+            m_keys[hole] = parentKey;
+            if (m_withPayload) {
+                m_payloads[hole] = m_payloads[parent];
+            }
+            hole = parent;
+        }
+        m_keys[hole] = key;
+        if (m_withPayload) {
+            m_payloads[hole] = payload;
+        }
+    }
+
+    /**
+     * Move a key down from a free slot until it comes before its children.
+     * Children are moved up into the free slot instead of being swapped.
+     *
+     * @param index the index of the free slot.
+     * @param key the key to place.
+     * @param payload the payload of the key.
+     */
+    private void siftDown(final int index, final long key, final int payload) {
+        int hole = index;
+        int half = m_size >>> 1;
+        while (hole < half) {
+            int child = 2 * hole + 1;
+            long childKey = m_keys[child];
+            int right = child + 1;
+            if (right < m_size) {
+                long rightKey = m_keys[right];
+                if (m_minHeap ? rightKey < childKey : rightKey > childKey) {
+                    child = right;
+                    childKey = rightKey;
+                }
+            }
+            if (!(m_minHeap ? childKey < key : childKey > key)) {
+                break;
+            }
+            m_keys[hole] = childKey;
+            if (m_withPayload) {
+                m_payloads[hole] = m_payloads[child];
+            }
+            hole = child;
+        }
+        m_keys[hole] = key;
+        if (m_withPayload) {
+            m_payloads[hole] = payload;
+        }
+    }
+
+    /**
+     * Double the capacity when the heap is full.
+     */
+    private void ensureCapacity() {
+        if (m_size == m_keys.length) {
+            if (m_size == Heap.MAX_CAPACITY) {
+                throw new IllegalStateException("The heap can't grow anymore!");
+            }
+            int capacity = (int) Math.min(Math.max(2L * m_size, 1L), Heap.MAX_CAPACITY);
+            m_keys = Arrays.copyOf(m_keys, capacity);
+            if (m_withPayload) {
+                m_payloads = Arrays.copyOf(m_payloads, capacity);
+            }
+        }
+    }
+
+    /**
+     * @throws HeapUnderflowException if the heap is empty.
+     */
+    private void verifyNotEmpty() throws HeapUnderflowException {
+        if (m_size == 0) {
+            throw new HeapUnderflowException();
+        }
+    }
+
+    /**
+     * @throws IllegalStateException if the heap has no payloads.
+     */
+    private void verifyPayload() {
+        if (!m_withPayload) {
+            throw new IllegalStateException("The heap doesn't have payloads!");
+        }
+    }
+}
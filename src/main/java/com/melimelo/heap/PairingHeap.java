@@ -0,0 +1,259 @@
+package com.melimelo.heap;
+
+import com.melimelo.heap.Heap.HeapType;
+
+/**
+ * Pairing heap: a tree where every node dominates its children, which are
+ * kept in a linked list. Insertion, meld and decrease-key link two trees in
+ * O(1). Deleting the top links its children by pairs from left to right,
+ * then the pairs from right to left, in O(log(n)) amortised. Null elements
+ * are not allowed.
+ */
+public final class PairingHeap<T extends Comparable<T>>
+        implements IMeldableHeap<T, PairingHeap<T>> {
+
+    /**
+     * The expected value when testing for dominance between two elements, the
+     * first element dominate the second element.
+     */
+    private static final int ELEMENT_DOMINANCE_VALUE = 1;
+
+    /**
+     * A node of the heap, also used as the handle of its element.
+     */
+    private static final class Node<T> implements Handle<T> {
+        private T m_element;
+        private Node<T> m_child;
+        private Node<T> m_next;
+        // the previous sibling, or the parent for the first child.
+        private Node<T> m_previous;
+        private final HeapOwner m_owner;
+        private boolean m_valid = true;
+
+        Node(final T element, final HeapOwner owner) {
+            m_element = element;
+            m_owner = owner;
+        }
+
+        @Override
+        public T element() {
+            return m_element;
+        }
+
+        @Override
+        public boolean isValid() {
+            return m_valid;
+        }
+
+        @Override
+        public String toString() {
+            return String.valueOf(m_element);
+        }
+    }
+
+    private final HeapType m_type;
+    private HeapOwner m_owner = new HeapOwner();
+    private Node<T> m_root;
+    private int m_size;
+
+    /**
+     * Create a new empty heap.
+     *
+     * @param type the type of the heap to create.
+     */
+    public PairingHeap(final HeapType type) {
+        if (type == null) {
+            throw new IllegalArgumentException("The heap type can't be null!");
+        }
+        m_type = type;
+    }
+
+    @Override
+    public void insert(final T element) {
+        add(element);
+    }
+
+    @Override
+    public Handle<T> add(final T element) {
+        verifyElement(element);
+        Node<T> node = new Node<T>(element, m_owner);
+        m_root = m_root == null ? node : link(m_root, node);
+        m_size++;
+        return node;
+    }
+
+    @Override
+    public T get() {
+        return m_root == null ? null : m_root.m_element;
+    }
+
+    @Override
+    public T delete() throws HeapUnderflowException {
+        if (m_root == null) {
+            throw new HeapUnderflowException();
+        }
+        Node<T> top = m_root;
+        m_root = mergePairs(top.m_child);
+        m_size--;
+        top.m_child = null;
+        top.m_valid = false;
+        return top.m_element;
+    }
+
+    @Override
+    public void meld(final PairingHeap<T> other) {
+        if (other == null) {
+            throw new IllegalArgumentException("The heap to meld can't be null!");
+        }
+        if (other.m_type != m_type) {
+            throw new IllegalArgumentException("Can't meld heaps of different types!");
+        }
+        if (other == this || other.m_root == null) {
+            return;
+        }
+        m_root = m_root == null ? other.m_root : link(m_root, other.m_root);
+        m_size += other.m_size;
+        other.m_root = null;
+        other.m_size = 0;
+        other.m_owner.forwardTo(m_owner);
+        other.m_owner = new HeapOwner();
+    }
+
+    @Override
+    public void decreaseKey(final Handle<T> handle, final T element) {
+        verifyElement(element);
+        if (!(handle instanceof Node) || !handle.isValid()) {
+            throw new IllegalArgumentException("The handle is not valid!");
+        }
+        Node<T> node = (Node<T>) handle;
+        if (node.m_owner.current() != m_owner) {
+            throw new IllegalArgumentException("The handle belongs to another heap!");
+        }
+        if (dominate(node.m_element, element)) {
+            throw new IllegalArgumentException("The new element " + element
+                    + " comes after " + node.m_element + "!");
+        }
+        node.m_element = element;
+        if (node == m_root) {
+            return;
+        }
+        // cut the subtree of the node and link it with the root.
+        if (node.m_previous.m_child == node) {
+            node.m_previous.m_child = node.m_next;
+        } else {
+            node.m_previous.m_next = node.m_next;
+        }
+        if (node.m_next != null) {
+            node.m_next.m_previous = node.m_previous;
+        }
+        node.m_next = null;
+        node.m_previous = null;
+        m_root = link(m_root, node);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return m_root == null;
+    }
+
+    @Override
+    public int size() {
+        return m_size;
+    }
+
+    @Override
+    public HeapType type() {
+        return m_type;
+    }
+
+    /**
+     * Link two trees, the root which doesn't dominate becomes the first child
+     * of the other one.
+     *
+     * @param first the root of the first tree, without siblings.
+     * @param second the root of the second tree, without siblings.
+     * @return the root of the tree.
+     */
+    private Node<T> link(final Node<T> first, final Node<T> second) {
+        Node<T> parent = first;
+        Node<T> child = second;
+        if (dominate(second.m_element, first.m_element)) {
+            parent = second;
+            child = first;
+        }
+        child.m_next = parent.m_child;
+        if (parent.m_child != null) {
+            parent.m_child.m_previous = child;
+        }
+        child.m_previous = parent;
+        parent.m_child = child;
+        return parent;
+    }
+
+    /**
+     * Link a list of siblings into one tree. The siblings are linked by pairs
+     * from left to right, then the pairs are linked from right to left.
+     *
+     * @param first the first of the siblings, can be null.
+     * @return the root of the tree, null if there were no siblings.
+     */
+    private Node<T> mergePairs(final Node<T> first) {
+        // first pass, the pairs are stacked using the next pointers so that
+        // the last pair comes first.
+        Node<T> pairs = null;
+        Node<T> current = first;
+        while (current != null) {
+            Node<T> second = current.m_next;
+            Node<T> remaining = second == null ? null : second.m_next;
+            current.m_next = null;
+            current.m_previous = null;
+            Node<T> pair = current;
+            if (second != null) {
+                second.m_next = null;
+                second.m_previous = null;
+                pair = link(current, second);
+            }
+            pair.m_next = pairs;
+            pairs = pair;
+            current = remaining;
+        }
+        if (pairs == null) {
+            return null;
+        }
+        // second pass, from the last pair to the first one.
+        Node<T> root = pairs;
+        Node<T> pair = root.m_next;
+        root.m_next = null;
+        while (pair != null) {
+            Node<T> next = pair.m_next;
+            pair.m_next = null;
+            root = link(root, pair);
+            pair = next;
+        }
+        return root;
+    }
+
+    /**
+     * Check if an element dominate another one, see {@link Heap}.
+     *
+     * @param first the first element.
+     * @param second the second element.
+     * @return true if the first element dominate the second one, false
+     *         otherwise.
+     */
+    private boolean dominate(final T first, final T second) {
+        return Integer.signum(first.compareTo(second)) * m_type.sign() == ELEMENT_DOMINANCE_VALUE;
+    }
+
+    /**
+     * verify if an element is not null. If so, then throws an
+     * {@link IllegalArgumentException}
+     *
+     * @param element the element to verify.
+     */
+    private void verifyElement(final T element) {
+        if (element == null) {
+            throw new IllegalArgumentException("Null elements are not allowed !");
+        }
+    }
+}
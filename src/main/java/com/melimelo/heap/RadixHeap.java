@@ -0,0 +1,204 @@
+package com.melimelo.heap;
+
+import java.util.Arrays;
+
+/**
+ * Monotone min heap of non-negative long keys, each carrying an int payload,
+ * such as the id of the element the key belongs to. A key can't be smaller
+ * than the last key polled, which is always the case for the distances of the
+ * vertices settled by Dijkstra's algorithm.
+ *
+ * The keys are kept in buckets according to the highest bit where they
+ * differ from the last key polled: bucket 0 holds the keys equal to it and
+ * bucket i the keys differing from it on bit i - 1 first. When bucket 0 is
+ * empty, the first non empty bucket is emptied into the lower buckets around
+ * its smallest key. A key only moves to lower buckets, so insertion is O(1)
+ * and deletion of the top O(log(C)) amortised, C being the biggest key,
+ * without comparing keys between each other.
+ */
+public final class RadixHeap {
+
+    public static final int DEFAULT_BUCKET_CAPACITY = 4;
+    private static final int BUCKETS_COUNT = Long.SIZE;
+
+    private final long[][] m_keys = new long[BUCKETS_COUNT][];
+    private final int[][] m_payloads = new int[BUCKETS_COUNT][];
+    private final int[] m_sizes = new int[BUCKETS_COUNT];
+    private long m_last;
+    private int m_size;
+
+    /**
+     * Create a new empty heap.
+     */
+    public RadixHeap() {
+        for (int i = 0; i < BUCKETS_COUNT; i++) {
+            m_keys[i] = new long[DEFAULT_BUCKET_CAPACITY];
+            m_payloads[i] = new int[DEFAULT_BUCKET_CAPACITY];
+        }
+    }
+
+    /**
+     * Insert a key along with its payload.
+     *
+     * @param key the key to insert, not smaller than the last key polled.
+     * @param payload the payload of the key.
+     * @throws IllegalArgumentException if the key is smaller than the last key
+     *             polled, or negative.
+     */
+    public void insert(final long key, final int payload) {
+        if (key < m_last) {
+            throw new IllegalArgumentException("The key " + key
+                    + " is smaller than the last key polled " + m_last + "!");
+        }
+        add(bucketIndex(key), key, payload);
+        m_size++;
+    }
+
+    /**
+     * @return the smallest key.
+     * @throws HeapUnderflowException if the heap is empty.
+     */
+    public long peek() throws HeapUnderflowException {
+        verifyNotEmpty();
+        refill();
+        return m_last;
+    }
+
+    /**
+     * @return the payload of the smallest key.
+     * @throws HeapUnderflowException if the heap is empty.
+     */
+    public int peekPayload() throws HeapUnderflowException {
+        verifyNotEmpty();
+        refill();
+        return m_payloads[0][m_sizes[0] - 1];
+    }
+
+    /**
+     * Delete the smallest key.
+     *
+     * @return the key deleted.
+     * @throws HeapUnderflowException if the heap is empty.
+     */
+    public long poll() throws HeapUnderflowException {
+        verifyNotEmpty();
+        refill();
+        m_sizes[0]--;
+        m_size--;
+        return m_last;
+    }
+
+    /**
+     * Delete the smallest key and return its payload.
+     *
+     * @return the payload of the key deleted.
+     * @throws HeapUnderflowException if the heap is empty.
+     */
+    public int pollPayload() throws HeapUnderflowException {
+        verifyNotEmpty();
+        refill();
+        m_size--;
+        return m_payloads[0][--m_sizes[0]];
+    }
+
+    /**
+     * @return the last key polled, or the smallest key if it was peeked, 0 if
+     *         no key was polled yet. The keys inserted can't be smaller.
+     */
+    public long lastKey() {
+        return m_last;
+    }
+
+    /**
+     * Remove all the keys, the keys inserted afterwards can be any
+     * non-negative key again.
+     */
+    public void clear() {
+        Arrays.fill(m_sizes, 0);
+        m_size = 0;
+        m_last = 0;
+    }
+
+    /**
+     * @return true if the heap is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return m_size == 0;
+    }
+
+    /**
+     * @return the number of keys in the heap.
+     */
+    public int size() {
+        return m_size;
+    }
+
+    /**
+     * Move the keys of the first non empty bucket to the lower buckets when
+     * bucket 0 is empty. The smallest of these keys becomes the last key and
+     * goes to bucket 0. The heap must not be empty.
+     */
+    private void refill() {
+        if (m_sizes[0] > 0) {
+            return;
+        }
+        int bucket = 1;
+        while (m_sizes[bucket] == 0) {
+            bucket++;
+        }
+        long[] keys = m_keys[bucket];
+        int[] payloads = m_payloads[bucket];
+        int size = m_sizes[bucket];
+        long smallest = keys[0];
+        for (int i = 1; i < size; i++) {
+            smallest = Math.min(smallest, keys[i]);
+        }
+        m_last = smallest;
+        // all the keys of the bucket differ from the new last key on a lower
+        // bit, so they all go to lower buckets.
+        m_sizes[bucket] = 0;
+        for (int i = 0; i < size; i++) {
+            add(bucketIndex(keys[i]), keys[i], payloads[i]);
+        }
+    }
+
+    /**
+     * Append a key to a bucket, growing the bucket if needed.
+     *
+     * @param bucket the index of the bucket.
+     * @param key the key to append.
+     * @param payload the payload of the key.
+     */
+    private void add(final int bucket, final long key, final int payload) {
+        int size = m_sizes[bucket];
+        if (size == m_keys[bucket].length) {
+            if (size == Heap.MAX_CAPACITY) {
+                throw new IllegalStateException("The heap can't grow anymore!");
+            }
+            int capacity = (int) Math.min(2L * size, Heap.MAX_CAPACITY);
+            m_keys[bucket] = Arrays.copyOf(m_keys[bucket], capacity);
+            m_payloads[bucket] = Arrays.copyOf(m_payloads[bucket], capacity);
+        }
+        m_keys[bucket][size] = key;
+        m_payloads[bucket][size] = payload;
+        m_sizes[bucket] = size + 1;
+    }
+
+    /**
+     * @param key a key not smaller than the last key.
+     * @return the index of the bucket of the key: 0 if the key is the last
+     *         key, one more than the highest bit where they differ otherwise.
+     */
+    private int bucketIndex(final long key) {
+        return key == m_last ? 0 : Long.SIZE - Long.numberOfLeadingZeros(key ^ m_last);
+    }
+
+    /**
+     * @throws HeapUnderflowException if the heap is empty.
+     */
+    private void verifyNotEmpty() throws HeapUnderflowException {
+        if (m_size == 0) {
+            throw new HeapUnderflowException();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.melimelo.heap;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.melimelo.heap.Heap.HeapType;
+
+/**
+ * Keep the k first elements of a stream according to a heap type: the k
+ * biggest elements for a max heap and the k smallest for a min heap. The
+ * elements are kept in a {@link Heap} of the opposite type, whose top is the
+ * worst of the elements kept, so an element which doesn't qualify is
+ * rejected with a single comparison. The memory used is O(k) whatever the
+ * length of the stream, and each element costs O(log(k)) at most.
+ *
+ * Selectors filled by different threads can be merged to get the k first
+ * elements of all the streams.
+ */
+public final class TopK<T extends Comparable<T>> {
+
+    private final HeapType m_type;
+    private final int m_k;
+    private final Heap<T> m_heap;
+
+    /**
+     * Create a new selector.
+     *
+     * @param type the heap type defining which elements come first.
+     * @param k the number of elements to keep, at least 1.
+     */
+    public TopK(final HeapType type, final int k) {
+        if (type == null) {
+            throw new IllegalArgumentException("The heap type can't be null!");
+        }
+        if (k < 1) {
+            throw new IllegalArgumentException("k must be at least 1!");
+        }
+        m_type = type;
+        m_k = k;
+        m_heap = new Heap<T>(opposite(type), k);
+    }
+
+    /**
+     * Offer an element to the selector.
+     *
+     * @param element the element to offer. Can't be null.
+     * @return true if the element is kept, false if it doesn't qualify.
+     */
+    public boolean offer(final T element) {
+        if (element == null) {
+            throw new IllegalArgumentException("Null elements are not allowed !");
+        }
+        try {
+            if (!m_heap.isFull()) {
+                m_heap.iterativeInsert(element);
+                return true;
+            }
+            // the top of the heap is the worst element kept, the element
+            // qualifies only if it comes strictly before it.
+            if (Integer.signum(element.compareTo(m_heap.get())) * m_type.sign() <= 0) {
+                return false;
+            }
+            m_heap.replaceTop(element);
+            return true;
+        } catch (HeapException exception) {
+            // can't happen, the heap is never full nor empty at this point.
+            throw new IllegalStateException(exception);
+        }
+    }
+
+    /**
+     * Offer several elements to the selector.
+     *
+     * @param elements the elements to offer.
+     */
+    public void offerAll(final Iterable<? extends T> elements) {
+        if (elements == null) {
+            throw new IllegalArgumentException("The elements can't be null !");
+        }
+        for (T element : elements) {
+            offer(element);
+        }
+    }
+
+    /**
+     * Offer the elements kept by another selector.
+     *
+     * @param other the selector to merge, with the same type and k.
+     */
+    public void merge(final TopK<T> other) {
+        if (other == null) {
+            throw new IllegalArgumentException("The selector can't be null!");
+        }
+        if (other.m_type != m_type || other.m_k != m_k) {
+            throw new IllegalArgumentException("Can't merge selectors with different types or k!");
+        }
+        if (other != this) {
+            List<T> elements = new ArrayList<T>(other.size());
+            other.m_heap.copyTo(elements);
+            offerAll(elements);
+        }
+    }
+
+    /**
+     * @return the worst of the elements kept, which an element must beat to
+     *         be kept once the selector is full, null if the selector is
+     *         empty.
+     */
+    public T threshold() {
+        return m_heap.get();
+    }
+
+    /**
+     * @return the elements kept, the first one according to the type first.
+     *         The selector is not modified.
+     */
+    public List<T> toSortedList() {
+        List<T> elements = new ArrayList<T>(m_heap.size());
+        m_heap.copyTo(elements);
+        Collections.sort(elements);
+        if (m_type == HeapType.MAX_HEAP) {
+            Collections.reverse(elements);
+        }
+        return elements;
+    }
+
+    /**
+     * @return the number of elements kept, at most k.
+     */
+    public int size() {
+        return m_heap.size();
+    }
+
+    /**
+     * @return the maximum number of elements kept.
+     */
+    public int k() {
+        return m_k;
+    }
+
+    /**
+     * @return the heap type defining which elements come first.
+     */
+    public HeapType type() {
+        return m_type;
+    }
+
+    /**
+     * @param type a heap type.
+     * @return the opposite type.
+     */
+    static HeapType opposite(final HeapType type) {
+        return type == HeapType.MAX_HEAP ? HeapType.MIN_HEAP : HeapType.MAX_HEAP;
+    }
+}
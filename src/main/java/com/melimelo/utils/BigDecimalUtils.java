@@ -19,6 +19,11 @@ public final class BigDecimalUtils {
             .valueOf(Double.MAX_VALUE)
             .multiply(BigDecimal.valueOf(Double.MAX_VALUE));
 
+    /**
+     * Integral doubles below this value are exact.
+     */
+    private static final double MAX_EXACT_INTEGRAL_DOUBLE = 0x1p53;
+
     private BigDecimalUtils() {
         throw new AssertionError("Howdy! What are you trying to do ?");
     }
@@ -49,6 +54,25 @@ public final class BigDecimalUtils {
         return number1.add(number2);
     }
 
+    /**
+     * Convert a double to a big decimal number. Integral values are converted
+     * without fractional part, so that they are equal to the big decimal
+     * numbers created from integers. Infinite values are converted to
+     * {@link BigDecimalUtils#INFINITY}.
+     * 
+     * @param value the value to convert.
+     * @return the big decimal number.
+     */
+    public static final BigDecimal valueOf(final double value) {
+        if (Double.isInfinite(value)) {
+            return INFINITY;
+        }
+        if (value == Math.rint(value) && Math.abs(value) < MAX_EXACT_INTEGRAL_DOUBLE) {
+            return BigDecimal.valueOf((long) value);
+        }
+        return BigDecimal.valueOf(value);
+    }
+
     /**
      * Check if a number if infinity.
      * 
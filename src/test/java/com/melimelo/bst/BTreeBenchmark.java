@@ -0,0 +1,87 @@
+package com.melimelo.bst;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compare the lookup throughput of {@link BTree} with the balanced
+ * {@link BinarySearchTree} on trees holding random values, looking up values
+ * present in the trees in a random order.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BTreeBenchmark {
+
+    private static final int LOOKUPS_COUNT = 1 << 16;
+
+    @Param({"10000", "1000000"})
+    public int m_size;
+
+    @Param({"8", "16", "64"})
+    public int m_minDegree;
+
+    private BTree<Integer> m_bTree;
+    private BinarySearchTree<Integer> m_binarySearchTree;
+    private Integer[] m_lookups;
+    private int m_next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(m_size);
+        m_bTree = new BTree<Integer>(m_minDegree);
+        m_binarySearchTree = new BinarySearchTree<Integer>(true);
+        Integer[] values = new Integer[m_size];
+        for (int i = 0; i < m_size; i++) {
+            values[i] = random.nextInt();
+            m_bTree.insert(values[i]);
+            m_binarySearchTree.insert(values[i]);
+        }
+        m_lookups = new Integer[LOOKUPS_COUNT];
+        for (int i = 0; i < LOOKUPS_COUNT; i++) {
+            m_lookups[i] = values[random.nextInt(m_size)];
+        }
+    }
+
+    @Benchmark
+    public Integer bTreeSearch() {
+        return m_bTree.search(nextLookup());
+    }
+
+    @Benchmark
+    public Node<Integer> binarySearchTreeSearch() {
+        return m_binarySearchTree.search(nextLookup());
+    }
+
+    /**
+     * @return the next value to look up.
+     */
+    private Integer nextLookup() {
+        m_next = (m_next + 1) & (LOOKUPS_COUNT - 1);
+        return m_lookups[m_next];
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BTreeBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,127 @@
+package com.melimelo.bst;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+import com.melimelo.bst.BTree;
+
+/**
+ * B-tree tests.
+ */
+public class BTreeTest {
+    private final int MAX_TEST_VALUES_COUNT = 25;
+
+    @Test
+    public void testCreateBTree() {
+        BTree<Integer> tree = new BTree<Integer>();
+        assertTrue(tree.isEmpty());
+        assertEquals(BTree.DEFAULT_MIN_DEGREE, tree.minDegree());
+        assertEquals(0, tree.height());
+        assertNull(tree.min());
+        assertNull(tree.max());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCreateBTreeWithInvalidDegree() {
+        new BTree<Integer>(1);
+    }
+
+    @Test
+    public void testInsertAndSearch() {
+        BTree<Integer> tree = new BTree<Integer>(2);
+        for (int value = 0; value < MAX_TEST_VALUES_COUNT; value++) {
+            assertTrue(tree.insert(value));
+            assertEquals(value + 1, tree.size());
+            assertEquals(Integer.valueOf(value), tree.search(value));
+        }
+        assertFalse(tree.insert(MAX_TEST_VALUES_COUNT / 2));
+        assertEquals(MAX_TEST_VALUES_COUNT, tree.size());
+        assertNull(tree.search(MAX_TEST_VALUES_COUNT));
+        assertFalse(tree.contains(null));
+        assertEquals(Integer.valueOf(0), tree.min());
+        assertEquals(Integer.valueOf(MAX_TEST_VALUES_COUNT - 1), tree.max());
+    }
+
+    @Test
+    public void testHeight() {
+        BTree<Integer> tree = new BTree<Integer>();
+        for (int value = 0; value < 1000000; value++) {
+            tree.insert(value);
+        }
+        assertTrue(tree.height() <= 5);
+    }
+
+    @Test
+    public void testRandomOperations() {
+        for (int minDegree : new int[] {2, 3, BTree.DEFAULT_MIN_DEGREE}) {
+            Random random = new Random(minDegree);
+            BTree<Integer> tree = new BTree<Integer>(minDegree);
+            TreeSet<Integer> expected = new TreeSet<Integer>();
+            for (int i = 0; i < 20000; i++) {
+                int value = random.nextInt(2000);
+                if (random.nextInt(5) < 2) {
+                    Integer deleted = tree.delete(value);
+                    assertEquals(expected.remove(value), deleted != null);
+                } else {
+                    assertEquals(expected.add(value), tree.insert(value));
+                }
+                assertEquals(expected.size(), tree.size());
+            }
+            for (int value = -1; value <= 2000; value++) {
+                assertEquals(expected.contains(value), tree.contains(value));
+                Integer successor = tree.successor(value);
+                Integer predecessor = tree.predecessor(value);
+                if (expected.contains(value)) {
+                    assertEquals(expected.higher(value), successor);
+                    assertEquals(expected.lower(value), predecessor);
+                } else {
+                    assertNull(successor);
+                    assertNull(predecessor);
+                }
+            }
+            assertEquals(expected.first(), tree.min());
+            assertEquals(expected.last(), tree.max());
+            for (Integer value : expected) {
+                assertEquals(value, tree.delete(value));
+            }
+            assertTrue(tree.isEmpty());
+            assertEquals(0, tree.height());
+        }
+    }
+
+    @Test
+    public void testDeleteInexistingValues() {
+        BTree<Integer> tree = new BTree<Integer>(2);
+        assertNull(tree.delete(1));
+        for (int value = 0; value < MAX_TEST_VALUES_COUNT; value += 2) {
+            tree.insert(value);
+        }
+        for (int value = 1; value < MAX_TEST_VALUES_COUNT; value += 2) {
+            assertNull(tree.delete(value));
+        }
+        assertEquals((MAX_TEST_VALUES_COUNT + 1) / 2, tree.size());
+    }
+
+    @Test
+    public void testClear() {
+        BTree<Integer> tree = new BTree<Integer>(2);
+        for (int value = 0; value < MAX_TEST_VALUES_COUNT; value++) {
+            tree.insert(value);
+        }
+        tree.clear();
+        assertTrue(tree.isEmpty());
+        assertFalse(tree.contains(0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInsertNullValue() {
+        new BTree<Integer>().insert(null);
+    }
+}
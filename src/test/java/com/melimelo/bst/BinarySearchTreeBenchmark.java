@@ -0,0 +1,105 @@
+package com.melimelo.bst;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compare the recursive, iterative and single pass strategies of
+ * {@link BinarySearchTree} for searches and insertions, on a balanced tree
+ * holding half of a range of values. The keys are either uniform over the
+ * range or skewed towards its low end, so that the same few paths are taken
+ * most of the time.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BinarySearchTreeBenchmark {
+
+    private static final int KEYS_COUNT = 1 << 16;
+
+    @Param({"100000"})
+    public int m_range;
+
+    @Param({"recursive", "iterative", "singlepass"})
+    public String m_strategy;
+
+    @Param({"random", "skewed"})
+    public String m_keys;
+
+    private BinarySearchTree<Integer> m_tree;
+    private int m_strategyId;
+    private Integer[] m_lookups;
+    private int m_next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(m_range);
+        if ("recursive".equals(m_strategy)) {
+            m_strategyId = BinarySearchTree.RECURSIVE_STRATEGY;
+        } else if ("iterative".equals(m_strategy)) {
+            m_strategyId = BinarySearchTree.ITERATIVE_STRATEGY;
+        } else {
+            m_strategyId = BinarySearchTree.SINGLE_PASS_STRATEGY;
+        }
+        m_tree = new BinarySearchTree<Integer>(true);
+        for (int i = 0; i < m_range / 2; i++) {
+            m_tree.insert(random.nextInt(m_range));
+        }
+        m_lookups = new Integer[KEYS_COUNT];
+        for (int i = 0; i < KEYS_COUNT; i++) {
+            double uniform = random.nextDouble();
+            // the cube puts half of the keys in the lowest eighth of the range.
+            double key = "skewed".equals(m_keys) ? uniform * uniform * uniform : uniform;
+            m_lookups[i] = (int) (key * m_range);
+        }
+    }
+
+    @Benchmark
+    public Node<Integer> search() {
+        return m_tree.search(nextKey(), m_strategyId);
+    }
+
+    @Benchmark
+    public Node<Integer> insertThenDelete() {
+        Integer key = nextKey();
+        int size = m_tree.size();
+        Node<Integer> node = m_tree.insert(key, m_strategyId);
+        // keep the tree unchanged between invocations.
+        if (m_tree.size() != size) {
+            m_tree.delete(key);
+        }
+        return node;
+    }
+
+    /**
+     * @return the next key to search or insert.
+     */
+    private Integer nextKey() {
+        m_next = (m_next + 1) & (KEYS_COUNT - 1);
+        return m_lookups[m_next];
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BinarySearchTreeBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
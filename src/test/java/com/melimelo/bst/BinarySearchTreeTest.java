@@ -9,7 +9,12 @@ import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.Test;
 
@@ -90,6 +95,44 @@ public class BinarySearchTreeTest{
         }
     }
 
+    @Test
+    public void testInsertUsingSinglePassStrategy() {
+        BinarySearchTree<Integer> tree = new BinarySearchTree<Integer>();
+        assertTrue(tree.isEmpty());
+        for(int value = 0; value < MAX_TEST_VALUES_COUNT; value++) {
+            tree.insert(value, BinarySearchTree.SINGLE_PASS_STRATEGY);
+            assertValueInserted(tree, value);
+            assertEquals(value + 1, tree.size());
+        }
+    }
+
+    @Test
+    public void testStrategiesBuildTheSameTree() {
+        Random random = new Random(50);
+        int[] strategies = new int[] {BinarySearchTree.RECURSIVE_STRATEGY,
+                BinarySearchTree.ITERATIVE_STRATEGY, BinarySearchTree.SINGLE_PASS_STRATEGY};
+        List<BinarySearchTree<Integer>> trees = new ArrayList<BinarySearchTree<Integer>>();
+        for (int i = 0; i < strategies.length; i++) {
+            trees.add(new BinarySearchTree<Integer>(i % 2 == 0));
+        }
+        for (int i = 0; i < 2000; i++) {
+            int value = random.nextInt(500);
+            for (int j = 0; j < strategies.length; j++) {
+                Node<Integer> node = trees.get(j).insert(value, strategies[j]);
+                assertEquals(value, node.value().intValue());
+                assertTrue(node == trees.get(j).search(value, strategies[(j + 1) % strategies.length]));
+            }
+        }
+        for (int j = 1; j < strategies.length; j++) {
+            assertEquals(trees.get(0).size(), trees.get(j).size());
+            for (int value = -1; value <= 500; value++) {
+                assertEquals(trees.get(0).contains(value), trees.get(j).contains(value));
+                assertEquals(trees.get(0).contains(value),
+                        trees.get(j).search(value, BinarySearchTree.SINGLE_PASS_STRATEGY) != null);
+            }
+        }
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testInsertUsingUnsupportedStrategy() {
         BinarySearchTree<Integer> tree = new BinarySearchTree<Integer>();
@@ -167,6 +210,60 @@ public class BinarySearchTreeTest{
         }
     }
 
+    @Test
+    public void testSearchUsingSinglePassStrategy() {
+        BinarySearchTree<Integer> tree = createTreeWithValues();
+        for(int value = 0; value < MAX_TEST_VALUES_COUNT; value++) {
+            Node<Integer> node = tree.search(value, BinarySearchTree.SINGLE_PASS_STRATEGY);
+            assertNotNull(node);
+            assertEquals(value, node.value().intValue());
+        }
+        assertNull(tree.search(MAX_TEST_VALUES_COUNT, BinarySearchTree.SINGLE_PASS_STRATEGY));
+        assertNull(new BinarySearchTree<Integer>().search(0, BinarySearchTree.SINGLE_PASS_STRATEGY));
+    }
+
+    @Test
+    public void testConcurrentContains() throws Exception {
+        final int threads = 4;
+        final BinarySearchTree<Integer> tree = new BinarySearchTree<Integer>(true);
+        for (int value = 0; value < MAX_TEST_VALUES_COUNT * 2; value += 2) {
+            tree.insert(value);
+        }
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        List<Thread> readers = new ArrayList<Thread>();
+        for (int i = 0; i < threads; i++) {
+            readers.add(new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        for (int pass = 0; pass < 20000; pass++) {
+                            for (int value = 0; value < MAX_TEST_VALUES_COUNT * 2; value++) {
+                                if (tree.contains(value) != (value % 2 == 0)) {
+                                    throw new AssertionError("Wrong answer for " + value);
+                                }
+                                Node<Integer> node = tree.search(value);
+                                if (node != null && node.value() != value) {
+                                    throw new AssertionError("Wrong node for " + value);
+                                }
+                            }
+                        }
+                    } catch (Throwable t) {
+                        failure.compareAndSet(null, t);
+                    }
+                }
+            }));
+        }
+        for (Thread reader : readers) {
+            reader.start();
+        }
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+        assertEquals(MAX_TEST_VALUES_COUNT, tree.size());
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testSearchUsingUnsupportedStrategy() {
         BinarySearchTree<Integer> tree = new BinarySearchTree<Integer>();
@@ -402,6 +499,274 @@ public class BinarySearchTreeTest{
     }
 
 
+    @Test
+    public void testBalancedTreeWithSortedValues() {
+        final int valuesCount = 100000;
+        final boolean balanced = true;
+        for (int strategy : new int[] {BinarySearchTree.RECURSIVE_STRATEGY,
+                BinarySearchTree.ITERATIVE_STRATEGY, BinarySearchTree.SINGLE_PASS_STRATEGY}) {
+            BinarySearchTree<Integer> tree = new BinarySearchTree<Integer>(balanced);
+            assertTrue(tree.isBalanced());
+            for (int value = 0; value < valuesCount; value++) {
+                tree.insert(value, strategy);
+            }
+            assertEquals(valuesCount, tree.size());
+            assertBalanced(tree.root());
+            assertTrue(tree.root().height() <= 1.45 * Math.log(valuesCount) / Math.log(2));
+            assertEquals(1, tree.successor(0).value().intValue());
+            assertEquals(valuesCount - 2, tree.predecessor(valuesCount - 1).value().intValue());
+            assertNull(tree.successor(valuesCount - 1));
+        }
+    }
+
+    @Test
+    public void testBalancedTreeRandomInsertAndDelete() {
+        final boolean balanced = true;
+        Random random = new Random(MAX_TEST_VALUES_COUNT);
+        BinarySearchTree<Integer> tree = new BinarySearchTree<Integer>(balanced);
+        TreeSet<Integer> expected = new TreeSet<Integer>();
+        for (int i = 0; i < 5000; i++) {
+            int value = random.nextInt(1000);
+            if (random.nextInt(3) == 0) {
+                Node<Integer> node = tree.delete(value);
+                assertEquals(expected.remove(value), node != null);
+            } else {
+                tree.insert(value);
+                expected.add(value);
+            }
+            assertEquals(expected.size(), tree.size());
+        }
+        assertBalanced(tree.root());
+        for (int value : expected) {
+            assertTrue(tree.contains(value));
+            Integer higher = expected.higher(value);
+            Node<Integer> successor = tree.successor(value);
+            assertEquals(higher, successor == null ? null : successor.value());
+            Integer lower = expected.lower(value);
+            Node<Integer> predecessor = tree.predecessor(value);
+            assertEquals(lower, predecessor == null ? null : predecessor.value());
+        }
+        assertEquals(expected.first(), tree.min().value());
+        assertEquals(expected.last(), tree.max().value());
+        tree.clear();
+        assertTrue(tree.isEmpty());
+    }
+
+    @Test
+    public void testDeleteLeftChildWithTwoChildren() {
+        BinarySearchTree<Integer> tree = new BinarySearchTree<Integer>();
+        for (int value : new int[] {50, 30, 70, 20, 40, 35, 45}) {
+            tree.insert(value);
+        }
+        tree.delete(30);
+        assertEquals(6, tree.size());
+        assertEquals(20, tree.min().value().intValue());
+        assertEquals(40, tree.successor(35).value().intValue());
+        assertEquals(50, tree.successor(45).value().intValue());
+        assertEquals(70, tree.root().right().value().intValue());
+    }
+
+    @Test
+    public void testRankSelectAndCountInRange() {
+        Random random = new Random(1);
+        for (boolean balanced : new boolean[] {false, true}) {
+            BinarySearchTree<Integer> tree = new BinarySearchTree<Integer>(balanced);
+            TreeSet<Integer> expected = new TreeSet<Integer>();
+            for (int i = 0; i < 2000; i++) {
+                int value = random.nextInt(1000);
+                if (random.nextInt(4) == 0) {
+                    tree.delete(value);
+                    expected.remove(value);
+                } else {
+                    tree.insert(value);
+                    expected.add(value);
+                }
+            }
+            List<Integer> sorted = new ArrayList<Integer>(expected);
+            for (int rank = 0; rank < sorted.size(); rank++) {
+                assertEquals(sorted.get(rank), tree.select(rank).value());
+                assertEquals(rank, tree.rank(sorted.get(rank)));
+            }
+            for (int value = -1; value <= 1000; value += 7) {
+                assertEquals(expected.headSet(value).size(), tree.rank(value));
+                int high = value + random.nextInt(100);
+                assertEquals(expected.subSet(value, true, high, true).size(),
+                        tree.countInRange(value, high));
+            }
+            assertEquals(0, tree.countInRange(10, 5));
+            assertEquals(expected.size(), tree.countInRange(-1, 1000));
+            assertEquals(expected.size(), tree.root().size());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSelectOutOfRange() {
+        createTreeWithValues().select(MAX_TEST_VALUES_COUNT);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRankOfNullValue() {
+        createTreeWithValues().rank(null);
+    }
+
+    @Test
+    public void testFloorAndCeiling() {
+        BinarySearchTree<Integer> tree = new BinarySearchTree<Integer>(true);
+        for (int value = 0; value < MAX_TEST_VALUES_COUNT * 2; value += 2) {
+            tree.insert(value);
+        }
+        assertEquals(4, tree.floor(5).value().intValue());
+        assertEquals(4, tree.floor(4).value().intValue());
+        assertEquals(6, tree.ceiling(5).value().intValue());
+        assertEquals(6, tree.ceiling(6).value().intValue());
+        assertNull(tree.floor(-1));
+        assertNull(tree.ceiling(MAX_TEST_VALUES_COUNT * 2));
+        assertNull(new BinarySearchTree<Integer>().floor(1));
+    }
+
+    @Test
+    public void testRangeIterator() {
+        Random random = new Random(2);
+        for (boolean balanced : new boolean[] {false, true}) {
+            BinarySearchTree<Integer> tree = new BinarySearchTree<Integer>(balanced);
+            TreeSet<Integer> expected = new TreeSet<Integer>();
+            for (int i = 0; i < 500; i++) {
+                int value = random.nextInt(1000);
+                tree.insert(value);
+                expected.add(value);
+            }
+            for (int low = -10; low < 1010; low += 37) {
+                int high = low + random.nextInt(200);
+                assertEquals(new ArrayList<Integer>(expected.subSet(low, true, high, true)),
+                        toList(tree.rangeIterator(low, high)));
+                assertEquals(new ArrayList<Integer>(expected.headSet(low)),
+                        toList(tree.headSet(low).iterator()));
+                assertEquals(new ArrayList<Integer>(expected.tailSet(low)),
+                        toList(tree.tailSet(low).iterator()));
+            }
+            assertFalse(tree.rangeIterator(10, 5).hasNext());
+        }
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testRangeIteratorPastTheEnd() {
+        Iterator<Integer> iterator = createTreeWithValues().rangeIterator(3, 3);
+        assertEquals(3, iterator.next().intValue());
+        iterator.next();
+    }
+
+    @Test
+    public void testFromSorted() {
+        for (int count : new int[] {0, 1, 2, 7, 8, 1000}) {
+            Integer[] values = new Integer[count];
+            for (int i = 0; i < count; i++) {
+                values[i] = 2 * i;
+            }
+            BinarySearchTree<Integer> tree = BinarySearchTree.fromSorted(values);
+            assertFalse(tree.isBalanced());
+            assertEquals(count, tree.size());
+            verifyPerfectlyBalanced(tree);
+            for (int i = 0; i < count; i++) {
+                assertEquals(values[i], tree.select(i).value());
+            }
+        }
+    }
+
+    @Test
+    public void testFromSortedIteratorWithDuplicates() {
+        List<Integer> values = new ArrayList<Integer>();
+        for (int i = 0; i < MAX_TEST_VALUES_COUNT; i++) {
+            values.add(i / 2);
+        }
+        BinarySearchTree<Integer> tree = BinarySearchTree.fromSorted(values.iterator(), true);
+        assertTrue(tree.isBalanced());
+        assertEquals((MAX_TEST_VALUES_COUNT + 1) / 2, tree.size());
+        verifyPerfectlyBalanced(tree);
+        tree.insert(MAX_TEST_VALUES_COUNT);
+        assertBalanced(tree.root());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFromUnsortedValues() {
+        BinarySearchTree.fromSorted(new Integer[] {1, 3, 2});
+    }
+
+    @Test
+    public void testRebalance() {
+        final int valuesCount = 5000;
+        BinarySearchTree<Integer> tree = new BinarySearchTree<Integer>();
+        tree.rebalance();
+        assertTrue(tree.isEmpty());
+        for (int value = 0; value < valuesCount; value++) {
+            tree.insert(value);
+        }
+        assertEquals(valuesCount, tree.root().height());
+        tree.rebalance();
+        assertEquals(valuesCount, tree.size());
+        verifyPerfectlyBalanced(tree);
+        assertNull(tree.root().parent());
+        for (int value = 0; value < valuesCount; value++) {
+            assertEquals(value, tree.select(value).value().intValue());
+        }
+        assertEquals(valuesCount - 1, tree.max().value().intValue());
+    }
+
+    /**
+     * Check that a tree is perfectly balanced, i.e its height is minimal, and
+     * that the heights, sizes and parents of the nodes are right.
+     *
+     * @param tree the tree to check.
+     */
+    private void verifyPerfectlyBalanced(final BinarySearchTree<Integer> tree) {
+        if (tree.isEmpty()) {
+            assertNull(tree.root());
+            return;
+        }
+        int height = assertBalanced(tree.root());
+        assertEquals(32 - Integer.numberOfLeadingZeros(tree.size()), height);
+    }
+
+    /**
+     * @param iterator an iterator.
+     * @return the values of the iterator.
+     */
+    private List<Integer> toList(final Iterator<Integer> iterator) {
+        List<Integer> values = new ArrayList<Integer>();
+        while (iterator.hasNext()) {
+            values.add(iterator.next());
+        }
+        return values;
+    }
+
+    /**
+     * Check that the heights of the two subtrees of every node differ by one
+     * at most, and that the heights, sizes and parents of the nodes are
+     * right.
+     *
+     * @param node the root of the subtree to check.
+     * @return the height of the subtree.
+     */
+    private int assertBalanced(final Node<Integer> node) {
+        if (node == null) {
+            return 0;
+        }
+        if (node.left() != null) {
+            assertEquals(node, node.left().parent());
+            assertTrue(node.left().value() < node.value());
+        }
+        if (node.right() != null) {
+            assertEquals(node, node.right().parent());
+            assertTrue(node.right().value() > node.value());
+        }
+        int left = assertBalanced(node.left());
+        int right = assertBalanced(node.right());
+        assertTrue(Math.abs(left - right) <= 1);
+        assertEquals(1 + (node.left() == null ? 0 : node.left().size())
+                + (node.right() == null ? 0 : node.right().size()), node.size());
+        assertEquals(1 + Math.max(left, right), node.height());
+        return node.height();
+    }
+
     private BinarySearchTree<Integer>  createTreeWithValues() {
         BinarySearchTree<Integer> tree = new BinarySearchTree<Integer>();
         for(int value = 0; value < MAX_TEST_VALUES_COUNT; value++) {
@@ -0,0 +1,128 @@
+package com.melimelo.bst;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compare the throughput of {@link ConcurrentSkipList} with a balanced
+ * {@link BinarySearchTree} guarded by a read-write lock, when several threads
+ * search, insert and delete random values of a fixed range. Run with -t to
+ * change the number of threads of the uniform benchmarks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentSkipListBenchmark {
+
+    @Param({"100000"})
+    public int m_range;
+
+    @Param({"skiplist", "lockedtree"})
+    public String m_implementation;
+
+    private ConcurrentSkipList<Integer> m_list;
+    private BinarySearchTree<Integer> m_tree;
+    private final ReadWriteLock m_lock = new ReentrantReadWriteLock();
+
+    @Setup
+    public void setUp() {
+        m_list = new ConcurrentSkipList<Integer>();
+        m_tree = new BinarySearchTree<Integer>(true);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        // half of the range is present.
+        for (int i = 0; i < m_range / 2; i++) {
+            insert(random.nextInt(m_range));
+        }
+    }
+
+    @Benchmark
+    public boolean search() {
+        return contains(ThreadLocalRandom.current().nextInt(m_range));
+    }
+
+    @Benchmark
+    public boolean update() {
+        int value = ThreadLocalRandom.current().nextInt(m_range);
+        return ThreadLocalRandom.current().nextBoolean() ? insert(value) : delete(value);
+    }
+
+    @Benchmark
+    @Group("readMostly")
+    @GroupThreads(6)
+    public boolean reader() {
+        return search();
+    }
+
+    @Benchmark
+    @Group("readMostly")
+    @GroupThreads(2)
+    public boolean writer() {
+        return update();
+    }
+
+    private boolean contains(final int value) {
+        if ("skiplist".equals(m_implementation)) {
+            return m_list.contains(value);
+        }
+        m_lock.readLock().lock();
+        try {
+            return m_tree.contains(value);
+        } finally {
+            m_lock.readLock().unlock();
+        }
+    }
+
+    private boolean insert(final int value) {
+        if ("skiplist".equals(m_implementation)) {
+            return m_list.insert(value);
+        }
+        m_lock.writeLock().lock();
+        try {
+            int size = m_tree.size();
+            m_tree.insert(value);
+            return m_tree.size() != size;
+        } finally {
+            m_lock.writeLock().unlock();
+        }
+    }
+
+    private boolean delete(final int value) {
+        if ("skiplist".equals(m_implementation)) {
+            return m_list.delete(value);
+        }
+        m_lock.writeLock().lock();
+        try {
+            return m_tree.delete(value) != null;
+        } finally {
+            m_lock.writeLock().unlock();
+        }
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ConcurrentSkipListBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,242 @@
+package com.melimelo.bst;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import com.melimelo.bst.ConcurrentSkipList;
+
+/**
+ * Concurrent skip list tests.
+ */
+public class ConcurrentSkipListTest {
+    private final int MAX_TEST_VALUES_COUNT = 1000;
+
+    @Test
+    public void testCreateSkipList() {
+        ConcurrentSkipList<Integer> list = new ConcurrentSkipList<Integer>();
+        assertTrue(list.isEmpty());
+        assertEquals(0, list.size());
+        assertNull(list.min());
+        assertFalse(list.iterator().hasNext());
+    }
+
+    @Test
+    public void testInsertAndContains() {
+        ConcurrentSkipList<Integer> list = new ConcurrentSkipList<Integer>();
+        for (int value = MAX_TEST_VALUES_COUNT - 1; value >= 0; value--) {
+            assertTrue(list.insert(value));
+            assertTrue(list.contains(value));
+            assertEquals(MAX_TEST_VALUES_COUNT - value, list.size());
+        }
+        assertFalse(list.insert(MAX_TEST_VALUES_COUNT / 2));
+        assertEquals(MAX_TEST_VALUES_COUNT, list.size());
+        assertFalse(list.contains(MAX_TEST_VALUES_COUNT));
+        assertFalse(list.contains(-1));
+        assertFalse(list.contains(null));
+        assertEquals(Integer.valueOf(0), list.min());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInsertNull() {
+        new ConcurrentSkipList<Integer>().insert(null);
+    }
+
+    @Test
+    public void testDelete() {
+        ConcurrentSkipList<Integer> list = new ConcurrentSkipList<Integer>();
+        for (int value = 0; value < MAX_TEST_VALUES_COUNT; value++) {
+            list.insert(value);
+        }
+        for (int value = 0; value < MAX_TEST_VALUES_COUNT; value += 2) {
+            assertTrue(list.delete(value));
+            assertFalse(list.delete(value));
+            assertFalse(list.contains(value));
+        }
+        assertEquals(MAX_TEST_VALUES_COUNT / 2, list.size());
+        assertEquals(Integer.valueOf(1), list.min());
+        assertFalse(list.delete(MAX_TEST_VALUES_COUNT));
+        for (int value = 1; value < MAX_TEST_VALUES_COUNT; value += 2) {
+            assertTrue(list.delete(value));
+        }
+        assertTrue(list.isEmpty());
+        assertNull(list.min());
+    }
+
+    @Test
+    public void testRandomOperations() {
+        ConcurrentSkipList<Integer> list = new ConcurrentSkipList<Integer>();
+        TreeSet<Integer> expected = new TreeSet<Integer>();
+        Random random = new Random(46);
+        for (int i = 0; i < 20000; i++) {
+            int value = random.nextInt(MAX_TEST_VALUES_COUNT);
+            if (random.nextBoolean()) {
+                assertEquals(expected.add(value), list.insert(value));
+            } else {
+                assertEquals(expected.remove(value), list.delete(value));
+            }
+            assertEquals(expected.ceiling(value), list.ceiling(value));
+        }
+        assertEquals(expected.size(), list.size());
+        List<Integer> values = new ArrayList<Integer>();
+        for (Integer value : list) {
+            values.add(value);
+        }
+        assertEquals(new ArrayList<Integer>(expected), values);
+    }
+
+    @Test
+    public void testRangeIterator() {
+        ConcurrentSkipList<Integer> list = new ConcurrentSkipList<Integer>();
+        for (int value = 0; value < MAX_TEST_VALUES_COUNT; value += 3) {
+            list.insert(value);
+        }
+        Iterator<Integer> iterator = list.rangeIterator(10, 20);
+        assertEquals(Integer.valueOf(12), iterator.next());
+        assertEquals(Integer.valueOf(15), iterator.next());
+        assertEquals(Integer.valueOf(18), iterator.next());
+        assertFalse(iterator.hasNext());
+        assertFalse(list.rangeIterator(13, 14).hasNext());
+        assertFalse(list.rangeIterator(20, 10).hasNext());
+        iterator = list.rangeIterator(MAX_TEST_VALUES_COUNT - 2, MAX_TEST_VALUES_COUNT * 2);
+        assertEquals(Integer.valueOf(999), iterator.next());
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testRangeIteratorExhausted() {
+        new ConcurrentSkipList<Integer>().rangeIterator(0, 1).next();
+    }
+
+    @Test
+    public void testIteratorIsWeaklyConsistent() {
+        ConcurrentSkipList<Integer> list = new ConcurrentSkipList<Integer>();
+        for (int value = 0; value < 10; value++) {
+            list.insert(value);
+        }
+        Iterator<Integer> iterator = list.iterator();
+        assertEquals(Integer.valueOf(0), iterator.next());
+        list.delete(5);
+        list.insert(20);
+        List<Integer> values = new ArrayList<Integer>();
+        while (iterator.hasNext()) {
+            values.add(iterator.next());
+        }
+        assertEquals(Arrays.asList(1, 2, 3, 4, 6, 7, 8, 9, 20), values);
+    }
+
+    @Test
+    public void testConcurrentInsertsAndDeletes() throws Exception {
+        final int threads = 8;
+        final int valuesPerThread = 20000;
+        final ConcurrentSkipList<Integer> list = new ConcurrentSkipList<Integer>();
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        List<Thread> workers = new ArrayList<Thread>();
+        for (int i = 0; i < threads; i++) {
+            final int thread = i;
+            workers.add(new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        // interleave the values of the threads so that they
+                        // work on the same parts of the list.
+                        for (int j = 0; j < valuesPerThread; j++) {
+                            int value = j * threads + thread;
+                            if (!list.insert(value) || !list.contains(value)) {
+                                throw new AssertionError("Value " + value + " not inserted");
+                            }
+                        }
+                        for (int j = 0; j < valuesPerThread; j += 2) {
+                            int value = j * threads + thread;
+                            if (!list.delete(value) || list.contains(value)) {
+                                throw new AssertionError("Value " + value + " not deleted");
+                            }
+                        }
+                    } catch (Throwable t) {
+                        failure.compareAndSet(null, t);
+                    }
+                }
+            }));
+        }
+        // readers checking that the values are always iterated in order.
+        for (int i = 0; i < 2; i++) {
+            workers.add(new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        for (int pass = 0; pass < 20; pass++) {
+                            int previous = -1;
+                            for (Integer value : list) {
+                                if (value <= previous) {
+                                    throw new AssertionError("Values out of order");
+                                }
+                                previous = value;
+                            }
+                        }
+                    } catch (Throwable t) {
+                        failure.compareAndSet(null, t);
+                    }
+                }
+            }));
+        }
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+        assertEquals(threads * valuesPerThread / 2, list.size());
+        int expected = threads;
+        for (Integer value : list) {
+            // the values left are the odd values of j for every thread.
+            assertEquals(expected, value.intValue());
+            expected += expected % threads == threads - 1 ? threads + 1 : 1;
+        }
+        assertEquals((valuesPerThread + 1) * threads, expected);
+    }
+
+    @Test
+    public void testConcurrentInsertsOfSameValues() throws Exception {
+        final int threads = 8;
+        final ConcurrentSkipList<Integer> list = new ConcurrentSkipList<Integer>();
+        final int[] inserted = new int[threads];
+        List<Thread> workers = new ArrayList<Thread>();
+        for (int i = 0; i < threads; i++) {
+            final int thread = i;
+            workers.add(new Thread(new Runnable() {
+                public void run() {
+                    for (int value = 0; value < MAX_TEST_VALUES_COUNT * 10; value++) {
+                        if (list.insert(value)) {
+                            inserted[thread]++;
+                        }
+                    }
+                }
+            }));
+        }
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        int total = 0;
+        for (int count : inserted) {
+            total += count;
+        }
+        assertEquals(MAX_TEST_VALUES_COUNT * 10, total);
+        assertEquals(MAX_TEST_VALUES_COUNT * 10, list.size());
+    }
+}
@@ -0,0 +1,159 @@
+package com.melimelo.bst;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+import com.melimelo.bst.PersistentBinarySearchTree;
+
+/**
+ * Persistent binary search tree tests.
+ */
+public class PersistentBinarySearchTreeTest {
+    private final int MAX_TEST_VALUES_COUNT = 1000;
+
+    @Test
+    public void testCreateTree() {
+        PersistentBinarySearchTree<Integer> tree = new PersistentBinarySearchTree<Integer>();
+        assertTrue(tree.isEmpty());
+        assertEquals(0, tree.size());
+        assertEquals(0, tree.height());
+        assertEquals(0, tree.version());
+        assertNull(tree.min());
+        assertNull(tree.max());
+        assertFalse(tree.iterator().hasNext());
+    }
+
+    @Test
+    public void testInsertKeepsPreviousVersions() {
+        List<PersistentBinarySearchTree<Integer>> versions = new ArrayList<PersistentBinarySearchTree<Integer>>();
+        PersistentBinarySearchTree<Integer> tree = new PersistentBinarySearchTree<Integer>();
+        versions.add(tree);
+        for (int value = 0; value < MAX_TEST_VALUES_COUNT; value++) {
+            tree = tree.insert(value);
+            versions.add(tree);
+        }
+        for (int version = 0; version < versions.size(); version++) {
+            PersistentBinarySearchTree<Integer> snapshot = versions.get(version);
+            assertEquals(version, snapshot.version());
+            assertEquals(version, snapshot.size());
+            assertEquals(version == 0 ? null : Integer.valueOf(version - 1), snapshot.max());
+            assertFalse(snapshot.contains(version));
+        }
+        assertSame(tree, tree.insert(0));
+        assertSame(tree, tree.delete(-1));
+        // sorted insertions keep the tree balanced.
+        assertTrue(tree.height() <= 1.44 * Math.log(MAX_TEST_VALUES_COUNT + 2) / Math.log(2));
+    }
+
+    @Test
+    public void testDeleteKeepsPreviousVersions() {
+        PersistentBinarySearchTree<Integer> full = new PersistentBinarySearchTree<Integer>();
+        for (int value = 0; value < MAX_TEST_VALUES_COUNT; value++) {
+            full = full.insert(value);
+        }
+        PersistentBinarySearchTree<Integer> tree = full;
+        for (int value = 0; value < MAX_TEST_VALUES_COUNT; value += 2) {
+            tree = tree.delete(value);
+        }
+        assertEquals(MAX_TEST_VALUES_COUNT / 2, tree.size());
+        assertEquals(MAX_TEST_VALUES_COUNT, full.size());
+        for (int value = 0; value < MAX_TEST_VALUES_COUNT; value++) {
+            assertTrue(full.contains(value));
+            assertEquals(value % 2 == 1, tree.contains(value));
+        }
+        assertEquals(Integer.valueOf(1), tree.min());
+        assertEquals(Integer.valueOf(0), full.min());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInsertNull() {
+        new PersistentBinarySearchTree<Integer>().insert(null);
+    }
+
+    @Test
+    public void testRandomVersions() {
+        Random random = new Random(49);
+        PersistentBinarySearchTree<Integer> tree = new PersistentBinarySearchTree<Integer>();
+        TreeSet<Integer> expected = new TreeSet<Integer>();
+        List<PersistentBinarySearchTree<Integer>> versions = new ArrayList<PersistentBinarySearchTree<Integer>>();
+        List<List<Integer>> contents = new ArrayList<List<Integer>>();
+        for (int i = 0; i < 5000; i++) {
+            int value = random.nextInt(MAX_TEST_VALUES_COUNT);
+            if (random.nextInt(3) == 0) {
+                expected.remove(value);
+                tree = tree.delete(value);
+            } else {
+                expected.add(value);
+                tree = tree.insert(value);
+            }
+            assertEquals(expected.size(), tree.size());
+            assertEquals(expected.floor(value), tree.floor(value));
+            assertEquals(expected.ceiling(value), tree.ceiling(value));
+            assertEquals(expected.headSet(value).size(), tree.rank(value));
+            if (i % 100 == 0) {
+                versions.add(tree);
+                contents.add(new ArrayList<Integer>(expected));
+            }
+        }
+        for (int i = 0; i < versions.size(); i++) {
+            assertEquals(contents.get(i), values(versions.get(i)));
+            assertBalanced(versions.get(i));
+        }
+        List<Integer> values = values(tree);
+        for (int rank = 0; rank < values.size(); rank++) {
+            assertEquals(values.get(rank), tree.select(rank));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSelectOutOfRange() {
+        new PersistentBinarySearchTree<Integer>().insert(1).select(1);
+    }
+
+    @Test
+    public void testIteratorIsUnaffectedByNewVersions() {
+        PersistentBinarySearchTree<Integer> tree = new PersistentBinarySearchTree<Integer>();
+        for (int value = 0; value < 10; value++) {
+            tree = tree.insert(value);
+        }
+        Iterator<Integer> iterator = tree.iterator();
+        PersistentBinarySearchTree<Integer> next = tree.delete(5).insert(20);
+        int count = 0;
+        while (iterator.hasNext()) {
+            assertEquals(Integer.valueOf(count++), iterator.next());
+        }
+        assertEquals(10, count);
+        assertEquals(10, next.size());
+        assertEquals(tree.version() + 2, next.version());
+    }
+
+    /**
+     * Verify the AVL height bound of a version.
+     */
+    private void assertBalanced(final PersistentBinarySearchTree<Integer> tree) {
+        double bound = 1.44 * Math.log(tree.size() + 2) / Math.log(2);
+        assertTrue(tree.height() <= bound);
+    }
+
+    /**
+     * @return the values of a version in order.
+     */
+    private List<Integer> values(final PersistentBinarySearchTree<Integer> tree) {
+        List<Integer> values = new ArrayList<Integer>();
+        for (Integer value : tree) {
+            values.add(value);
+        }
+        return values;
+    }
+}
@@ -1,11 +1,24 @@
 package com.melimelo.bst;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.util.List;
 import java.util.Arrays;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -104,6 +117,295 @@ public final class TraversalsTest {
         assertTrue(mValuesAccumulator.values().isEmpty());
     }
 
+    @Test
+    public void testMorrisTraversals() {
+        Traversals.morrisInOrderTraversal(mBinarySearchTree.root(), mValuesAccumulator);
+        assertEquals(Arrays.asList(9, 11, 14, 20, 21, 29, 31, 41, 43, 45, 46),
+                mValuesAccumulator.values());
+        verifyTree(mBinarySearchTree.root());
+
+        mValuesAccumulator = new ValuesAccumulator<Integer>();
+        Traversals.morrisPreOrderTraversal(mBinarySearchTree.root(), mValuesAccumulator);
+        assertEquals(Arrays.asList(14, 11, 9, 31, 29, 20, 21, 45, 43, 41, 46),
+                mValuesAccumulator.values());
+        verifyTree(mBinarySearchTree.root());
+
+        mValuesAccumulator = new ValuesAccumulator<Integer>();
+        Traversals.morrisPostOrderTraversal(mBinarySearchTree.root(), mValuesAccumulator);
+        assertEquals(Arrays.asList(9, 11, 21, 20, 29, 41, 43, 46, 45, 31, 14),
+                mValuesAccumulator.values());
+        verifyTree(mBinarySearchTree.root());
+    }
+
+    @Test
+    public void testMorrisTraversalsWithEmptyTree() {
+        Traversals.morrisInOrderTraversal(EMPTY_TREE.root(), mValuesAccumulator);
+        Traversals.morrisPreOrderTraversal(EMPTY_TREE.root(), mValuesAccumulator);
+        Traversals.morrisPostOrderTraversal(EMPTY_TREE.root(), mValuesAccumulator);
+        assertTrue(mValuesAccumulator.values().isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMorrisTraversalWithNullAction() {
+        Traversals.morrisPostOrderTraversal(mBinarySearchTree.root(), null);
+    }
+
+    @Test
+    public void testTraversalsMatchOnRandomTrees() {
+        Random random = new Random(47);
+        for (int test = 0; test < 20; test++) {
+            BinarySearchTree<Integer> tree = new BinarySearchTree<Integer>();
+            for (int i = 0; i < 200; i++) {
+                tree.insert(random.nextInt(1000));
+            }
+            Node<Integer> root = tree.root();
+            assertEquals(recursiveInOrder(root, new ArrayList<Integer>()), morrisInOrder(root));
+            assertEquals(recursivePreOrder(root, new ArrayList<Integer>()), morrisPreOrder(root));
+            assertEquals(recursivePostOrder(root, new ArrayList<Integer>()), morrisPostOrder(root));
+            assertEquals(recursiveInOrder(root, new ArrayList<Integer>()),
+                    values(Traversals.inOrderIterator(root)));
+            assertEquals(recursivePreOrder(root, new ArrayList<Integer>()),
+                    values(Traversals.preOrderIterator(root)));
+            assertEquals(recursivePostOrder(root, new ArrayList<Integer>()),
+                    values(Traversals.postOrderIterator(root)));
+            verifyTree(root);
+        }
+    }
+
+    @Test
+    public void testIterators() {
+        assertEquals(Arrays.asList(14, 11, 31, 9, 29, 45, 20, 43, 46, 21, 41),
+                values(Traversals.levelIterator(mBinarySearchTree.root())));
+        assertFalse(Traversals.inOrderIterator(EMPTY_TREE.root()).hasNext());
+        assertFalse(Traversals.preOrderIterator(EMPTY_TREE.root()).hasNext());
+        assertFalse(Traversals.postOrderIterator(EMPTY_TREE.root()).hasNext());
+        assertFalse(Traversals.levelIterator(EMPTY_TREE.root()).hasNext());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testIteratorExhausted() {
+        Traversals.postOrderIterator(EMPTY_TREE.root()).next();
+    }
+
+    @Test
+    public void testTraversalsOfDeepTree() {
+        // a degenerate tree deep enough to overflow a recursive traversal.
+        final int depth = 200000;
+        // each node of the right path has a left leaf between it and its
+        // right child so that the left links are used too.
+        Node<Integer> root = new Node<Integer>(0);
+        Node<Integer> node = root;
+        for (int value = 2; value < depth; value += 2) {
+            Node<Integer> right = new Node<Integer>(value);
+            right.setLeft(new Node<Integer>(value - 1));
+            node.setRight(right);
+            node = right;
+        }
+        CountingAction counter = new CountingAction();
+        Traversals.inOrderTraversal(root, counter);
+        Traversals.preOrderTraversal(root, counter);
+        Traversals.postOrderTraversal(root, counter);
+        Traversals.levelTraversal(root, counter);
+        Traversals.morrisInOrderTraversal(root, counter);
+        Traversals.morrisPreOrderTraversal(root, counter);
+        Traversals.morrisPostOrderTraversal(root, counter);
+        int nodes = values(Traversals.inOrderIterator(root)).size();
+        assertEquals(depth - 1, nodes);
+        assertEquals(7 * nodes, counter.m_count);
+        verifyTree(root);
+    }
+
+    @Test
+    public void testParallelReduce() {
+        final int count = 100000;
+        Integer[] values = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = i;
+        }
+        BinarySearchTree<Integer> tree = BinarySearchTree.fromSorted(values);
+        Function<Integer, Long> toLong = new Function<Integer, Long>() {
+            public Long apply(final Integer value) {
+                return value.longValue();
+            }
+        };
+        BinaryOperator<Long> sum = new BinaryOperator<Long>() {
+            public Long apply(final Long first, final Long second) {
+                return first + second;
+            }
+        };
+        long expected = (long) count * (count - 1) / 2;
+        for (int threshold : new int[] {1, 100, count}) {
+            assertEquals(Long.valueOf(expected),
+                    Traversals.parallelReduce(tree.root(), toLong, sum, threshold));
+        }
+    }
+
+    @Test
+    public void testParallelReduceKeepsOrder() {
+        Function<Integer, String> toString = new Function<Integer, String>() {
+            public String apply(final Integer value) {
+                return value + ",";
+            }
+        };
+        BinaryOperator<String> concat = new BinaryOperator<String>() {
+            public String apply(final String first, final String second) {
+                return first + second;
+            }
+        };
+        assertEquals("9,11,14,20,21,29,31,41,43,45,46,",
+                Traversals.parallelReduce(mBinarySearchTree.root(), toString, concat, 1));
+        // a degenerate tree, the sizes are maintained by the tree.
+        BinarySearchTree<Integer> tree = new BinarySearchTree<Integer>();
+        StringBuilder expected = new StringBuilder();
+        for (int value = 0; value < 3000; value++) {
+            tree.insert(value);
+            expected.append(value).append(',');
+        }
+        assertEquals(expected.toString(),
+                Traversals.parallelReduce(tree.root(), toString, concat, 1));
+        assertNull(Traversals.parallelReduce(EMPTY_TREE.root(), toString, concat, 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParallelReduceWithInvalidThreshold() {
+        Traversals.parallelReduce(mBinarySearchTree.root(), Function.<Integer> identity(),
+                new BinaryOperator<Integer>() {
+                    public Integer apply(final Integer first, final Integer second) {
+                        return first + second;
+                    }
+                }, 0);
+    }
+
+    @Test
+    public void testSpliterator() {
+        List<Integer> expected = Arrays.asList(9, 11, 14, 20, 21, 29, 31, 41, 43, 45, 46);
+        assertEquals(expected, StreamSupport.stream(
+                Traversals.spliterator(mBinarySearchTree.root()), false).collect(Collectors.toList()));
+        assertEquals(expected, StreamSupport.stream(
+                Traversals.spliterator(mBinarySearchTree.root()), true).collect(Collectors.toList()));
+        assertEquals(0, StreamSupport.stream(
+                Traversals.spliterator(EMPTY_TREE.root()), true).count());
+
+        Spliterator<Integer> spliterator = Traversals.spliterator(mBinarySearchTree.root());
+        assertEquals(expected.size(), spliterator.estimateSize());
+        assertTrue(spliterator.hasCharacteristics(Spliterator.SORTED));
+        Spliterator<Integer> prefix = spliterator.trySplit();
+        // the left subtree of the root is split off.
+        assertEquals(2, prefix.estimateSize());
+        assertEquals(9, spliterator.estimateSize());
+        assertTrue(spliterator.tryAdvance(new Consumer<Integer>() {
+            public void accept(final Integer value) {
+                assertEquals(Integer.valueOf(14), value);
+            }
+        }));
+        assertNull(spliterator.trySplit());
+    }
+
+    @Test
+    public void testParallelStreamOnLargeTree() {
+        final int count = 100000;
+        Integer[] values = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = i;
+        }
+        BinarySearchTree<Integer> tree = BinarySearchTree.fromSorted(values);
+        List<Integer> collected = StreamSupport.stream(
+                Traversals.spliterator(tree.root()), true).collect(Collectors.toList());
+        assertEquals(Arrays.asList(values), collected);
+        long even = StreamSupport.stream(Traversals.spliterator(tree.root()), true)
+                .filter(new Predicate<Integer>() {
+                    public boolean test(final Integer value) {
+                        return value % 2 == 0;
+                    }
+                }).count();
+        assertEquals(count / 2, even);
+    }
+
+    /**
+     * Verify that the links between the nodes are consistent and that the
+     * values are in order.
+     */
+    private static void verifyTree(final Node<Integer> root) {
+        List<Integer> values = values(Traversals.inOrderIterator(root));
+        for (int i = 1; i < values.size(); i++) {
+            assertTrue(values.get(i - 1) < values.get(i));
+        }
+        Iterator<Node<Integer>> nodes = Traversals.preOrderIterator(root);
+        while (nodes.hasNext()) {
+            Node<Integer> node = nodes.next();
+            if (node.left() != null) {
+                assertSame(node, node.left().parent());
+            }
+            if (node.right() != null) {
+                assertSame(node, node.right().parent());
+            }
+        }
+    }
+
+    private static List<Integer> recursiveInOrder(final Node<Integer> node, final List<Integer> values) {
+        if (node != null) {
+            recursiveInOrder(node.left(), values);
+            values.add(node.value());
+            recursiveInOrder(node.right(), values);
+        }
+        return values;
+    }
+
+    private static List<Integer> recursivePreOrder(final Node<Integer> node, final List<Integer> values) {
+        if (node != null) {
+            values.add(node.value());
+            recursivePreOrder(node.left(), values);
+            recursivePreOrder(node.right(), values);
+        }
+        return values;
+    }
+
+    private static List<Integer> recursivePostOrder(final Node<Integer> node, final List<Integer> values) {
+        if (node != null) {
+            recursivePostOrder(node.left(), values);
+            recursivePostOrder(node.right(), values);
+            values.add(node.value());
+        }
+        return values;
+    }
+
+    private static List<Integer> morrisInOrder(final Node<Integer> root) {
+        ValuesAccumulator<Integer> accumulator = new ValuesAccumulator<Integer>();
+        Traversals.morrisInOrderTraversal(root, accumulator);
+        return accumulator.values();
+    }
+
+    private static List<Integer> morrisPreOrder(final Node<Integer> root) {
+        ValuesAccumulator<Integer> accumulator = new ValuesAccumulator<Integer>();
+        Traversals.morrisPreOrderTraversal(root, accumulator);
+        return accumulator.values();
+    }
+
+    private static List<Integer> morrisPostOrder(final Node<Integer> root) {
+        ValuesAccumulator<Integer> accumulator = new ValuesAccumulator<Integer>();
+        Traversals.morrisPostOrderTraversal(root, accumulator);
+        return accumulator.values();
+    }
+
+    private static List<Integer> values(final Iterator<Node<Integer>> nodes) {
+        List<Integer> values = new ArrayList<Integer>();
+        while (nodes.hasNext()) {
+            values.add(nodes.next().value());
+        }
+        return values;
+    }
+
+    /**
+     * Helper class counting the nodes visited.
+     */
+    private static final class CountingAction implements ITraversalAction<Integer> {
+        private int m_count;
+
+        public void apply(Node<Integer> node) {
+            m_count++;
+        }
+    }
+
     /**
      * Helper classes used to accumulate nodes values in order in which 
      * they are visited by a traversal.
@@ -315,6 +315,98 @@ public class AdjacencyMatrixTest {
         assertEquals("[]", description.trim());
     }
 
+    @Test
+    public void testContainsEdgeByIndexes() {
+        for (Edge edge : m_existingEgdes) {
+            int start = m_directedEdgesAdjacencyMatrix.getIndex(edge.getStartVertex());
+            int end = m_directedEdgesAdjacencyMatrix.getIndex(edge.getEndVertex());
+            assertTrue(m_directedEdgesAdjacencyMatrix.containsEdge(start, end));
+            assertFalse(m_directedEdgesAdjacencyMatrix.containsEdge(end, start));
+        }
+        assertFalse(m_directedEdgesAdjacencyMatrix.containsEdge(-1, 0));
+        assertFalse(m_directedEdgesAdjacencyMatrix.containsEdge(0, m_existingVertices.size()));
+        assertEquals(AdjacencyMatrix.UNDEFINED_INDEX, m_directedEdgesAdjacencyMatrix.getIndex(null));
+    }
+
+    @Test
+    public void testGetVertexByIndex() throws Exception {
+        for (Vertex vertex : m_existingVertices) {
+            int index = m_unDirectedEdgesAdjacencyMatrix.getIndex(vertex);
+            assertEquals(vertex, m_unDirectedEdgesAdjacencyMatrix.getVertex(index));
+        }
+    }
+
+    @Test(expected = VertexNotFoundException.class)
+    public void testGetVertexWithInvalidIndex() throws Exception {
+        m_emptyAdjacencyMatrix.getVertex(0);
+    }
+
+    @Test
+    public void testGetRowAndDegree() {
+        AdjacencyMatrix matrix = m_unDirectedEdgesAdjacencyMatrix;
+        int indexG = matrix.getIndex(new Vertex("G"));
+        long[] row = matrix.getRow(indexG);
+        assertEquals(matrix.rowWords(), row.length);
+        assertEquals(5, matrix.degree(indexG));
+        for (int column = 0; column < matrix.size(); column++) {
+            boolean bitSet = (row[column / Long.SIZE] & (1L << column)) != 0;
+            assertEquals(matrix.containsEdge(indexG, column), bitSet);
+        }
+
+        // the row returned is a copy.
+        row[0] = 0;
+        assertEquals(5, matrix.degree(indexG));
+    }
+
+    @Test
+    public void testCommonAdjacentsCount() {
+        AdjacencyMatrix matrix = m_unDirectedEdgesAdjacencyMatrix;
+        // E and G are both adjacent to D and F
+        assertEquals(2, matrix.commonAdjacentsCount(matrix.getIndex(new Vertex("E")),
+                matrix.getIndex(new Vertex("G"))));
+    }
+
+    @Test
+    public void testCountTriangles() {
+        // A-B-D, B-C-E, B-D-E, C-E-F, D-E-G, E-F-G, F-G-H
+        assertEquals(7, m_unDirectedEdgesAdjacencyMatrix.countTriangles());
+    }
+
+    @Test
+    public void testCountTrianglesOnLargeGraph() {
+        // a complete graph with 100 vertices spans several words per row.
+        Set<Edge> edges = new HashSet<Edge>();
+        for (int i = 0; i < 100; i++) {
+            for (int j = i + 1; j < 100; j++) {
+                edges.add(new Edge("V" + i, "V" + j));
+            }
+        }
+        AdjacencyMatrix matrix = new AdjacencyMatrix(edges, !DIRECTED_EDGES);
+        assertEquals(2, matrix.rowWords());
+        assertEquals(100 * 99 * 98 / 6, matrix.countTriangles());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testCountTrianglesOnDirectedGraph() {
+        m_directedEdgesAdjacencyMatrix.countTriangles();
+    }
+
+    @Test
+    public void testTransitiveClosure() {
+        AdjacencyMatrix closure = m_directedEdgesAdjacencyMatrix.transitiveClosure();
+        assertTrue(closure.containsEdge(new Vertex("A"), new Vertex("J")));
+        assertTrue(closure.containsEdge(new Vertex("B"), new Vertex("H")));
+        assertTrue(closure.containsEdge(new Vertex("D"), new Vertex("C")));
+        assertFalse(closure.containsEdge(new Vertex("J"), new Vertex("A")));
+        assertFalse(closure.containsEdge(new Vertex("C"), new Vertex("B")));
+        assertFalse(closure.containsEdge(new Vertex("A"), new Vertex("A")));
+        assertEquals(9, closure.degree(closure.getIndex(new Vertex("A"))));
+
+        // the original matrix is not modified.
+        assertFalse(m_directedEdgesAdjacencyMatrix.containsEdge(new Vertex("A"), new Vertex("J")));
+        assertEquals(0, m_emptyAdjacencyMatrix.transitiveClosure().size());
+    }
+
     // -------------------------------------------------------------------------
     //
     // helper functions
@@ -0,0 +1,124 @@
+package com.melimelo.graphs;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.melimelo.graphs.CsrGraph;
+import com.melimelo.graphs.GraphBuilder;
+import com.melimelo.graphs.Vertex;
+
+/**
+ * CsrGraph unit tests.
+ *
+ * Edges Graph used for testing, with their weights. Vertices are added in
+ * alphabetical order so that A has the index 0, B the index 1 and so on.
+ *
+ * <pre>
+ *       A,B,1
+ *       A,D,2
+ *       B,C,3
+ *       B,D,4
+ *       C,A,5
+ *       D,C,6
+ * </pre>
+ */
+public class CsrGraphTest {
+    private final boolean DIRECTED_EDGES = true;
+    private final boolean GRAPH_WEIGHTED = true;
+    private final double DELTA = 0.0;
+
+    private CsrGraph m_directedGraph;
+    private CsrGraph m_unDirectedGraph;
+
+    @Before
+    public void setUp() {
+        m_directedGraph = createGraph(DIRECTED_EDGES);
+        m_unDirectedGraph = createGraph(!DIRECTED_EDGES);
+    }
+
+    private CsrGraph createGraph(final boolean directed) {
+        GraphBuilder builder = new GraphBuilder(directed, GRAPH_WEIGHTED, 5, 6);
+        for (String label : new String[] {"A", "B", "C", "D", "E"}) {
+            builder.addVertex(new Vertex(label));
+        }
+        return builder.addEdge("C", "A", BigDecimal.valueOf(5))
+                      .addEdge("A", "D", BigDecimal.valueOf(2))
+                      .addEdge("B", "D", BigDecimal.valueOf(4))
+                      .addEdge("A", "B", BigDecimal.valueOf(1))
+                      .addEdge("D", "C", BigDecimal.valueOf(6))
+                      .addEdge("B", "C", BigDecimal.valueOf(3))
+                      .buildCsr();
+    }
+
+    @Test
+    public void testCounts() {
+        assertEquals(5, m_directedGraph.verticesCount());
+        assertEquals(6, m_directedGraph.edgesCount());
+        assertEquals(5, m_unDirectedGraph.verticesCount());
+        assertEquals(12, m_unDirectedGraph.edgesCount());
+        assertTrue(m_directedGraph.isDirected());
+        assertFalse(m_unDirectedGraph.isDirected());
+        assertTrue(m_directedGraph.isWeighted());
+    }
+
+    @Test
+    public void testIndexes() throws Exception {
+        assertEquals(2, m_directedGraph.getIndex(new Vertex("C")));
+        assertEquals(new Vertex("C"), m_directedGraph.getVertex(2));
+        assertEquals(CsrGraph.UNDEFINED_INDEX, m_directedGraph.getIndex(new Vertex("Z")));
+        assertEquals(CsrGraph.UNDEFINED_INDEX, m_directedGraph.getIndex(null));
+    }
+
+    @Test(expected = VertexNotFoundException.class)
+    public void testGetVertexWithInvalidIndex() throws Exception {
+        m_directedGraph.getVertex(5);
+    }
+
+    @Test
+    public void testDirectedAdjacents() {
+        assertArrayEquals(new int[] {1, 3}, m_directedGraph.getAdjacents(0));
+        assertArrayEquals(new int[] {2, 3}, m_directedGraph.getAdjacents(1));
+        assertArrayEquals(new int[] {0}, m_directedGraph.getAdjacents(2));
+        assertArrayEquals(new int[] {2}, m_directedGraph.getAdjacents(3));
+        assertArrayEquals(new int[] {}, m_directedGraph.getAdjacents(4));
+        assertEquals(2, m_directedGraph.weight(0, 1), DELTA);
+        assertEquals(5, m_directedGraph.weight(2, 0), DELTA);
+    }
+
+    @Test
+    public void testUnDirectedAdjacents() {
+        assertArrayEquals(new int[] {1, 2, 3}, m_unDirectedGraph.getAdjacents(0));
+        assertArrayEquals(new int[] {0, 2, 3}, m_unDirectedGraph.getAdjacents(1));
+        assertArrayEquals(new int[] {0, 1, 3}, m_unDirectedGraph.getAdjacents(2));
+        assertArrayEquals(new int[] {0, 1, 2}, m_unDirectedGraph.getAdjacents(3));
+        assertEquals(0, m_unDirectedGraph.degree(4));
+        assertEquals(6, m_unDirectedGraph.weight(2, 2), DELTA);
+        assertEquals(6, m_unDirectedGraph.weight(3, 2), DELTA);
+    }
+
+    @Test
+    public void testContainsEdge() {
+        assertTrue(m_directedGraph.containsEdge(new Vertex("C"), new Vertex("A")));
+        assertFalse(m_directedGraph.containsEdge(new Vertex("A"), new Vertex("C")));
+        assertTrue(m_unDirectedGraph.containsEdge(new Vertex("A"), new Vertex("C")));
+        assertFalse(m_directedGraph.containsEdge(new Vertex("A"), new Vertex("Z")));
+        assertFalse(m_directedGraph.containsEdge(0, 4));
+        assertFalse(m_directedGraph.containsEdge(-1, 4));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testAdjacentOutOfBounds() {
+        m_directedGraph.adjacent(2, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDegreeOfInvalidVertex() {
+        m_directedGraph.degree(7);
+    }
+}
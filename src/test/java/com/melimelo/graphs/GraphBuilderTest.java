@@ -0,0 +1,153 @@
+package com.melimelo.graphs;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.melimelo.graphs.Edge;
+import com.melimelo.graphs.Graph;
+import com.melimelo.graphs.GraphBuilder;
+import com.melimelo.graphs.Vertex;
+
+/**
+ * GraphBuilder unit tests.
+ */
+public class GraphBuilderTest {
+    private final boolean DIRECTED_EDGES = true;
+    private final boolean GRAPH_WEIGHTED = true;
+    private final String[][] EDGES = {
+        {"A", "B"}, {"A", "D"}, {"B", "C"}, {"B", "D"}, {"B", "E"}, {"C", "F"},
+        {"D", "E"}, {"D", "G"}, {"E", "C"}, {"E", "F"}, {"E", "G"}, {"F", "H"},
+        {"G", "F"}, {"G", "I"}, {"G", "H"}, {"H", "J"}, {"I", "J"}
+    };
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCreateBuilderWithNegativeCounts() {
+        new GraphBuilder(DIRECTED_EDGES, GRAPH_WEIGHTED, -1, 10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddNullEdge() {
+        new GraphBuilder(DIRECTED_EDGES, GRAPH_WEIGHTED).addEdge(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddNullVertex() {
+        new GraphBuilder(DIRECTED_EDGES, GRAPH_WEIGHTED).addVertex(null);
+    }
+
+    @Test
+    public void testBuildEmptyGraph() {
+        Graph graph = new GraphBuilder(DIRECTED_EDGES, GRAPH_WEIGHTED).build();
+        assertTrue(graph.isEmpty());
+        assertTrue(graph.isDirected());
+        assertTrue(graph.isWeighted());
+    }
+
+    @Test
+    public void testBuildDirectedGraph() {
+        GraphBuilder builder = new GraphBuilder(DIRECTED_EDGES, !GRAPH_WEIGHTED, 2, 2);
+        Set<Edge> edges = new HashSet<Edge>();
+        for (String[] edge : EDGES) {
+            builder.addEdge(edge[0], edge[1]);
+            edges.add(new Edge(edge[0], edge[1]));
+        }
+        builder.addVertex(new Vertex("K"));
+        Graph graph = builder.build();
+
+        assertEquals(new Graph(DIRECTED_EDGES, !GRAPH_WEIGHTED, edges).getEdges(), graph.getEdges());
+        assertEquals(11, graph.verticesCount());
+        assertTrue(graph.containsVertex(new Vertex("K")));
+    }
+
+    @Test
+    public void testBuildUnDirectedGraph() {
+        GraphBuilder builder = new GraphBuilder(!DIRECTED_EDGES, GRAPH_WEIGHTED, 10, EDGES.length);
+        Set<Edge> edges = new HashSet<Edge>();
+        for (int i = 0; i < EDGES.length; i++) {
+            BigDecimal weight = BigDecimal.valueOf(i + 1);
+            builder.addEdge(EDGES[i][0], EDGES[i][1], weight);
+            edges.add(new Edge(EDGES[i][0], EDGES[i][1], weight));
+        }
+        Graph graph = builder.build();
+        Graph expected = new Graph(!DIRECTED_EDGES, GRAPH_WEIGHTED, edges);
+
+        assertEquals(expected.getEdges(), graph.getEdges());
+        assertEquals(2 * EDGES.length, graph.edgesCount());
+        assertEquals(expected.getVertices(), graph.getVertices());
+    }
+
+    @Test
+    public void testBuildRemovesDuplicateEdges() {
+        GraphBuilder builder = new GraphBuilder(!DIRECTED_EDGES, GRAPH_WEIGHTED);
+        builder.addEdge("A", "B", BigDecimal.ONE);
+        builder.addEdge("A", "B", BigDecimal.ONE);
+        builder.addEdge("B", "A", BigDecimal.ONE);
+        builder.addEdge(new Edge("B", "C", BigDecimal.TEN));
+        Graph graph = builder.build();
+
+        assertEquals(4, builder.edgesCount());
+        assertEquals(4, graph.edgesCount());
+        assertTrue(graph.containsEdge(new Edge("B", "A", BigDecimal.ONE)));
+        assertTrue(graph.containsEdge(new Edge("C", "B", BigDecimal.TEN)));
+    }
+
+    @Test
+    public void testBuildDirectedKeepsBothDirections() {
+        Graph graph = new GraphBuilder(DIRECTED_EDGES, !GRAPH_WEIGHTED)
+                .addEdge("A", "B")
+                .addEdge("B", "A")
+                .build();
+        assertEquals(2, graph.edgesCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuildWithSelfLoop() {
+        new GraphBuilder(DIRECTED_EDGES, !GRAPH_WEIGHTED)
+            .addEdge("A", "B")
+            .addEdge("B", "B")
+            .build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuildWithMultiEdges() {
+        new GraphBuilder(!DIRECTED_EDGES, GRAPH_WEIGHTED)
+            .addEdge("A", "B", BigDecimal.ONE)
+            .addEdge("B", "A", BigDecimal.TEN)
+            .build();
+    }
+
+    @Test
+    public void testBuildLargeGraph() {
+        int verticesCount = 1000;
+        int edgesCount = GraphBuilder.PARALLEL_SORT_THRESHOLD * 2;
+        GraphBuilder builder = new GraphBuilder(DIRECTED_EDGES, !GRAPH_WEIGHTED,
+                verticesCount, edgesCount);
+        Vertex[] vertices = new Vertex[verticesCount];
+        for (int i = 0; i < verticesCount; i++) {
+            vertices[i] = new Vertex("V" + i);
+        }
+        // every edge is added twice, in reverse order the second time.
+        for (int i = edgesCount / 2 - 1; i >= 0; i--) {
+            builder.addEdge(vertices[i % verticesCount],
+                    vertices[(i / verticesCount + i + 1) % verticesCount], Edge.ZERO_WEIGHT);
+        }
+        for (int i = 0; i < edgesCount / 2; i++) {
+            builder.addEdge(vertices[i % verticesCount],
+                    vertices[(i / verticesCount + i + 1) % verticesCount], Edge.ZERO_WEIGHT);
+        }
+        CsrGraph csr = builder.buildCsr();
+        assertEquals(edgesCount / 2, csr.edgesCount());
+        for (int vertex = 0; vertex < verticesCount; vertex++) {
+            for (int position = 1; position < csr.degree(vertex); position++) {
+                assertTrue(csr.adjacent(vertex, position - 1) < csr.adjacent(vertex, position));
+            }
+        }
+        assertFalse(csr.containsEdge(vertices[0], vertices[0]));
+    }
+}
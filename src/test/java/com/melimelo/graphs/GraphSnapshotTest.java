@@ -0,0 +1,250 @@
+package com.melimelo.graphs;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.melimelo.graphs.Algorithms;
+import com.melimelo.graphs.Edge;
+import com.melimelo.graphs.Graph;
+import com.melimelo.graphs.GraphSnapshot;
+import com.melimelo.graphs.NoOpAction;
+import com.melimelo.graphs.Path;
+import com.melimelo.graphs.Vertex;
+
+/**
+ * GraphSnapshot unit tests.
+ *
+ * Edges Graph used for testing, with their weights.
+ *
+ * <pre>
+ *       A,B,1
+ *       A,D,2
+ *       B,C,3
+ *       B,D,4
+ *       C,A,5
+ *       D,C,6
+ * </pre>
+ */
+public class GraphSnapshotTest {
+    private final boolean DIRECTED_EDGES = true;
+    private final boolean GRAPH_WEIGHTED = true;
+
+    private Graph m_directedGraph;
+    private Graph m_unDirectedGraph;
+
+    @Before
+    public void setUp() {
+        m_directedGraph = createGraph(DIRECTED_EDGES);
+        m_unDirectedGraph = createGraph(!DIRECTED_EDGES);
+    }
+
+    private Graph createGraph(final boolean directed) {
+        Graph graph = new Graph(directed, GRAPH_WEIGHTED);
+        graph.addEdge(new Edge("A", "B", BigDecimal.valueOf(1)));
+        graph.addEdge(new Edge("A", "D", BigDecimal.valueOf(2)));
+        graph.addEdge(new Edge("B", "C", BigDecimal.valueOf(3)));
+        graph.addEdge(new Edge("B", "D", BigDecimal.valueOf(4)));
+        graph.addEdge(new Edge("C", "A", BigDecimal.valueOf(5)));
+        graph.addEdge(new Edge("D", "C", BigDecimal.valueOf(6)));
+        return graph;
+    }
+
+    @Test
+    public void testSnapshotContent() throws Exception {
+        for (Graph graph : new Graph[] {m_directedGraph, m_unDirectedGraph}) {
+            GraphSnapshot snapshot = graph.snapshot();
+            assertEquals(graph.getEdges(), snapshot.getEdges());
+            assertEquals(graph.getVertices(), snapshot.getVertices());
+            assertEquals(graph.edgesCount(), snapshot.edgesCount());
+            assertEquals(graph.version(), snapshot.version());
+            assertEquals(graph.isDirected(), snapshot.isDirected());
+            assertEquals(graph.isWeighted(), snapshot.isWeighted());
+            for (Vertex vertex : graph.asAdjacencyList().getVertices()) {
+                assertEquals(graph.asAdjacencyList().getAdjacentVertices(vertex),
+                        snapshot.asAdjacencyList().getAdjacentVertices(vertex));
+            }
+        }
+    }
+
+    @Test
+    public void testGetEdge() throws Exception {
+        GraphSnapshot snapshot = m_unDirectedGraph.snapshot();
+        assertEquals(BigDecimal.valueOf(5), snapshot.getEdge(new Vertex("A"), new Vertex("C")).getWeight());
+        assertTrue(snapshot.containsEdge(new Vertex("C"), new Vertex("D")));
+        assertTrue(snapshot.containsEdge(new Edge("D", "B", BigDecimal.valueOf(4))));
+        assertFalse(m_directedGraph.snapshot().containsEdge(new Vertex("A"), new Vertex("C")));
+        assertFalse(snapshot.containsEdge(null, new Vertex("C")));
+    }
+
+    @Test(expected = EdgeNotFoundException.class)
+    public void testGetInexistingEdge() throws Exception {
+        m_directedGraph.snapshot().getEdge(new Vertex("A"), new Vertex("C"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testAddEdgeToSnapshot() {
+        m_directedGraph.snapshot().addEdge(new Edge("A", "C"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testAddVertexToSnapshot() {
+        m_directedGraph.snapshot().addVertex(new Vertex("Z"));
+    }
+
+    @Test
+    public void testSnapshotIsReusedUntilGraphChanges() {
+        GraphSnapshot snapshot = m_directedGraph.snapshot();
+        assertSame(snapshot, m_directedGraph.snapshot());
+        assertSame(snapshot, m_directedGraph.publish());
+        assertSame(snapshot, snapshot.snapshot());
+
+        m_directedGraph.addEdge(new Edge("A", "B", BigDecimal.valueOf(1)));
+        assertSame(snapshot, m_directedGraph.snapshot());
+
+        m_directedGraph.addVertex(new Vertex("Z"));
+        GraphSnapshot newSnapshot = m_directedGraph.snapshot();
+        assertNotSame(snapshot, newSnapshot);
+        assertTrue(newSnapshot.containsVertex(new Vertex("Z")));
+        assertFalse(snapshot.containsVertex(new Vertex("Z")));
+    }
+
+    @Test
+    public void testSnapshotIsNotChangedByWriters() {
+        GraphSnapshot snapshot = m_directedGraph.snapshot();
+        m_directedGraph.addEdge(new Edge("A", "C", BigDecimal.valueOf(7)));
+        m_directedGraph.addEdge(new Edge("C", "E", BigDecimal.valueOf(8)));
+
+        assertEquals(6, snapshot.edgesCount());
+        assertEquals(4, snapshot.verticesCount());
+        assertFalse(snapshot.containsEdge(new Vertex("A"), new Vertex("C")));
+        assertFalse(snapshot.asAdjacencyList().containsVertex(new Vertex("E")));
+
+        GraphSnapshot newSnapshot = m_directedGraph.publish();
+        assertEquals(m_directedGraph.version(), newSnapshot.version());
+        assertEquals(m_directedGraph.getEdges(), newSnapshot.getEdges());
+        assertEquals(8, newSnapshot.edgesCount());
+        assertTrue(newSnapshot.containsEdge(new Vertex("A"), new Vertex("C")));
+        assertTrue(newSnapshot.asAdjacencyList().getAdjacentVertices(new Vertex("E")).isEmpty());
+    }
+
+    @Test
+    public void testSnapshotOfNewGraph() {
+        Graph graph = new Graph(DIRECTED_EDGES, GRAPH_WEIGHTED);
+        GraphSnapshot snapshot = graph.snapshot();
+        assertEquals(0, snapshot.version());
+        assertEquals(0, snapshot.verticesCount());
+        assertEquals(0, snapshot.edgesCount());
+        assertSame(snapshot, graph.snapshot());
+    }
+
+    @Test
+    public void testManyEdgeOnlyPublishes() {
+        final int verticesCount = 300;
+        final int publishesCount = 20000;
+        Graph graph = new Graph(DIRECTED_EDGES, GRAPH_WEIGHTED);
+        for (int vertex = 0; vertex < verticesCount; vertex++) {
+            graph.addVertex(new Vertex(String.valueOf(vertex)));
+        }
+        GraphSnapshot previous = graph.publish();
+        GraphSnapshot snapshot = previous;
+        for (int i = 0; i < publishesCount; i++) {
+            int start = i % verticesCount;
+            int end = (start + 1 + i / verticesCount) % verticesCount;
+            graph.addEdge(new Edge(String.valueOf(start), String.valueOf(end)));
+            previous = snapshot;
+            snapshot = graph.publish();
+        }
+        assertEquals(publishesCount, snapshot.edgesCount());
+        // the vertices are shared as is, not wrapped once per publish.
+        assertSame(previous.verticesSet(), snapshot.verticesSet());
+        assertTrue(snapshot.getVertices().contains(new Vertex("0")));
+        assertEquals(graph.getVertices(), snapshot.getVertices());
+    }
+
+    @Test
+    public void testUnchangedRowsAreShared() {
+        GraphSnapshot snapshot = m_unDirectedGraph.snapshot();
+        m_unDirectedGraph.addEdge(new Edge("A", "E", BigDecimal.valueOf(7)));
+        GraphSnapshot newSnapshot = m_unDirectedGraph.snapshot();
+
+        assertSame(snapshot.edgesRow(new Vertex("B")), newSnapshot.edgesRow(new Vertex("B")));
+        assertSame(snapshot.edgesRow(new Vertex("C")), newSnapshot.edgesRow(new Vertex("C")));
+        assertNotSame(snapshot.edgesRow(new Vertex("A")), newSnapshot.edgesRow(new Vertex("A")));
+        assertEquals(3, snapshot.edgesRow(new Vertex("A")).size());
+        assertEquals(4, newSnapshot.edgesRow(new Vertex("A")).size());
+        assertEquals(1, newSnapshot.edgesRow(new Vertex("E")).size());
+    }
+
+    @Test
+    public void testAlgorithmsOnSnapshot() throws Exception {
+        GraphSnapshot snapshot = m_directedGraph.snapshot();
+        m_directedGraph.addEdge(new Edge("A", "C", BigDecimal.valueOf(1)));
+        assertEquals(lengths(createGraph(DIRECTED_EDGES)), lengths(snapshot));
+        assertEquals(lengths(m_directedGraph), lengths(m_directedGraph.snapshot()));
+    }
+
+    private Map<Vertex, BigDecimal> lengths(final Graph graph) throws Exception {
+        Map<Vertex, BigDecimal> lengths = new HashMap<Vertex, BigDecimal>();
+        List<Path> paths = Algorithms.djkistra(graph, new Vertex("A"));
+        for (Path path : paths) {
+            lengths.put(path.getEnd(), path.length());
+        }
+        return lengths;
+    }
+
+    @Test
+    public void testConcurrentReaders() throws Exception {
+        final int verticesCount = 200;
+        final Graph graph = new Graph(!DIRECTED_EDGES, !GRAPH_WEIGHTED);
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        Thread[] readers = new Thread[4];
+        for (int i = 0; i < readers.length; i++) {
+            readers[i] = new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        long version = -1;
+                        while (version < verticesCount - 1) {
+                            GraphSnapshot snapshot = graph.snapshot();
+                            assertTrue(snapshot.version() >= version);
+                            version = snapshot.version();
+                            // every version adds one vertex and one edge to
+                            // a path, both directions stored.
+                            assertEquals(2 * version, snapshot.edgesCount());
+                            assertEquals(snapshot.edgesCount(), snapshot.getEdges().size());
+                            if (version > 0) {
+                                Algorithms.bfs(snapshot, new Vertex("V0"), new NoOpAction<Vertex>());
+                            }
+                        }
+                    } catch (Throwable t) {
+                        failure.compareAndSet(null, t);
+                    }
+                }
+            });
+            readers[i].start();
+        }
+        for (int i = 1; i < verticesCount; i++) {
+            graph.addEdge(new Edge("V" + (i - 1), "V" + i));
+            if (i % 10 == 0) {
+                graph.publish();
+            }
+        }
+        graph.publish();
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+    }
+}
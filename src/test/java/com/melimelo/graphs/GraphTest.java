@@ -151,6 +151,21 @@ public class GraphTest {
         verifyGraphContainsEdges(graph, m_unWeightedEgdes);
     }
     
+    @Test
+    public void testHasIntegerWeights() {
+        assertTrue(m_unWeightedUnDirectedGraph.hasIntegerWeights());
+        Graph graph = new Graph(DIRECTED_EDGES, GRAPH_WEIGHTED);
+        graph.addEdge(new Edge("A", "B", new BigDecimal("2.00")));
+        graph.addEdge(new Edge("B", "C", new BigDecimal("1E+2")));
+        assertTrue(graph.hasIntegerWeights());
+        GraphSnapshot snapshot = graph.snapshot();
+        graph.addEdge(new Edge("C", "D", new BigDecimal("0.5")));
+        assertFalse(graph.hasIntegerWeights());
+        assertFalse(graph.hasIntegerWeights());
+        assertTrue(snapshot.hasIntegerWeights());
+        assertFalse(graph.snapshot().hasIntegerWeights());
+    }
+
     @Test
     public void testCreateDirectedWeightedGraphUsingEdgesOnly() {
         Graph graph = new Graph(DIRECTED_EDGES, GRAPH_WEIGHTED, m_weightedEgdes);
@@ -680,6 +695,65 @@ public class GraphTest {
         verifyGraphAdjacencyList(m_weightedDirectedGraph);
     }
 
+    //-------------------------------------------------------------------------
+    //
+    //  Tests for version() and cached representations
+    //
+    //-------------------------------------------------------------------------
+    @Test
+    public void testVersionChangesOnlyWhenGraphChanges() {
+        Graph graph = m_unWeightedUnDirectedGraph;
+        long version = graph.version();
+
+        // adding existing edges and vertices doesn't change the graph
+        graph.addEdges(m_unWeightedEgdes);
+        graph.addVertices(m_vertices);
+        assertEquals(version, graph.version());
+
+        graph.addEdge(new Edge("A", "K"));
+        assertTrue(graph.version() > version);
+
+        version = graph.version();
+        graph.addVertex(new Vertex("L"));
+        assertTrue(graph.version() > version);
+    }
+
+    @Test
+    public void testAdjacencyListUpdatedWhenEdgeAdded() {
+        for (Graph graph : new Graph[] {m_emptyGraph, m_unWeightedDirectedGraph, 
+                m_unWeightedUnDirectedGraph}) {
+            AdjacencyList adjacencyList = graph.asAdjacencyList();
+            assertTrue(adjacencyList == graph.asAdjacencyList());
+            Edge edge = new Edge("A", "K");
+            graph.addEdge(edge);
+            assertTrue(adjacencyList.containsEdge(edge));
+            assertEquals(graph.isDirected(), !adjacencyList.containsEdge(edge.reversed()));
+            verifyGraphAdjacencyList(graph);
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testAdjacencyListCantBeModified() {
+        m_unWeightedDirectedGraph.asAdjacencyList()
+            .getAdjacentVertices(new Vertex("A")).add(new Vertex("K"));
+    }
+
+    @Test
+    public void testAdjacencyMatricesCachedUntilGraphChanges() {
+        Graph graph = m_weightedDirectedGraph;
+        AdjacencyMatrix matrix = graph.asAdjacencyMatrix();
+        WeightedAdjacencyMatrix weightedMatrix = graph.asWeightedAdjacencyMatrix();
+        assertTrue(matrix == graph.asAdjacencyMatrix());
+        assertTrue(weightedMatrix == graph.asWeightedAdjacencyMatrix());
+
+        graph.addEdge(new Edge("A", "K", BigDecimal.TEN));
+        assertFalse(matrix == graph.asAdjacencyMatrix());
+        assertFalse(weightedMatrix == graph.asWeightedAdjacencyMatrix());
+        assertFalse(matrix.containsVertex(new Vertex("K")));
+        assertTrue(graph.asAdjacencyMatrix().containsEdge(new Vertex("A"), new Vertex("K")));
+        verifyGraphAdjacencyMatrix(graph);
+    }
+
     //-------------------------------------------------------------------------
     //
     //  Helper classes
@@ -0,0 +1,140 @@
+package com.melimelo.graphs;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.melimelo.graphs.Edge;
+import com.melimelo.graphs.Graph;
+import com.melimelo.graphs.Vertex;
+import com.melimelo.graphs.WeightedAdjacencyMatrix;
+
+/**
+ * Weighted adjacency matrix unit tests.
+ *
+ * Edges Graph used for testing, with their weights. For directed graph, all
+ * edges go from the first vertex to the second vertex.
+ *
+ * <pre>
+ *       A,B,1
+ *       A,C,4
+ *       B,C,2
+ *       C,D,3
+ * </pre>
+ *
+ * The vertex E has no edge.
+ */
+public class WeightedAdjacencyMatrixTest {
+    private final boolean DIRECTED_EDGES = true;
+    private final boolean GRAPH_WEIGHTED = true;
+    private final double NO_EDGE = WeightedAdjacencyMatrix.NO_EDGE;
+    private final double DELTA = 0.0;
+
+    private Set<Edge> m_edges;
+    private Set<Vertex> m_vertices;
+    private WeightedAdjacencyMatrix m_directedMatrix;
+    private WeightedAdjacencyMatrix m_unDirectedMatrix;
+
+    @Before
+    public void setUp() {
+        m_edges = new HashSet<Edge>();
+        m_edges.add(new Edge("A", "B", BigDecimal.valueOf(1)));
+        m_edges.add(new Edge("A", "C", BigDecimal.valueOf(4)));
+        m_edges.add(new Edge("B", "C", BigDecimal.valueOf(2)));
+        m_edges.add(new Edge("C", "D", BigDecimal.valueOf(3)));
+        m_vertices = new HashSet<Vertex>();
+        m_vertices.add(new Vertex("E"));
+        m_directedMatrix = new WeightedAdjacencyMatrix(
+                new Graph(DIRECTED_EDGES, GRAPH_WEIGHTED, m_edges, m_vertices));
+        m_unDirectedMatrix = new Graph(!DIRECTED_EDGES, GRAPH_WEIGHTED, m_edges, m_vertices)
+                .asWeightedAdjacencyMatrix();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCreateWithNullGraph() {
+        new WeightedAdjacencyMatrix(null);
+    }
+
+    @Test
+    public void testCreateFromEmptyGraph() {
+        WeightedAdjacencyMatrix matrix = new Graph(DIRECTED_EDGES, GRAPH_WEIGHTED)
+                .asWeightedAdjacencyMatrix();
+        assertEquals(0, matrix.size());
+        assertEquals(0, matrix.toArray().length);
+    }
+
+    @Test
+    public void testSizeAndIndexes() throws Exception {
+        assertEquals(5, m_directedMatrix.size());
+        assertTrue(m_directedMatrix.hasDirectedEdges());
+        assertFalse(m_unDirectedMatrix.hasDirectedEdges());
+        String[] labels = {"A", "B", "C", "D", "E"};
+        for (int index = 0; index < labels.length; index++) {
+            assertEquals(index, m_directedMatrix.getIndex(new Vertex(labels[index])));
+            assertEquals(new Vertex(labels[index]), m_directedMatrix.getVertex(index));
+        }
+    }
+
+    @Test
+    public void testDirectedWeights() {
+        double[] expected = {
+            NO_EDGE, 1, 4, NO_EDGE, NO_EDGE,
+            NO_EDGE, NO_EDGE, 2, NO_EDGE, NO_EDGE,
+            NO_EDGE, NO_EDGE, NO_EDGE, 3, NO_EDGE,
+            NO_EDGE, NO_EDGE, NO_EDGE, NO_EDGE, NO_EDGE,
+            NO_EDGE, NO_EDGE, NO_EDGE, NO_EDGE, NO_EDGE
+        };
+        assertArrayEquals(expected, m_directedMatrix.toArray(), DELTA);
+        assertEquals(4, m_directedMatrix.weight(0, 2), DELTA);
+        assertTrue(m_directedMatrix.containsEdge(1, 2));
+        assertFalse(m_directedMatrix.containsEdge(2, 1));
+        assertFalse(m_directedMatrix.containsEdge(5, 1));
+    }
+
+    @Test
+    public void testUnDirectedWeights() {
+        assertArrayEquals(new double[] {4, 2, NO_EDGE, 3, NO_EDGE}, m_unDirectedMatrix.getRow(2), DELTA);
+        for (int start = 0; start < m_unDirectedMatrix.size(); start++) {
+            for (int end = 0; end < m_unDirectedMatrix.size(); end++) {
+                assertEquals(m_unDirectedMatrix.weight(start, end),
+                        m_unDirectedMatrix.weight(end, start), DELTA);
+            }
+        }
+    }
+
+    @Test
+    public void testLowestWeightKeptForMultiEdges() {
+        m_edges.add(new Edge("A", "B", BigDecimal.valueOf(0.5)));
+        WeightedAdjacencyMatrix matrix = new Graph(DIRECTED_EDGES, GRAPH_WEIGHTED, m_edges)
+                .asWeightedAdjacencyMatrix();
+        assertEquals(0.5, matrix.weight(0, 1), DELTA);
+    }
+
+    @Test
+    public void testArrayIsACopy() {
+        m_directedMatrix.toArray()[1] = 10;
+        m_directedMatrix.getRow(0)[1] = 10;
+        assertEquals(1, m_directedMatrix.weight(0, 1), DELTA);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWeightWithInvalidIndex() {
+        m_directedMatrix.weight(0, 5);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooManyVertices() {
+        Graph graph = new Graph(true, true);
+        for (int i = 0; i <= 46340; i++) {
+            graph.addVertex(new Vertex(String.valueOf(i)));
+        }
+        new WeightedAdjacencyMatrix(graph);
+    }
+}
@@ -12,6 +12,7 @@ import java.util.Map;
 import org.junit.Test;
 
 import com.melimelo.graphs.Algorithms;
+import com.melimelo.graphs.Edge;
 import com.melimelo.graphs.Graph;
 import com.melimelo.graphs.Path;
 import com.melimelo.graphs.Vertex;
@@ -44,6 +45,21 @@ public class AllPairsShortestPathsTest extends AlgorithmsTestBase {
         assertTrue(paths.get(vertex).isEmpty());
     }
 
+    @Test
+    public void testAllPairsShortestPathsWithFractionalWeights() throws Exception {
+        Graph graph = new Graph(true, true);
+        graph.addEdge(new Edge("A", "B", new BigDecimal("0.1")));
+        graph.addEdge(new Edge("B", "C", new BigDecimal("0.2")));
+        Map<Vertex, List<Path>> paths = Algorithms.allPairsShortestPaths(graph);
+        for (Path path : paths.get(new Vertex("A"))) {
+            if (path.getEnd().equals(new Vertex("C"))) {
+                assertEquals(new BigDecimal("0.3"), path.length());
+                return;
+            }
+        }
+        throw new AssertionError("No path from A to C");
+    }
+
     @Test
     public void testAllPairsShortestPathsOnUnDirectedWeightedCyclicGraph() throws Exception {
         String[][] expectedPaths = new String[][] {
@@ -0,0 +1,101 @@
+package com.melimelo.graphs.algorithms;
+
+import static org.junit.Assert.assertFalse;
+
+import java.math.BigDecimal;
+
+import org.junit.Test;
+
+import com.melimelo.graphs.Algorithms;
+import com.melimelo.graphs.Edge;
+import com.melimelo.graphs.Graph;
+import com.melimelo.graphs.MinimumSpaningTree;
+import com.melimelo.graphs.Vertex;
+
+/**
+ * unit tests for {@link Algorithms#densePrimMST(Graph, com.melimelo.graphs.Vertex)}
+ */
+public class DensePrimMSTTest extends AlgorithmsTestBase {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDensePrimMSTOnNullGraph() throws Exception {
+        Algorithms.densePrimMST(GraphFactory.createNullGraph(), SOURCE_VERTEX);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDensePrimMSTWithNullVertex() throws Exception {
+        Algorithms.densePrimMST(GraphFactory.createDirectedWeightedAcyclicGraph(), null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDensePrimMSTOnEmptyGraph() throws Exception {
+        Algorithms.densePrimMST(GraphFactory.createEmptyGraph(), SOURCE_VERTEX);
+    }
+
+    @Test
+    public void testDensePrimMSTOnSingletonGraph() throws Exception {
+        Graph graph = GraphFactory.createSingletonGraph();
+        MinimumSpaningTree mst = Algorithms.densePrimMST(graph, SOURCE_VERTEX);
+        verifyUnWeightedGraphMST(graph, mst);
+        assertFalse(mst.hasEdges());
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testDensePrimMSTOnDirectedGraph() throws Exception {
+        Algorithms.densePrimMST(GraphFactory.createDirectedUnWeightedAcyclicGraph(), SOURCE_VERTEX);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDensePrimMSTOnDisconnectedGraph() throws Exception {
+        Graph graph = GraphFactory.createUnDirectedWeightedCyclicGraph();
+        graph.addVertex(new Vertex("Z"));
+        Algorithms.densePrimMST(graph, SOURCE_VERTEX);
+    }
+
+    //-----------------------------------------------------------------------//
+    //
+    //              unweighted graphs
+    //
+    //-----------------------------------------------------------------------//
+    @Test
+    public void testDensePrimMSTOnUnDirectedUnWeightedCyclicGraph() throws Exception {
+        Graph graph = GraphFactory.createUnDirectedUnWeightedCyclicGraph(); 
+        MinimumSpaningTree mst = Algorithms.densePrimMST(graph, SOURCE_VERTEX); 
+        verifyUnWeightedGraphMST(graph, mst);
+    }
+
+    @Test
+    public void testDensePrimMSTOnUnDirectedUnWeightedAcyclicGraph() throws Exception {
+        Graph graph = GraphFactory.createUnDirectedUnWeightedAcyclicGraph(); 
+        MinimumSpaningTree mst = Algorithms.densePrimMST(graph, SOURCE_VERTEX); 
+        verifyUnWeightedGraphMST(graph, mst);
+    }
+
+    //-----------------------------------------------------------------------//
+    //
+    //              weighted graphs
+    //
+    //-----------------------------------------------------------------------//
+    @Test
+    public void testDensePrimMSTOnUnDirectedWeightedCyclicGraph() throws Exception {
+        Graph graph = GraphFactory.createUnDirectedWeightedCyclicGraph();
+        MinimumSpaningTree mst = Algorithms.densePrimMST(graph, SOURCE_VERTEX);
+        
+        // the expected cost is 16 given the topology of the graph used for testing 
+        verifyWeightedGraphMST(graph, mst, BigDecimal.valueOf(16));
+    }
+
+    @Test
+    public void testDensePrimMSTOnUnDirectedWeightedAcyclicGraph() throws Exception {
+        Graph graph = GraphFactory.createUnDirectedWeightedAcyclicGraph(); 
+        MinimumSpaningTree mst = Algorithms.densePrimMST(graph, SOURCE_VERTEX);
+        BigDecimal cost = BigDecimal.ZERO;
+        
+        //  Given that the graph is tree, we just need to sum up the weight of all edges
+        // divided by 2 because for undirected graph we have twice the same edge (from-to) and (to-from)
+        for (Edge edge : graph.getEdges()) {
+            cost = cost.add(edge.getWeight());
+        }
+        verifyWeightedGraphMST(graph, mst, cost.divide(BigDecimal.valueOf(2)));
+    }
+}
@@ -1,16 +1,21 @@
 package com.melimelo.graphs.algorithms;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.math.BigDecimal;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 
 import org.junit.Test;
 
 import com.melimelo.graphs.Algorithms;
+import com.melimelo.graphs.Edge;
 import com.melimelo.graphs.Graph;
 import com.melimelo.graphs.Path;
+import com.melimelo.graphs.Vertex;
 
 /**
  * unit test for {@link Algorithms#djkistra(Graph, com.melimelo.graphs.Vertex)}
@@ -239,4 +244,100 @@ public class DjkistraTests extends ShortestPathsTestBase {
         }};
         verifyShortestPaths(expectedPaths, graph, shortestPaths);
     }
+
+    @Test
+    public void testDjkistraOnIntegerWeightsGraph() throws Exception {
+        Graph graph = createRandomGraph(new Random(1), BigDecimal.ZERO);
+        assertTrue(graph.hasIntegerWeights());
+        verifyShortestPathsLengths(graph);
+    }
+
+    @Test
+    public void testDjkistraOnDecimalWeightsGraph() throws Exception {
+        Graph graph = createRandomGraph(new Random(2), new BigDecimal("0.5"));
+        assertTrue(!graph.hasIntegerWeights());
+        verifyShortestPathsLengths(graph);
+    }
+
+    @Test
+    public void testDjkistraWithZeroWeights() throws Exception {
+        // the zero weight edges go both ways between consecutive vertices,
+        // so that some of them lead to a vertex with a lower index.
+        final int verticesCount = 20;
+        Graph graph = new Graph(GraphFactory.DIRECTED, GraphFactory.WEIGHTED);
+        graph.addEdge(new Edge(SOURCE_VERTEX, new Vertex("V0"), BigDecimal.ONE));
+        for (int i = 1; i < verticesCount; i++) {
+            graph.addEdge(new Edge("V" + (i - 1), "V" + i, new BigDecimal("0.0")));
+            graph.addEdge(new Edge("V" + i, "V" + (i - 1), new BigDecimal("0.0")));
+        }
+        assertTrue(graph.hasIntegerWeights());
+        List<Path> paths = Algorithms.djkistra(graph, SOURCE_VERTEX);
+        assertEquals(verticesCount, paths.size());
+        for (Path path : paths) {
+            assertEquals(0, BigDecimal.ONE.compareTo(path.length()));
+        }
+        verifyShortestPathsLengths(graph);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDjkistraWithNegativeWeight() throws Exception {
+        Graph graph = new Graph(GraphFactory.DIRECTED, GraphFactory.WEIGHTED);
+        graph.addEdge(new Edge("A", "B", BigDecimal.valueOf(2)));
+        graph.addEdge(new Edge("B", "C", BigDecimal.valueOf(-1)));
+        Algorithms.djkistra(graph, SOURCE_VERTEX);
+    }
+
+    /**
+     * Create a random directed graph where all vertices are reachable from the
+     * source vertex.
+     *
+     * @param random the random generator.
+     * @param fraction the fraction added to the integer weights.
+     * @return the graph.
+     */
+    private Graph createRandomGraph(final Random random, final BigDecimal fraction) {
+        final int verticesCount = 30;
+        Graph graph = new Graph(GraphFactory.DIRECTED, GraphFactory.WEIGHTED);
+        for (int i = 1; i < verticesCount; i++) {
+            Vertex parent = i == 1 ? SOURCE_VERTEX : new Vertex("V" + random.nextInt(i - 1));
+            graph.addEdge(new Edge(parent, new Vertex("V" + (i - 1)),
+                    BigDecimal.valueOf(1 + random.nextInt(20)).add(fraction)));
+        }
+        for (int i = 0; i < 3 * verticesCount; i++) {
+            Vertex start = new Vertex("V" + random.nextInt(verticesCount - 1));
+            Vertex end = new Vertex("V" + random.nextInt(verticesCount - 1));
+            // one edge at most between two vertices, so that the path lengths
+            // can be checked.
+            if (!graph.containsEdge(start, end)) {
+                graph.addEdge(new Edge(start, end,
+                        BigDecimal.valueOf(1 + random.nextInt(20)).add(fraction)));
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * Check that the paths found by djkistra algorithm have the same lengths
+     * as the paths found by the all pairs shortest paths algorithm.
+     *
+     * @param graph the graph on which to search the paths.
+     * @throws Exception if an error occurs while searching the paths.
+     */
+    private void verifyShortestPathsLengths(final Graph graph) throws Exception {
+        Map<Vertex, BigDecimal> expectedLengths = new HashMap<Vertex, BigDecimal>();
+        for (Path path : Algorithms.allPairsShortestPaths(graph).get(SOURCE_VERTEX)) {
+            expectedLengths.put(path.getEnd(), path.length());
+        }
+        List<Path> paths = Algorithms.djkistra(graph, SOURCE_VERTEX);
+        assertEquals(expectedLengths.size(), paths.size());
+        for (Path path : paths) {
+            assertEquals(0, expectedLengths.get(path.getEnd()).compareTo(path.length()));
+            BigDecimal length = BigDecimal.ZERO;
+            List<Vertex> vertices = path.asList();
+            for (int i = 1; i < vertices.size(); i++) {
+                length = length.add(graph.getEdge(vertices.get(i - 1), vertices.get(i)).getWeight());
+            }
+            assertEquals(0, length.compareTo(path.length()));
+        }
+    }
 }
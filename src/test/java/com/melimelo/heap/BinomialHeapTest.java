@@ -0,0 +1,14 @@
+package com.melimelo.heap;
+
+import com.melimelo.heap.Heap.HeapType;
+
+/**
+ * BinomialHeap unit tests.
+ */
+public class BinomialHeapTest extends MeldableHeapTestBase<BinomialHeap<Integer>> {
+
+    @Override
+    protected BinomialHeap<Integer> createHeap(final HeapType type) {
+        return new BinomialHeap<Integer>(type);
+    }
+}
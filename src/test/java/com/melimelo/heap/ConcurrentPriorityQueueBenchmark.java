@@ -0,0 +1,87 @@
+package com.melimelo.heap;
+
+import java.util.Comparator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compare the throughput of {@link ConcurrentPriorityQueue} with
+ * {@link PriorityBlockingQueue} when several producers and consumers share
+ * the queue. The queue is pre-filled so that consumers rarely find it empty.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConcurrentPriorityQueueBenchmark {
+
+    private static final int INITIAL_SIZE = 100000;
+
+    @Param({"multiqueue", "priorityblockingqueue"})
+    public String m_implementation;
+
+    private BlockingQueue<Long> m_queue;
+
+    @Setup
+    public void setUp() {
+        Comparator<Long> comparator = Comparator.<Long> naturalOrder();
+        if ("multiqueue".equals(m_implementation)) {
+            m_queue = new ConcurrentPriorityQueue<Long>(comparator);
+        } else {
+            m_queue = new PriorityBlockingQueue<Long>(INITIAL_SIZE, comparator);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < INITIAL_SIZE; i++) {
+            m_queue.offer(random.nextLong());
+        }
+    }
+
+    @Benchmark
+    @Group("balanced")
+    @GroupThreads(4)
+    public boolean produce() {
+        return m_queue.offer(ThreadLocalRandom.current().nextLong());
+    }
+
+    @Benchmark
+    @Group("balanced")
+    @GroupThreads(4)
+    public Long consume() {
+        return m_queue.poll();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(8)
+    public Long insertThenDelete() {
+        m_queue.offer(ThreadLocalRandom.current().nextLong());
+        return m_queue.poll();
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ConcurrentPriorityQueueBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
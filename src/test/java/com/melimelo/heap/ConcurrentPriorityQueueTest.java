@@ -0,0 +1,164 @@
+package com.melimelo.heap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import com.melimelo.heap.ConcurrentPriorityQueue;
+
+/**
+ * ConcurrentPriorityQueue unit tests.
+ */
+public class ConcurrentPriorityQueueTest {
+    private final int ELEMENTS_COUNT = 1000;
+    private final Comparator<Integer> NATURAL_ORDER = Comparator.<Integer> naturalOrder();
+
+    @Test
+    public void testSingleHeapIsOrdered() {
+        ConcurrentPriorityQueue<Integer> queue = new ConcurrentPriorityQueue<Integer>(NATURAL_ORDER, 1);
+        List<Integer> elements = shuffledElements();
+        queue.addAll(elements);
+        assertEquals(ELEMENTS_COUNT, queue.size());
+        assertEquals(Integer.valueOf(0), queue.peek());
+        for (int element = 0; element < ELEMENTS_COUNT; element++) {
+            assertEquals(Integer.valueOf(element), queue.poll());
+        }
+        assertNull(queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testAllElementsAreReturned() {
+        ConcurrentPriorityQueue<Integer> queue = new ConcurrentPriorityQueue<Integer>(NATURAL_ORDER, 8);
+        queue.addAll(shuffledElements());
+        List<Integer> polled = new ArrayList<Integer>();
+        Integer element;
+        while ((element = queue.poll()) != null) {
+            polled.add(element);
+        }
+        Collections.sort(polled);
+        assertEquals(sortedElements(), polled);
+    }
+
+    @Test
+    public void testDrainTo() {
+        ConcurrentPriorityQueue<Integer> queue = new ConcurrentPriorityQueue<Integer>(NATURAL_ORDER);
+        queue.addAll(shuffledElements());
+        List<Integer> drained = new ArrayList<Integer>();
+        assertEquals(10, queue.drainTo(drained, 10));
+        assertEquals(ELEMENTS_COUNT - 10, queue.size());
+        assertEquals(ELEMENTS_COUNT - 10, queue.drainTo(drained));
+        assertEquals(0, queue.drainTo(drained));
+        Collections.sort(drained);
+        assertEquals(sortedElements(), drained);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDrainToItself() {
+        ConcurrentPriorityQueue<Integer> queue = new ConcurrentPriorityQueue<Integer>(NATURAL_ORDER);
+        queue.drainTo(queue);
+    }
+
+    @Test
+    public void testIterator() {
+        ConcurrentPriorityQueue<Integer> queue = new ConcurrentPriorityQueue<Integer>(NATURAL_ORDER, 3);
+        queue.addAll(shuffledElements());
+        List<Integer> elements = new ArrayList<Integer>();
+        for (Iterator<Integer> iterator = queue.iterator(); iterator.hasNext();) {
+            elements.add(iterator.next());
+        }
+        Collections.sort(elements);
+        assertEquals(sortedElements(), elements);
+        assertTrue(queue.contains(ELEMENTS_COUNT / 2));
+    }
+
+    @Test
+    public void testPollWithTimeout() throws Exception {
+        ConcurrentPriorityQueue<Integer> queue = new ConcurrentPriorityQueue<Integer>(NATURAL_ORDER);
+        assertNull(queue.poll(10, TimeUnit.MILLISECONDS));
+        queue.put(1);
+        assertEquals(Integer.valueOf(1), queue.poll(10, TimeUnit.MILLISECONDS));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testOfferNull() {
+        new ConcurrentPriorityQueue<Integer>(NATURAL_ORDER).offer(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCreateWithoutHeaps() {
+        new ConcurrentPriorityQueue<Integer>(NATURAL_ORDER, 0);
+    }
+
+    @Test
+    public void testProducersAndConsumers() throws Exception {
+        final int threads = 4;
+        final int elementsPerProducer = 20000;
+        final ConcurrentPriorityQueue<Integer> queue = new ConcurrentPriorityQueue<Integer>(NATURAL_ORDER);
+        final AtomicLong sum = new AtomicLong();
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        List<Thread> workers = new ArrayList<Thread>();
+        for (int i = 0; i < threads; i++) {
+            workers.add(new Thread(new Runnable() {
+                public void run() {
+                    for (int element = 1; element <= elementsPerProducer; element++) {
+                        queue.put(element);
+                    }
+                }
+            }));
+            workers.add(new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        for (int taken = 0; taken < elementsPerProducer; taken++) {
+                            sum.addAndGet(queue.take());
+                        }
+                    } catch (Throwable t) {
+                        failure.compareAndSet(null, t);
+                    }
+                }
+            }));
+        }
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        if (failure.get() != null) {
+            throw new AssertionError(failure.get());
+        }
+        long expected = (long) threads * elementsPerProducer * (elementsPerProducer + 1) / 2;
+        assertEquals(expected, sum.get());
+        assertTrue(queue.isEmpty());
+    }
+
+    /**
+     * @return the elements from 0 to ELEMENTS_COUNT - 1 in order.
+     */
+    private List<Integer> sortedElements() {
+        List<Integer> elements = new ArrayList<Integer>();
+        for (int element = 0; element < ELEMENTS_COUNT; element++) {
+            elements.add(element);
+        }
+        return elements;
+    }
+
+    /**
+     * @return the elements from 0 to ELEMENTS_COUNT - 1 shuffled.
+     */
+    private List<Integer> shuffledElements() {
+        List<Integer> elements = sortedElements();
+        Collections.shuffle(elements);
+        return elements;
+    }
+}
@@ -0,0 +1,150 @@
+package com.melimelo.heap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.melimelo.heap.DaryHeap;
+import com.melimelo.heap.Heap.HeapType;
+import com.melimelo.heap.HeapUnderflowException;
+
+/**
+ * DaryHeap unit tests.
+ */
+public class DaryHeapTest {
+    private final int ELEMENTS_COUNT = 2000;
+    private final int[] ARITIES = {2, 3, 4, 8, 16};
+
+    @Test
+    public void testCreateHeap() {
+        DaryHeap<Integer> heap = new DaryHeap<Integer>(Collections.<Integer> reverseOrder());
+        assertTrue(heap.isEmpty());
+        assertEquals(0, heap.size());
+        assertEquals(DaryHeap.DEFAULT_ARITY, heap.arity());
+        assertNull(heap.peek());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCreateHeapWithInvalidArity() {
+        new DaryHeap<Integer>(Collections.<Integer> reverseOrder(), 1, 10);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCreateHeapWithTooBigArity() {
+        new DaryHeap<Integer>(Collections.<Integer> reverseOrder(), Integer.MAX_VALUE, 10);
+    }
+
+    @Test
+    public void testSortWithBigArity() throws Exception {
+        // the first child of the nodes on the second level is beyond
+        // Integer.MAX_VALUE.
+        DaryHeap<Integer> heap = new DaryHeap<Integer>(Comparator.<Integer> naturalOrder(),
+                1 << 21, 16);
+        Random random = new Random(3);
+        List<Integer> elements = new ArrayList<Integer>();
+        for (int i = 0; i < 3000; i++) {
+            int element = random.nextInt();
+            elements.add(element);
+            heap.insert(element);
+        }
+        Collections.sort(elements);
+        for (Integer element : elements) {
+            assertEquals(element, heap.poll());
+        }
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCreateHeapWithoutComparator() {
+        new DaryHeap<Integer>(null);
+    }
+
+    @Test
+    public void testNewHeap() throws Exception {
+        DaryHeap<Integer> minHeap = DaryHeap.newHeap(HeapType.MIN_HEAP);
+        DaryHeap<Integer> maxHeap = DaryHeap.newHeap(HeapType.MAX_HEAP);
+        for (int element = 0; element < 10; element++) {
+            minHeap.insert(element);
+            maxHeap.insert(element);
+        }
+        assertEquals(Integer.valueOf(0), minHeap.poll());
+        assertEquals(Integer.valueOf(9), maxHeap.poll());
+    }
+
+    @Test
+    public void testSortWithAllArities() throws Exception {
+        Random random = new Random(ELEMENTS_COUNT);
+        List<Integer> elements = new ArrayList<Integer>();
+        for (int i = 0; i < ELEMENTS_COUNT; i++) {
+            elements.add(random.nextInt(ELEMENTS_COUNT));
+        }
+        List<Integer> expected = new ArrayList<Integer>(elements);
+        Collections.sort(expected);
+        for (int arity : ARITIES) {
+            DaryHeap<Integer> heap = new DaryHeap<Integer>(Comparator.<Integer> naturalOrder(), arity, 0);
+            for (Integer element : elements) {
+                heap.insert(element);
+            }
+            assertEquals(ELEMENTS_COUNT, heap.size());
+            List<Integer> polled = new ArrayList<Integer>();
+            while (!heap.isEmpty()) {
+                polled.add(heap.poll());
+            }
+            assertEquals(expected, polled);
+        }
+    }
+
+    @Test
+    public void testMixedOperations() throws Exception {
+        Comparator<String> byLength = new Comparator<String>() {
+            @Override
+            public int compare(final String first, final String second) {
+                return first.length() != second.length() ?
+                        first.length() - second.length() : first.compareTo(second);
+            }
+        };
+        for (int arity : ARITIES) {
+            Random random = new Random(arity);
+            DaryHeap<String> heap = new DaryHeap<String>(byLength, arity, 1);
+            PriorityQueue<String> reference = new PriorityQueue<String>(11, byLength);
+            for (int i = 0; i < ELEMENTS_COUNT; i++) {
+                if (random.nextInt(3) == 0 && !reference.isEmpty()) {
+                    assertEquals(reference.poll(), heap.poll());
+                } else {
+                    String element = Integer.toString(random.nextInt(), 36);
+                    heap.insert(element);
+                    reference.add(element);
+                }
+                assertEquals(reference.peek(), heap.peek());
+                assertEquals(reference.size(), heap.size());
+            }
+        }
+    }
+
+    @Test
+    public void testClear() {
+        DaryHeap<Integer> heap = DaryHeap.newHeap(HeapType.MIN_HEAP);
+        heap.insert(3);
+        heap.clear();
+        assertTrue(heap.isEmpty());
+        assertNull(heap.peek());
+    }
+
+    @Test(expected = HeapUnderflowException.class)
+    public void testPollEmptyHeap() throws Exception {
+        DaryHeap.<Integer> newHeap(HeapType.MIN_HEAP).poll();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInsertNull() {
+        DaryHeap.<Integer> newHeap(HeapType.MIN_HEAP).insert(null);
+    }
+}
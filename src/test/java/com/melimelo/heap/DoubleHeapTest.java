@@ -0,0 +1,65 @@
+package com.melimelo.heap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.melimelo.heap.DoubleHeap;
+import com.melimelo.heap.Heap.HeapType;
+import com.melimelo.heap.HeapUnderflowException;
+
+/**
+ * DoubleHeap unit tests.
+ */
+public class DoubleHeapTest {
+    private final int ELEMENTS_COUNT = 1000;
+    private final boolean WITH_PAYLOAD = true;
+    private final double DELTA = 0.0;
+
+    @Test
+    public void testInsertAndPoll() throws Exception {
+        Random random = new Random(ELEMENTS_COUNT);
+        double[] keys = new double[ELEMENTS_COUNT];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextGaussian();
+        }
+        double[] sorted = keys.clone();
+        Arrays.sort(sorted);
+        DoubleHeap minHeap = new DoubleHeap(HeapType.MIN_HEAP);
+        DoubleHeap maxHeap = new DoubleHeap(HeapType.MAX_HEAP);
+        for (double key : keys) {
+            minHeap.insert(key);
+            maxHeap.insert(key);
+        }
+        for (int i = 0; i < sorted.length; i++) {
+            assertEquals(sorted[i], minHeap.poll(), DELTA);
+            assertEquals(sorted[sorted.length - 1 - i], maxHeap.poll(), DELTA);
+        }
+        assertTrue(maxHeap.isEmpty());
+    }
+
+    @Test
+    public void testPayloads() throws Exception {
+        DoubleHeap heap = new DoubleHeap(HeapType.MIN_HEAP, 0, WITH_PAYLOAD);
+        heap.insert(2.5, 7);
+        heap.insert(Double.NEGATIVE_INFINITY, 8);
+        heap.insert(Double.POSITIVE_INFINITY, 9);
+        assertEquals(8, heap.pollPayload());
+        assertEquals(2.5, heap.peek(), DELTA);
+        assertEquals(7, heap.pollPayload());
+        assertEquals(9, heap.peekPayload());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInsertNaN() {
+        new DoubleHeap(HeapType.MIN_HEAP).insert(Double.NaN);
+    }
+
+    @Test(expected = HeapUnderflowException.class)
+    public void testPeekEmptyHeap() throws Exception {
+        new DoubleHeap(HeapType.MAX_HEAP).peek();
+    }
+}
@@ -0,0 +1,128 @@
+package com.melimelo.heap;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.melimelo.heap.Heap.HeapType;
+
+/**
+ * Compare the recursive, the swapping iterative and the hole-based paths of
+ * {@link Heap}: filling a heap then draining it, building a heap from an
+ * array by moving down every parent, and inserting the elements one by one.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HeapBenchmark {
+
+    @Param({"1000", "100000"})
+    public int m_size;
+
+    @Param({"recursive", "iterative", "hole"})
+    public String m_path;
+
+    private Integer[] m_elements;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(m_size);
+        m_elements = new Integer[m_size];
+        for (int i = 0; i < m_size; i++) {
+            m_elements[i] = random.nextInt();
+        }
+    }
+
+    @Benchmark
+    public int insertThenDrain() throws HeapException {
+        Heap<Integer> heap = new Heap<Integer>(HeapType.MIN_HEAP, m_size);
+        for (Integer element : m_elements) {
+            insert(heap, element);
+        }
+        int checksum = 0;
+        while (!heap.isEmpty()) {
+            checksum += delete(heap);
+        }
+        return checksum;
+    }
+
+    @Benchmark
+    public Heap<Integer> buildFromArray() throws HeapException {
+        if ("hole".equals(m_path)) {
+            return new Heap<Integer>(HeapType.MIN_HEAP, m_elements);
+        }
+        Heap<Integer> heap = new Heap<Integer>(HeapType.MIN_HEAP, m_size);
+        if ("recursive".equals(m_path)) {
+            heap.recursiveBuild(m_elements);
+        } else {
+            heap.swappingBuild(m_elements);
+        }
+        return heap;
+    }
+
+    @Benchmark
+    public Heap<Integer> buildByInsertions() throws HeapException {
+        Heap<Integer> heap = new Heap<Integer>(HeapType.MIN_HEAP, m_size);
+        for (Integer element : m_elements) {
+            insert(heap, element);
+        }
+        return heap;
+    }
+
+    /**
+     * Insert an element using the path benchmarked.
+     *
+     * @param heap the heap.
+     * @param element the element to insert.
+     * @throws HeapOverflowException if the heap is full.
+     */
+    private void insert(final Heap<Integer> heap, final Integer element)
+            throws HeapOverflowException {
+        if ("recursive".equals(m_path)) {
+            heap.recusiveInsert(element);
+        } else if ("iterative".equals(m_path)) {
+            heap.swappingInsert(element);
+        } else {
+            heap.iterativeInsert(element);
+        }
+    }
+
+    /**
+     * Delete the top element using the path benchmarked.
+     *
+     * @param heap the heap.
+     * @return the element deleted.
+     * @throws HeapUnderflowException if the heap is empty.
+     */
+    private int delete(final Heap<Integer> heap) throws HeapUnderflowException {
+        if ("recursive".equals(m_path)) {
+            return heap.recursiveDelete();
+        } else if ("iterative".equals(m_path)) {
+            return heap.swappingDelete();
+        }
+        return heap.iterativeDelete();
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(HeapBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -8,7 +8,10 @@ import static org.junit.Assert.assertTrue;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -518,6 +521,241 @@ public class HeapTests {
         }
     }
 
+    @Test
+    public void testGrowableHeapGrowsAndShrinks() throws Exception {
+        for (Heap.HeapType type : HEAP_TYPES) {
+            Heap<Integer> heap = new Heap<Integer>(type, 2, true);
+            assertTrue(heap.isGrowable());
+            int elementsCount = 1000;
+            for (int element = 0; element < elementsCount; element++) {
+                heap.iterativeInsert(element);
+                assertFalse(heap.isFull());
+            }
+            assertEquals(elementsCount, heap.size());
+            assertEquals(1024, heap.capacity());
+            int expected = type == Heap.HeapType.MIN_HEAP ? 0 : elementsCount - 1;
+            while (!heap.isEmpty()) {
+                assertEquals(expected, heap.recursiveDelete().intValue());
+                expected -= type.sign();
+                assertTrue(heap.size() * 4 >= heap.capacity() / 2 || heap.capacity() == 2);
+            }
+            assertEquals(2, heap.capacity());
+        }
+    }
+
+    @Test
+    public void testNewGrowableHeaps() throws Exception {
+        Heap<Integer> minHeap = Heap.newGrowableMinHeap();
+        Heap<Integer> maxHeap = Heap.newGrowableMaxHeap();
+        assertEquals(Heap.HeapType.MIN_HEAP, minHeap.type());
+        assertEquals(Heap.HeapType.MAX_HEAP, maxHeap.type());
+        assertEquals(Heap.DEFAULT_GROWABLE_CAPACITY, minHeap.capacity());
+        minHeap.addAll(m_randomizedList);
+        maxHeap.addAll(m_randomizedArray);
+        assertEquals(MIN_ELEMENT, minHeap.get().intValue());
+        assertEquals(MAX_ELEMENT, maxHeap.get().intValue());
+    }
+
+    @Test
+    public void testAddAll() throws Exception {
+        for (Heap.HeapType type : HEAP_TYPES) {
+            // a large batch rebuilds the heap, small ones are inserted.
+            Heap<Integer> heap = new Heap<Integer>(type, 0, true);
+            heap.addAll(m_randomizedList);
+            heap.addAll(Arrays.asList(MAX_ELEMENT + 1));
+            heap.addAll(new Integer[] {MIN_ELEMENT - 1, MIN_ELEMENT - 2});
+            assertEquals(ELEMENTS_COUNT + 3, heap.size());
+            List<Integer> expected = new ArrayList<Integer>(m_randomizedList);
+            expected.addAll(Arrays.asList(MAX_ELEMENT + 1, MIN_ELEMENT - 1, MIN_ELEMENT - 2));
+            Collections.sort(expected);
+            if (type == Heap.HeapType.MAX_HEAP) {
+                Collections.reverse(expected);
+            }
+            List<Integer> deleted = new ArrayList<Integer>();
+            while (!heap.isEmpty()) {
+                deleted.add(heap.iterativeDelete());
+            }
+            assertEquals(expected, deleted);
+        }
+    }
+
+    @Test
+    public void testAddAllInFixedHeap() throws Exception {
+        Heap<Integer> heap = new Heap<Integer>(Heap.HeapType.MIN_HEAP, ELEMENTS_COUNT);
+        heap.iterativeInsert(MAX_ELEMENT * 2);
+        try {
+            heap.addAll(m_randomizedList);
+            assertTrue(false);
+        } catch (HeapOverflowException exception) {
+            assertEquals(1, heap.size());
+        }
+        heap.addAll(m_randomizedList.subList(1, ELEMENTS_COUNT));
+        assertTrue(heap.isFull());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAddAllWithNullElement() throws Exception {
+        Heap<Integer> heap = Heap.newGrowableMinHeap();
+        try {
+            heap.addAll(Arrays.asList(1, null, 3));
+        } finally {
+            assertTrue(heap.isEmpty());
+        }
+    }
+
+    @Test
+    public void testPollN() throws Exception {
+        for (Heap.HeapType type : HEAP_TYPES) {
+            Heap<Integer> heap = new Heap<Integer>(type, m_randomizedArray);
+            List<Integer> expected = new ArrayList<Integer>(m_randomizedList);
+            Collections.sort(expected);
+            if (type == Heap.HeapType.MAX_HEAP) {
+                Collections.reverse(expected);
+            }
+            assertEquals(expected.subList(0, 5), heap.pollN(5));
+            assertEquals(ELEMENTS_COUNT - 5, heap.size());
+            assertEquals(expected.subList(5, 6), heap.pollN(1));
+            assertEquals(expected.subList(6, ELEMENTS_COUNT), heap.pollN(ELEMENTS_COUNT));
+            assertTrue(heap.isEmpty());
+            assertTrue(heap.pollN(3).isEmpty());
+        }
+    }
+
+    @Test
+    public void testPollNShrinksGrowableHeap() throws Exception {
+        Heap<Integer> heap = Heap.newGrowableMinHeap();
+        for (int element = 0; element < 1000; element++) {
+            heap.iterativeInsert(element);
+        }
+        assertEquals(900, heap.pollN(900).size());
+        assertEquals(Integer.valueOf(900), heap.get());
+        assertEquals(256, heap.capacity());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPollNegativeCount() {
+        Heap.<Integer> newMinHeap().pollN(-1);
+    }
+
+    @Test
+    public void testSwappingAndHoleBasedPathsAgree() throws Exception {
+        for (Heap.HeapType type : HEAP_TYPES) {
+            Heap<Integer> holeBased = new Heap<Integer>(type, ELEMENTS_COUNT);
+            Heap<Integer> swapping = new Heap<Integer>(type, ELEMENTS_COUNT);
+            Heap<Integer> recursive = new Heap<Integer>(type, ELEMENTS_COUNT);
+            for (Integer element : m_randomizedList) {
+                holeBased.iterativeInsert(element);
+                swapping.swappingInsert(element);
+                recursive.recusiveInsert(element);
+                assertEquals(recursive.toString(), holeBased.toString());
+                assertEquals(recursive.toString(), swapping.toString());
+            }
+            while (!holeBased.isEmpty()) {
+                Integer top = recursive.recursiveDelete();
+                assertEquals(top, holeBased.iterativeDelete());
+                assertEquals(top, swapping.swappingDelete());
+                assertEquals(recursive.toString(), holeBased.toString());
+            }
+        }
+    }
+
+    @Test
+    public void testBaselineBuildsAgree() throws Exception {
+        Integer[] elements = m_randomizedList.toArray(new Integer[0]);
+        for (Heap.HeapType type : HEAP_TYPES) {
+            Heap<Integer> holeBased = new Heap<Integer>(type, elements);
+            Heap<Integer> swapping = new Heap<Integer>(type, 1, true);
+            Heap<Integer> recursive = new Heap<Integer>(type, elements.length);
+            // the elements already in the heap are replaced.
+            recursive.insert(0);
+            swapping.swappingBuild(elements);
+            recursive.recursiveBuild(elements);
+            assertEquals(elements.length, recursive.size());
+            while (!holeBased.isEmpty()) {
+                Integer top = holeBased.delete();
+                assertEquals(top, swapping.delete());
+                assertEquals(top, recursive.delete());
+            }
+            assertTrue(swapping.isEmpty());
+            assertTrue(recursive.isEmpty());
+        }
+    }
+
+    @Test
+    public void testBuildWithDuplicatesAndWideComparisons() throws Exception {
+        // strings compare with values other than -1, 0 and 1.
+        String[] elements = {"delta", "alpha", "zulu", "alpha", "mike", "bravo", "zulu", "echo"};
+        for (Heap.HeapType type : HEAP_TYPES) {
+            List<String> expected = new ArrayList<String>(Arrays.asList(elements));
+            Collections.sort(expected);
+            if (type == Heap.HeapType.MAX_HEAP) {
+                Collections.reverse(expected);
+            }
+            Heap<String> heap = new Heap<String>(type, elements);
+            List<String> polled = new ArrayList<String>();
+            while (!heap.isEmpty()) {
+                polled.add(heap.iterativeDelete());
+            }
+            assertEquals(expected, polled);
+        }
+    }
+
+    @Test
+    public void testIterator() throws Exception {
+        for (Heap.HeapType type : HEAP_TYPES) {
+            Heap<Integer> heap = new Heap<Integer>(type, m_randomizedArray);
+            List<Integer> iterated = new ArrayList<Integer>();
+            for (Integer element : heap) {
+                iterated.add(element);
+            }
+            assertEquals(heap.toString(), iterated.toString());
+            assertEquals(ELEMENTS_COUNT, heap.size());
+        }
+        assertFalse(Heap.<Integer> newMinHeap().iterator().hasNext());
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void testIteratorFailsFast() throws Exception {
+        Heap<Integer> heap = new Heap<Integer>(Heap.HeapType.MIN_HEAP, m_randomizedArray);
+        Iterator<Integer> iterator = heap.iterator();
+        iterator.next();
+        heap.iterativeDelete();
+        iterator.next();
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testIteratorPastTheEnd() {
+        Heap.<Integer> newMinHeap().iterator().next();
+    }
+
+    @Test
+    public void testSortedView() throws Exception {
+        for (Heap.HeapType type : HEAP_TYPES) {
+            Heap<Integer> heap = new Heap<Integer>(type, ELEMENTS_COUNT + 2);
+            heap.addAll(m_randomizedArray);
+            heap.iterativeInsert(MIN_ELEMENT);
+            heap.iterativeInsert(MAX_ELEMENT);
+            String before = heap.toString();
+            List<Integer> expected = new ArrayList<Integer>(m_randomizedList);
+            expected.add(MIN_ELEMENT);
+            expected.add(MAX_ELEMENT);
+            Collections.sort(expected);
+            if (type == Heap.HeapType.MAX_HEAP) {
+                Collections.reverse(expected);
+            }
+            assertTrue(heap.sortedView(0).isEmpty());
+            assertEquals(expected.subList(0, 5), heap.sortedView(5));
+            assertEquals(expected, heap.sortedView(ELEMENTS_COUNT * 2));
+            assertEquals(before, heap.toString());
+        }
+        assertTrue(Heap.<Integer> newMinHeap().sortedView(3).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSortedViewNegativeCount() {
+        Heap.<Integer> newMinHeap().sortedView(-1);
+    }
+
     // -------------------------------------------------------------------------
     //
     // Helper methods
@@ -0,0 +1,163 @@
+package com.melimelo.heap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+import com.melimelo.heap.HeapUnderflowException;
+import com.melimelo.heap.IndexedHeap;
+import com.melimelo.heap.IndexedHeap.Handle;
+
+/**
+ * IndexedHeap unit tests.
+ */
+public class IndexedHeapTest {
+    private final int ELEMENTS_COUNT = 2000;
+    private final Comparator<Integer> NATURAL_ORDER = Comparator.<Integer> naturalOrder();
+
+    @Test
+    public void testInsertAndPoll() throws Exception {
+        IndexedHeap<Integer> heap = new IndexedHeap<Integer>(NATURAL_ORDER, 2, 0);
+        Handle<Integer> handle = heap.insert(5);
+        heap.insert(3);
+        heap.insert(8);
+        assertEquals(Integer.valueOf(5), handle.element());
+        assertEquals(Integer.valueOf(3), heap.peek());
+        assertEquals(3, heap.size());
+        assertEquals(Integer.valueOf(3), heap.poll());
+        assertSame(handle, heap.peekHandle());
+        assertEquals(Integer.valueOf(5), heap.poll());
+        assertFalse(heap.contains(handle));
+        assertFalse(handle.isValid());
+    }
+
+    @Test
+    public void testRemove() throws Exception {
+        IndexedHeap<Integer> heap = new IndexedHeap<Integer>(NATURAL_ORDER);
+        List<Handle<Integer>> handles = new ArrayList<Handle<Integer>>();
+        for (int element = 0; element < 100; element++) {
+            handles.add(heap.insert(element));
+        }
+        for (int element = 0; element < 100; element += 2) {
+            assertTrue(heap.remove(handles.get(element)));
+            assertFalse(heap.remove(handles.get(element)));
+        }
+        assertEquals(50, heap.size());
+        for (int element = 1; element < 100; element += 2) {
+            assertTrue(heap.contains(handles.get(element)));
+            assertEquals(Integer.valueOf(element), heap.poll());
+        }
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    public void testUpdate() throws Exception {
+        IndexedHeap<Integer> heap = new IndexedHeap<Integer>(NATURAL_ORDER);
+        Handle<Integer> first = heap.insert(10);
+        Handle<Integer> second = heap.insert(20);
+        heap.insert(30);
+        heap.update(second, 5);
+        assertSame(second, heap.peekHandle());
+        heap.update(second, 40);
+        assertSame(first, heap.peekHandle());
+        heap.update(first, 10);
+        assertEquals(Integer.valueOf(10), heap.poll());
+        assertEquals(Integer.valueOf(30), heap.poll());
+        assertEquals(Integer.valueOf(40), heap.poll());
+    }
+
+    @Test
+    public void testRandomOperations() throws Exception {
+        Random random = new Random(ELEMENTS_COUNT);
+        for (int arity = 2; arity <= 8; arity *= 2) {
+            IndexedHeap<Integer> heap = new IndexedHeap<Integer>(NATURAL_ORDER, arity, 1);
+            TreeMap<Integer, Integer> reference = new TreeMap<Integer, Integer>();
+            List<Handle<Integer>> handles = new ArrayList<Handle<Integer>>();
+            for (int i = 0; i < ELEMENTS_COUNT; i++) {
+                int operation = random.nextInt(4);
+                Handle<Integer> handle = handles.isEmpty() ? null :
+                        handles.get(random.nextInt(handles.size()));
+                if (operation == 0 || handle == null) {
+                    int element = random.nextInt(ELEMENTS_COUNT);
+                    handles.add(heap.insert(element));
+                    add(reference, element, 1);
+                } else if (operation == 1) {
+                    boolean present = heap.contains(handle);
+                    assertEquals(present, heap.remove(handle));
+                    if (present) {
+                        add(reference, handle.element(), -1);
+                    }
+                } else if (operation == 2 && heap.contains(handle)) {
+                    int element = random.nextInt(ELEMENTS_COUNT);
+                    add(reference, handle.element(), -1);
+                    heap.update(handle, element);
+                    add(reference, element, 1);
+                } else if (!heap.isEmpty()) {
+                    Integer polled = heap.poll();
+                    assertEquals(reference.firstKey(), polled);
+                    add(reference, polled, -1);
+                }
+                assertEquals(reference.isEmpty() ? null : reference.firstKey(), heap.peek());
+            }
+        }
+    }
+
+    @Test
+    public void testClear() {
+        IndexedHeap<Integer> heap = new IndexedHeap<Integer>(NATURAL_ORDER);
+        Handle<Integer> handle = heap.insert(1);
+        heap.clear();
+        assertTrue(heap.isEmpty());
+        assertFalse(heap.contains(handle));
+        assertNull(heap.peek());
+    }
+
+    @Test
+    public void testHandleOfAnotherHeap() {
+        IndexedHeap<Integer> heap = new IndexedHeap<Integer>(NATURAL_ORDER);
+        Handle<Integer> handle = new IndexedHeap<Integer>(NATURAL_ORDER).insert(1);
+        assertFalse(heap.contains(handle));
+        assertFalse(heap.remove(handle));
+        assertFalse(heap.contains(null));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUpdateRemovedElement() {
+        IndexedHeap<Integer> heap = new IndexedHeap<Integer>(NATURAL_ORDER);
+        Handle<Integer> handle = heap.insert(1);
+        heap.remove(handle);
+        heap.update(handle, 2);
+    }
+
+    @Test(expected = HeapUnderflowException.class)
+    public void testPollEmptyHeap() throws Exception {
+        new IndexedHeap<Integer>(NATURAL_ORDER).poll();
+    }
+
+    /**
+     * Add occurrences of an element to a multiset.
+     *
+     * @param multiset the multiset.
+     * @param element the element.
+     * @param count the number of occurrences to add, negative to remove.
+     */
+    private void add(final TreeMap<Integer, Integer> multiset, final Integer element,
+            final int count) {
+        Integer current = multiset.get(element);
+        int updated = (current == null ? 0 : current) + count;
+        if (updated == 0) {
+            multiset.remove(element);
+        } else {
+            multiset.put(element, updated);
+        }
+    }
+}
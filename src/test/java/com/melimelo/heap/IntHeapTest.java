@@ -0,0 +1,170 @@
+package com.melimelo.heap;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.melimelo.heap.Heap.HeapType;
+import com.melimelo.heap.HeapUnderflowException;
+import com.melimelo.heap.IntHeap;
+
+/**
+ * IntHeap unit tests.
+ */
+public class IntHeapTest {
+    private final int ELEMENTS_COUNT = 1000;
+    private final boolean WITH_PAYLOAD = true;
+
+    @Test
+    public void testCreateHeap() {
+        for (HeapType type : HeapType.values()) {
+            IntHeap heap = new IntHeap(type);
+            assertTrue(heap.isEmpty());
+            assertEquals(0, heap.size());
+            assertEquals(type, heap.type());
+            assertFalse(heap.hasPayload());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCreateHeapWithNegativeCapacity() {
+        new IntHeap(HeapType.MIN_HEAP, -1, WITH_PAYLOAD);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCreateHeapWithoutType() {
+        new IntHeap(null);
+    }
+
+    @Test
+    public void testInsertAndPoll() throws Exception {
+        int[] keys = randomKeys();
+        for (HeapType type : HeapType.values()) {
+            IntHeap heap = new IntHeap(type, 0, !WITH_PAYLOAD);
+            for (int key : keys) {
+                heap.insert(key);
+            }
+            assertEquals(keys.length, heap.size());
+            assertArrayEquals(sorted(keys, type), pollAll(heap));
+            assertTrue(heap.isEmpty());
+        }
+    }
+
+    @Test
+    public void testPayloads() throws Exception {
+        int[] keys = randomKeys();
+        IntHeap heap = new IntHeap(HeapType.MIN_HEAP, 4, WITH_PAYLOAD);
+        for (int i = 0; i < keys.length; i++) {
+            heap.insert(keys[i], i);
+        }
+        while (!heap.isEmpty()) {
+            int key = heap.peek();
+            int payload = heap.peekPayload();
+            assertEquals(key, keys[payload]);
+            if (heap.size() % 2 == 0) {
+                assertEquals(payload, heap.pollPayload());
+            } else {
+                assertEquals(key, heap.poll());
+            }
+        }
+    }
+
+    @Test
+    public void testExtremeKeys() throws Exception {
+        IntHeap heap = new IntHeap(HeapType.MAX_HEAP);
+        heap.insert(0);
+        heap.insert(Integer.MIN_VALUE);
+        heap.insert(Integer.MAX_VALUE);
+        heap.insert(Integer.MIN_VALUE);
+        assertArrayEquals(new int[] {Integer.MAX_VALUE, 0, Integer.MIN_VALUE, Integer.MIN_VALUE},
+                pollAll(heap));
+    }
+
+    @Test
+    public void testClear() throws Exception {
+        IntHeap heap = new IntHeap(HeapType.MIN_HEAP);
+        heap.insert(2);
+        heap.clear();
+        assertTrue(heap.isEmpty());
+        heap.insert(3);
+        assertEquals(3, heap.peek());
+    }
+
+    @Test(expected = HeapUnderflowException.class)
+    public void testPollEmptyHeap() throws Exception {
+        new IntHeap(HeapType.MIN_HEAP).poll();
+    }
+
+    @Test(expected = HeapUnderflowException.class)
+    public void testPeekEmptyHeap() throws Exception {
+        new IntHeap(HeapType.MAX_HEAP).peek();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testInsertWithoutPayload() {
+        new IntHeap(HeapType.MIN_HEAP, 1, WITH_PAYLOAD).insert(1);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testInsertUnexpectedPayload() {
+        new IntHeap(HeapType.MIN_HEAP).insert(1, 1);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testPeekMissingPayload() throws Exception {
+        IntHeap heap = new IntHeap(HeapType.MIN_HEAP);
+        heap.insert(1);
+        heap.peekPayload();
+    }
+
+    /**
+     * @return random keys, with duplicates.
+     */
+    private int[] randomKeys() {
+        Random random = new Random(ELEMENTS_COUNT);
+        int[] keys = new int[ELEMENTS_COUNT];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextInt(ELEMENTS_COUNT / 2) - ELEMENTS_COUNT / 4;
+        }
+        return keys;
+    }
+
+    /**
+     * Sort keys in the order of a heap type.
+     *
+     * @param keys the keys to sort.
+     * @param type the heap type.
+     * @return the keys sorted.
+     */
+    private int[] sorted(final int[] keys, final HeapType type) {
+        int[] sorted = keys.clone();
+        Arrays.sort(sorted);
+        if (type == HeapType.MAX_HEAP) {
+            for (int i = 0, j = sorted.length - 1; i < j; i++, j--) {
+                int tmp = sorted[i];
+                sorted[i] = sorted[j];
+                sorted[j] = tmp;
+            }
+        }
+        return sorted;
+    }
+
+    /**
+     * Poll all the keys of a heap.
+     *
+     * @param heap the heap to empty.
+     * @return the keys polled.
+     */
+    private int[] pollAll(final IntHeap heap) throws HeapUnderflowException {
+        int[] keys = new int[heap.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = heap.poll();
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,134 @@
+package com.melimelo.heap;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.melimelo.heap.Heap.HeapType;
+import com.melimelo.heap.IntTopK;
+
+/**
+ * IntTopK unit tests.
+ */
+public class IntTopKTest {
+    private final int ELEMENTS_COUNT = 10000;
+    private final int K = 10;
+    private final boolean WITH_PAYLOAD = true;
+
+    @Test
+    public void testTopK() throws Exception {
+        int[] keys = randomKeys(new Random(ELEMENTS_COUNT));
+        for (HeapType type : HeapType.values()) {
+            IntTopK topK = new IntTopK(type, K, !WITH_PAYLOAD);
+            for (int key : keys) {
+                topK.offer(key);
+            }
+            assertEquals(K, topK.size());
+            assertArrayEquals(expected(keys, type), topK.keys());
+            assertEquals(topK.keys()[K - 1], topK.threshold());
+        }
+    }
+
+    @Test
+    public void testPayloads() {
+        int[] keys = randomKeys(new Random(K));
+        IntTopK topK = new IntTopK(HeapType.MAX_HEAP, K, WITH_PAYLOAD);
+        for (int i = 0; i < keys.length; i++) {
+            topK.offer(keys[i], i);
+        }
+        int[] topKeys = topK.keys();
+        int[] payloads = topK.payloads();
+        assertArrayEquals(expected(keys, HeapType.MAX_HEAP), topKeys);
+        for (int i = 0; i < K; i++) {
+            assertEquals(topKeys[i], keys[payloads[i]]);
+        }
+    }
+
+    @Test
+    public void testOfferRejectsNonQualifyingKeys() {
+        IntTopK topK = new IntTopK(HeapType.MIN_HEAP, 2, !WITH_PAYLOAD);
+        assertTrue(topK.offer(Integer.MAX_VALUE));
+        assertTrue(topK.offer(-1));
+        assertTrue(topK.offer(Integer.MIN_VALUE));
+        assertFalse(topK.offer(-1));
+        assertArrayEquals(new int[] {Integer.MIN_VALUE, -1}, topK.keys());
+    }
+
+    @Test
+    public void testMerge() {
+        Random random = new Random(1);
+        int[] all = new int[0];
+        IntTopK merged = new IntTopK(HeapType.MIN_HEAP, K, WITH_PAYLOAD);
+        for (int part = 0; part < 4; part++) {
+            int[] keys = randomKeys(random);
+            IntTopK topK = new IntTopK(HeapType.MIN_HEAP, K, WITH_PAYLOAD);
+            for (int key : keys) {
+                topK.offer(key, -key);
+            }
+            merged.merge(topK);
+            all = concat(all, keys);
+        }
+        int[] keys = merged.keys();
+        int[] payloads = merged.payloads();
+        assertArrayEquals(expected(all, HeapType.MIN_HEAP), keys);
+        for (int i = 0; i < K; i++) {
+            assertEquals(-keys[i], payloads[i]);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMergeWithoutPayloads() {
+        new IntTopK(HeapType.MIN_HEAP, K, WITH_PAYLOAD).merge(new IntTopK(HeapType.MIN_HEAP, K, !WITH_PAYLOAD));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testMissingPayloads() {
+        new IntTopK(HeapType.MIN_HEAP, K, !WITH_PAYLOAD).payloads();
+    }
+
+    /**
+     * @param random the random generator.
+     * @return random keys, with duplicates and negative keys.
+     */
+    private int[] randomKeys(final Random random) {
+        int[] keys = new int[ELEMENTS_COUNT];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextInt(ELEMENTS_COUNT) - ELEMENTS_COUNT / 2;
+        }
+        return keys;
+    }
+
+    /**
+     * @param keys the keys.
+     * @param type the heap type.
+     * @return the K first keys according to the heap type.
+     */
+    private int[] expected(final int[] keys, final HeapType type) {
+        int[] sorted = keys.clone();
+        Arrays.sort(sorted);
+        if (type == HeapType.MAX_HEAP) {
+            int[] reversed = new int[K];
+            for (int i = 0; i < K; i++) {
+                reversed[i] = sorted[sorted.length - 1 - i];
+            }
+            return reversed;
+        }
+        return Arrays.copyOf(sorted, K);
+    }
+
+    /**
+     * @param first the first array.
+     * @param second the second array.
+     * @return the two arrays concatenated.
+     */
+    private int[] concat(final int[] first, final int[] second) {
+        int[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+}
@@ -0,0 +1,65 @@
+package com.melimelo.heap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.melimelo.heap.Heap.HeapType;
+import com.melimelo.heap.HeapUnderflowException;
+import com.melimelo.heap.LongHeap;
+
+/**
+ * LongHeap unit tests.
+ */
+public class LongHeapTest {
+    private final int ELEMENTS_COUNT = 1000;
+    private final boolean WITH_PAYLOAD = true;
+
+    @Test
+    public void testInsertAndPoll() throws Exception {
+        Random random = new Random(ELEMENTS_COUNT);
+        long[] keys = new long[ELEMENTS_COUNT];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextLong();
+        }
+        long[] sorted = keys.clone();
+        Arrays.sort(sorted);
+        LongHeap minHeap = new LongHeap(HeapType.MIN_HEAP);
+        LongHeap maxHeap = new LongHeap(HeapType.MAX_HEAP);
+        for (long key : keys) {
+            minHeap.insert(key);
+            maxHeap.insert(key);
+        }
+        for (int i = 0; i < sorted.length; i++) {
+            assertEquals(sorted[i], minHeap.poll());
+            assertEquals(sorted[sorted.length - 1 - i], maxHeap.poll());
+        }
+        assertTrue(minHeap.isEmpty());
+    }
+
+    @Test
+    public void testPayloads() throws Exception {
+        LongHeap heap = new LongHeap(HeapType.MAX_HEAP, 1, WITH_PAYLOAD);
+        heap.insert(Long.MIN_VALUE, 1);
+        heap.insert(Long.MAX_VALUE, 2);
+        heap.insert(0L, 3);
+        assertEquals(Long.MAX_VALUE, heap.peek());
+        assertEquals(2, heap.pollPayload());
+        assertEquals(3, heap.pollPayload());
+        assertEquals(1, heap.peekPayload());
+        assertEquals(Long.MIN_VALUE, heap.poll());
+    }
+
+    @Test(expected = HeapUnderflowException.class)
+    public void testPollEmptyHeap() throws Exception {
+        new LongHeap(HeapType.MIN_HEAP).poll();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testInsertWithoutPayload() {
+        new LongHeap(HeapType.MIN_HEAP, 1, WITH_PAYLOAD).insert(1L);
+    }
+}
@@ -0,0 +1,230 @@
+package com.melimelo.heap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.melimelo.heap.Heap.HeapType;
+import com.melimelo.heap.IMeldableHeap.Handle;
+
+/**
+ * Unit tests shared by the implementations of {@link IMeldableHeap}.
+ */
+public abstract class MeldableHeapTestBase<H extends IMeldableHeap<Integer, H>> {
+    private final int ELEMENTS_COUNT = 2000;
+
+    /**
+     * Create an empty heap.
+     *
+     * @param type the type of the heap.
+     * @return a new heap.
+     */
+    protected abstract H createHeap(HeapType type);
+
+    @Test
+    public void testCreateHeap() {
+        for (HeapType type : HeapType.values()) {
+            H heap = createHeap(type);
+            assertTrue(heap.isEmpty());
+            assertEquals(0, heap.size());
+            assertEquals(type, heap.type());
+            assertNull(heap.get());
+        }
+    }
+
+    @Test
+    public void testInsertAndDelete() throws Exception {
+        List<Integer> elements = randomElements(new Random(1));
+        for (HeapType type : HeapType.values()) {
+            H heap = createHeap(type);
+            for (Integer element : elements) {
+                heap.insert(element);
+            }
+            assertEquals(ELEMENTS_COUNT, heap.size());
+            assertEquals(sorted(elements, type), deleteAll(heap));
+        }
+    }
+
+    @Test
+    public void testMeld() throws Exception {
+        Random random = new Random(2);
+        for (HeapType type : HeapType.values()) {
+            H heap = createHeap(type);
+            List<Integer> elements = new ArrayList<Integer>();
+            for (int part = 0; part < 10; part++) {
+                H other = createHeap(type);
+                for (Integer element : randomElements(random).subList(0, 100 * part)) {
+                    other.insert(element);
+                    elements.add(element);
+                }
+                heap.meld(other);
+                assertTrue(other.isEmpty());
+                assertEquals(0, other.size());
+                assertEquals(elements.size(), heap.size());
+            }
+            heap.meld(heap);
+            assertEquals(sorted(elements, type), deleteAll(heap));
+        }
+    }
+
+    @Test
+    public void testHandlesSurviveMeld() throws Exception {
+        H heap = createHeap(HeapType.MIN_HEAP);
+        H other = createHeap(HeapType.MIN_HEAP);
+        heap.add(10);
+        Handle<Integer> handle = other.add(20);
+        other.add(30);
+        heap.meld(other);
+        heap.decreaseKey(handle, 5);
+        assertEquals(Integer.valueOf(5), heap.get());
+        assertEquals(Integer.valueOf(5), heap.delete());
+        assertFalse(handle.isValid());
+    }
+
+    @Test
+    public void testDecreaseKey() throws Exception {
+        Random random = new Random(3);
+        for (HeapType type : HeapType.values()) {
+            H heap = createHeap(type);
+            List<Handle<Integer>> handles = new ArrayList<Handle<Integer>>();
+            for (Integer element : randomElements(random)) {
+                handles.add(heap.add(element));
+            }
+            List<Integer> expected = new ArrayList<Integer>();
+            for (Handle<Integer> handle : handles) {
+                int element = handle.element();
+                if (random.nextBoolean()) {
+                    element += type.sign() * random.nextInt(ELEMENTS_COUNT);
+                    heap.decreaseKey(handle, element);
+                }
+                assertEquals(Integer.valueOf(element), handle.element());
+                expected.add(element);
+            }
+            assertEquals(sorted(expected, type), deleteAll(heap));
+            for (Handle<Integer> handle : handles) {
+                assertFalse(handle.isValid());
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIncreaseKey() {
+        H heap = createHeap(HeapType.MIN_HEAP);
+        heap.decreaseKey(heap.add(1), 2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecreaseKeyOfDeletedElement() throws Exception {
+        H heap = createHeap(HeapType.MIN_HEAP);
+        Handle<Integer> handle = heap.add(1);
+        heap.delete();
+        heap.decreaseKey(handle, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecreaseKeyWithForeignHandle() {
+        H heap = createHeap(HeapType.MIN_HEAP);
+        H other = createHeap(HeapType.MIN_HEAP);
+        heap.add(10);
+        Handle<Integer> handle = other.add(20);
+        heap.decreaseKey(handle, 5);
+    }
+
+    @Test
+    public void testHandlesFollowSuccessiveMelds() throws Exception {
+        H first = createHeap(HeapType.MIN_HEAP);
+        H second = createHeap(HeapType.MIN_HEAP);
+        H third = createHeap(HeapType.MIN_HEAP);
+        Handle<Integer> handle = first.add(30);
+        second.add(20);
+        third.add(10);
+        second.meld(first);
+        third.meld(second);
+        try {
+            first.decreaseKey(handle, 5);
+            fail("The handle was moved to another heap");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            second.decreaseKey(handle, 5);
+            fail("The handle was moved to another heap");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        // the emptied heaps own the elements inserted afterwards.
+        Handle<Integer> newHandle = first.add(40);
+        first.decreaseKey(newHandle, 35);
+        third.decreaseKey(handle, 5);
+        assertEquals(Integer.valueOf(5), third.delete());
+        assertEquals(Integer.valueOf(35), first.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMeldDifferentTypes() {
+        createHeap(HeapType.MIN_HEAP).meld(createHeap(HeapType.MAX_HEAP));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInsertNull() throws Exception {
+        createHeap(HeapType.MIN_HEAP).insert(null);
+    }
+
+    @Test(expected = HeapUnderflowException.class)
+    public void testDeleteFromEmptyHeap() throws Exception {
+        createHeap(HeapType.MAX_HEAP).delete();
+    }
+
+    /**
+     * @param random the random generator.
+     * @return random elements, with duplicates.
+     */
+    private List<Integer> randomElements(final Random random) {
+        List<Integer> elements = new ArrayList<Integer>();
+        for (int i = 0; i < ELEMENTS_COUNT; i++) {
+            elements.add(random.nextInt(ELEMENTS_COUNT));
+        }
+        return elements;
+    }
+
+    /**
+     * Sort elements in the order of a heap type.
+     *
+     * @param elements the elements to sort.
+     * @param type the heap type.
+     * @return the elements sorted.
+     */
+    private List<Integer> sorted(final List<Integer> elements, final HeapType type) {
+        List<Integer> sorted = new ArrayList<Integer>(elements);
+        Collections.sort(sorted);
+        if (type == HeapType.MAX_HEAP) {
+            Collections.reverse(sorted);
+        }
+        return sorted;
+    }
+
+    /**
+     * Delete all the elements of a heap.
+     *
+     * @param heap the heap to empty.
+     * @return the elements deleted.
+     */
+    private List<Integer> deleteAll(final H heap) throws HeapUnderflowException {
+        List<Integer> elements = new ArrayList<Integer>();
+        while (!heap.isEmpty()) {
+            Integer top = heap.get();
+            Integer deleted = heap.delete();
+            assertEquals(top, deleted);
+            elements.add(deleted);
+        }
+        return elements;
+    }
+}
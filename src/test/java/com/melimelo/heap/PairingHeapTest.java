@@ -0,0 +1,14 @@
+package com.melimelo.heap;
+
+import com.melimelo.heap.Heap.HeapType;
+
+/**
+ * PairingHeap unit tests.
+ */
+public class PairingHeapTest extends MeldableHeapTestBase<PairingHeap<Integer>> {
+
+    @Override
+    protected PairingHeap<Integer> createHeap(final HeapType type) {
+        return new PairingHeap<Integer>(type);
+    }
+}
@@ -0,0 +1,104 @@
+package com.melimelo.heap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.melimelo.heap.HeapUnderflowException;
+import com.melimelo.heap.RadixHeap;
+
+/**
+ * RadixHeap unit tests.
+ */
+public class RadixHeapTest {
+    private final int ELEMENTS_COUNT = 10000;
+
+    @Test
+    public void testInsertAndPoll() throws Exception {
+        Random random = new Random(ELEMENTS_COUNT);
+        RadixHeap heap = new RadixHeap();
+        PriorityQueue<Long> expected = new PriorityQueue<Long>();
+        for (int i = 0; i < ELEMENTS_COUNT; i++) {
+            long key = random.nextLong() & Long.MAX_VALUE;
+            heap.insert(key, i);
+            expected.add(key);
+        }
+        while (!expected.isEmpty()) {
+            assertEquals(expected.size(), heap.size());
+            assertEquals(expected.poll().longValue(), heap.poll());
+        }
+        assertTrue(heap.isEmpty());
+    }
+
+    @Test
+    public void testMonotoneInsertions() throws Exception {
+        // insert keys above the last key polled, like Dijkstra's algorithm.
+        Random random = new Random(1);
+        RadixHeap heap = new RadixHeap();
+        PriorityQueue<Long> expected = new PriorityQueue<Long>();
+        heap.insert(0, 0);
+        expected.add(0L);
+        for (int i = 1; i < ELEMENTS_COUNT; i++) {
+            long last = heap.poll();
+            assertEquals(expected.poll().longValue(), last);
+            for (int j = random.nextInt(3); j >= 0; j--) {
+                long key = last + random.nextInt(100);
+                heap.insert(key, i);
+                expected.add(key);
+            }
+        }
+        while (!expected.isEmpty()) {
+            assertEquals(expected.poll().longValue(), heap.poll());
+        }
+    }
+
+    @Test
+    public void testPayloads() throws Exception {
+        RadixHeap heap = new RadixHeap();
+        heap.insert(Long.MAX_VALUE, 1);
+        heap.insert(7, 2);
+        heap.insert(3, 3);
+        assertEquals(3, heap.peek());
+        assertEquals(3, heap.peekPayload());
+        assertEquals(3, heap.pollPayload());
+        heap.insert(3, 4);
+        assertEquals(4, heap.pollPayload());
+        assertEquals(2, heap.pollPayload());
+        assertEquals(Long.MAX_VALUE, heap.peek());
+        assertEquals(1, heap.pollPayload());
+        assertEquals(Long.MAX_VALUE, heap.lastKey());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInsertSmallerThanLastKey() throws Exception {
+        RadixHeap heap = new RadixHeap();
+        heap.insert(5, 0);
+        heap.poll();
+        heap.insert(4, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInsertNegativeKey() {
+        new RadixHeap().insert(-1, 0);
+    }
+
+    @Test
+    public void testClear() throws Exception {
+        RadixHeap heap = new RadixHeap();
+        heap.insert(5, 0);
+        heap.poll();
+        heap.insert(6, 0);
+        heap.clear();
+        assertTrue(heap.isEmpty());
+        heap.insert(1, 2);
+        assertEquals(1, heap.poll());
+    }
+
+    @Test(expected = HeapUnderflowException.class)
+    public void testPollEmptyHeap() throws Exception {
+        new RadixHeap().poll();
+    }
+}
@@ -0,0 +1,114 @@
+package com.melimelo.heap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.melimelo.heap.Heap.HeapType;
+import com.melimelo.heap.TopK;
+
+/**
+ * TopK unit tests.
+ */
+public class TopKTest {
+    private final int ELEMENTS_COUNT = 10000;
+    private final int K = 10;
+
+    @Test
+    public void testTopK() {
+        List<Integer> elements = randomElements(new Random(ELEMENTS_COUNT));
+        for (HeapType type : HeapType.values()) {
+            TopK<Integer> topK = new TopK<Integer>(type, K);
+            assertNull(topK.threshold());
+            topK.offerAll(elements);
+            assertEquals(K, topK.size());
+            assertEquals(expected(elements, type), topK.toSortedList());
+            assertEquals(topK.toSortedList().get(K - 1), topK.threshold());
+        }
+    }
+
+    @Test
+    public void testOfferRejectsNonQualifyingElements() {
+        TopK<Integer> topK = new TopK<Integer>(HeapType.MAX_HEAP, 2);
+        assertTrue(topK.offer(5));
+        assertTrue(topK.offer(7));
+        assertFalse(topK.offer(3));
+        assertFalse(topK.offer(5));
+        assertTrue(topK.offer(6));
+        assertEquals(Integer.valueOf(6), topK.threshold());
+    }
+
+    @Test
+    public void testFewerElementsThanK() {
+        TopK<Integer> topK = new TopK<Integer>(HeapType.MIN_HEAP, K);
+        topK.offer(3);
+        topK.offer(1);
+        assertEquals(2, topK.size());
+        assertEquals(java.util.Arrays.asList(1, 3), topK.toSortedList());
+    }
+
+    @Test
+    public void testMerge() {
+        Random random = new Random(K);
+        for (HeapType type : HeapType.values()) {
+            List<Integer> all = new ArrayList<Integer>();
+            TopK<Integer> merged = new TopK<Integer>(type, K);
+            for (int part = 0; part < 4; part++) {
+                List<Integer> elements = randomElements(random);
+                all.addAll(elements);
+                TopK<Integer> topK = new TopK<Integer>(type, K);
+                topK.offerAll(elements);
+                merged.merge(topK);
+            }
+            assertEquals(expected(all, type), merged.toSortedList());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMergeDifferentK() {
+        new TopK<Integer>(HeapType.MIN_HEAP, K).merge(new TopK<Integer>(HeapType.MIN_HEAP, K + 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCreateWithInvalidK() {
+        new TopK<Integer>(HeapType.MIN_HEAP, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOfferNull() {
+        new TopK<Integer>(HeapType.MIN_HEAP, K).offer(null);
+    }
+
+    /**
+     * @param random the random generator.
+     * @return random elements, with duplicates.
+     */
+    private List<Integer> randomElements(final Random random) {
+        List<Integer> elements = new ArrayList<Integer>();
+        for (int i = 0; i < ELEMENTS_COUNT; i++) {
+            elements.add(random.nextInt(ELEMENTS_COUNT));
+        }
+        return elements;
+    }
+
+    /**
+     * @param elements the elements.
+     * @param type the heap type.
+     * @return the K first elements according to the heap type.
+     */
+    private List<Integer> expected(final List<Integer> elements, final HeapType type) {
+        List<Integer> sorted = new ArrayList<Integer>(elements);
+        Collections.sort(sorted);
+        if (type == HeapType.MAX_HEAP) {
+            Collections.reverse(sorted);
+        }
+        return sorted.subList(0, K);
+    }
+}